@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssta.quiz.common.ApiResponse;
+import com.ssta.quiz.leaderboard.Leaderboard;
+import com.ssta.quiz.leaderboard.LeaderboardDelta;
+import com.ssta.quiz.leaderboard.LeaderboardDeltaEncoder;
+import com.ssta.quiz.leaderboard.LeaderboardUpdate;
+import com.ssta.quiz.playeranswer.PendingAnswer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of the game's messages with a plain {@link ObjectMapper}, as configured in
+ * JacksonConfig: the question reveal, a scores keyframe and delta for a top 10, the player count,
+ * and the response to an accepted answer.
+ * <p>
+ * Broadcasts are encoded once per quiz, so these bound the tick rather than the fan-out; the answer
+ * response is encoded once per answer.  The gc profiler's {@code gc.alloc.rate.norm} shows the
+ * garbage each message leaves behind.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class GameMessageJsonBenchmark {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private QuestionReveal question;
+  private LeaderboardDelta keyframe;
+  private LeaderboardDelta delta;
+  private PlayerCountUpdate playerCount;
+  private ApiResponse<PendingAnswer> answer;
+
+  @Setup(Level.Trial)
+  public void messages() {
+    question = new QuestionReveal(42L, 2, 456L, "Which is the largest ocean on Earth?", null,
+        List.of("Atlantic", "Indian", "Pacific", "Arctic"), 20_000, 1_751_472_615_123L);
+
+    List<Leaderboard.Entry> top = new ArrayList<>();
+    List<Leaderboard.Entry> moved = new ArrayList<>();
+    for (int rank = 1; rank <= 10; rank++) {
+      top.add(new Leaderboard.Entry(rank, 1_000_000L + rank, 10_000 - rank * 250));
+      // Second and third swap places and a new player takes tenth
+      long playerId = rank == 2 ? 1_000_003L : rank == 3 ? 1_000_002L : rank == 10 ? 1_000_099L : 1_000_000L + rank;
+      moved.add(new Leaderboard.Entry(rank, playerId, 10_000 - rank * 250 + 100));
+    }
+    LeaderboardDeltaEncoder encoder = new LeaderboardDeltaEncoder(42L);
+    keyframe = encoder.encode(new LeaderboardUpdate(42L, 1, 5_000, top), true);
+    delta = encoder.encode(new LeaderboardUpdate(42L, 2, 5_000, moved), false);
+
+    playerCount = new PlayerCountUpdate(42L, 5_000);
+    answer = ApiResponse.success("Answer accepted", new PendingAnswer(123L, 1_000_001L, 456L, 2, true, 3_412, null));
+  }
+
+  @Benchmark
+  public byte[] questionReveal() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(question);
+  }
+
+  @Benchmark
+  public byte[] scoresKeyframe() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(keyframe);
+  }
+
+  @Benchmark
+  public byte[] scoresDelta() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(delta);
+  }
+
+  @Benchmark
+  public byte[] playerCount() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(playerCount);
+  }
+
+  @Benchmark
+  public byte[] answerAccepted() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(answer);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Open session that discards what is sent to it, so benchmarks measure encoding and fan-out
+ * rather than network writes.
+ */
+class NoOpWebSocketSession implements WebSocketSession {
+
+  private final String id;
+  private final Map<String, Object> attributes = new HashMap<>();
+  /* Read by nobody, but keeps the JIT from discarding the messages */
+  long sentBytes;
+
+  NoOpWebSocketSession(String id) {
+    this.id = id;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public URI getUri() {
+    return null;
+  }
+
+  @Override
+  public HttpHeaders getHandshakeHeaders() {
+    return HttpHeaders.EMPTY;
+  }
+
+  @Override
+  public Map<String, Object> getAttributes() {
+    return attributes;
+  }
+
+  @Override
+  public Principal getPrincipal() {
+    return null;
+  }
+
+  @Override
+  public InetSocketAddress getLocalAddress() {
+    return null;
+  }
+
+  @Override
+  public InetSocketAddress getRemoteAddress() {
+    return null;
+  }
+
+  @Override
+  public String getAcceptedProtocol() {
+    return "v12.stomp";
+  }
+
+  @Override
+  public void setTextMessageSizeLimit(int messageSizeLimit) {
+  }
+
+  @Override
+  public int getTextMessageSizeLimit() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+  }
+
+  @Override
+  public int getBinaryMessageSizeLimit() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public List<WebSocketExtension> getExtensions() {
+    return List.of();
+  }
+
+  @Override
+  public void sendMessage(WebSocketMessage<?> message) {
+    sentBytes += message.getPayloadLength();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return true;
+  }
+
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public void close(CloseStatus status) {
+  }
+}
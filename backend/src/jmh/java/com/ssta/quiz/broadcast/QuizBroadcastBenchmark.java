@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ssta.quiz.leaderboard.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares one broadcast to a quiz topic through today's path (SimpMessagingTemplate, simple
+ * broker, STOMP encoder per session) with {@link QuizBroadcaster}'s shared frame.
+ * <p>
+ * Scores are broadcasts per second; multiply by {@code subscribers} for messages per second.  The
+ * gc profiler configured in build.gradle reports {@code gc.alloc.rate.norm}, the bytes allocated
+ * per broadcast.  Both paths use the same broker subscriptions and discard the written frames.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QuizBroadcastBenchmark {
+
+  private static final String DESTINATION = "/topic/quiz/1/scores";
+  private static final byte[] NO_PAYLOAD = new byte[0];
+
+  @Param({"1000", "10000", "50000"})
+  public int subscribers;
+
+  private SimpleBrokerMessageHandler broker;
+  private SimpMessagingTemplate template;
+  private QuizBroadcaster broadcaster;
+  private List<Leaderboard.Entry> payload;
+
+  @Setup
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    Map<String, NoOpWebSocketSession> sessions = new HashMap<>();
+    BroadcastSessionRegistry sessionRegistry = new BroadcastSessionRegistry(new BroadcastProperties());
+
+    ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+    ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+    ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    QuizSubscriptionRegistry subscriptionRegistry = new QuizSubscriptionRegistry();
+    broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic"));
+    broker.setSubscriptionRegistry(subscriptionRegistry);
+    broker.start();
+
+    // What SubProtocolWebSocketHandler does with each message the broker sends to a session
+    StompSubProtocolHandler stompHandler = new StompSubProtocolHandler();
+    clientOutbound.subscribe(message -> {
+      if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+        stompHandler.handleMessageToClient(sessions.get(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())), message);
+      }
+    });
+
+    for (int i = 0; i < subscribers; i++) {
+      String sessionId = "s" + i;
+      NoOpWebSocketSession session = new NoOpWebSocketSession(sessionId);
+      sessions.put(sessionId, session);
+      sessionRegistry.register(session);
+      broker.handleMessage(brokerMessage(SimpMessageType.CONNECT, sessionId, null));
+      broker.handleMessage(brokerMessage(SimpMessageType.SUBSCRIBE, sessionId, DESTINATION));
+    }
+
+    MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+    converter.setObjectMapper(objectMapper);
+    template = new SimpMessagingTemplate(brokerChannel);
+    template.setMessageConverter(converter);
+
+    broadcaster = new QuizBroadcaster(objectMapper, sessionRegistry, subscriptionRegistry);
+
+    payload = new ArrayList<>();
+    for (int rank = 1; rank <= 10; rank++) {
+      payload.add(new Leaderboard.Entry(rank, 1000L + rank, 10_000 - rank * 350));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    broker.stop();
+  }
+
+  @Benchmark
+  public void brokerPath() {
+    template.convertAndSend(DESTINATION, payload);
+  }
+
+  @Benchmark
+  public int sharedFrame() {
+    return broadcaster.broadcast(DESTINATION, payload);
+  }
+
+  private static Message<byte[]> brokerMessage(SimpMessageType type, String sessionId, String destination) {
+    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+    accessor.setSessionId(sessionId);
+    if (type == SimpMessageType.CONNECT) {
+      accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] {0, 0});
+    }
+    if (destination != null) {
+      accessor.setSubscriptionId("scores");
+      accessor.setDestination(destination);
+    }
+    return MessageBuilder.createMessage(NO_PAYLOAD, accessor.getMessageHeaders());
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish latency through the simple broker, and subscribe/unsubscribe cost, with Spring's default
+ * registry and with {@link QuizSubscriptionRegistry}, as the number of active quizzes grows.
+ * <p>
+ * Each quiz has {@code PLAYERS_PER_QUIZ} sessions subscribed to its {@code CHANNELS}.  A publish
+ * goes to a random quiz's scores topic; the broker's outbound channel has no subscribers, so the
+ * cost measured is the registry lookup plus the broker's per-subscriber message building, which is
+ * the same for both registries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuizSubscriptionRegistryBenchmark {
+
+  private static final String[] CHANNELS = {"state", "question", "scores", "distribution"};
+  private static final int PLAYERS_PER_QUIZ = 20;
+  private static final byte[] PAYLOAD = "{}".getBytes();
+
+  @Param({"10", "100", "1000", "5000"})
+  public int quizzes;
+
+  @Param({"default", "quiz"})
+  public String registry;
+
+  private SimpleBrokerMessageHandler broker;
+  private SubscriptionRegistry subscriptionRegistry;
+  private Message<byte[]>[] publishes;
+  private Message<byte[]> joinSubscribe;
+  private Message<byte[]> joinUnsubscribe;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    subscriptionRegistry = "quiz".equals(registry) ? new QuizSubscriptionRegistry() : new DefaultSubscriptionRegistry();
+    broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), new ExecutorSubscribableChannel(),
+        new ExecutorSubscribableChannel(), List.of("/topic"));
+    broker.setSubscriptionRegistry(subscriptionRegistry);
+    broker.start();
+
+    publishes = new Message[quizzes];
+    for (int quiz = 0; quiz < quizzes; quiz++) {
+      for (int player = 0; player < PLAYERS_PER_QUIZ; player++) {
+        String sessionId = quiz + "-" + player;
+        broker.handleMessage(message(SimpMessageType.CONNECT, sessionId, null, null));
+        for (String channel : CHANNELS) {
+          broker.handleMessage(message(SimpMessageType.SUBSCRIBE, sessionId, channel, "/topic/quiz/" + quiz + "/" + channel));
+        }
+      }
+      publishes[quiz] = message(SimpMessageType.MESSAGE, null, null, "/topic/quiz/" + quiz + "/scores");
+    }
+    joinSubscribe = message(SimpMessageType.SUBSCRIBE, "joiner", "scores", "/topic/quiz/0/scores");
+    joinUnsubscribe = message(SimpMessageType.UNSUBSCRIBE, "joiner", "scores", null);
+  }
+
+  @TearDown
+  public void tearDown() {
+    broker.stop();
+  }
+
+  @Benchmark
+  public void publish() {
+    broker.handleMessage(publishes[ThreadLocalRandom.current().nextInt(quizzes)]);
+  }
+
+  @Benchmark
+  public void subscribeAndUnsubscribe() {
+    subscriptionRegistry.registerSubscription(joinSubscribe);
+    subscriptionRegistry.unregisterSubscription(joinUnsubscribe);
+  }
+
+  private static Message<byte[]> message(SimpMessageType type, String sessionId, String subscriptionId, String destination) {
+    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+    if (sessionId != null) {
+      accessor.setSessionId(sessionId);
+    }
+    if (type == SimpMessageType.CONNECT) {
+      accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] {0, 0});
+    }
+    if (subscriptionId != null) {
+      accessor.setSubscriptionId(subscriptionId);
+    }
+    if (destination != null) {
+      accessor.setDestination(destination);
+    }
+    return MessageBuilder.createMessage(PAYLOAD, accessor.getMessageHeaders());
+  }
+}
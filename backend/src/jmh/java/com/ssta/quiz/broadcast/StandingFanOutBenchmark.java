@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.leaderboard.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Personalised standings fan-out for one quiz where every player is subscribed to
+ * {@code /user/queue/standing}.
+ * <p>
+ * {@code fullFanOut} encodes and sends a standing to every player, as on the tick after a question
+ * is scored.  {@code incrementalTick} records a handful of answers first and only sends the
+ * standings that changed, as on a typical tick while answers trickle in.  Scores are ticks per
+ * second; the gc profiler reports bytes allocated per tick.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StandingFanOutBenchmark {
+
+  private static final long QUIZ_ID = 1L;
+  private static final int ANSWERS_PER_TICK = 20;
+
+  @Param({"1000", "20000", "50000"})
+  public int players;
+
+  private Leaderboard leaderboard;
+  private StandingPublisher publisher;
+  private final SplittableRandom random = new SplittableRandom(42);
+
+  @Setup
+  public void setUp() {
+    BroadcastSessionRegistry sessions = new BroadcastSessionRegistry(new BroadcastProperties());
+    StandingSubscriptions subscriptions = new StandingSubscriptions();
+    leaderboard = new Leaderboard(QUIZ_ID);
+    for (long player = 0; player < players; player++) {
+      String sessionId = "s" + player;
+      sessions.register(new NoOpWebSocketSession(sessionId));
+      subscriptions.add(QUIZ_ID, sessionId, "standing", player);
+      leaderboard.recordAnswer(player, random.nextInt(10_000), random.nextInt(20_000));
+    }
+    publisher = new StandingPublisher(subscriptions, sessions, new BroadcastProperties());
+    publisher.publish(QUIZ_ID, leaderboard, true);
+  }
+
+  @Benchmark
+  public int fullFanOut() {
+    return publisher.publish(QUIZ_ID, leaderboard, true);
+  }
+
+  @Benchmark
+  public int incrementalTick() {
+    for (int i = 0; i < ANSWERS_PER_TICK; i++) {
+      leaderboard.recordAnswer(random.nextLong(players), random.nextInt(1000), random.nextInt(20_000));
+    }
+    return publisher.publish(QUIZ_ID, leaderboard);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.config;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a burst of {@code submissions} concurrent answer submissions, handled either by a
+ * platform thread pool the size of Tomcat's default (200) or by one virtual thread each.
+ * <p>
+ * Each submission blocks for {@code ioMillis} outside a transaction (reading the request, remote
+ * calls), then holds one of {@code poolSize} connections for {@code transactionMillis}, the way a
+ * DIRECT mode answer holds a HikariCP connection; {@code transactionMillis = 0} is a WRITE_BEHIND
+ * answer, which takes no connection.  The connection pool is a fair semaphore, so this isolates
+ * the threading model from the database.
+ * <p>
+ * Each iteration is one burst.  The score is the time for the whole burst; the {@code p50Micros}
+ * and {@code p99Micros} secondary results are submission latency percentiles within it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class VirtualThreadAnswerBenchmark {
+
+  private static final int TOMCAT_MAX_THREADS = 200;
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  @Param({"10000"})
+  public int submissions;
+
+  @Param({"10"})
+  public int poolSize;
+
+  @Param({"5"})
+  public int ioMillis;
+
+  @Param({"0", "1"})
+  public int transactionMillis;
+
+  private ExecutorService executor;
+  private Semaphore connections;
+  private long[] latencies;
+
+  @Setup
+  public void setUp() {
+    executor = "virtual".equals(threads)
+        ? Executors.newVirtualThreadPerTaskExecutor()
+        : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    connections = new Semaphore(poolSize, true);
+    latencies = new long[submissions];
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public void burst(Latency latency) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(submissions);
+    long start = System.nanoTime();
+    for (int i = 0; i < submissions; i++) {
+      int submission = i;
+      executor.execute(() -> {
+        submit();
+        latencies[submission] = System.nanoTime() - start;
+        done.countDown();
+      });
+    }
+    done.await();
+
+    Arrays.sort(latencies);
+    latency.p50Micros = TimeUnit.NANOSECONDS.toMicros(latencies[submissions / 2]);
+    latency.p99Micros = TimeUnit.NANOSECONDS.toMicros(latencies[(int) (submissions * 0.99)]);
+  }
+
+  private void submit() {
+    try {
+      Thread.sleep(ioMillis);
+      if (transactionMillis == 0) {
+        return;
+      }
+      connections.acquire();
+      try {
+        Thread.sleep(transactionMillis);
+      } finally {
+        connections.release();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Latency percentiles of the last burst, reported by JMH as secondary results.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Latency {
+    public long p50Micros;
+    public long p99Micros;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      p50Micros = 0;
+      p99Micros = 0;
+    }
+  }
+}
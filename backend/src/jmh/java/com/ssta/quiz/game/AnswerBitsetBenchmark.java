@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the "already answered?" check when {@code players} players answer one question
+ * from several threads at once.
+ * <p>
+ * {@code bitsetClaim} is the engine's path: slot lookup plus an atomic test-and-set on the
+ * question's {@link AnswerBitset}.  {@code bitsetTestAndSet} is the test-and-set alone, and
+ * {@code concurrentSetAdd} is the same check kept as a set of player IDs, for comparison.  Players
+ * are drawn at random (the draw is part of every score), so threads regularly hit the same
+ * 64-slot word.  The answered state is
+ * reset every iteration; once every player has answered, calls measure rejected duplicates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class AnswerBitsetBenchmark {
+
+  @Param({"50000"})
+  public int players;
+
+  private PlayerSlots slots;
+  private AnswerBitset bitset;
+  private Set<Long> answered;
+
+  @Setup(Level.Trial)
+  public void joinPlayers() {
+    slots = new PlayerSlots();
+    for (long player = 0; player < players; player++) {
+      slots.slotOf(1_000_000L + player);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void openQuestion() {
+    bitset = new AnswerBitset();
+    answered = ConcurrentHashMap.newKeySet(players);
+  }
+
+  @State(Scope.Thread)
+  public static class Player {
+    final SplittableRandom random = new SplittableRandom();
+  }
+
+  @Benchmark
+  public boolean bitsetTestAndSet(Player player) {
+    return bitset.testAndSet(player.random.nextInt(players));
+  }
+
+  @Benchmark
+  public boolean bitsetClaim(Player player) {
+    return bitset.testAndSet(slots.slotOf(1_000_000L + player.random.nextInt(players)));
+  }
+
+  @Benchmark
+  public boolean concurrentSetAdd(Player player) {
+    return answered.add(1_000_000L + player.random.nextInt(players));
+  }
+}
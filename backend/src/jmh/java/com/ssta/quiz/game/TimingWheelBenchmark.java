@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The game engine's {@link TimingWheel} with {@code pending} timeouts already waiting an hour out,
+ * as when many quizzes have long questions open.
+ * <p>
+ * {@code scheduleAndCancel} is the cost of timing one step and cancelling it again, which happens
+ * whenever a quizmaster closes a question early; it should not change with {@code pending}.
+ * {@code closeWindows} closes the windows of {@code quizzes} quizzes whose questions opened over
+ * one second, with a 1 ms tick.  Its score is the time until the last one closed, and the
+ * {@code p50Micros}, {@code p99Micros} and {@code maxMicros} secondary results are how late each
+ * close ran after its deadline.  A close never runs early.
+ */
+@State(Scope.Benchmark)
+public class TimingWheelBenchmark {
+
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+  private static final long SPREAD_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final Runnable NOTHING = () -> {
+  };
+
+  @Param({"1000", "10000", "100000"})
+  public int pending;
+
+  @Param({"10000"})
+  public int quizzes;
+
+  private TimingWheel wheel;
+  private long[] lateness;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    wheel = new TimingWheel("benchmark-timer", TICK_NANOS);
+    wheel.start();
+    long deadline = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+    for (int i = 0; i < pending; i++) {
+      wheel.schedule(deadline + i, NOTHING);
+    }
+    lateness = new long[quizzes];
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    wheel.stop();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public boolean scheduleAndCancel() {
+    return wheel.schedule(System.nanoTime() + WINDOW_NANOS, NOTHING).cancel();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public void closeWindows(Lateness result) throws InterruptedException {
+    CountDownLatch closed = new CountDownLatch(quizzes);
+    long start = System.nanoTime();
+    for (int i = 0; i < quizzes; i++) {
+      int quiz = i;
+      long deadline = start + WINDOW_NANOS + SPREAD_NANOS * i / quizzes;
+      wheel.schedule(deadline, () -> {
+        lateness[quiz] = System.nanoTime() - deadline;
+        closed.countDown();
+      });
+    }
+    closed.await();
+
+    Arrays.sort(lateness);
+    result.p50Micros = TimeUnit.NANOSECONDS.toMicros(lateness[quizzes / 2]);
+    result.p99Micros = TimeUnit.NANOSECONDS.toMicros(lateness[(int) (quizzes * 0.99)]);
+    result.maxMicros = TimeUnit.NANOSECONDS.toMicros(lateness[quizzes - 1]);
+  }
+
+  /**
+   * Lateness percentiles of the last round of closes, reported by JMH as secondary results.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Lateness {
+    public long p50Micros;
+    public long p99Micros;
+    public long maxMicros;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      p50Micros = 0;
+      p99Micros = 0;
+      maxMicros = 0;
+    }
+  }
+}
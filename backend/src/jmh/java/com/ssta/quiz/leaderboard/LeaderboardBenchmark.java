@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard operations on a board of {@code players} players, on one thread.
+ * <p>
+ * {@code recordAnswer} is what every scored answer costs: a score change that moves the player in
+ * the rank tree.  {@code rankOf}, {@code top10} and {@code around} are the reads behind the scores
+ * broadcast and each player's standing.  The board is rebuilt every iteration so its scores do not
+ * drift far from a real quiz's.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class LeaderboardBenchmark {
+
+  private static final long FIRST_PLAYER = 1_000_000L;
+
+  @Param({"1000", "50000"})
+  public int players;
+
+  private final SplittableRandom random = new SplittableRandom(42);
+  private Leaderboard leaderboard;
+
+  @Setup(Level.Iteration)
+  public void board() {
+    leaderboard = new Leaderboard(1L, players);
+    for (int i = 0; i < players; i++) {
+      leaderboard.put(FIRST_PLAYER + i, random.nextInt(10_000), random.nextInt(100_000));
+    }
+  }
+
+  private long anyPlayer() {
+    return FIRST_PLAYER + random.nextInt(players);
+  }
+
+  @Benchmark
+  public void recordAnswer() {
+    leaderboard.recordAnswer(anyPlayer(), random.nextInt(1_000), random.nextInt(20_000));
+  }
+
+  @Benchmark
+  public int rankOf() {
+    return leaderboard.rankOf(anyPlayer());
+  }
+
+  @Benchmark
+  public LeaderboardUpdate top10() {
+    return leaderboard.update(10);
+  }
+
+  @Benchmark
+  public List<Leaderboard.Entry> around() {
+    return leaderboard.around(anyPlayer(), 2);
+  }
+}
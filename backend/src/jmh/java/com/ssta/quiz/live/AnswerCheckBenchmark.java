@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+import com.ssta.quiz.question.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The correctness check on the answer path: map the answer's question ID to its position in the
+ * {@link LiveQuizSnapshot}, then compare the chosen option with the correct one.
+ * <p>
+ * One operation is one answer, on one thread.  {@code isCorrect} is the comparison alone and
+ * {@code positionAndIsCorrect} includes the ID lookup.  Neither should allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class AnswerCheckBenchmark {
+
+  private static final int ANSWERS = 4096;
+
+  @Param({"10", "100"})
+  public int questions;
+
+  private final long[] questionIds = new long[ANSWERS];
+  private final int[] positions = new int[ANSWERS];
+  private final int[] answerOptions = new int[ANSWERS];
+  private LiveQuizSnapshot snapshot;
+
+  @Setup(Level.Trial)
+  public void quiz() {
+    SplittableRandom random = new SplittableRandom(42);
+    List<Question> list = new ArrayList<>(questions);
+    for (int i = 0; i < questions; i++) {
+      Question question = new Question();
+      // IDs in steps of the sequence's allocation size, as Hibernate hands them out
+      question.setId(1_000L + 50L * i);
+      question.setQuizId(1L);
+      question.setQuestionText("Question " + i);
+      question.setTimeLimit(20);
+      question.setOrderIndex(i);
+      int correct = random.nextInt(4);
+      question.setOptions("[{\"text\":\"A\",\"correct\":" + (correct == 0) + "},{\"text\":\"B\",\"correct\":"
+          + (correct == 1) + "},{\"text\":\"C\",\"correct\":" + (correct == 2) + "},{\"text\":\"D\",\"correct\":"
+          + (correct == 3) + "}]");
+      list.add(question);
+    }
+    snapshot = LiveQuizSnapshot.of(1L, list);
+    for (int i = 0; i < ANSWERS; i++) {
+      positions[i] = random.nextInt(questions);
+      questionIds[i] = snapshot.questionId(positions[i]);
+      answerOptions[i] = random.nextInt(4);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ANSWERS)
+  public int isCorrect() {
+    int correct = 0;
+    for (int i = 0; i < ANSWERS; i++) {
+      if (snapshot.isCorrect(positions[i], answerOptions[i])) {
+        correct++;
+      }
+    }
+    return correct;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ANSWERS)
+  public int positionAndIsCorrect() {
+    int correct = 0;
+    for (int i = 0; i < ANSWERS; i++) {
+      if (snapshot.isCorrect(snapshot.positionOf(questionIds[i]), answerOptions[i])) {
+        correct++;
+      }
+    }
+    return correct;
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.config.HibernateConfig;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One write-behind flush of {@code rows} answers to a question, written by each way of getting
+ * answers into player_answers:
+ * <ul>
+ *   <li>{@code saveAll}: {@link JpaAnswerBatchWriter}, Hibernate in JDBC batches of 50</li>
+ *   <li>{@code batchedInsert}: one JDBC batch of {@code INSERT ... ON CONFLICT DO NOTHING}, which
+ *   the driver rewrites into multi-row statements</li>
+ *   <li>{@code copy}: {@link CopyAnswerBatchWriter}, binary COPY into a staging table and a merge</li>
+ * </ul>
+ * The score is flushes per second; the {@code rows} secondary result is rows written per second.
+ * Runs against PostgreSQL in a container, migrated by Flyway, so it needs Docker.  The answers all
+ * go to one quiz's partition of player_answers, which is truncated before every flush.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(1)
+public class AnswerBatchWriterBenchmark {
+
+  private static final String INSERT = """
+      INSERT INTO player_answers (quiz_id, player_id, question_id, answer_option, correct, response_time_ms, score)
+      VALUES (?, ?, ?, ?, ?, ?, ?)
+      ON CONFLICT (player_id, question_id, quiz_id) DO NOTHING""";
+
+  @Param({"saveAll", "batchedInsert", "copy"})
+  public String writer;
+
+  @Param({"1000", "20000"})
+  public int rows;
+
+  private PostgreSQLContainer<?> database;
+  private ConfigurableApplicationContext context;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+  private AnswerBatchWriter answerBatchWriter;
+  private List<PendingAnswer> answers;
+
+  /**
+   * Just the persistence side of the application: data source, Flyway and JPA.
+   */
+  @SpringBootConfiguration
+  @EnableAutoConfiguration
+  @EntityScan(basePackages = "com.ssta.quiz")
+  @EnableJpaRepositories(basePackageClasses = PlayerAnswerRepository.class)
+  @EnableConfigurationProperties(AnswerIngestionProperties.class)
+  @Import(HibernateConfig.class)
+  static class Persistence {
+  }
+
+  @Setup(Level.Trial)
+  public void start() {
+    database = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.4"));
+    database.start();
+    context = new SpringApplicationBuilder(Persistence.class)
+        .web(WebApplicationType.NONE)
+        .run("--spring.datasource.url=" + database.getJdbcUrl(),
+            "--spring.datasource.username=" + database.getUsername(),
+            "--spring.datasource.password=" + database.getPassword(),
+            "--spring.jpa.show-sql=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN");
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    // Created outside the writer selection, so every writer can run in the same context
+    answerBatchWriter = switch (writer) {
+      case "saveAll" -> context.getAutowireCapableBeanFactory().createBean(JpaAnswerBatchWriter.class);
+      case "batchedInsert" -> this::batchedInsert;
+      case "copy" -> context.getAutowireCapableBeanFactory().createBean(CopyAnswerBatchWriter.class);
+      default -> throw new IllegalArgumentException("Unknown writer " + writer);
+    };
+    answers = seed();
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+    database.stop();
+  }
+
+  @Setup(Level.Invocation)
+  public void truncate() {
+    jdbcTemplate.execute("TRUNCATE player_answers");
+  }
+
+  /**
+   * Rows written, reported by JMH as a rate alongside the flush rate.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Rows {
+    public long rows;
+  }
+
+  @Benchmark
+  public void flush(Rows written) {
+    written.rows += answerBatchWriter.write(answers).size();
+  }
+
+  private List<PendingAnswer> batchedInsert(List<PendingAnswer> batch) {
+    int[][] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT, batch, batch.size(),
+        (PreparedStatement statement, PendingAnswer answer) -> {
+          statement.setLong(1, answer.quizId());
+          statement.setLong(2, answer.playerId());
+          statement.setLong(3, answer.questionId());
+          statement.setInt(4, answer.answerOption());
+          statement.setBoolean(5, answer.correct());
+          setNullableInt(statement, 6, answer.responseTimeMs());
+          setNullableInt(statement, 7, answer.score());
+        }));
+    List<PendingAnswer> written = new ArrayList<>(batch.size());
+    int index = 0;
+    for (int[] batchCounts : counts) {
+      for (int count : batchCounts) {
+        // Rewritten multi-row statements report SUCCESS_NO_INFO rather than a row count
+        if (count == Statement.SUCCESS_NO_INFO || count > 0) {
+          written.add(batch.get(index));
+        }
+        index++;
+      }
+    }
+    return written;
+  }
+
+  private static void setNullableInt(PreparedStatement statement, int index, Integer value) throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.INTEGER);
+    } else {
+      statement.setInt(index, value);
+    }
+  }
+
+  private List<PendingAnswer> seed() {
+    Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username) VALUES ('bench') RETURNING id", Long.class);
+    Long quizId = jdbcTemplate.queryForObject(
+        "INSERT INTO quizzes (title, user_id, status) VALUES ('Bench', ?, 'ACTIVE') RETURNING id", Long.class, userId);
+    Long questionId = jdbcTemplate.queryForObject("""
+        INSERT INTO questions (quiz_id, question_text, time_limit, order_index) VALUES (?, 'Question', 20, 0)
+        RETURNING id""", Long.class, quizId);
+    context.getAutowireCapableBeanFactory().createBean(PlayerAnswerPartitions.class).create(quizId);
+    jdbcTemplate.update("""
+        INSERT INTO players (nickname, quiz_id, session_id)
+        SELECT 'player' || g, ?, 'session' || g FROM generate_series(1, ?) g""", quizId, rows);
+    List<Long> playerIds = jdbcTemplate.queryForList("SELECT id FROM players WHERE quiz_id = ? ORDER BY id", Long.class,
+        quizId);
+
+    SplittableRandom random = new SplittableRandom(42);
+    List<PendingAnswer> seeded = new ArrayList<>(rows);
+    for (Long playerId : playerIds) {
+      int option = random.nextInt(4);
+      seeded.add(new PendingAnswer(quizId, playerId, questionId, option, option == 2, random.nextInt(20_000), null));
+    }
+    return seeded;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the options JSON of one question with {@link QuestionOptions#parse}, as happens once
+ * per question when it is loaded.  {@code fourOptions} is the common case of text-only options;
+ * {@code fourOptionsWithImages} gives every option an image URL.  A launch decodes every question
+ * of the quiz, so this bounds how fast a large quiz can be snapshotted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class QuestionOptionsBenchmark {
+
+  private static final String FOUR_OPTIONS = "[{\"text\":\"Atlantic\",\"correct\":false},"
+      + "{\"text\":\"Indian\",\"correct\":false},{\"text\":\"Pacific\",\"correct\":true},"
+      + "{\"text\":\"Arctic\",\"correct\":false}]";
+  private static final String FOUR_OPTIONS_WITH_IMAGES = "[{\"text\":\"Atlantic\",\"correct\":false,\"imageUrl\":\"/img/a.png\"},"
+      + "{\"text\":\"Indian\",\"correct\":false,\"imageUrl\":\"/img/b.png\"},"
+      + "{\"text\":\"Pacific\",\"correct\":true,\"imageUrl\":\"/img/c.png\"},"
+      + "{\"text\":\"Arctic\",\"correct\":false,\"imageUrl\":\"/img/d.png\"}]";
+
+  @Benchmark
+  public QuestionOptions fourOptions() {
+    return QuestionOptions.parse(FOUR_OPTIONS);
+  }
+
+  @Benchmark
+  public QuestionOptions fourOptionsWithImages() {
+    return QuestionOptions.parse(FOUR_OPTIONS_WITH_IMAGES);
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+import com.ssta.quiz.config.HibernateConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One search of a question bank of a million questions, by each way of searching it:
+ * <ul>
+ *   <li>{@code like}: the query this replaced, {@code LOWER(question_text) LIKE LOWER('%term%')} over
+ *   every user's questions, with the count query Spring Data ran alongside it for a page of 20</li>
+ *   <li>{@code likeScoped}: the same pair of queries over one user's questions, so it searches the
+ *   same rows as {@code search} and is the like-for-like comparison</li>
+ *   <li>{@code search}: {@link QuestionSearch}, 20 ranked results from one user's questions</li>
+ * </ul>
+ * The terms are a word of about 6% of questions, another form of it ("volcanoes", which stems to
+ * it) that only full-text search finds, and a misspelling of it ("volcnao", which stems to itself)
+ * that only the trigram index finds.  Every trial prints the plan of
+ * its query, so the indexes it uses (or the sequential scan) can be checked alongside the timings.
+ * <p>
+ * Runs against PostgreSQL in a container, migrated by Flyway, so it needs Docker.  Ten users own a
+ * thousand quizzes of a hundred questions each, seeded afresh for every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(1)
+public class QuestionSearchBenchmark {
+
+  private static final int USERS = 10;
+  private static final int QUIZZES_PER_USER = 1_000;
+  private static final int QUESTIONS_PER_QUIZ = 100;
+  private static final int PAGE_SIZE = 20;
+
+  private static final String LIKE = """
+      SELECT q.id, q.quiz_id, q.question_text FROM questions q
+      WHERE LOWER(q.question_text) LIKE LOWER(CONCAT('%', ?, '%'))
+      LIMIT ?""";
+
+  private static final String LIKE_COUNT = """
+      SELECT count(q.id) FROM questions q
+      WHERE LOWER(q.question_text) LIKE LOWER(CONCAT('%', ?, '%'))""";
+
+  private static final String LIKE_SCOPED = """
+      SELECT q.id, q.quiz_id, q.question_text FROM questions q
+      JOIN quizzes z ON z.id = q.quiz_id
+      WHERE z.user_id = ?
+        AND LOWER(q.question_text) LIKE LOWER(CONCAT('%', ?, '%'))
+      LIMIT ?""";
+
+  private static final String LIKE_SCOPED_COUNT = """
+      SELECT count(q.id) FROM questions q
+      JOIN quizzes z ON z.id = q.quiz_id
+      WHERE z.user_id = ?
+        AND LOWER(q.question_text) LIKE LOWER(CONCAT('%', ?, '%'))""";
+
+  private static final String WORDS = String.join(" ",
+      "capital", "river", "mountain", "ocean", "desert", "island", "country", "city", "planet", "star",
+      "galaxy", "element", "atom", "molecule", "cell", "protein", "gene", "species", "mammal", "reptile",
+      "insect", "bird", "fish", "forest", "glacier", "continent", "empire", "king", "queen", "war",
+      "treaty", "revolution", "painter", "composer", "novel", "poem", "film", "song", "album", "sport",
+      "team", "trophy", "record", "engine", "machine", "computer", "language", "number", "equation", "theory",
+      "volcano", "earthquake", "storm", "climate", "season", "currency", "market", "bridge", "tower", "castle",
+      "temple", "festival", "recipe", "cheese", "fruit", "vegetable", "spice", "drink", "medicine", "disease",
+      "organ", "muscle", "bone", "metal", "mineral", "crystal", "colour", "shape", "flag", "anthem",
+      "author", "inventor", "explorer", "scientist", "philosopher", "athlete", "actor", "director", "museum",
+      "library");
+
+  private static final String SEED_QUESTIONS = """
+      INSERT INTO questions (quiz_id, question_text, time_limit, order_index)
+      SELECT z.id,
+             'Which ' || (SELECT string_agg(words.w[1 + (hashint8(z.id * 1000 + g * 8 + k) & 2147483647)
+                                                      % cardinality(words.w)], ' ')
+                          FROM generate_series(1, 6) k) || '?',
+             20, g
+      FROM quizzes z,
+           generate_series(0, ? - 1) g,
+           (SELECT string_to_array(?, ' ') AS w) words""";
+
+  @Param({"like", "likeScoped", "search"})
+  public String query;
+
+  @Param({"volcano", "volcanoes", "volcnao"})
+  public String term;
+
+  private PostgreSQLContainer<?> database;
+  private ConfigurableApplicationContext context;
+  private JdbcTemplate jdbcTemplate;
+  private QuestionSearch questionSearch;
+  private long userId;
+
+  /**
+   * Just the persistence side of the application: data source, Flyway and JPA.
+   */
+  @SpringBootConfiguration
+  @EnableAutoConfiguration
+  @EntityScan(basePackages = "com.ssta.quiz")
+  @EnableJpaRepositories(basePackageClasses = QuestionRepository.class)
+  @Import(HibernateConfig.class)
+  static class Persistence {
+  }
+
+  @Setup(Level.Trial)
+  public void start() {
+    database = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.4"));
+    database.start();
+    context = new SpringApplicationBuilder(Persistence.class)
+        .web(WebApplicationType.NONE)
+        .run("--spring.datasource.url=" + database.getJdbcUrl(),
+            "--spring.datasource.username=" + database.getUsername(),
+            "--spring.datasource.password=" + database.getPassword(),
+            "--spring.jpa.show-sql=false",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN");
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+    questionSearch = context.getAutowireCapableBeanFactory().createBean(QuestionSearch.class);
+    userId = seed();
+    printPlan();
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+    database.stop();
+  }
+
+  @Benchmark
+  public void search(Blackhole blackhole) {
+    switch (query) {
+      case "like" -> {
+        blackhole.consume(jdbcTemplate.queryForList(LIKE, term, PAGE_SIZE));
+        blackhole.consume(jdbcTemplate.queryForObject(LIKE_COUNT, Long.class, term));
+      }
+      case "likeScoped" -> {
+        blackhole.consume(jdbcTemplate.queryForList(LIKE_SCOPED, userId, term, PAGE_SIZE));
+        blackhole.consume(jdbcTemplate.queryForObject(LIKE_SCOPED_COUNT, Long.class, userId, term));
+      }
+      default -> blackhole.consume(questionSearch.search(userId, term, PAGE_SIZE));
+    }
+  }
+
+  private void printPlan() {
+    List<String> plan = switch (query) {
+      case "like" -> explain(LIKE, term, PAGE_SIZE);
+      case "likeScoped" -> explain(LIKE_SCOPED, userId, term, PAGE_SIZE);
+      default -> explain(QuestionSearch.SEARCH,
+          term, term, userId, "%" + QuestionSearch.escapeLike(term) + "%", term, PAGE_SIZE);
+    };
+    System.out.println("Plan of " + query + " for '" + term + "':");
+    plan.forEach(line -> System.out.println("  " + line));
+  }
+
+  private List<String> explain(String sql, Object... args) {
+    return jdbcTemplate.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, String.class, args);
+  }
+
+  /**
+   * @return the ID of the user whose questions are searched
+   */
+  private long seed() {
+    jdbcTemplate.update("INSERT INTO users (username) SELECT 'bench' || g FROM generate_series(1, ?) g", USERS);
+    jdbcTemplate.update("""
+        INSERT INTO quizzes (title, user_id, status)
+        SELECT 'Bench ' || g, u.id, 'DRAFT' FROM users u, generate_series(1, ?) g""", QUIZZES_PER_USER);
+    jdbcTemplate.update(SEED_QUESTIONS, QUESTIONS_PER_QUIZ, WORDS);
+    jdbcTemplate.execute("ANALYZE users, quizzes, questions");
+    return jdbcTemplate.queryForObject("SELECT min(id) FROM users", Long.class);
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.scoring;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers scored per second, on one thread, by each built-in {@link ScoringStrategy}: applied to a
+ * whole question with {@link ScoringStrategy#scoreAll}, as the batch scorer does at question close,
+ * and one answer at a time with {@link ScoringStrategy#score}, as immediate scoring does.
+ * <p>
+ * One operation is one answer.  The target is at least 50M ops/s for every strategy, with
+ * {@code gc.alloc.rate.norm} at 0 B/op from the gc profiler.  Answers are random options (one of
+ * four is correct) and response times up to a little past the 20 second limit, with some missing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class ScoringStrategyBenchmark {
+
+  private static final int ANSWERS = 4096;
+  private static final int LIMIT_MS = 20_000;
+  private static final int CORRECT_OPTION = 2;
+
+  @Param({"LINEAR", "STEPPED", "PENALTY"})
+  public BuiltInScoring strategy;
+
+  private final int[] answerOptions = new int[ANSWERS];
+  private final int[] responseMs = new int[ANSWERS];
+  private final int[] scores = new int[ANSWERS];
+  private ScoringStrategy scoring;
+
+  @Setup(Level.Trial)
+  public void answers() {
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < ANSWERS; i++) {
+      answerOptions[i] = random.nextInt(4);
+      responseMs[i] = random.nextInt(50) == 0 ? ScoringStrategy.NO_RESPONSE : random.nextInt(LIMIT_MS + 2_000);
+    }
+    // Called through the interface, as BatchAnswerScorer does
+    scoring = strategy;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ANSWERS)
+  public int[] scoreAll() {
+    scoring.scoreAll(CORRECT_OPTION, LIMIT_MS, answerOptions, responseMs, ANSWERS, scores);
+    return scores;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ANSWERS)
+  public int score() {
+    int total = 0;
+    for (int i = 0; i < ANSWERS; i++) {
+      total += scoring.score(ScoringStrategy.isCorrect(CORRECT_OPTION, answerOptions[i]), responseMs[i], LIMIT_MS);
+    }
+    return total;
+  }
+}
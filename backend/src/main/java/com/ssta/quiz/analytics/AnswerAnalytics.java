@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import com.ssta.quiz.analytics.AnswerStatsStore.QuestionDelta;
+import com.ssta.quiz.config.LifecyclePhases;
+import com.ssta.quiz.playeranswer.PendingAnswer;
+import com.ssta.quiz.scoring.ScoringStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps per-question and per-quiz analytics up to date as answers are stored and scored.
+ * <p>
+ * Each batch of answers whose scores are final (an answer written with its score, a write-behind
+ * batch, or a closed question scored by the batch scorer) is added to in-memory totals per
+ * question.  Every {@code quiz.analytics.flush-ms} the totals gathered since the last flush are
+ * folded into question_stats and quiz_stats in one transaction, so the tables cost a few row
+ * updates per live question per flush however many answers arrive, and a dashboard reads one row
+ * per question however many answers there have been.  Totals that cannot be folded are kept and
+ * tried again on the next flush, except those of a question or quiz that has since been deleted,
+ * which are dropped; totals not yet folded when the application is killed are lost.
+ */
+@Slf4j
+@Service
+public class AnswerAnalytics implements SmartLifecycle {
+
+  private final AnswerStatsStore answerStatsStore;
+
+  /* Totals gathered since the last flush, by question ID; guarded by pendingLock */
+  private final ReentrantLock pendingLock = new ReentrantLock();
+  private Map<Long, QuestionDelta> pending = new HashMap<>();
+
+  /* Held while folding, so a flush on shutdown does not overlap a scheduled one */
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private volatile boolean running;
+
+  public AnswerAnalytics(AnswerStatsStore answerStatsStore) {
+    this.answerStatsStore = answerStatsStore;
+  }
+
+  /**
+   * Count a stored answer, if it has been scored.  Unscored answers are counted when their score is written.
+   */
+  public void record(PendingAnswer answer) {
+    recordAll(List.of(answer));
+  }
+
+  /**
+   * Count the scored answers of a batch that has been stored.
+   */
+  public void recordAll(List<PendingAnswer> answers) {
+    pendingLock.lock();
+    try {
+      for (PendingAnswer answer : answers) {
+        if (answer.score() != null) {
+          statsOf(answer.quizId(), answer.questionId()).add(answer.answerOption(), answer.correct(),
+              answer.responseTimeMs() == null ? -1 : answer.responseTimeMs(), answer.score());
+        }
+      }
+    } finally {
+      pendingLock.unlock();
+    }
+  }
+
+  /**
+   * Count the answers to a question whose scores have just been written, as handed to the batch scorer.
+   *
+   * @param responseTimesMs the response time of each answer, or a negative value if there was none
+   */
+  public void recordScored(long quizId, long questionId, int correctOption, int[] answerOptions,
+                           int[] responseTimesMs, int[] scores, int count) {
+    pendingLock.lock();
+    try {
+      AnswerStats stats = statsOf(quizId, questionId);
+      for (int i = 0; i < count; i++) {
+        stats.add(answerOptions[i], ScoringStrategy.isCorrect(correctOption, answerOptions[i]), responseTimesMs[i],
+            scores[i]);
+      }
+    } finally {
+      pendingLock.unlock();
+    }
+  }
+
+  /**
+   * Fold the totals gathered since the last flush into the analytics tables.
+   *
+   * @return the number of questions whose rows were updated
+   */
+  @Scheduled(fixedDelayString = "${quiz.analytics.flush-ms:1000}")
+  public int flush() {
+    flushLock.lock();
+    try {
+      Map<Long, QuestionDelta> deltas = takePending();
+      if (deltas.isEmpty()) {
+        return 0;
+      }
+      try {
+        answerStatsStore.fold(deltas.values());
+        return deltas.size();
+      } catch (DataIntegrityViolationException e) {
+        // Most likely one question or quiz was deleted, which would fail every fold from now on
+        return foldEach(deltas);
+      } catch (DataAccessException e) {
+        log.warn("Could not fold the analytics of {} questions, will retry", deltas.size(), e);
+        restore(deltas);
+        return 0;
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * @return the analytics of a quiz and of each of its answered questions, in quiz order
+   * @throws IllegalArgumentException if no answers to the quiz have been folded in
+   */
+  public QuizAnalytics quiz(long quizId) {
+    AnswerStats quiz = answerStatsStore.findQuiz(quizId)
+        .orElseThrow(() -> new IllegalArgumentException("No analytics for quiz " + quizId));
+    List<QuestionAnalytics> questions = new ArrayList<>();
+    answerStatsStore.findQuestions(quizId)
+        .forEach((questionId, stats) -> questions.add(QuestionAnalytics.of(questionId, stats)));
+    return QuizAnalytics.of(quizId, quiz, questions);
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    flush();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /* Stop after the answer queue and scorer, which record the answers they finish writing as they stop */
+  @Override
+  public int getPhase() {
+    return LifecyclePhases.ANSWER_ANALYTICS;
+  }
+
+  /**
+   * Fold each question on its own, dropping the totals of those whose question or quiz no longer
+   * exists and keeping the rest of any that fail for another reason.
+   *
+   * @return the number of questions whose rows were updated
+   */
+  private int foldEach(Map<Long, QuestionDelta> deltas) {
+    Map<Long, QuestionDelta> failed = new HashMap<>();
+    int folded = 0;
+    for (QuestionDelta delta : deltas.values()) {
+      try {
+        answerStatsStore.fold(List.of(delta));
+        folded++;
+      } catch (DataIntegrityViolationException e) {
+        log.warn("Dropping the analytics of {} answers to question {} of quiz {}, which no longer exists",
+            delta.stats().answers, delta.questionId(), delta.quizId(), e);
+      } catch (DataAccessException e) {
+        failed.put(delta.questionId(), delta);
+      }
+    }
+    if (!failed.isEmpty()) {
+      log.warn("Could not fold the analytics of {} questions, will retry", failed.size());
+      restore(failed);
+    }
+    return folded;
+  }
+
+  private AnswerStats statsOf(long quizId, long questionId) {
+    return pending.computeIfAbsent(questionId, id -> new QuestionDelta(quizId, id, new AnswerStats())).stats();
+  }
+
+  private Map<Long, QuestionDelta> takePending() {
+    pendingLock.lock();
+    try {
+      Map<Long, QuestionDelta> taken = pending;
+      pending = new HashMap<>();
+      return taken;
+    } finally {
+      pendingLock.unlock();
+    }
+  }
+
+  /* Put back totals that could not be folded, merged with anything gathered since */
+  private void restore(Map<Long, QuestionDelta> deltas) {
+    pendingLock.lock();
+    try {
+      deltas.forEach((questionId, delta) -> statsOf(delta.quizId(), questionId).merge(delta.stats()));
+    } finally {
+      pendingLock.unlock();
+    }
+  }
+}
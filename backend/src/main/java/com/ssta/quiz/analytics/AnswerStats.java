@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Running totals over a set of scored answers, as stored in a row of question_stats or quiz_stats.
+ * Every field is a sum or a {@link ResponseTimeSketch}, so the totals of two sets of answers merge
+ * into the totals of both.  Not thread-safe.
+ */
+final class AnswerStats {
+
+  long answers;
+  long correct;
+  /* Answers per option; options outside the array have not been chosen */
+  long[] optionCounts = new long[0];
+  /* Answers with a response time, which the sum and the sketch are over */
+  long timedAnswers;
+  long responseTimeSumMs;
+  ResponseTimeSketch responseTimes = new ResponseTimeSketch();
+  long scoreSum;
+
+  /**
+   * Count one scored answer.
+   *
+   * @param responseTimeMs the response time, or a negative value if there was none
+   */
+  void add(int answerOption, boolean isCorrect, int responseTimeMs, int score) {
+    answers++;
+    if (isCorrect) {
+      correct++;
+    }
+    if (answerOption >= 0) {
+      if (answerOption >= optionCounts.length) {
+        optionCounts = Arrays.copyOf(optionCounts, answerOption + 1);
+      }
+      optionCounts[answerOption]++;
+    }
+    if (responseTimeMs >= 0) {
+      timedAnswers++;
+      responseTimeSumMs += responseTimeMs;
+      responseTimes.add(responseTimeMs);
+    }
+    scoreSum += score;
+  }
+
+  void merge(AnswerStats other) {
+    answers += other.answers;
+    correct += other.correct;
+    if (other.optionCounts.length > optionCounts.length) {
+      optionCounts = Arrays.copyOf(optionCounts, other.optionCounts.length);
+    }
+    for (int i = 0; i < other.optionCounts.length; i++) {
+      optionCounts[i] += other.optionCounts[i];
+    }
+    timedAnswers += other.timedAnswers;
+    responseTimeSumMs += other.responseTimeSumMs;
+    responseTimes.merge(other.responseTimes);
+    scoreSum += other.scoreSum;
+  }
+}
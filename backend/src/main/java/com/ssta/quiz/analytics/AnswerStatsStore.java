@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Reads and folds into the question_stats and quiz_stats tables.
+ */
+@Repository
+public class AnswerStatsStore {
+
+  private static final String COLUMNS =
+      "answers, correct, timed_answers, response_time_sum_ms, response_time_sketch, score_sum";
+
+  private static final String LOCK_QUESTION =
+      "SELECT " + COLUMNS + ", option_counts FROM question_stats WHERE question_id = ? FOR UPDATE";
+
+  private static final String UPSERT_QUESTION = """
+      INSERT INTO question_stats (question_id, quiz_id, answers, correct, timed_answers, response_time_sum_ms,
+                                  response_time_sketch, score_sum, option_counts, updated_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::bigint[], now())
+      ON CONFLICT (question_id) DO UPDATE SET
+        answers = EXCLUDED.answers, correct = EXCLUDED.correct, timed_answers = EXCLUDED.timed_answers,
+        response_time_sum_ms = EXCLUDED.response_time_sum_ms, response_time_sketch = EXCLUDED.response_time_sketch,
+        score_sum = EXCLUDED.score_sum, option_counts = EXCLUDED.option_counts, updated_at = EXCLUDED.updated_at""";
+
+  private static final String LOCK_QUIZ = "SELECT " + COLUMNS + " FROM quiz_stats WHERE quiz_id = ? FOR UPDATE";
+
+  private static final String UPSERT_QUIZ = """
+      INSERT INTO quiz_stats (quiz_id, answers, correct, timed_answers, response_time_sum_ms, response_time_sketch,
+                              score_sum, updated_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?, now())
+      ON CONFLICT (quiz_id) DO UPDATE SET
+        answers = EXCLUDED.answers, correct = EXCLUDED.correct, timed_answers = EXCLUDED.timed_answers,
+        response_time_sum_ms = EXCLUDED.response_time_sum_ms, response_time_sketch = EXCLUDED.response_time_sketch,
+        score_sum = EXCLUDED.score_sum, updated_at = EXCLUDED.updated_at""";
+
+  private static final String QUESTIONS_OF_QUIZ = """
+      SELECT s.question_id, s.answers, s.correct, s.timed_answers, s.response_time_sum_ms, s.response_time_sketch,
+             s.score_sum, s.option_counts
+      FROM question_stats s JOIN questions q ON q.id = s.question_id
+      WHERE s.quiz_id = ?
+      ORDER BY q.order_index, q.id""";
+
+  /**
+   * Totals to add to a question's row.
+   */
+  record QuestionDelta(long quizId, long questionId, AnswerStats stats) {
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public AnswerStatsStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Add each question's totals to its row, and their sum to their quiz's row, in one transaction.
+   * Rows are read, merged and written back under a row lock, in ID order so that two folds cannot
+   * deadlock.
+   */
+  @Transactional
+  public void fold(Collection<QuestionDelta> deltas) {
+    Map<Long, AnswerStats> byQuiz = new TreeMap<>();
+    for (QuestionDelta delta : deltas.stream().sorted(Comparator.comparingLong(QuestionDelta::questionId)).toList()) {
+      AnswerStats stats = jdbcTemplate.query(LOCK_QUESTION, resultSet -> resultSet.next()
+          ? withOptionCounts(totals(resultSet), resultSet.getArray("option_counts"))
+          : new AnswerStats(), delta.questionId());
+      stats.merge(delta.stats());
+      jdbcTemplate.update(UPSERT_QUESTION, delta.questionId(), delta.quizId(), stats.answers, stats.correct,
+          stats.timedAnswers, stats.responseTimeSumMs, stats.responseTimes.toBytes(), stats.scoreSum,
+          stats.optionCounts);
+      byQuiz.computeIfAbsent(delta.quizId(), quizId -> new AnswerStats()).merge(delta.stats());
+    }
+    byQuiz.forEach((quizId, delta) -> {
+      AnswerStats stats = jdbcTemplate.query(LOCK_QUIZ, resultSet -> resultSet.next()
+          ? totals(resultSet)
+          : new AnswerStats(), quizId);
+      stats.merge(delta);
+      jdbcTemplate.update(UPSERT_QUIZ, quizId, stats.answers, stats.correct, stats.timedAnswers,
+          stats.responseTimeSumMs, stats.responseTimes.toBytes(), stats.scoreSum);
+    });
+  }
+
+  /**
+   * @return the quiz's totals, if any of its answers have been folded in
+   */
+  Optional<AnswerStats> findQuiz(long quizId) {
+    List<AnswerStats> stats = jdbcTemplate.query("SELECT " + COLUMNS + " FROM quiz_stats WHERE quiz_id = ?",
+        (resultSet, row) -> totals(resultSet), quizId);
+    return stats.stream().findFirst();
+  }
+
+  /**
+   * @return the totals of each of the quiz's questions that has answers, by question ID in quiz order
+   */
+  Map<Long, AnswerStats> findQuestions(long quizId) {
+    Map<Long, AnswerStats> byQuestion = new LinkedHashMap<>();
+    jdbcTemplate.query(QUESTIONS_OF_QUIZ, resultSet -> {
+      byQuestion.put(resultSet.getLong("question_id"),
+          withOptionCounts(totals(resultSet), resultSet.getArray("option_counts")));
+    }, quizId);
+    return byQuestion;
+  }
+
+  private static AnswerStats totals(ResultSet resultSet) throws SQLException {
+    AnswerStats stats = new AnswerStats();
+    stats.answers = resultSet.getLong("answers");
+    stats.correct = resultSet.getLong("correct");
+    stats.timedAnswers = resultSet.getLong("timed_answers");
+    stats.responseTimeSumMs = resultSet.getLong("response_time_sum_ms");
+    stats.responseTimes = ResponseTimeSketch.fromBytes(resultSet.getBytes("response_time_sketch"));
+    stats.scoreSum = resultSet.getLong("score_sum");
+    return stats;
+  }
+
+  private static AnswerStats withOptionCounts(AnswerStats stats, Array optionCounts) throws SQLException {
+    Long[] counts = (Long[]) optionCounts.getArray();
+    stats.optionCounts = new long[counts.length];
+    for (int i = 0; i < counts.length; i++) {
+      stats.optionCounts[i] = counts[i] == null ? 0 : counts[i];
+    }
+    return stats;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+/**
+ * Analytics of one question, over every scored answer to it.
+ *
+ * @param questionId the question ID
+ * @param answers number of answers
+ * @param correctRate share of answers that were correct, the question's difficulty index
+ * @param optionCounts number of answers per option, in option order
+ * @param meanResponseTimeMs mean response time of the answers that have one, or null if none do
+ * @param medianResponseTimeMs median response time, within 1%, or null
+ * @param p90ResponseTimeMs 90th percentile response time, within 1%, or null
+ * @param meanScore mean points per answer, or null if there are no answers
+ */
+public record QuestionAnalytics(long questionId,
+                                long answers,
+                                double correctRate,
+                                long[] optionCounts,
+                                Double meanResponseTimeMs,
+                                Integer medianResponseTimeMs,
+                                Integer p90ResponseTimeMs,
+                                Double meanScore) {
+
+  static QuestionAnalytics of(long questionId, AnswerStats stats) {
+    return new QuestionAnalytics(questionId, stats.answers, rate(stats.correct, stats.answers), stats.optionCounts,
+        mean(stats.responseTimeSumMs, stats.timedAnswers), quantile(stats.responseTimes, 0.5),
+        quantile(stats.responseTimes, 0.9), mean(stats.scoreSum, stats.answers));
+  }
+
+  static double rate(long count, long total) {
+    return total == 0 ? 0 : (double) count / total;
+  }
+
+  static Double mean(long sum, long count) {
+    return count == 0 ? null : (double) sum / count;
+  }
+
+  static Integer quantile(ResponseTimeSketch sketch, double quantile) {
+    return sketch.count() == 0 ? null : sketch.quantile(quantile);
+  }
+}
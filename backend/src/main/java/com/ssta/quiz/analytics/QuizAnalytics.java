@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import java.util.List;
+
+import static com.ssta.quiz.analytics.QuestionAnalytics.mean;
+import static com.ssta.quiz.analytics.QuestionAnalytics.quantile;
+import static com.ssta.quiz.analytics.QuestionAnalytics.rate;
+
+/**
+ * Analytics of a quiz, over every scored answer to its questions, and of each answered question.
+ *
+ * @param quizId the quiz ID
+ * @param answers number of answers
+ * @param correctRate share of answers that were correct
+ * @param meanResponseTimeMs mean response time of the answers that have one, or null if none do
+ * @param medianResponseTimeMs median response time, within 1%, or null
+ * @param p90ResponseTimeMs 90th percentile response time, within 1%, or null
+ * @param meanScore mean points per answer, or null if there are no answers
+ * @param questions the analytics of each question with answers, in quiz order
+ */
+public record QuizAnalytics(long quizId,
+                            long answers,
+                            double correctRate,
+                            Double meanResponseTimeMs,
+                            Integer medianResponseTimeMs,
+                            Integer p90ResponseTimeMs,
+                            Double meanScore,
+                            List<QuestionAnalytics> questions) {
+
+  static QuizAnalytics of(long quizId, AnswerStats stats, List<QuestionAnalytics> questions) {
+    return new QuizAnalytics(quizId, stats.answers, rate(stats.correct, stats.answers),
+        mean(stats.responseTimeSumMs, stats.timedAnswers), quantile(stats.responseTimes, 0.5),
+        quantile(stats.responseTimes, 0.9), mean(stats.scoreSum, stats.answers), questions);
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import com.ssta.quiz.common.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Difficulty, response times and option popularity of a quiz's questions, for the quizmaster dashboard.
+ */
+@RestController
+@RequestMapping("/api/quizmaster/quizzes/{quizId}/analytics")
+public class QuizAnalyticsController {
+
+  private final AnswerAnalytics answerAnalytics;
+
+  public QuizAnalyticsController(AnswerAnalytics answerAnalytics) {
+    this.answerAnalytics = answerAnalytics;
+  }
+
+  @GetMapping
+  public ApiResponse<QuizAnalytics> quiz(@PathVariable long quizId) {
+    try {
+      return ApiResponse.success(answerAnalytics.quiz(quizId));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Mergeable histogram of response times, for percentiles that can be kept up to date one batch of
+ * answers at a time.
+ * <p>
+ * Times below 64 ms get a bucket each; above that every power of two is split into 64 buckets, so a
+ * percentile is within 1/128 (under 0.8%) of the true value whatever the spread of times.  Two
+ * sketches merge by adding their bucket counts, which gives exactly the sketch of all their times
+ * together, so the sketches of a quiz's questions merge into the quiz's, and batches merge into
+ * either.  Serialized as a format byte and then the non-empty buckets as varint pairs of index gap
+ * and count.  Not thread-safe.
+ */
+public final class ResponseTimeSketch {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final byte FORMAT = 1;
+
+  private long[] counts = new long[0];
+  private long count;
+
+  /**
+   * Count a response time.  Negative times are counted as zero.
+   */
+  public void add(int responseTimeMs) {
+    int index = indexOf(Math.max(responseTimeMs, 0));
+    grow(index + 1);
+    counts[index]++;
+    count++;
+  }
+
+  /**
+   * Add every time counted by another sketch to this one.
+   */
+  public void merge(ResponseTimeSketch other) {
+    grow(other.counts.length);
+    for (int i = 0; i < other.counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  /**
+   * @param quantile the quantile, from 0 to 1
+   * @return the response time at that quantile, or -1 if no times have been counted
+   */
+  public int quantile(double quantile) {
+    if (count == 0) {
+      return -1;
+    }
+    long rank = Math.max(1, Math.min(count, (long) Math.ceil(quantile * count)));
+    long seen = 0;
+    int index = 0;
+    while (seen + counts[index] < rank) {
+      seen += counts[index++];
+    }
+    return representative(index);
+  }
+
+  public byte[] toBytes() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+    out.write(FORMAT);
+    int previous = -1;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        writeVarint(out, i - previous);
+        writeVarint(out, counts[i]);
+        previous = i;
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * @throws IllegalArgumentException if the bytes are not a serialized sketch
+   */
+  public static ResponseTimeSketch fromBytes(byte[] bytes) {
+    if (bytes.length == 0 || bytes[0] != FORMAT) {
+      throw new IllegalArgumentException("Not a response time sketch");
+    }
+    ResponseTimeSketch sketch = new ResponseTimeSketch();
+    int[] position = {1};
+    int index = -1;
+    while (position[0] < bytes.length) {
+      index += (int) readVarint(bytes, position);
+      long bucketCount = readVarint(bytes, position);
+      if (index < 0 || index > indexOf(Integer.MAX_VALUE) || bucketCount <= 0) {
+        throw new IllegalArgumentException("Corrupt response time sketch");
+      }
+      sketch.grow(index + 1);
+      sketch.counts[index] = bucketCount;
+      sketch.count += bucketCount;
+    }
+    return sketch;
+  }
+
+  static int indexOf(int value) {
+    if (value < SUB_BUCKETS) {
+      return value;
+    }
+    int shift = 31 - Integer.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (value >>> shift) - SUB_BUCKETS;
+  }
+
+  /* The middle of a bucket */
+  static int representative(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index >>> SUB_BUCKET_BITS) - 1;
+    long lowest = (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+    return (int) (lowest + ((1L << shift) >>> 1));
+  }
+
+  private void grow(int length) {
+    if (counts.length < length) {
+      counts = Arrays.copyOf(counts, length);
+    }
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarint(byte[] bytes, int[] position) {
+    long value = 0;
+    for (int shift = 0; shift < 64 && position[0] < bytes.length; shift += 7) {
+      int b = bytes[position[0]++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Corrupt response time sketch");
+  }
+}
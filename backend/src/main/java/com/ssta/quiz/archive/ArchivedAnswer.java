@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+/**
+ * A player's answer to a question of an archived quiz.
+ *
+ * @param questionId the question ID
+ * @param answerOption the option chosen
+ * @param correct whether the option was correct
+ * @param responseTimeMs the response time, if one was recorded
+ * @param score the points awarded, if the answer was scored
+ */
+public record ArchivedAnswer(long questionId, int answerOption, boolean correct, Integer responseTimeMs,
+                             Integer score) {
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import java.util.List;
+
+/**
+ * A player's final position in an archived quiz and their answers, in quiz order.
+ *
+ * @param standing the player's final position
+ * @param answers the player's answers; questions they did not answer are left out
+ */
+public record ArchivedPlayerResult(ArchivedStanding standing, List<ArchivedAnswer> answers) {
+}
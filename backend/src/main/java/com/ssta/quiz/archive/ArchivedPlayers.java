@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import java.util.Arrays;
+
+/**
+ * The players of an archived quiz, in ascending ID order.
+ */
+record ArchivedPlayers(long[] ids, String[] nicknames) {
+
+  /**
+   * @return the player's index, or -1 if they did not play the quiz
+   */
+  int indexOf(long playerId) {
+    int index = Arrays.binarySearch(ids, playerId);
+    return index < 0 ? -1 : index;
+  }
+}
@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+/**
+ * A question of an archived quiz.
+ *
+ * @param questionId the question ID
+ * @param optionCount the number of options the question had
+ * @param timeLimitMs the question's time limit
+ * @param answers the number of answers to the question
+ */
+record ArchivedQuestion(long questionId, int optionCount, int timeLimitMs, int answers) {
+}
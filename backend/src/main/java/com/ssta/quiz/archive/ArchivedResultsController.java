@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import com.ssta.quiz.common.ApiResponse;
+import com.ssta.quiz.stats.AnswerDistributionView;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Final results of finished quizzes, served from their archives.
+ */
+@RestController
+@RequestMapping("/api/player/quizzes/{quizId}/results")
+public class ArchivedResultsController {
+
+  private static final int MAX_ENTRIES = 100;
+
+  private final QuizArchiveService quizArchiveService;
+
+  public ArchivedResultsController(QuizArchiveService quizArchiveService) {
+    this.quizArchiveService = quizArchiveService;
+  }
+
+  @GetMapping("/standings")
+  public ApiResponse<List<ArchivedStanding>> standings(@PathVariable long quizId,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+    try {
+      return ApiResponse.success(quizArchiveService.standings(quizId, Math.min(Math.max(limit, 0), MAX_ENTRIES)));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
+
+  @GetMapping("/players/{playerId}")
+  public ApiResponse<ArchivedPlayerResult> player(@PathVariable long quizId, @PathVariable long playerId) {
+    try {
+      return ApiResponse.success(quizArchiveService.playerResult(quizId, playerId));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
+
+  @GetMapping("/questions")
+  public ApiResponse<List<AnswerDistributionView>> questions(@PathVariable long quizId) {
+    try {
+      return ApiResponse.success(quizArchiveService.questions(quizId));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
+}
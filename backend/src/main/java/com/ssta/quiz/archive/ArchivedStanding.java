@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+/**
+ * A player's final position in an archived quiz.
+ *
+ * @param rank 1-based rank
+ * @param playerId the player ID
+ * @param nickname the player's nickname
+ * @param score the player's total score
+ * @param totalResponseTimeMs the player's total response time, the first tiebreak
+ */
+public record ArchivedStanding(int rank, long playerId, String nickname, int score, long totalResponseTimeMs) {
+}
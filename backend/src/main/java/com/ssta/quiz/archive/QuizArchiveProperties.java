@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for archiving the results of finished quizzes.
+ * Bound from the {@code quiz.archive.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "quiz.archive")
+public class QuizArchiveProperties {
+
+  /* Milliseconds between the end of one sweep and the start of the next */
+  private long sweepMs = 60_000;
+
+  /* How long a quiz stays COMPLETED before it is archived, so answers still in flight have landed */
+  private Duration settleTime = Duration.ofSeconds(30);
+
+  /* Maximum number of quizzes archived by one sweep */
+  private int maxPerSweep = 10;
+}
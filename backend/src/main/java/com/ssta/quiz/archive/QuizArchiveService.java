@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import com.ssta.quiz.playeranswer.PlayerAnswerPartitions;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.question.QuestionRepository;
+import com.ssta.quiz.quiz.QuizStatus;
+import com.ssta.quiz.stats.AnswerDistribution;
+import com.ssta.quiz.stats.AnswerDistributionView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.ssta.quiz.archive.QuizResultsFormat.NONE;
+
+/**
+ * Compacts the results of finished quizzes into {@link QuizResultsFormat} archives and serves
+ * historical results from them.
+ * <p>
+ * A periodic sweep archives every COMPLETED or ARCHIVED quiz that has no archive yet, once it has
+ * been finished for the configured settle time.  From then on standings, a player's answers and
+ * per-question stats are read from the quiz's single archive row rather than its answer rows.  The
+ * players and answers are left where they are.
+ * <p>
+ * The same sweep detaches the answer partitions of ARCHIVED quizzes.  Detaching waits for every
+ * transaction using player_answers, so it is not done while the quizmaster's archive request waits.
+ * <p>
+ * The sweep runs on a thread of its own rather than as a {@code @Scheduled} task, since the
+ * default scheduler has a single thread that also runs the live broadcast tick.
+ */
+@Slf4j
+@Service
+public class QuizArchiveService implements SmartLifecycle {
+
+  private static final String PLAYERS = "SELECT id, nickname FROM players WHERE quiz_id = ? ORDER BY id";
+
+  /* Read from the quiz's partition by name, whether or not it is still attached to player_answers */
+  private static final String ANSWERS = """
+      SELECT pa.question_id, pa.player_id, pa.answer_option, pa.correct, pa.response_time_ms, pa.score
+      FROM %s pa JOIN questions q ON q.id = pa.question_id
+      ORDER BY q.order_index, q.id, pa.player_id""";
+
+  private final QuizArchiveStore quizArchiveStore;
+  private final QuestionRepository questionRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final QuizArchiveProperties properties;
+  private final PlayerAnswerPartitions playerAnswerPartitions;
+  private volatile ScheduledExecutorService sweeper;
+
+  public QuizArchiveService(QuizArchiveStore quizArchiveStore,
+                            QuestionRepository questionRepository,
+                            JdbcTemplate jdbcTemplate,
+                            QuizArchiveProperties properties,
+                            PlayerAnswerPartitions playerAnswerPartitions) {
+    this.quizArchiveStore = quizArchiveStore;
+    this.questionRepository = questionRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+    this.playerAnswerPartitions = playerAnswerPartitions;
+  }
+
+  /**
+   * Archive the quizzes that are due, then detach the partitions of ARCHIVED quizzes.  A quiz that
+   * fails is logged and tried again on the next sweep.
+   */
+  public void sweep() {
+    Instant settledBefore = Instant.now().minus(properties.getSettleTime());
+    for (Long quizId : quizArchiveStore.findPending(settledBefore, properties.getMaxPerSweep())) {
+      try {
+        archive(quizId);
+      } catch (DataAccessException | IllegalArgumentException e) {
+        log.warn("Could not archive the results of quiz {}", quizId, e);
+      }
+    }
+    for (Long quizId : playerAnswerPartitions.findAttached(QuizStatus.ARCHIVED.name(), properties.getMaxPerSweep())) {
+      try {
+        playerAnswerPartitions.detach(quizId);
+      } catch (DataAccessException e) {
+        log.warn("Could not detach the answer partition of archived quiz {}", quizId, e);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void start() {
+    if (sweeper != null) {
+      return;
+    }
+    sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "archive-sweep");
+      thread.setDaemon(true);
+      return thread;
+    });
+    sweeper.scheduleWithFixedDelay(() -> {
+      try {
+        sweep();
+      } catch (RuntimeException e) {
+        // An exception would cancel every later sweep
+        log.error("Archive sweep failed", e);
+      }
+    }, properties.getSweepMs(), properties.getSweepMs(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (sweeper == null) {
+      return;
+    }
+    // Interrupts a sweep in progress; whatever it did not finish is picked up by the next run
+    sweeper.shutdownNow();
+    sweeper = null;
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return sweeper != null;
+  }
+
+  /**
+   * Build and store a quiz's archive from its players and answers.  The quiz must be finished, as
+   * answers arriving later are not added to the archive.
+   *
+   * @param quizId the quiz ID
+   * @return true if the archive was stored, false if the quiz already had one
+   * @throws IllegalArgumentException if an answer is to a question or from a player of another quiz
+   */
+  public boolean archive(long quizId) {
+    if (quizArchiveStore.exists(quizId)) {
+      return false;
+    }
+    QuizResultsEncoder encoder = new QuizResultsEncoder(quizId);
+    List<Question> questions = new ArrayList<>(questionRepository.findByQuizIdOrderByOrderIndexAsc(quizId));
+    // Same order as the answers query
+    questions.sort(Comparator.comparing(Question::getOrderIndex).thenComparing(Question::getId));
+    for (Question question : questions) {
+      encoder.question(question.getId(), question.getDecodedOptions().size(),
+          question.getTimeLimit() == null ? 0 : question.getTimeLimit() * 1000);
+    }
+    jdbcTemplate.query(PLAYERS, resultSet -> encoder.player(resultSet.getLong(1), resultSet.getString(2)), quizId);
+
+    // A quiz completed without ever being launched has no partition, and no answers
+    String partition = PlayerAnswerPartitions.partitionName(quizId);
+    Boolean hasPartition = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+    if (Boolean.TRUE.equals(hasPartition)) {
+      jdbcTemplate.query(ANSWERS.formatted(partition), resultSet -> {
+        int responseTimeMs = resultSet.getInt(5);
+        boolean noResponseTime = resultSet.wasNull();
+        int score = resultSet.getInt(6);
+        encoder.answer(resultSet.getLong(1), resultSet.getLong(2), resultSet.getInt(3), resultSet.getBoolean(4),
+            noResponseTime ? NONE : responseTimeMs, resultSet.wasNull() ? NONE : score);
+      });
+    }
+
+    byte[] results = encoder.encode();
+    boolean saved = quizArchiveStore.save(quizId, encoder.playerCount(), encoder.answerCount(), results);
+    if (saved) {
+      log.info("Archived the results of quiz {}: {} answers in {} bytes", quizId, encoder.answerCount(), results.length);
+    }
+    return saved;
+  }
+
+  /**
+   * @param limit the maximum number of standings
+   * @return the best {@code limit} players of an archived quiz
+   * @throws IllegalArgumentException if the quiz has not been archived
+   */
+  public List<ArchivedStanding> standings(long quizId, int limit) {
+    return read(quizId, reader -> {
+      ArchivedPlayers players = reader.players();
+      List<ArchivedStanding> standings = new ArrayList<>(Math.min(limit, reader.playerCount()));
+      if (limit > 0) {
+        reader.standings((rank, player, score, totalResponseTimeMs) -> {
+          standings.add(new ArchivedStanding(rank, players.ids()[player], players.nicknames()[player], score,
+              totalResponseTimeMs));
+          return standings.size() < limit;
+        });
+      }
+      return standings;
+    });
+  }
+
+  /**
+   * @return a player's final standing in an archived quiz and their answers
+   * @throws IllegalArgumentException if the quiz has not been archived or the player did not play it
+   */
+  public ArchivedPlayerResult playerResult(long quizId, long playerId) {
+    return read(quizId, reader -> {
+      ArchivedPlayers players = reader.players();
+      int index = players.indexOf(playerId);
+      if (index < 0) {
+        throw new IllegalArgumentException("Player " + playerId + " did not play quiz " + quizId);
+      }
+      ArchivedStanding[] standing = new ArchivedStanding[1];
+      reader.standings((rank, player, score, totalResponseTimeMs) -> {
+        if (player != index) {
+          return true;
+        }
+        standing[0] = new ArchivedStanding(rank, playerId, players.nicknames()[index], score, totalResponseTimeMs);
+        return false;
+      });
+
+      // The player's answer ordinals, ascending, and the question each one answers
+      int[] byQuestion = reader.answersOf(index);
+      int answered = (int) Arrays.stream(byQuestion).filter(answer -> answer >= 0).count();
+      int[] ordinals = new int[answered];
+      long[] questionIds = new long[answered];
+      for (int q = 0, i = 0; q < byQuestion.length; q++) {
+        if (byQuestion[q] >= 0) {
+          ordinals[i] = byQuestion[q];
+          questionIds[i++] = reader.questions().get(q).questionId();
+        }
+      }
+      int[] options = new int[answered];
+      int[] correct = new int[answered];
+      int[] responseTimes = new int[answered];
+      int[] scores = new int[answered];
+      reader.options(select(ordinals, options));
+      reader.correct(select(ordinals, correct));
+      reader.responseTimes(select(ordinals, responseTimes));
+      reader.scores(select(ordinals, scores));
+
+      List<ArchivedAnswer> answers = new ArrayList<>(answered);
+      for (int i = 0; i < answered; i++) {
+        answers.add(new ArchivedAnswer(questionIds[i], options[i], correct[i] == 1,
+            responseTimes[i] == NONE ? null : responseTimes[i], scores[i] == NONE ? null : scores[i]));
+      }
+      return new ArchivedPlayerResult(standing[0], answers);
+    });
+  }
+
+  /**
+   * @return the final answer distribution of each question of an archived quiz, in quiz order
+   * @throws IllegalArgumentException if the quiz has not been archived
+   */
+  public List<AnswerDistributionView> questions(long quizId) {
+    return read(quizId, reader -> {
+      List<ArchivedQuestion> questions = reader.questions();
+      int count = questions.size();
+      // The first answer to each question, and one past the last answer of the quiz
+      int[] firstAnswers = new int[count + 1];
+      long[][] optionCounts = new long[count][];
+      long[] correct = new long[count];
+      long[][] histograms = new long[count][];
+      for (int q = 0; q < count; q++) {
+        ArchivedQuestion question = questions.get(q);
+        firstAnswers[q + 1] = firstAnswers[q] + question.answers();
+        optionCounts[q] = new long[question.optionCount()];
+        int timeLimitMs = question.timeLimitMs();
+        int limitBuckets = timeLimitMs <= 0 ? 0 : (timeLimitMs + AnswerDistribution.BUCKET_WIDTH_MS - 1)
+            / AnswerDistribution.BUCKET_WIDTH_MS;
+        histograms[q] = new long[limitBuckets + 1];
+      }
+
+      reader.options(byQuestion(firstAnswers, (q, option) -> {
+        if (option >= 0 && option < optionCounts[q].length) {
+          optionCounts[q][option]++;
+        }
+      }));
+      reader.correct(byQuestion(firstAnswers, (q, isCorrect) -> correct[q] += isCorrect));
+      // Bucketed as AnswerDistribution does: anything without a time or past the limit goes in the last bucket
+      reader.responseTimes(byQuestion(firstAnswers, (q, responseTimeMs) -> {
+        long[] histogram = histograms[q];
+        int last = histogram.length - 1;
+        histogram[responseTimeMs == NONE || responseTimeMs < 0
+            ? last : Math.min(responseTimeMs / AnswerDistribution.BUCKET_WIDTH_MS, last)]++;
+      }));
+
+      List<AnswerDistributionView> views = new ArrayList<>(count);
+      for (int q = 0; q < count; q++) {
+        views.add(new AnswerDistributionView(questions.get(q).questionId(), optionCounts[q], correct[q],
+            questions.get(q).answers() - correct[q], histograms[q], AnswerDistribution.BUCKET_WIDTH_MS));
+      }
+      return views;
+    });
+  }
+
+  private <T> T read(long quizId, QuizArchiveStore.ArchiveReader<T> archiveReader) {
+    return quizArchiveStore.read(quizId, archiveReader)
+        .orElseThrow(() -> new IllegalArgumentException("Quiz " + quizId + " has no archived results"));
+  }
+
+  /**
+   * @return a visitor that copies the values of the given answers, in ascending order, into {@code values}
+   */
+  private static QuizResultsReader.AnswerVisitor select(int[] ordinals, int[] values) {
+    return (answer, value) -> {
+      int i = Arrays.binarySearch(ordinals, answer);
+      if (i >= 0) {
+        values[i] = value;
+      }
+    };
+  }
+
+  /**
+   * Receives an answer's value with the position of the question it answers.
+   */
+  @FunctionalInterface
+  private interface QuestionVisitor {
+    void accept(int question, int value);
+  }
+
+  private static QuizResultsReader.AnswerVisitor byQuestion(int[] firstAnswers, QuestionVisitor visitor) {
+    int[] question = {0};
+    return (answer, value) -> {
+      while (answer >= firstAnswers[question[0] + 1]) {
+        question[0]++;
+      }
+      visitor.accept(question[0], value);
+    };
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import com.ssta.quiz.quiz.QuizStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the quiz_archives table, which holds one {@link QuizResultsFormat} blob per
+ * finished quiz.
+ */
+@Repository
+public class QuizArchiveStore {
+
+  private static final String INSERT = """
+      INSERT INTO quiz_archives (quiz_id, format_version, players, answers, results) VALUES (?, ?, ?, ?, ?)
+      ON CONFLICT (quiz_id) DO NOTHING""";
+
+  private static final String FIND_PENDING = """
+      SELECT q.id FROM quizzes q
+      WHERE q.status IN (?, ?) AND q.updated_at < ?
+        AND NOT EXISTS (SELECT 1 FROM quiz_archives a WHERE a.quiz_id = q.id)
+      ORDER BY q.updated_at
+      LIMIT ?""";
+
+  /**
+   * Reads from an open archive.
+   */
+  @FunctionalInterface
+  interface ArchiveReader<T> {
+    T read(QuizResultsReader reader) throws IOException;
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public QuizArchiveStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Store a quiz's archive, unless it already has one.
+   *
+   * @return true if the archive was stored
+   */
+  boolean save(long quizId, int players, int answers, byte[] results) {
+    return jdbcTemplate.update(INSERT, quizId, QuizResultsFormat.VERSION, players, answers, results) == 1;
+  }
+
+  boolean exists(long quizId) {
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+        "SELECT EXISTS (SELECT 1 FROM quiz_archives WHERE quiz_id = ?)", Boolean.class, quizId));
+  }
+
+  /**
+   * Open a quiz's archive and read from it.
+   *
+   * @return what was read, or empty if the quiz has not been archived
+   * @throws IllegalStateException if the archive cannot be read
+   */
+  <T> Optional<T> read(long quizId, ArchiveReader<T> archiveReader) {
+    return jdbcTemplate.query("SELECT results FROM quiz_archives WHERE quiz_id = ?", resultSet -> {
+      if (!resultSet.next()) {
+        return Optional.empty();
+      }
+      InputStream blob = resultSet.getBinaryStream(1);
+      try (QuizResultsReader reader = new QuizResultsReader(blob)) {
+        return Optional.ofNullable(archiveReader.read(reader));
+      } catch (IOException e) {
+        throw new IllegalStateException("Archive of quiz " + quizId + " is corrupt", e);
+      }
+    }, quizId);
+  }
+
+  /**
+   * @return quizzes that finished before {@code settledBefore} and have not been archived, oldest first
+   */
+  List<Long> findPending(Instant settledBefore, int limit) {
+    return jdbcTemplate.queryForList(FIND_PENDING, Long.class, QuizStatus.COMPLETED.name(),
+        QuizStatus.ARCHIVED.name(), Timestamp.from(settledBefore), limit);
+  }
+}
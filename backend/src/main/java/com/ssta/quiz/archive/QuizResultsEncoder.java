@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import com.ssta.quiz.archive.QuizResultsFormat.Section;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static com.ssta.quiz.archive.QuizResultsFormat.NONE;
+import static com.ssta.quiz.archive.QuizResultsFormat.zigzag;
+
+/**
+ * Builds the archived results of one quiz in the {@link QuizResultsFormat} layout.
+ * <p>
+ * Questions are added in quiz order, then players in ascending ID order, then answers ordered by
+ * question and then by player.  Standings are worked out from the answers when the blob is encoded,
+ * with the same ordering as the live leaderboard.  Not thread-safe.
+ */
+final class QuizResultsEncoder {
+
+  private final long quizId;
+  private final List<long[]> questions = new ArrayList<>();
+  private final Map<Long, Integer> questionIndex = new HashMap<>();
+  private long[] playerIds = new long[64];
+  private final List<String> nicknames = new ArrayList<>();
+
+  /* Answers, column by column */
+  private int answers;
+  private int[] options = new int[256];
+  private boolean[] correct = new boolean[256];
+  private int[] responseTimes = new int[256];
+  private int[] scores = new int[256];
+  private int[] answersPerQuestion;
+  private long[][] answered;
+  private int lastQuestion = -1;
+  private int lastPlayer = -1;
+
+  QuizResultsEncoder(long quizId) {
+    this.quizId = quizId;
+  }
+
+  /**
+   * Add the next question of the quiz.
+   */
+  void question(long questionId, int optionCount, int timeLimitMs) {
+    if (answered != null) {
+      throw new IllegalStateException("Questions must be added before answers");
+    }
+    questionIndex.put(questionId, questions.size());
+    questions.add(new long[]{questionId, optionCount, timeLimitMs});
+  }
+
+  /**
+   * Add the player with the next higher ID.
+   */
+  void player(long playerId, String nickname) {
+    if (answered != null) {
+      throw new IllegalStateException("Players must be added before answers");
+    }
+    int count = nicknames.size();
+    if (count > 0 && playerId <= playerIds[count - 1]) {
+      throw new IllegalArgumentException("Players must be added in ascending ID order: " + playerId);
+    }
+    if (count == playerIds.length) {
+      playerIds = Arrays.copyOf(playerIds, count * 2);
+    }
+    playerIds[count] = playerId;
+    nicknames.add(nickname);
+  }
+
+  /**
+   * Add the next answer, ordered by question and then by player.
+   *
+   * @param responseTimeMs the response time, or {@link QuizResultsFormat#NONE} if there was none
+   * @param score the score, or {@link QuizResultsFormat#NONE} if the answer was never scored
+   * @throws IllegalArgumentException if the question or player was not added, or the answer is out of order
+   */
+  void answer(long questionId, long playerId, int option, boolean isCorrect, int responseTimeMs, int score) {
+    if (answered == null) {
+      answersPerQuestion = new int[questions.size()];
+      answered = new long[questions.size()][(nicknames.size() + 63) >>> 6];
+    }
+    Integer question = questionIndex.get(questionId);
+    int player = Arrays.binarySearch(playerIds, 0, nicknames.size(), playerId);
+    if (question == null || player < 0) {
+      throw new IllegalArgumentException("Answer from player " + playerId + " to question " + questionId
+          + " is not part of quiz " + quizId);
+    }
+    if (question < lastQuestion || (question == lastQuestion && player <= lastPlayer)) {
+      throw new IllegalArgumentException("Answers must be ordered by question and then by player");
+    }
+    lastQuestion = question;
+    lastPlayer = player;
+
+    if (answers == options.length) {
+      int capacity = answers * 2;
+      options = Arrays.copyOf(options, capacity);
+      correct = Arrays.copyOf(correct, capacity);
+      responseTimes = Arrays.copyOf(responseTimes, capacity);
+      scores = Arrays.copyOf(scores, capacity);
+    }
+    options[answers] = option;
+    correct[answers] = isCorrect;
+    responseTimes[answers] = responseTimeMs;
+    scores[answers] = score;
+    answers++;
+    answersPerQuestion[question]++;
+    answered[question][player >>> 6] |= 1L << player;
+  }
+
+  int playerCount() {
+    return nicknames.size();
+  }
+
+  int answerCount() {
+    return answers;
+  }
+
+  /**
+   * @return the encoded results
+   */
+  byte[] encode() {
+    if (answered == null) {
+      answersPerQuestion = new int[questions.size()];
+      answered = new long[questions.size()][(nicknames.size() + 63) >>> 6];
+    }
+    ByteArrayOutputStream blob = new ByteArrayOutputStream(64 + answers * 2);
+    blob.writeBytes(QuizResultsFormat.MAGIC);
+    blob.write(QuizResultsFormat.VERSION);
+    // Archiving happens once per quiz and off the request path, so it can afford the slowest level
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try (DeflaterOutputStream body = new DeflaterOutputStream(blob, deflater)) {
+      Output header = new Output();
+      header.varint(quizId);
+      header.varint(nicknames.size());
+      header.writeTo(body);
+      for (Section section : Section.values()) {
+        Output output = new Output();
+        write(section, output);
+        Output length = new Output();
+        length.varint(output.size());
+        length.writeTo(body);
+        output.writeTo(body);
+      }
+    } catch (IOException e) {
+      // Only in-memory streams are involved
+      throw new UncheckedIOException(e);
+    } finally {
+      deflater.end();
+    }
+    return blob.toByteArray();
+  }
+
+  private void write(Section section, Output output) {
+    switch (section) {
+      case QUESTIONS -> writeQuestions(output);
+      case PLAYERS -> writePlayers(output);
+      case STANDINGS -> writeStandings(output);
+      case ANSWERED -> writeAnswered(output);
+      case OPTIONS -> writeOptions(output);
+      case CORRECT -> {
+        for (int i = 0; i < answers; i++) {
+          output.bits(correct[i] ? 1 : 0, 1);
+        }
+        output.flushBits();
+      }
+      case RESPONSE_TIMES -> writeNullable(responseTimes, output);
+      case SCORES -> writeNullable(scores, output);
+    }
+  }
+
+  private void writeQuestions(Output output) {
+    output.varint(questions.size());
+    long previousId = 0;
+    for (int i = 0; i < questions.size(); i++) {
+      long[] question = questions.get(i);
+      output.varint(zigzag(question[0] - previousId));
+      output.varint(question[1]);
+      output.varint(question[2]);
+      output.varint(answersPerQuestion[i]);
+      previousId = question[0];
+    }
+  }
+
+  private void writePlayers(Output output) {
+    long previousId = 0;
+    for (int i = 0; i < nicknames.size(); i++) {
+      output.varint(playerIds[i] - previousId);
+      previousId = playerIds[i];
+    }
+    for (String nickname : nicknames) {
+      byte[] utf8 = nickname.getBytes(StandardCharsets.UTF_8);
+      output.varint(utf8.length);
+      output.writeBytes(utf8);
+    }
+  }
+
+  private void writeStandings(Output output) {
+    int players = nicknames.size();
+    long[] totalScores = new long[players];
+    long[] totalResponseTimes = new long[players];
+    int answer = 0;
+    for (long[] bitmap : answered) {
+      for (int player = 0; player < players; player++) {
+        if ((bitmap[player >>> 6] & (1L << player)) != 0) {
+          totalScores[player] += scores[answer] == NONE ? 0 : scores[answer];
+          totalResponseTimes[player] += responseTimes[answer] == NONE ? 0 : Math.max(responseTimes[answer], 0);
+          answer++;
+        }
+      }
+    }
+    // Higher score first, then lower total response time, then lower player ID, as on the live leaderboard
+    Comparator<Integer> ranking = Comparator.<Integer>comparingLong(player -> -totalScores[player])
+        .thenComparingLong(player -> totalResponseTimes[player])
+        .thenComparingLong(player -> playerIds[player]);
+    IntStream.range(0, players).boxed().sorted(ranking).forEach(player -> {
+      output.varint(player);
+      output.varint(zigzag(totalScores[player]));
+      output.varint(totalResponseTimes[player]);
+    });
+  }
+
+  private void writeAnswered(Output output) {
+    int players = nicknames.size();
+    for (long[] bitmap : answered) {
+      for (int player = 0; player < players; player++) {
+        output.bits((bitmap[player >>> 6] & (1L << player)) != 0 ? 1 : 0, 1);
+      }
+      output.flushBits();
+    }
+  }
+
+  private void writeOptions(Output output) {
+    // Wide enough for the largest option; a negative option takes all 32 bits
+    int all = 0;
+    for (int i = 0; i < answers; i++) {
+      all |= options[i];
+    }
+    int width = Math.max(1, 32 - Integer.numberOfLeadingZeros(all));
+    output.write(width);
+    for (int i = 0; i < answers; i++) {
+      output.bits(options[i], width);
+    }
+    output.flushBits();
+  }
+
+  private void writeNullable(int[] values, Output output) {
+    for (int i = 0; i < answers; i++) {
+      output.varint(values[i] == NONE ? 0 : (zigzag(values[i]) & 0xFFFFFFFFL) + 1);
+    }
+  }
+
+  /**
+   * A section being written, with varints and bit packing.
+   */
+  private static final class Output extends ByteArrayOutputStream {
+
+    private long bitBuffer;
+    private int bitCount;
+
+    void varint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      write((int) value);
+    }
+
+    void bits(int value, int width) {
+      bitBuffer = (bitBuffer << width) | (value & (-1L >>> (64 - width)));
+      bitCount += width;
+      while (bitCount >= 8) {
+        bitCount -= 8;
+        write((int) (bitBuffer >>> bitCount));
+      }
+    }
+
+    void flushBits() {
+      if (bitCount > 0) {
+        write((int) (bitBuffer << (8 - bitCount)));
+        bitCount = 0;
+      }
+      bitBuffer = 0;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+/**
+ * Layout of an archived quiz's results, as written by {@link QuizResultsEncoder} and read by
+ * {@link QuizResultsReader}.
+ * <p>
+ * The blob starts with {@link #MAGIC} and a version byte, followed by a DEFLATE stream holding the
+ * quiz ID and player count and then one section per {@link Section}, each prefixed with its length
+ * in bytes so a reader can skip the ones it does not need.  Answers are stored column by column, ordered by
+ * question and then by player, so each column is one run of similar values that compresses well.
+ * <p>
+ * Numbers are unsigned LEB128 varints; values that can be negative are zigzag encoded first, and
+ * values that can be missing are stored plus one, with zero meaning missing.  Bit-packed columns
+ * are filled from the most significant bit of each byte.
+ */
+final class QuizResultsFormat {
+
+  static final byte[] MAGIC = {'Q', 'Z', 'R'};
+  static final byte VERSION = 1;
+
+  /* A missing response time or score, as handed to and from the codec */
+  static final int NONE = Integer.MIN_VALUE;
+
+  /**
+   * Sections in the order they are written.
+   */
+  enum Section {
+    /* Count, then per question in quiz order: zigzag ID delta, option count, time limit in ms and answer count */
+    QUESTIONS,
+    /* Ascending player IDs as deltas, then each nickname as a length and UTF-8 bytes */
+    PLAYERS,
+    /* Per rank: player index, zigzag total score and total response time */
+    STANDINGS,
+    /* Per question: one bit per player, set if they answered, padded to whole bytes */
+    ANSWERED,
+    /* The bit width, then each answer's option in that many bits */
+    OPTIONS,
+    /* One bit per answer */
+    CORRECT,
+    /* Each answer's zigzag response time in ms, plus one */
+    RESPONSE_TIMES,
+    /* Each answer's zigzag score, plus one */
+    SCORES
+  }
+
+  private QuizResultsFormat() {
+  }
+
+  static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
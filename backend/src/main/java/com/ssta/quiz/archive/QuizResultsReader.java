@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import com.ssta.quiz.archive.QuizResultsFormat.Section;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.InflaterInputStream;
+
+import static com.ssta.quiz.archive.QuizResultsFormat.NONE;
+import static com.ssta.quiz.archive.QuizResultsFormat.unzigzag;
+
+/**
+ * Streams the archived results of one quiz out of a {@link QuizResultsFormat} blob.
+ * <p>
+ * The blob is inflated as it is read and never held in memory as a whole.  Sections can only be
+ * read in the order they were written, each at most once; the ones a caller skips are read past
+ * without being decoded.  Not thread-safe.
+ */
+final class QuizResultsReader implements Closeable {
+
+  /**
+   * Receives the standings, best first.
+   */
+  @FunctionalInterface
+  interface StandingVisitor {
+    /**
+     * @return false to stop reading the standings
+     */
+    boolean accept(int rank, int playerIndex, int score, long totalResponseTimeMs);
+  }
+
+  /**
+   * Receives one column of the answers, in answer order.
+   */
+  @FunctionalInterface
+  interface AnswerVisitor {
+    /**
+     * @param answer the answer's ordinal, counting across all questions
+     * @param value the answer's value, or {@link QuizResultsFormat#NONE} if it has none
+     */
+    void accept(int answer, int value);
+  }
+
+  private final InputStream input;
+  private final long quizId;
+  private final int playerCount;
+  private final List<ArchivedQuestion> questions;
+  private final int answerCount;
+
+  /* The section being read and how many of its bytes are left */
+  private Section section;
+  private long remaining;
+
+  /**
+   * Read the header and the questions.
+   *
+   * @param blob the blob, closed with this reader
+   * @throws IOException if the blob cannot be read or is not in a known format
+   */
+  QuizResultsReader(InputStream blob) throws IOException {
+    byte[] magic = blob.readNBytes(QuizResultsFormat.MAGIC.length + 1);
+    if (magic.length != QuizResultsFormat.MAGIC.length + 1
+        || !Arrays.equals(magic, 0, QuizResultsFormat.MAGIC.length, QuizResultsFormat.MAGIC, 0,
+        QuizResultsFormat.MAGIC.length)) {
+      blob.close();
+      throw new IOException("Not an archived quiz");
+    }
+    if (magic[QuizResultsFormat.MAGIC.length] != QuizResultsFormat.VERSION) {
+      blob.close();
+      throw new IOException("Unknown archive version " + magic[QuizResultsFormat.MAGIC.length]);
+    }
+    input = new BufferedInputStream(new InflaterInputStream(blob));
+    remaining = Long.MAX_VALUE;
+    quizId = varint();
+    playerCount = count();
+
+    enter(Section.QUESTIONS);
+    int count = count();
+    List<ArchivedQuestion> read = new ArrayList<>(count);
+    long questionId = 0;
+    int answers = 0;
+    for (int i = 0; i < count; i++) {
+      questionId += unzigzag(varint());
+      ArchivedQuestion question = new ArchivedQuestion(questionId, count(), count(), count());
+      answers += question.answers();
+      read.add(question);
+    }
+    questions = List.copyOf(read);
+    answerCount = answers;
+  }
+
+  long quizId() {
+    return quizId;
+  }
+
+  int playerCount() {
+    return playerCount;
+  }
+
+  /**
+   * @return the questions in quiz order
+   */
+  List<ArchivedQuestion> questions() {
+    return questions;
+  }
+
+  int answerCount() {
+    return answerCount;
+  }
+
+  ArchivedPlayers players() throws IOException {
+    enter(Section.PLAYERS);
+    long[] ids = new long[playerCount];
+    long id = 0;
+    for (int i = 0; i < playerCount; i++) {
+      id += varint();
+      ids[i] = id;
+    }
+    String[] nicknames = new String[playerCount];
+    for (int i = 0; i < playerCount; i++) {
+      nicknames[i] = new String(bytes(count()), StandardCharsets.UTF_8);
+    }
+    return new ArchivedPlayers(ids, nicknames);
+  }
+
+  /**
+   * Read the standings, best first, until the visitor asks to stop.  Ranks are one-based.
+   */
+  void standings(StandingVisitor visitor) throws IOException {
+    enter(Section.STANDINGS);
+    for (int rank = 1; rank <= playerCount; rank++) {
+      int playerIndex = count();
+      if (playerIndex >= playerCount) {
+        throw new IOException("Standing of unknown player " + playerIndex);
+      }
+      long score = unzigzag(varint());
+      if (!visitor.accept(rank, playerIndex, (int) score, varint())) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the ordinal of the player's answer to each question, or -1 for questions they did not answer
+   */
+  int[] answersOf(int playerIndex) throws IOException {
+    enter(Section.ANSWERED);
+    int[] answers = new int[questions.size()];
+    byte[] bitmap = new byte[(playerCount + 7) >>> 3];
+    int firstAnswer = 0;
+    for (int q = 0; q < answers.length; q++) {
+      readFully(bitmap);
+      int before = 0;
+      for (int i = 0; i < playerIndex >>> 3; i++) {
+        before += Integer.bitCount(bitmap[i] & 0xFF);
+      }
+      int last = bitmap[playerIndex >>> 3] & 0xFF;
+      before += Integer.bitCount(last >>> (8 - (playerIndex & 7)));
+      answers[q] = (last & (0x80 >>> (playerIndex & 7))) != 0 ? firstAnswer + before : -1;
+      firstAnswer += questions.get(q).answers();
+    }
+    return answers;
+  }
+
+  void options(AnswerVisitor visitor) throws IOException {
+    enter(Section.OPTIONS);
+    int width = count();
+    if (width < 1 || width > 32) {
+      throw new IOException("Option width " + width);
+    }
+    long buffer = 0;
+    int bits = 0;
+    for (int answer = 0; answer < answerCount; answer++) {
+      while (bits < width) {
+        buffer = (buffer << 8) | read();
+        bits += 8;
+      }
+      bits -= width;
+      visitor.accept(answer, (int) (buffer >>> bits) & (int) (-1L >>> (64 - width)));
+    }
+  }
+
+  /**
+   * Visit each answer's correctness, as 1 for correct and 0 for incorrect.
+   */
+  void correct(AnswerVisitor visitor) throws IOException {
+    enter(Section.CORRECT);
+    int current = 0;
+    for (int answer = 0; answer < answerCount; answer++) {
+      if ((answer & 7) == 0) {
+        current = read();
+      }
+      visitor.accept(answer, (current >>> (7 - (answer & 7))) & 1);
+    }
+  }
+
+  void responseTimes(AnswerVisitor visitor) throws IOException {
+    nullable(Section.RESPONSE_TIMES, visitor);
+  }
+
+  void scores(AnswerVisitor visitor) throws IOException {
+    nullable(Section.SCORES, visitor);
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+
+  private void nullable(Section column, AnswerVisitor visitor) throws IOException {
+    enter(column);
+    for (int answer = 0; answer < answerCount; answer++) {
+      long value = varint();
+      visitor.accept(answer, value == 0 ? NONE : unzigzag((int) (value - 1)));
+    }
+  }
+
+  /**
+   * Move on to a section, skipping any in between.
+   */
+  private void enter(Section next) throws IOException {
+    if (section != null && section.compareTo(next) >= 0) {
+      throw new IllegalStateException("Section " + next + " has already been read");
+    }
+    int from = section == null ? 0 : section.ordinal() + 1;
+    if (section != null) {
+      skip(remaining);
+    }
+    for (int i = from; i <= next.ordinal(); i++) {
+      remaining = Long.MAX_VALUE;
+      long length = varint();
+      section = Section.values()[i];
+      if (i < next.ordinal()) {
+        skip(length);
+      } else {
+        remaining = length;
+      }
+    }
+  }
+
+  private void skip(long length) throws IOException {
+    input.skipNBytes(length);
+  }
+
+  private int read() throws IOException {
+    if (remaining-- <= 0) {
+      throw new IOException("Read past the end of section " + section);
+    }
+    int b = input.read();
+    if (b < 0) {
+      throw new EOFException("Archive ends in section " + section);
+    }
+    return b;
+  }
+
+  private void readFully(byte[] bytes) throws IOException {
+    remaining -= bytes.length;
+    if (remaining < 0) {
+      throw new IOException("Read past the end of section " + section);
+    }
+    if (input.readNBytes(bytes, 0, bytes.length) != bytes.length) {
+      throw new EOFException("Archive ends in section " + section);
+    }
+  }
+
+  private byte[] bytes(int length) throws IOException {
+    if (length > remaining) {
+      throw new IOException("Read past the end of section " + section);
+    }
+    byte[] bytes = new byte[length];
+    readFully(bytes);
+    return bytes;
+  }
+
+  private long varint() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = read();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint in section " + section);
+  }
+
+  /* A varint that must fit a non-negative int */
+  private int count() throws IOException {
+    long value = varint();
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IOException("Count out of range in section " + section);
+    }
+    return (int) value;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.springframework.web.socket.TextMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A STOMP MESSAGE frame encoded once for every subscriber of a destination.
+ * <p>
+ * The only header that can differ between subscribers is {@code subscription}, which echoes the
+ * ID the client chose when it subscribed.  Frames are built lazily per distinct subscription ID and
+ * reused, so when clients subscribe with the same ID (see the WebSocket section of the API notes)
+ * one {@link TextMessage} is written to every session.  A frame is built and used by a single
+ * broadcast and is not thread-safe.
+ */
+final class BroadcastFrame {
+
+  private static final byte[] SUBSCRIPTION = bytes("\nsubscription:");
+
+  /* "MESSAGE\ndestination:...\ncontent-type:...\nmessage-id:..." */
+  private final byte[] head;
+  /* "\ncontent-length:N\n\n" + payload + NUL */
+  private final byte[] tail;
+
+  private String lastSubscriptionId;
+  private TextMessage lastMessage;
+  private Map<String, TextMessage> others;
+
+  BroadcastFrame(String destination, String contentType, String messageId, byte[] payload) {
+    this.head = bytes("MESSAGE\ndestination:" + escape(destination)
+        + "\ncontent-type:" + escape(contentType)
+        + "\nmessage-id:" + escape(messageId));
+    byte[] length = bytes("\ncontent-length:" + payload.length + "\n\n");
+    this.tail = new byte[length.length + payload.length + 1];
+    System.arraycopy(length, 0, tail, 0, length.length);
+    System.arraycopy(payload, 0, tail, length.length, payload.length);
+  }
+
+  /**
+   * @return the frame for a subscriber with the given subscription ID
+   */
+  TextMessage forSubscription(String subscriptionId) {
+    if (subscriptionId.equals(lastSubscriptionId)) {
+      return lastMessage;
+    }
+    TextMessage message = null;
+    if (lastMessage != null) {
+      if (others == null) {
+        others = new HashMap<>();
+      }
+      others.put(lastSubscriptionId, lastMessage);
+      message = others.get(subscriptionId);
+    }
+    if (message == null) {
+      message = encode(subscriptionId);
+    }
+    lastSubscriptionId = subscriptionId;
+    lastMessage = message;
+    return message;
+  }
+
+  private TextMessage encode(String subscriptionId) {
+    byte[] id = bytes(escape(subscriptionId));
+    byte[] frame = new byte[head.length + SUBSCRIPTION.length + id.length + tail.length];
+    int offset = 0;
+    System.arraycopy(head, 0, frame, offset, head.length);
+    offset += head.length;
+    System.arraycopy(SUBSCRIPTION, 0, frame, offset, SUBSCRIPTION.length);
+    offset += SUBSCRIPTION.length;
+    System.arraycopy(id, 0, frame, offset, id.length);
+    offset += id.length;
+    System.arraycopy(tail, 0, frame, offset, tail.length);
+    return new TextMessage(frame);
+  }
+
+  /**
+   * Escape a header value as STOMP 1.2 requires for every frame other than CONNECT/CONNECTED.
+   */
+  static String escape(String value) {
+    StringBuilder escaped = null;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      String replacement = switch (c) {
+        case '\\' -> "\\\\";
+        case ':' -> "\\c";
+        case '\n' -> "\\n";
+        case '\r' -> "\\r";
+        default -> null;
+      };
+      if (replacement != null && escaped == null) {
+        escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+      }
+      if (escaped != null) {
+        if (replacement != null) {
+          escaped.append(replacement);
+        } else {
+          escaped.append(c);
+        }
+      }
+    }
+    return escaped == null ? value : escaped.toString();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the coalesced broadcasts of {@link QuizBroadcastScheduler}.
+ * <p>
+ * The coalescing ratio is the number of state changes (answers counted, leaderboard updates,
+ * player count changes) divided by the number of messages published for them.  Tick lag is how
+ * late a quiz's tick ran compared with when it was due.
+ */
+@Component
+public class BroadcastMetrics {
+
+  private final LongAdder quizTicks = new LongAdder();
+  private final LongAdder messages = new LongAdder();
+  private final LongAdder changes = new LongAdder();
+  private final LongAdder totalLagNanos = new LongAdder();
+  private final AtomicLong maxLagNanos = new AtomicLong();
+
+  /**
+   * Count a quiz tick that ran {@code lagNanos} after it was due.
+   */
+  public void recordTick(long lagNanos) {
+    long lag = Math.max(lagNanos, 0);
+    quizTicks.increment();
+    totalLagNanos.add(lag);
+    maxLagNanos.accumulateAndGet(lag, Math::max);
+  }
+
+  /**
+   * Count one published message that carried {@code coalescedChanges} state changes.
+   */
+  public void recordPublish(long coalescedChanges) {
+    messages.increment();
+    changes.add(Math.max(coalescedChanges, 1));
+  }
+
+  public BroadcastMetricsView view() {
+    long ticks = quizTicks.sum();
+    long published = messages.sum();
+    long changed = changes.sum();
+    return new BroadcastMetricsView(ticks, published, changed,
+        published == 0 ? 0 : (double) changed / published,
+        ticks == 0 ? 0 : millis(totalLagNanos.sum()) / ticks,
+        millis(maxLagNanos.get()));
+  }
+
+  private static double millis(long nanos) {
+    return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.common.ApiResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Broadcast coalescing and tick lag metrics, for operators.
+ */
+@RestController
+@RequestMapping("/api/admin/broadcast/metrics")
+public class BroadcastMetricsController {
+
+  private final BroadcastMetrics broadcastMetrics;
+
+  public BroadcastMetricsController(BroadcastMetrics broadcastMetrics) {
+    this.broadcastMetrics = broadcastMetrics;
+  }
+
+  @GetMapping
+  public ApiResponse<BroadcastMetricsView> metrics() {
+    return ApiResponse.success(broadcastMetrics.view());
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+/**
+ * Point-in-time copy of the {@link BroadcastMetrics} counters, totals since startup.
+ *
+ * @param quizTicks quiz ticks run
+ * @param messages messages published by the ticks
+ * @param changes state changes the published messages carried
+ * @param coalescingRatio changes per published message
+ * @param meanTickLagMs mean delay of a quiz tick past its due time
+ * @param maxTickLagMs largest delay of a quiz tick past its due time
+ */
+public record BroadcastMetricsView(long quizTicks,
+                                   long messages,
+                                   long changes,
+                                   double coalescingRatio,
+                                   double meanTickLagMs,
+                                   double maxTickLagMs) {
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the shared-frame broadcast path to WebSocket sessions.
+ * Bound from the {@code quiz.broadcast.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "quiz.broadcast")
+public class BroadcastProperties {
+
+  /* Longest a single send to a slow session may take before the session is closed */
+  private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+  /* Bytes that may be buffered for a slow session before it is closed */
+  private int sendBufferSizeLimit = 512 * 1024;
+
+  /* Coalesced updates per second for a quiz with an open question */
+  private double questionRateHz = 4;
+
+  /* Coalesced updates per second for a quiz in its lobby or between questions */
+  private double lobbyRateHz = 1;
+
+  /* Number of players sent in each leaderboard update */
+  private int leaderboardSize = 10;
+
+  /* Players shown either side of the player in their personal standing */
+  private int standingRadius = 2;
+
+  /* How often a full leaderboard keyframe is sent between deltas */
+  private Duration leaderboardKeyframeInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A WebSocket session that any number of threads may send to, like
+ * {@link ConcurrentWebSocketSessionDecorator}: a send that finds another one in progress leaves its
+ * frame in a buffer for that thread to write, and the session is closed once a single write takes
+ * longer than the send time limit or the buffer outgrows its size limit.  It is closed right there,
+ * by the sender that found the limit exceeded, since broadcasts and pings are not sent through
+ * Spring's STOMP handler, which is what closes the session for that decorator.
+ * <p>
+ * Unlike that decorator it has a second buffer for urgent frames, which is always emptied first.
+ * Time sync pings go there, since a ping that waited behind a burst of broadcast frames would
+ * measure the queue rather than the network.
+ */
+final class BroadcastSession extends WebSocketSessionDecorator {
+
+  private final int sendTimeLimit;
+  private final int bufferSizeLimit;
+
+  private final Queue<WebSocketMessage<?>> urgent = new ConcurrentLinkedQueue<>();
+  private final Queue<WebSocketMessage<?>> buffer = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger bufferSize = new AtomicInteger();
+
+  /* Milliseconds since the epoch when the write in progress started, or 0 */
+  private volatile long sendStartTime;
+  private volatile boolean limitExceeded;
+  private volatile boolean closeInProgress;
+
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final ReentrantLock closeLock = new ReentrantLock();
+
+  BroadcastSession(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit) {
+    super(delegate);
+    this.sendTimeLimit = sendTimeLimit;
+    this.bufferSizeLimit = bufferSizeLimit;
+  }
+
+  @Override
+  public void sendMessage(WebSocketMessage<?> message) throws IOException {
+    send(buffer, message);
+  }
+
+  /**
+   * Send a frame ahead of any frames still waiting to be written.
+   */
+  void sendUrgent(WebSocketMessage<?> message) throws IOException {
+    send(urgent, message);
+  }
+
+  int getBufferSize() {
+    return bufferSize.get();
+  }
+
+  private void send(Queue<WebSocketMessage<?>> queue, WebSocketMessage<?> message) throws IOException {
+    if (shouldNotSend()) {
+      return;
+    }
+    queue.add(message);
+    bufferSize.addAndGet(message.getPayloadLength());
+    do {
+      if (!tryFlush()) {
+        checkSessionLimits();
+        break;
+      }
+    } while ((!urgent.isEmpty() || !buffer.isEmpty()) && !shouldNotSend());
+  }
+
+  private boolean tryFlush() throws IOException {
+    if (!flushLock.tryLock()) {
+      return false;
+    }
+    try {
+      while (!shouldNotSend()) {
+        WebSocketMessage<?> message = urgent.poll();
+        if (message == null) {
+          message = buffer.poll();
+        }
+        if (message == null) {
+          break;
+        }
+        bufferSize.addAndGet(-message.getPayloadLength());
+        sendStartTime = System.currentTimeMillis();
+        getDelegate().sendMessage(message);
+        sendStartTime = 0;
+      }
+    } finally {
+      sendStartTime = 0;
+      flushLock.unlock();
+    }
+    return true;
+  }
+
+  private boolean shouldNotSend() {
+    return limitExceeded || closeInProgress;
+  }
+
+  private void checkSessionLimits() {
+    if (shouldNotSend() || !closeLock.tryLock()) {
+      return;
+    }
+    try {
+      long start = sendStartTime;
+      long sendTime = start == 0 ? 0 : System.currentTimeMillis() - start;
+      if (sendTime > sendTimeLimit) {
+        limitExceeded("Send time " + sendTime + " (ms) for session '" + getId()
+            + "' exceeded the allowed limit " + sendTimeLimit);
+      } else if (bufferSize.get() > bufferSizeLimit) {
+        limitExceeded("Buffer size " + bufferSize.get() + " bytes for session '" + getId()
+            + "' exceeds the allowed limit " + bufferSizeLimit);
+      }
+    } finally {
+      closeLock.unlock();
+    }
+  }
+
+  private void limitExceeded(String reason) {
+    limitExceeded = true;
+    // Every later frame would be dropped, so do not leave the client subscribed to nothing
+    try {
+      close(CloseStatus.SESSION_NOT_RELIABLE);
+    } catch (IOException e) {
+      // The session is unusable either way
+    }
+    throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+  }
+
+  @Override
+  public void close(CloseStatus status) throws IOException {
+    closeLock.lock();
+    try {
+      if (closeInProgress) {
+        return;
+      }
+      if (!CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+        try {
+          checkSessionLimits();
+        } catch (SessionLimitExceededException e) {
+          // Closing anyway, only the status changes
+        }
+        if (limitExceeded) {
+          status = CloseStatus.SESSION_NOT_RELIABLE;
+        }
+      }
+      closeInProgress = true;
+      super.close(status);
+    } finally {
+      closeLock.unlock();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the open WebSocket sessions by ID so {@link QuizBroadcaster} can write to them directly.
+ * <p>
+ * Installed as a handler decorator on the STOMP endpoint.  Each session is wrapped in a
+ * {@link BroadcastSession} before the STOMP handler sees it, so frames written by the broadcaster
+ * and frames written by Spring's own outbound channel are serialized through the same buffer, and
+ * a session that cannot keep up is closed rather than blocking a broadcast.
+ */
+@Component
+public class BroadcastSessionRegistry implements WebSocketHandlerDecoratorFactory {
+
+  private final BroadcastProperties properties;
+  private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+  public BroadcastSessionRegistry(BroadcastProperties properties) {
+    this.properties = properties;
+  }
+
+  @Override
+  public WebSocketHandler decorate(WebSocketHandler handler) {
+    return new WebSocketHandlerDecorator(handler) {
+      @Override
+      public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        WebSocketSession shared = new BroadcastSession(session,
+            (int) properties.getSendTimeLimit().toMillis(), properties.getSendBufferSizeLimit());
+        register(shared);
+        super.afterConnectionEstablished(shared);
+      }
+
+      @Override
+      public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        sessions.remove(session.getId());
+        super.afterConnectionClosed(session, closeStatus);
+      }
+    };
+  }
+
+  /**
+   * @return the open session with the given ID, or null if there is none
+   */
+  public WebSocketSession get(String sessionId) {
+    return sessions.get(sessionId);
+  }
+
+  public int size() {
+    return sessions.size();
+  }
+
+  void register(WebSocketSession session) {
+    sessions.put(session.getId(), session);
+  }
+}
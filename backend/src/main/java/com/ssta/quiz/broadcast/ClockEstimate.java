@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip time and clock offset of one player's session, estimated from its pongs.
+ * <p>
+ * The filter keeps the fastest round trip seen and the offset measured on it, since the fastest
+ * exchange is the one least distorted by queueing at either end.  A slower sample ages the
+ * estimate upwards by an eighth of the difference, so a lasting change of route is followed
+ * within a few pings while a one-off spike barely moves it.
+ * <p>
+ * Pings are sent by the sweeping thread and pongs handled on the session's inbound thread, one
+ * at a time.  Other threads read the estimate through {@link #rttMs()} and {@link #offsetMs()}.
+ */
+final class ClockEstimate {
+
+  final String sessionId;
+  final String subscriptionId;
+  final long playerId;
+  /* Only touched by a ClockSync sweep, and sweeps never overlap */
+  long nextPingNanos;
+  int pingsSent;
+  /* Written before seq, which publishes it to the thread handling the pong */
+  private long pingSentNanos;
+  private volatile int seq;
+  /* Inbound thread only */
+  private int answeredSeq;
+  /* Milliseconds, or -1 before the first sample */
+  private volatile int rttMs = -1;
+  /* Player's clock minus the server's wall clock, in milliseconds */
+  private volatile int offsetMs;
+
+  ClockEstimate(String sessionId, String subscriptionId, long playerId) {
+    this.sessionId = sessionId;
+    this.subscriptionId = subscriptionId;
+    this.playerId = playerId;
+  }
+
+  /**
+   * Record a ping as sent.
+   *
+   * @return the ping's sequence number
+   */
+  int ping(long sentNanos) {
+    pingSentNanos = sentNanos;
+    int next = seq + 1;
+    seq = next;
+    pingsSent++;
+    return next;
+  }
+
+  /**
+   * Take a sample from a pong.
+   *
+   * @param seq the sequence number of the ping it answers
+   * @param clientTimeMs the player's clock when the ping arrived
+   * @return false if it does not answer the last ping, or that ping was already answered
+   */
+  boolean pong(int seq, long clientTimeMs, long nowNanos, long nowMs) {
+    if (seq != this.seq || seq == answeredSeq) {
+      return false;
+    }
+    answeredSeq = seq;
+    int rtt = (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(nowNanos - pingSentNanos));
+    // The ping most likely arrived halfway through the round trip
+    long offset = clientTimeMs - (nowMs - rtt / 2);
+    sample(rtt, Math.clamp(offset, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    return true;
+  }
+
+  void sample(int rtt, int offset) {
+    int best = rttMs;
+    if (best < 0 || rtt <= best) {
+      offsetMs = offset;
+      rttMs = rtt;
+    } else {
+      rttMs = best + Math.max(1, (rtt - best) / 8);
+    }
+  }
+
+  /**
+   * @return the estimated round trip in milliseconds, or -1 if no pong has been received
+   */
+  int rttMs() {
+    return rttMs;
+  }
+
+  int offsetMs() {
+    return offsetMs;
+  }
+}
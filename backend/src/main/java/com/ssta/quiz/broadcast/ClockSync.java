@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ping/pong time sync with each player's WebSocket session, used to take network delay out of
+ * server-measured response times.
+ * <p>
+ * A player subscribes to {@code /user/queue/time} on a session connected as that player, see
+ * {@link PlayerSessions}.  The server then pings the session every {@code quiz.clock-sync.interval},
+ * after a few quicker warm-up pings, and the client answers each one straight away with a SEND to
+ * {@code /app/time/pong} carrying the ping's {@code seq} and its own clock in a {@code client-time}
+ * header.  Pongs are handled in {@link #preSend} on the session's inbound thread, before they are
+ * queued for the message handlers, and go no further.  Pings are sent ahead of any broadcast
+ * frames still waiting for the session, see {@link BroadcastSession}.  Each session keeps a
+ * {@link ClockEstimate} of a few primitive fields.
+ * <p>
+ * Installed as an interceptor on the client inbound channel.
+ */
+@Slf4j
+@Component
+public class ClockSync implements ChannelInterceptor {
+
+  public static final String DESTINATION = "/user/queue/time";
+  static final String PONG_DESTINATION = "/app/time/pong";
+  static final String SEQ_HEADER = "seq";
+  static final String CLIENT_TIME_HEADER = "client-time";
+
+  private final BroadcastSessionRegistry sessions;
+  private final ClockSyncProperties properties;
+  private final Map<String, ClockEstimate> bySession = new ConcurrentHashMap<>();
+  private final Map<Long, ClockEstimate> byPlayer = new ConcurrentHashMap<>();
+  /* Only touched by a sweep, and sweeps never overlap */
+  private long messageIds;
+  /* Held for the whole of a scheduled sweep */
+  private final ReentrantLock sweepLock = new ReentrantLock();
+
+  public ClockSync(BroadcastSessionRegistry sessions, ClockSyncProperties properties) {
+    this.sessions = sessions;
+    this.properties = properties;
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+    StompCommand command = accessor.getCommand();
+    String sessionId = accessor.getSessionId();
+    if (command == null || sessionId == null) {
+      return message;
+    }
+    switch (command) {
+      case SUBSCRIBE -> {
+        if (DESTINATION.equals(accessor.getDestination()) && accessor.getSubscriptionId() != null) {
+          add(sessionId, accessor.getSubscriptionId(), PlayerSessions.subscriber(accessor).playerId());
+        }
+      }
+      case SEND -> {
+        if (PONG_DESTINATION.equals(accessor.getDestination())) {
+          pong(sessionId, accessor.getFirstNativeHeader(SEQ_HEADER), accessor.getFirstNativeHeader(CLIENT_TIME_HEADER),
+              System.nanoTime(), System.currentTimeMillis());
+          return null;
+        }
+      }
+      case UNSUBSCRIBE -> {
+        ClockEstimate estimate = bySession.get(sessionId);
+        if (estimate != null && estimate.subscriptionId.equals(accessor.getSubscriptionId())) {
+          remove(sessionId);
+        }
+      }
+      case DISCONNECT -> remove(sessionId);
+      default -> {
+      }
+    }
+    return message;
+  }
+
+  /**
+   * How much of a player's measured response time was network delay: the question reaching them
+   * and their answer coming back, one round trip in all.  At most {@code quiz.clock-sync.max-correction}.
+   *
+   * @return milliseconds to take off the response time, or 0 if the player has no estimate
+   */
+  public int correctionMs(long playerId) {
+    ClockEstimate estimate = byPlayer.get(playerId);
+    int rttMs = estimate == null ? -1 : estimate.rttMs();
+    return rttMs < 0 ? 0 : (int) Math.min(rttMs, properties.getMaxCorrection().toMillis());
+  }
+
+  public int sessionCount() {
+    return bySession.size();
+  }
+
+  /**
+   * Send the pings that are due.  Runs often enough for the warm-up interval to be kept.  A run
+   * that starts while the last one is still going, as fixed-rate runs on virtual threads can, is
+   * skipped.
+   */
+  @Scheduled(fixedRateString = "${quiz.clock-sync.sweep-ms:250}")
+  public void sweep() {
+    if (!sweepLock.tryLock()) {
+      return;
+    }
+    try {
+      sweep(System.nanoTime());
+    } finally {
+      sweepLock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of pings sent
+   */
+  int sweep(long now) {
+    int sent = 0;
+    for (ClockEstimate estimate : bySession.values()) {
+      if (now - estimate.nextPingNanos < 0) {
+        continue;
+      }
+      WebSocketSession session = sessions.get(estimate.sessionId);
+      if (session == null) {
+        remove(estimate.sessionId);
+        continue;
+      }
+      if (ping(session, estimate)) {
+        sent++;
+      }
+      long interval = estimate.pingsSent < properties.getWarmupPings()
+          ? properties.getWarmupInterval().toNanos()
+          : properties.getInterval().toNanos();
+      estimate.nextPingNanos = now + interval;
+    }
+    return sent;
+  }
+
+  ClockEstimate find(long playerId) {
+    return byPlayer.get(playerId);
+  }
+
+  void add(String sessionId, String subscriptionId, long playerId) {
+    ClockEstimate estimate = new ClockEstimate(sessionId, subscriptionId, playerId);
+    estimate.nextPingNanos = System.nanoTime();
+    ClockEstimate previous = bySession.put(sessionId, estimate);
+    if (previous != null) {
+      byPlayer.remove(previous.playerId, previous);
+    }
+    // A player with a second session of their own is timed by the newest one
+    byPlayer.put(playerId, estimate);
+  }
+
+  void pong(String sessionId, String seq, String clientTime, long nowNanos, long nowMs) {
+    ClockEstimate estimate = bySession.get(sessionId);
+    if (estimate == null || seq == null || clientTime == null) {
+      return;
+    }
+    try {
+      estimate.pong(Integer.parseInt(seq.trim()), Long.parseLong(clientTime.trim()), nowNanos, nowMs);
+    } catch (NumberFormatException e) {
+      log.debug("Ignoring malformed pong from session {}: seq={}, client-time={}", sessionId, seq, clientTime);
+    }
+  }
+
+  private void remove(String sessionId) {
+    ClockEstimate estimate = bySession.remove(sessionId);
+    if (estimate != null) {
+      byPlayer.remove(estimate.playerId, estimate);
+    }
+  }
+
+  private boolean ping(WebSocketSession session, ClockEstimate estimate) {
+    int rttMs = estimate.rttMs();
+    long serverTimeMs = System.currentTimeMillis();
+    int seq = estimate.ping(System.nanoTime());
+    String payload = "{\"seq\":" + seq + ",\"serverTime\":" + serverTimeMs
+        + ",\"rttMs\":" + (rttMs < 0 ? "null" : rttMs)
+        + ",\"offsetMs\":" + (rttMs < 0 ? "null" : estimate.offsetMs()) + "}";
+    String frame = "MESSAGE\ndestination:" + DESTINATION
+        + "\ncontent-type:application/json\nsubscription:" + BroadcastFrame.escape(estimate.subscriptionId)
+        + "\nmessage-id:t-" + ++messageIds
+        + "\ncontent-length:" + payload.length() + "\n\n" + payload + '\0';
+    try {
+      if (session instanceof BroadcastSession shared) {
+        shared.sendUrgent(new TextMessage(frame));
+      } else {
+        session.sendMessage(new TextMessage(frame));
+      }
+      return true;
+    } catch (IOException | RuntimeException e) {
+      log.debug("Failed to ping session {}: {}", session.getId(), e.getMessage());
+      return false;
+    }
+  }
+}
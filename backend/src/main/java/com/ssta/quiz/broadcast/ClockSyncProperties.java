@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the ping/pong time sync on {@code /user/queue/time}.
+ * Bound from the {@code quiz.clock-sync.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "quiz.clock-sync")
+public class ClockSyncProperties {
+
+  /* Pings sent at warmupInterval right after a player subscribes, to get a first estimate quickly */
+  private int warmupPings = 3;
+
+  private Duration warmupInterval = Duration.ofSeconds(1);
+
+  /* Time between pings once warmed up; a ping and its pong are two messages per interval */
+  private Duration interval = Duration.ofSeconds(5);
+
+  /* Most that is taken off a response time for network delay, however slow the player's link */
+  private Duration maxCorrection = Duration.ofMillis(500);
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.stats.AnswerDistributionView;
+
+import java.util.List;
+
+/**
+ * Answer distributions that changed during one tick, as pushed to {@code /topic/quiz/{quizId}/distribution}.
+ *
+ * @param quizId the quiz ID
+ * @param questions the distribution of each question with new answers, in question order
+ */
+public record DistributionUpdate(long quizId, List<AnswerDistributionView> questions) {
+}
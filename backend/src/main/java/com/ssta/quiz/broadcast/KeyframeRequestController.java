@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP endpoint for clients that detected a gap in the leaderboard sequence numbers.  A SEND to
+ * {@code /app/quiz/{quizId}/scores/keyframe} makes the quiz's next tick publish a full keyframe to
+ * {@code /topic/quiz/{quizId}/scores}.
+ */
+@Controller
+public class KeyframeRequestController {
+
+  private final QuizBroadcastScheduler scheduler;
+
+  public KeyframeRequestController(QuizBroadcastScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  @MessageMapping("/quiz/{quizId}/scores/keyframe")
+  public void requestKeyframe(@DestinationVariable long quizId) {
+    scheduler.requestKeyframe(quizId);
+  }
+}
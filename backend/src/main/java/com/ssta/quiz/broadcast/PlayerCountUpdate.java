@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+/**
+ * Number of players connected to a quiz, as pushed to {@code /topic/quiz/{quizId}/players}.
+ *
+ * @param quizId the quiz ID
+ * @param players sessions subscribed to the quiz's state topic
+ */
+public record PlayerCountUpdate(long quizId, int players) {
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import java.security.Principal;
+
+/**
+ * The user of a WebSocket session connected as a player, set by {@link PlayerSessions}.
+ *
+ * @param quizId the quiz the player belongs to
+ * @param playerId the player ID
+ */
+public record PlayerPrincipal(long quizId, long playerId) implements Principal {
+
+  @Override
+  public String getName() {
+    return "player-" + playerId;
+  }
+}
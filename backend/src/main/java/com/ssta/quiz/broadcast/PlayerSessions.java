@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.player.PlayerRepository;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds a WebSocket session to the player it was opened for, so that per-player subscriptions
+ * take the player from the session instead of trusting a header on each SUBSCRIBE.
+ * <p>
+ * A player's client sends {@code quiz-id} and {@code player-id} headers on CONNECT.  The player
+ * must exist and belong to that quiz, and the session's user is then a {@link PlayerPrincipal}.
+ * Sessions that connect without them, such as the quizmaster screen, can still subscribe to the
+ * quiz topics but not to {@link ClockSync#DESTINATION} or {@link StandingSubscriptions#DESTINATION}.
+ * <p>
+ * Installed as the first interceptor on the client inbound channel.
+ */
+@Component
+public class PlayerSessions implements ChannelInterceptor {
+
+  static final String QUIZ_ID_HEADER = "quiz-id";
+  static final String PLAYER_ID_HEADER = "player-id";
+
+  private final PlayerRepository playerRepository;
+
+  public PlayerSessions(PlayerRepository playerRepository) {
+    this.playerRepository = playerRepository;
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    // The mutable accessor, so that the user set here is kept for the rest of the session
+    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+      return message;
+    }
+    String playerHeader = accessor.getFirstNativeHeader(PLAYER_ID_HEADER);
+    if (playerHeader == null) {
+      return message;
+    }
+    long playerId = parseId(playerHeader, PLAYER_ID_HEADER);
+    long quizId = parseId(accessor.getFirstNativeHeader(QUIZ_ID_HEADER), QUIZ_ID_HEADER);
+    if (!playerRepository.existsByIdAndQuizId(playerId, quizId)) {
+      throw new IllegalArgumentException("Player " + playerId + " does not belong to quiz " + quizId);
+    }
+    accessor.setUser(new PlayerPrincipal(quizId, playerId));
+    return message;
+  }
+
+  /**
+   * The player a per-player subscription is for: the one its session connected as.  Any
+   * {@code quiz-id} or {@code player-id} header on the SUBSCRIBE must name the same quiz and player.
+   *
+   * @throws IllegalArgumentException if the session did not connect as a player, or a header names another one
+   */
+  static PlayerPrincipal subscriber(StompHeaderAccessor accessor) {
+    if (!(accessor.getUser() instanceof PlayerPrincipal player)) {
+      throw new IllegalArgumentException("Subscribing to " + accessor.getDestination()
+          + " needs a session connected with " + QUIZ_ID_HEADER + " and " + PLAYER_ID_HEADER + " headers");
+    }
+    String playerHeader = accessor.getFirstNativeHeader(PLAYER_ID_HEADER);
+    if (playerHeader != null && parseId(playerHeader, PLAYER_ID_HEADER) != player.playerId()) {
+      throw new IllegalArgumentException(
+          "Session is connected as player " + player.playerId() + ", not " + playerHeader);
+    }
+    String quizHeader = accessor.getFirstNativeHeader(QUIZ_ID_HEADER);
+    if (quizHeader != null && parseId(quizHeader, QUIZ_ID_HEADER) != player.quizId()) {
+      throw new IllegalArgumentException("Session is connected to quiz " + player.quizId() + ", not " + quizHeader);
+    }
+    return player;
+  }
+
+  static long parseId(String value, String header) {
+    if (value == null) {
+      throw new IllegalArgumentException("Missing " + header + " header");
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + header + " header: " + value, e);
+    }
+  }
+}
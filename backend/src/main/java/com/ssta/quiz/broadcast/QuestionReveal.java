@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.live.LiveQuizSnapshot;
+
+import java.util.List;
+
+/**
+ * A question that has just opened, as pushed to {@code /topic/quiz/{quizId}/question}.  The
+ * correct option is not included.
+ *
+ * @param quizId the quiz ID
+ * @param position the question's position in play order
+ * @param questionId the question ID, to be sent back with the answer
+ * @param text the question text
+ * @param imageUrl the question image, or null
+ * @param options the option texts in display order
+ * @param timeLimitMs time allowed to answer, or 0 for no limit
+ * @param openedAt when the question opened, in epoch milliseconds on the server's clock
+ */
+public record QuestionReveal(long quizId,
+                             int position,
+                             long questionId,
+                             String text,
+                             String imageUrl,
+                             List<String> options,
+                             int timeLimitMs,
+                             long openedAt) {
+
+  public static QuestionReveal of(LiveQuizSnapshot snapshot, int position, long openedAt) {
+    return new QuestionReveal(snapshot.quizId(), position, snapshot.questionId(position),
+        snapshot.questionText(position), snapshot.imageUrl(position), snapshot.options(position).texts(),
+        snapshot.timeLimitMs(position), openedAt);
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.leaderboard.Leaderboard;
+import com.ssta.quiz.leaderboard.LeaderboardDelta;
+import com.ssta.quiz.leaderboard.LeaderboardDeltaEncoder;
+import com.ssta.quiz.leaderboard.LeaderboardService;
+import com.ssta.quiz.leaderboard.LeaderboardUpdate;
+import com.ssta.quiz.live.LiveQuizRegistry;
+import com.ssta.quiz.live.LiveQuizSnapshot;
+import com.ssta.quiz.live.QuizPhase;
+import com.ssta.quiz.stats.AnswerDistributionView;
+import com.ssta.quiz.stats.AnswerStatsService;
+import com.ssta.quiz.stats.QuizAnswerStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the changing state of every live quiz as coalesced updates on a fixed tick.
+ * <p>
+ * Answers change the leaderboard and answer counts far more often than anyone can read them, so
+ * nothing is pushed per answer.  Instead each quiz is ticked at its phase's rate (by default 4 Hz
+ * while a question is open, 1 Hz in the lobby) and each tick publishes at most one message per
+ * channel, and only for channels whose state changed since the previous tick:
+ * <ul>
+ *   <li>{@code /topic/quiz/{quizId}/scores}: changes to the top of the leaderboard as numbered
+ *   {@link LeaderboardDelta}s, with a full keyframe periodically and on request</li>
+ *   <li>{@code /topic/quiz/{quizId}/distribution}: answer distributions of every question with new answers</li>
+ *   <li>{@code /topic/quiz/{quizId}/players}: number of players subscribed to the quiz's state topic</li>
+ *   <li>{@code /user/queue/standing}: each player's own standing, see {@link StandingPublisher}</li>
+ * </ul>
+ * Ticks never overlap, so the per-quiz state here is only touched by one tick at a time.  With
+ * {@code spring.threads.virtual.enabled} each fixed-rate run starts on a new virtual thread whether
+ * or not the last one has finished, so a run that finds a tick still going is skipped; the next due
+ * quizzes are picked up by the run after.
+ */
+@Slf4j
+@Component
+public class QuizBroadcastScheduler {
+
+  private final LiveQuizRegistry liveQuizRegistry;
+  private final LeaderboardService leaderboardService;
+  private final AnswerStatsService answerStatsService;
+  private final QuizSubscriptionRegistry subscriptionRegistry;
+  private final QuizBroadcaster broadcaster;
+  private final StandingPublisher standingPublisher;
+  private final BroadcastMetrics metrics;
+  private final BroadcastProperties properties;
+  private final Map<Long, QuizChannels> quizzes = new ConcurrentHashMap<>();
+  /* Held for the whole of a scheduled tick */
+  private final ReentrantLock tickLock = new ReentrantLock();
+
+  public QuizBroadcastScheduler(LiveQuizRegistry liveQuizRegistry,
+                                LeaderboardService leaderboardService,
+                                AnswerStatsService answerStatsService,
+                                QuizSubscriptionRegistry subscriptionRegistry,
+                                QuizBroadcaster broadcaster,
+                                StandingPublisher standingPublisher,
+                                BroadcastMetrics metrics,
+                                BroadcastProperties properties) {
+    this.liveQuizRegistry = liveQuizRegistry;
+    this.leaderboardService = leaderboardService;
+    this.answerStatsService = answerStatsService;
+    this.subscriptionRegistry = subscriptionRegistry;
+    this.broadcaster = broadcaster;
+    this.standingPublisher = standingPublisher;
+    this.metrics = metrics;
+    this.properties = properties;
+  }
+
+  /**
+   * Switch a live quiz to a new phase, and so to that phase's broadcast rate.  Moving to a faster
+   * rate takes effect from the next tick.
+   */
+  public void setPhase(long quizId, QuizPhase phase) {
+    setPhase(quizId, phase, System.nanoTime());
+  }
+
+  void setPhase(long quizId, QuizPhase phase, long now) {
+    QuizChannels channels = quizzes.computeIfAbsent(quizId, id -> new QuizChannels(id, now));
+    channels.phase = phase;
+    long interval = intervalNanos(phase);
+    if (channels.nextDueNanos - (now + interval) > 0) {
+      channels.nextDueNanos = now + interval;
+    }
+  }
+
+  /**
+   * Send a question that has just opened to {@code /topic/quiz/{quizId}/question} on the quiz's
+   * next tick, which is brought forward to the next tick of the scheduler.  A question replaced
+   * before it went out is not sent.
+   */
+  public void publishQuestion(QuestionReveal question) {
+    publishQuestion(question, System.nanoTime());
+  }
+
+  void publishQuestion(QuestionReveal question, long now) {
+    QuizChannels channels = quizzes.computeIfAbsent(question.quizId(), id -> new QuizChannels(id, now));
+    channels.question.set(question);
+    channels.nextDueNanos = now;
+  }
+
+  /**
+   * @return the quiz's current phase, LOBBY for quizzes that have not been given one
+   */
+  public QuizPhase phaseOf(long quizId) {
+    QuizChannels channels = quizzes.get(quizId);
+    return channels == null ? QuizPhase.LOBBY : channels.phase;
+  }
+
+  /**
+   * Ask for a leaderboard keyframe on the quiz's next tick, for clients that missed a delta.
+   * Requests arriving within one tick share a single keyframe.
+   */
+  public void requestKeyframe(long quizId) {
+    QuizChannels channels = quizzes.get(quizId);
+    if (channels != null) {
+      channels.keyframeRequested = true;
+    }
+  }
+
+  /**
+   * Runs every {@code quiz.broadcast.tick-resolution-ms}, which bounds how precisely the per-phase
+   * rates are kept.
+   */
+  @Scheduled(fixedRateString = "${quiz.broadcast.tick-resolution-ms:50}")
+  public void tick() {
+    if (!tickLock.tryLock()) {
+      return;
+    }
+    try {
+      tick(System.nanoTime());
+    } finally {
+      tickLock.unlock();
+    }
+  }
+
+  void tick(long now) {
+    for (LiveQuizSnapshot snapshot : liveQuizRegistry.all()) {
+      QuizChannels channels = quizzes.computeIfAbsent(snapshot.quizId(), id -> new QuizChannels(id, now));
+      long lag = now - channels.nextDueNanos;
+      if (lag < 0) {
+        continue;
+      }
+      metrics.recordTick(lag);
+      publishChanges(channels, now);
+
+      long interval = intervalNanos(channels.phase);
+      channels.nextDueNanos += interval;
+      if (channels.nextDueNanos - now <= 0) {
+        // Fell more than a whole interval behind; skip the missed ticks rather than bursting
+        channels.nextDueNanos = now + interval;
+      }
+    }
+    quizzes.keySet().removeIf(quizId -> liveQuizRegistry.find(quizId).isEmpty());
+  }
+
+  private void publishChanges(QuizChannels channels, long now) {
+    QuestionReveal question = channels.question.getAndSet(null);
+    if (question != null) {
+      publish(channels.questionDestination, question, 1);
+    }
+
+    Leaderboard leaderboard = leaderboardService.find(channels.quizId).orElse(null);
+    if (leaderboard != null) {
+      boolean keyframe = channels.keyframeRequested || now - channels.nextKeyframeNanos >= 0;
+      long version = leaderboard.version();
+      if (keyframe || version != channels.leaderboardVersion) {
+        channels.keyframeRequested = false;
+        LeaderboardUpdate update = leaderboard.update(properties.getLeaderboardSize());
+        LeaderboardDelta delta = channels.scores.encode(update, keyframe);
+        if (delta != null) {
+          publish(channels.scoresDestination, delta, update.version() - channels.leaderboardVersion);
+          if (delta.keyframe()) {
+            channels.nextKeyframeNanos = now + properties.getLeaderboardKeyframeInterval().toNanos();
+          }
+        }
+        channels.leaderboardVersion = update.version();
+      }
+      standingPublisher.publish(channels.quizId, leaderboard);
+    }
+
+    QuizAnswerStats stats = answerStatsService.find(channels.quizId).orElse(null);
+    if (stats != null) {
+      List<AnswerDistributionView> changed = null;
+      long newAnswers = 0;
+      for (int position = 0; position < stats.questionCount(); position++) {
+        long answers = stats.takeUnpublishedAnswers(position);
+        if (answers != 0) {
+          if (changed == null) {
+            changed = new ArrayList<>();
+          }
+          changed.add(stats.atPosition(position).view());
+          newAnswers += answers;
+        }
+      }
+      if (changed != null) {
+        publish(channels.distributionDestination, new DistributionUpdate(channels.quizId, changed), newAnswers);
+      }
+    }
+
+    int players = subscriptionRegistry.subscriberCount(channels.stateDestination);
+    if (players != channels.players) {
+      publish(channels.playersDestination, new PlayerCountUpdate(channels.quizId, players), 1);
+      channels.players = players;
+    }
+  }
+
+  private void publish(String destination, Object payload, long coalescedChanges) {
+    int sessions;
+    try {
+      sessions = broadcaster.broadcast(destination, payload);
+    } catch (RuntimeException e) {
+      log.warn("Failed to broadcast to {}", destination, e);
+      return;
+    }
+    // A channel nobody is subscribed to sends nothing, so it coalesces nothing either
+    if (sessions > 0) {
+      metrics.recordPublish(coalescedChanges);
+    }
+  }
+
+  private long intervalNanos(QuizPhase phase) {
+    double rateHz = phase == QuizPhase.QUESTION ? properties.getQuestionRateHz() : properties.getLobbyRateHz();
+    return (long) (TimeUnit.SECONDS.toNanos(1) / rateHz);
+  }
+
+  /**
+   * Broadcast state of one quiz: what was last published on each channel and when it is next due.
+   */
+  private static final class QuizChannels {
+
+    final long quizId;
+    final String scoresDestination;
+    final String distributionDestination;
+    final String playersDestination;
+    final String stateDestination;
+    final String questionDestination;
+
+    final LeaderboardDeltaEncoder scores;
+
+    volatile QuizPhase phase = QuizPhase.LOBBY;
+    volatile long nextDueNanos;
+    volatile boolean keyframeRequested;
+    /* Opened question waiting to be sent on the next tick */
+    final AtomicReference<QuestionReveal> question = new AtomicReference<>();
+    long nextKeyframeNanos;
+    /* Start as "never published" so a quiz's first tick sends its initial state */
+    long leaderboardVersion = -1;
+    int players = -1;
+
+    QuizChannels(long quizId, long now) {
+      this.quizId = quizId;
+      String prefix = QuizSubscriptionRegistry.QUIZ_PREFIX + quizId + "/";
+      this.scoresDestination = prefix + "scores";
+      this.distributionDestination = prefix + "distribution";
+      this.playersDestination = prefix + "players";
+      this.stateDestination = prefix + "state";
+      this.questionDestination = prefix + "question";
+      this.scores = new LeaderboardDeltaEncoder(quizId);
+      this.nextDueNanos = now;
+      this.nextKeyframeNanos = now;
+    }
+  }
+}
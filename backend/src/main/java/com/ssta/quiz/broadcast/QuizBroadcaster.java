@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broadcasts game messages to every subscriber of a {@code /topic} destination by encoding the
+ * STOMP frame once and writing the same buffer to each session.
+ * <p>
+ * Sending through {@code SimpMessagingTemplate} converts the payload once, but the broker then
+ * builds a new message and header map per subscriber and the STOMP handler encodes a new frame per
+ * session.  For a question reveal or leaderboard going to thousands of players that per-session
+ * work dominates.  Here the payload is serialized to JSON once, the frame is built once (per
+ * distinct subscription ID, see {@link BroadcastFrame}), and written straight to the sessions
+ * subscribed to the destination in {@link QuizSubscriptionRegistry}.
+ */
+@Slf4j
+@Component
+public class QuizBroadcaster {
+
+  private static final String CONTENT_TYPE = "application/json";
+
+  private final ObjectMapper objectMapper;
+  private final BroadcastSessionRegistry sessions;
+  private final QuizSubscriptionRegistry subscriptionRegistry;
+  private final AtomicLong messageIds = new AtomicLong();
+
+  public QuizBroadcaster(ObjectMapper objectMapper, BroadcastSessionRegistry sessions,
+                         QuizSubscriptionRegistry subscriptionRegistry) {
+    this.objectMapper = objectMapper;
+    this.sessions = sessions;
+    this.subscriptionRegistry = subscriptionRegistry;
+  }
+
+  /**
+   * Serialize a payload to JSON and send it to every subscriber of a destination.
+   *
+   * @param destination the destination, e.g. {@code /topic/quiz/42/question}
+   * @param payload the message payload
+   * @return the number of sessions the frame was written to; the payload is not serialized when
+   * there are no subscribers
+   * @throws IllegalArgumentException if the payload cannot be serialized
+   */
+  public int broadcast(String destination, Object payload) {
+    MultiValueMap<String, String> subscriptions = subscriptionRegistry.findSubscriptions(destination);
+    if (subscriptions.isEmpty()) {
+      return 0;
+    }
+    byte[] json;
+    try {
+      json = objectMapper.writeValueAsBytes(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Cannot serialize broadcast to " + destination, e);
+    }
+    return send(destination, subscriptions, json);
+  }
+
+  /**
+   * Send an already serialized JSON payload to every subscriber of a destination.
+   *
+   * @param destination the destination
+   * @param json the UTF-8 JSON payload, which must not be modified afterwards
+   * @return the number of sessions the frame was written to
+   */
+  public int broadcastJson(String destination, byte[] json) {
+    MultiValueMap<String, String> subscriptions = subscriptionRegistry.findSubscriptions(destination);
+    return subscriptions.isEmpty() ? 0 : send(destination, subscriptions, json);
+  }
+
+  private int send(String destination, MultiValueMap<String, String> subscriptions, byte[] json) {
+    BroadcastFrame frame = new BroadcastFrame(destination, CONTENT_TYPE, "b-" + messageIds.incrementAndGet(), json);
+    int delivered = 0;
+    for (Map.Entry<String, List<String>> entry : subscriptions.entrySet()) {
+      WebSocketSession session = sessions.get(entry.getKey());
+      if (session == null) {
+        continue;
+      }
+      for (String subscriptionId : entry.getValue()) {
+        if (send(session, frame.forSubscription(subscriptionId))) {
+          delivered++;
+        }
+      }
+    }
+    return delivered;
+  }
+
+  private static boolean send(WebSocketSession session, TextMessage message) {
+    try {
+      session.sendMessage(message);
+      return true;
+    } catch (IOException | RuntimeException e) {
+      // A slow or broken session is closed by its decorator; the remaining subscribers still get the frame
+      log.debug("Failed to send broadcast to session {}: {}", session.getId(), e.getMessage());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subscription registry for the simple broker that matches destinations exactly, through hash
+ * lookups keyed by quiz ID and channel.
+ * <p>
+ * Spring's default registry supports Ant-style patterns, so a destination it has not cached has to
+ * be matched against every subscription, and its cache holds a fixed number of destinations.  With
+ * thousands of quizzes each publishing to its own {@code /topic/quiz/{quizId}/{channel}}, publishes
+ * miss that cache and cost grows with the number of quizzes.  Here a publish is two hash lookups
+ * whatever the number of quizzes, and subscribe/unsubscribe are O(1) apart from a lock on the one
+ * destination involved.  The subscriber map returned for a destination is cached and only rebuilt
+ * on the first publish after a change, so a join storm costs one rebuild per publish, not one per
+ * join.
+ * <p>
+ * Pattern subscriptions and selector headers are not supported; pattern subscriptions are ignored.
+ */
+@Slf4j
+@Component
+public class QuizSubscriptionRegistry implements SubscriptionRegistry {
+
+  static final String QUIZ_PREFIX = "/topic/quiz/";
+
+  private static final MultiValueMap<String, String> NO_SUBSCRIPTIONS =
+      CollectionUtils.unmodifiableMultiValueMap(new LinkedMultiValueMap<>());
+
+  private final Map<Long, Topics> quizzes = new ConcurrentHashMap<>();
+  /* Destinations outside /topic/quiz/{quizId}/, keyed by the whole destination */
+  private final Topics otherTopics = new Topics();
+  /* sessionId -> subscriptionId -> destination, since UNSUBSCRIBE and DISCONNECT carry no destination */
+  private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+  @Override
+  public void registerSubscription(Message<?> message) {
+    MessageHeaders headers = message.getHeaders();
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+    String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+    String destination = SimpMessageHeaderAccessor.getDestination(headers);
+    if (sessionId == null || subscriptionId == null || destination == null) {
+      return;
+    }
+    if (isPattern(destination)) {
+      log.warn("Ignoring pattern subscription to {} from session {}", destination, sessionId);
+      return;
+    }
+    String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, destination);
+    if (previous != null) {
+      remove(previous, sessionId, subscriptionId);
+    }
+    add(destination, sessionId, subscriptionId);
+  }
+
+  @Override
+  public void unregisterSubscription(Message<?> message) {
+    MessageHeaders headers = message.getHeaders();
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+    String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+    if (sessionId == null || subscriptionId == null) {
+      return;
+    }
+    Map<String, String> subscriptions = sessions.get(sessionId);
+    String destination = subscriptions == null ? null : subscriptions.remove(subscriptionId);
+    if (destination != null) {
+      remove(destination, sessionId, subscriptionId);
+    }
+  }
+
+  @Override
+  public void unregisterAllSubscriptions(String sessionId) {
+    Map<String, String> subscriptions = sessions.remove(sessionId);
+    if (subscriptions != null) {
+      subscriptions.forEach((subscriptionId, destination) -> remove(destination, sessionId, subscriptionId));
+    }
+  }
+
+  @Override
+  public MultiValueMap<String, String> findSubscriptions(Message<?> message) {
+    String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    return destination == null ? NO_SUBSCRIPTIONS : findSubscriptions(destination);
+  }
+
+  /**
+   * @param destination an exact destination
+   * @return subscription IDs by session ID for the destination; the map is shared and read-only
+   */
+  public MultiValueMap<String, String> findSubscriptions(String destination) {
+    long quizId = quizIdOf(destination);
+    Subscribers subscribers;
+    if (quizId < 0) {
+      subscribers = otherTopics.get(destination);
+    } else {
+      Topics topics = quizzes.get(quizId);
+      subscribers = topics == null ? null : topics.get(channelOf(destination));
+    }
+    return subscribers == null ? NO_SUBSCRIPTIONS : subscribers.snapshot();
+  }
+
+  /**
+   * @return the number of sessions subscribed to an exact destination
+   */
+  public int subscriberCount(String destination) {
+    return findSubscriptions(destination).size();
+  }
+
+  /**
+   * @return the number of quizzes with at least one subscribed destination
+   */
+  public int quizCount() {
+    return quizzes.size();
+  }
+
+  private void add(String destination, String sessionId, String subscriptionId) {
+    long quizId = quizIdOf(destination);
+    if (quizId < 0) {
+      otherTopics.add(destination, sessionId, subscriptionId);
+      return;
+    }
+    String channel = channelOf(destination);
+    quizzes.compute(quizId, (id, topics) -> {
+      Topics quizTopics = topics == null ? new Topics() : topics;
+      quizTopics.add(channel, sessionId, subscriptionId);
+      return quizTopics;
+    });
+  }
+
+  private void remove(String destination, String sessionId, String subscriptionId) {
+    long quizId = quizIdOf(destination);
+    if (quizId < 0) {
+      otherTopics.remove(destination, sessionId, subscriptionId);
+      return;
+    }
+    String channel = channelOf(destination);
+    quizzes.computeIfPresent(quizId, (id, topics) -> {
+      topics.remove(channel, sessionId, subscriptionId);
+      return topics.isEmpty() ? null : topics;
+    });
+  }
+
+  private static boolean isPattern(String destination) {
+    return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+  }
+
+  /**
+   * @return the quiz ID of a {@code /topic/quiz/{quizId}/{channel}} destination, or -1 for any other destination
+   */
+  static long quizIdOf(String destination) {
+    if (!destination.startsWith(QUIZ_PREFIX)) {
+      return -1;
+    }
+    int start = QUIZ_PREFIX.length();
+    int end = destination.indexOf('/', start);
+    if (end <= start || end == destination.length() - 1 || end - start > 18) {
+      return -1;
+    }
+    long quizId = 0;
+    for (int i = start; i < end; i++) {
+      char c = destination.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      quizId = quizId * 10 + (c - '0');
+    }
+    return quizId;
+  }
+
+  private static String channelOf(String destination) {
+    return destination.substring(destination.indexOf('/', QUIZ_PREFIX.length()) + 1);
+  }
+
+  /**
+   * Subscribers by channel.  A channel's subscribers are only changed inside {@code compute}, so a
+   * channel is removed when its last subscriber leaves without racing a concurrent subscribe.
+   */
+  private static final class Topics {
+
+    private final Map<String, Subscribers> byChannel = new ConcurrentHashMap<>();
+
+    Subscribers get(String channel) {
+      return byChannel.get(channel);
+    }
+
+    void add(String channel, String sessionId, String subscriptionId) {
+      byChannel.compute(channel, (key, subscribers) -> {
+        Subscribers channelSubscribers = subscribers == null ? new Subscribers() : subscribers;
+        channelSubscribers.add(sessionId, subscriptionId);
+        return channelSubscribers;
+      });
+    }
+
+    void remove(String channel, String sessionId, String subscriptionId) {
+      byChannel.computeIfPresent(channel, (key, subscribers) ->
+          subscribers.remove(sessionId, subscriptionId) ? null : subscribers);
+    }
+
+    boolean isEmpty() {
+      return byChannel.isEmpty();
+    }
+  }
+
+  /**
+   * The subscribers of one destination, with the map handed to publishers cached until the next change.
+   */
+  private static final class Subscribers {
+
+    /* Immutable lists, almost always of one subscription ID; guarded by this */
+    private final Map<String, List<String>> bySession = new HashMap<>();
+    private MultiValueMap<String, String> snapshot;
+
+    synchronized void add(String sessionId, String subscriptionId) {
+      List<String> ids = bySession.get(sessionId);
+      if (ids == null) {
+        bySession.put(sessionId, List.of(subscriptionId));
+      } else if (!ids.contains(subscriptionId)) {
+        List<String> more = new ArrayList<>(ids);
+        more.add(subscriptionId);
+        bySession.put(sessionId, List.copyOf(more));
+      }
+      snapshot = null;
+    }
+
+    /**
+     * @return true if no subscribers are left
+     */
+    synchronized boolean remove(String sessionId, String subscriptionId) {
+      List<String> ids = bySession.get(sessionId);
+      if (ids != null && ids.contains(subscriptionId)) {
+        if (ids.size() == 1) {
+          bySession.remove(sessionId);
+        } else {
+          List<String> fewer = new ArrayList<>(ids);
+          fewer.remove(subscriptionId);
+          bySession.put(sessionId, List.copyOf(fewer));
+        }
+        snapshot = null;
+      }
+      return bySession.isEmpty();
+    }
+
+    synchronized MultiValueMap<String, String> snapshot() {
+      if (snapshot == null) {
+        snapshot = CollectionUtils.unmodifiableMultiValueMap(new LinkedMultiValueMap<>(new HashMap<>(bySession)));
+      }
+      return snapshot;
+    }
+  }
+}
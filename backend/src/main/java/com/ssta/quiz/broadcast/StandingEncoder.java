@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.leaderboard.RankingBuffer;
+import org.springframework.web.socket.TextMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes personal standings straight to JSON and STOMP frame bytes in buffers reused for every
+ * player and every tick.  The top-N part is the same for every player of a quiz, so it is encoded
+ * once per quiz per tick and copied into each standing.  The only allocations per player are the
+ * frame itself and its {@link TextMessage}.  Not thread-safe.
+ * <p>
+ * A standing looks like
+ * {@code {"quizId":1,"rank":57,"score":3200,"neighbours":[{"rank":55,"playerId":9,"score":3300},...],"players":2000,"top":[...]}}
+ * with ranks 1-based, and {@code "rank":null} with no neighbours for a player who has not scored yet.
+ */
+final class StandingEncoder {
+
+  private static final byte[] FRAME_HEAD = ascii("MESSAGE\ndestination:" + StandingSubscriptions.DESTINATION
+      + "\ncontent-type:application/json\nsubscription:");
+  private static final byte[] MESSAGE_ID = ascii("\nmessage-id:s-");
+  private static final byte[] CONTENT_LENGTH = ascii("\ncontent-length:");
+
+  private final ByteSink shared = new ByteSink(1024);
+  private final ByteSink json = new ByteSink(2048);
+  private final ByteSink frame = new ByteSink(2048);
+
+  /**
+   * Encode the part shared by every standing of a quiz: player count and top {@code topSize}.
+   */
+  void beginQuiz(RankingBuffer ranking, int topSize) {
+    shared.reset();
+    shared.ascii(",\"players\":").number(ranking.size()).ascii(",\"top\":");
+    entries(shared, ranking, 0, Math.min(topSize, ranking.size()));
+    shared.ascii("}");
+  }
+
+  /**
+   * Encode one player's standing after {@link #beginQuiz}.
+   *
+   * @param rank the player's 0-based rank, or -1 if they are not on the leaderboard
+   * @return a hash of the standing, to detect when it has not changed
+   */
+  long encodeStanding(long quizId, int rank, RankingBuffer ranking, int radius) {
+    json.reset();
+    json.ascii("{\"quizId\":").number(quizId).ascii(",\"rank\":");
+    if (rank < 0) {
+      json.ascii("null,\"score\":0,\"neighbours\":[]");
+    } else {
+      json.number(rank + 1L).ascii(",\"score\":").number(ranking.scoreAt(rank)).ascii(",\"neighbours\":");
+      entries(json, ranking, Math.max(0, rank - radius), Math.min(ranking.size(), rank + radius + 1));
+    }
+    json.append(shared);
+    return json.hash();
+  }
+
+  /**
+   * @return the STOMP MESSAGE frame carrying the standing last encoded
+   */
+  TextMessage frame(String subscriptionId, long messageId) {
+    frame.reset();
+    frame.append(FRAME_HEAD).ascii(BroadcastFrame.escape(subscriptionId))
+        .append(MESSAGE_ID).number(messageId)
+        .append(CONTENT_LENGTH).number(json.length).ascii("\n\n")
+        .append(json).append((byte) 0);
+    return new TextMessage(frame.toByteArray());
+  }
+
+  /**
+   * @return the JSON of the standing last encoded, mainly for tests
+   */
+  String json() {
+    return new String(json.bytes, 0, json.length, StandardCharsets.UTF_8);
+  }
+
+  /* A JSON array of the entries at 0-based ranks [from, to) */
+  private static void entries(ByteSink sink, RankingBuffer ranking, int from, int to) {
+    sink.ascii("[");
+    for (int rank = from; rank < to; rank++) {
+      if (rank > from) {
+        sink.ascii(",");
+      }
+      sink.ascii("{\"rank\":").number(rank + 1L)
+          .ascii(",\"playerId\":").number(ranking.playerIdAt(rank))
+          .ascii(",\"score\":").number(ranking.scoreAt(rank))
+          .ascii("}");
+    }
+    sink.ascii("]");
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Growable byte buffer with allocation-free appends of ASCII text and numbers.
+   */
+  private static final class ByteSink {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private byte[] bytes;
+    private int length;
+    private final byte[] digits = new byte[20];
+
+    ByteSink(int capacity) {
+      bytes = new byte[capacity];
+    }
+
+    void reset() {
+      length = 0;
+    }
+
+    ByteSink append(byte b) {
+      ensure(1);
+      bytes[length++] = b;
+      return this;
+    }
+
+    ByteSink append(byte[] source) {
+      ensure(source.length);
+      System.arraycopy(source, 0, bytes, length, source.length);
+      length += source.length;
+      return this;
+    }
+
+    ByteSink append(ByteSink source) {
+      ensure(source.length);
+      System.arraycopy(source.bytes, 0, bytes, length, source.length);
+      length += source.length;
+      return this;
+    }
+
+    /* Only for ASCII text: one byte per char */
+    ByteSink ascii(String text) {
+      ensure(text.length());
+      for (int i = 0; i < text.length(); i++) {
+        bytes[length++] = (byte) text.charAt(i);
+      }
+      return this;
+    }
+
+    ByteSink number(long value) {
+      if (value < 0) {
+        append((byte) '-');
+        value = -value;
+      }
+      int count = 0;
+      do {
+        digits[count++] = (byte) ('0' + value % 10);
+        value /= 10;
+      } while (value > 0);
+      ensure(count);
+      while (count > 0) {
+        bytes[length++] = digits[--count];
+      }
+      return this;
+    }
+
+    long hash() {
+      long hash = FNV_OFFSET;
+      for (int i = 0; i < length; i++) {
+        hash = (hash ^ bytes[i]) * FNV_PRIME;
+      }
+      return hash;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, length);
+    }
+
+    private void ensure(int extra) {
+      if (length + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.leaderboard.Leaderboard;
+import com.ssta.quiz.leaderboard.RankingBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+
+/**
+ * Sends each player on {@code /user/queue/standing} their own rank and score, the players just
+ * above and below them, and the quiz's top N.
+ * <p>
+ * Nothing is looked up per player: each tick copies the whole leaderboard into a reused
+ * {@link RankingBuffer} in one in-order pass, after which every player's rank and neighbours are
+ * array reads.  Standings are encoded by a reused {@link StandingEncoder}, and a player whose
+ * standing is byte-for-byte the same as last time is not sent anything.  Only called from
+ * {@link QuizBroadcastScheduler} ticks, which never overlap.
+ */
+@Slf4j
+@Component
+public class StandingPublisher {
+
+  private final StandingSubscriptions subscriptions;
+  private final BroadcastSessionRegistry sessions;
+  private final BroadcastProperties properties;
+  private final RankingBuffer ranking = new RankingBuffer();
+  private final StandingEncoder encoder = new StandingEncoder();
+  private long messageIds;
+
+  public StandingPublisher(StandingSubscriptions subscriptions, BroadcastSessionRegistry sessions,
+                           BroadcastProperties properties) {
+    this.subscriptions = subscriptions;
+    this.sessions = sessions;
+    this.properties = properties;
+  }
+
+  /**
+   * Send changed standings to the quiz's subscribers.  Does nothing if the leaderboard has not
+   * changed since the last call and no one has subscribed since.
+   *
+   * @return the number of standings sent
+   */
+  public int publish(long quizId, Leaderboard leaderboard) {
+    return publish(quizId, leaderboard, false);
+  }
+
+  int publish(long quizId, Leaderboard leaderboard, boolean force) {
+    StandingSubscriptions.QuizStandings standings = subscriptions.find(quizId);
+    if (standings == null) {
+      return 0;
+    }
+    boolean newSubscribers = standings.takeNewSubscribers();
+    if (!force && !newSubscribers && leaderboard.version() == standings.publishedVersion) {
+      return 0;
+    }
+    leaderboard.copyRanking(ranking);
+    standings.publishedVersion = ranking.version();
+    encoder.beginQuiz(ranking, properties.getLeaderboardSize());
+
+    int sent = 0;
+    for (StandingSubscriber subscriber : standings.subscribers()) {
+      int rank = ranking.rankOf(subscriber.node, subscriber.playerId);
+      if (rank < 0) {
+        subscriber.node = leaderboard.nodeOf(subscriber.playerId);
+        rank = ranking.rankOf(subscriber.node, subscriber.playerId);
+      }
+      long hash = encoder.encodeStanding(quizId, rank, ranking, properties.getStandingRadius());
+      if (!force && hash == subscriber.lastHash) {
+        continue;
+      }
+      WebSocketSession session = sessions.get(subscriber.sessionId);
+      if (session != null && send(session, encoder, subscriber.subscriptionId)) {
+        subscriber.lastHash = hash;
+        sent++;
+      }
+    }
+    return sent;
+  }
+
+  private boolean send(WebSocketSession session, StandingEncoder standing, String subscriptionId) {
+    try {
+      session.sendMessage(standing.frame(subscriptionId, ++messageIds));
+      return true;
+    } catch (IOException | RuntimeException e) {
+      log.debug("Failed to send standing to session {}: {}", session.getId(), e.getMessage());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+/**
+ * One {@code /user/queue/standing} subscription.  The mutable fields are only touched by the
+ * publishing thread.
+ */
+final class StandingSubscriber {
+
+  final String sessionId;
+  final String subscriptionId;
+  final long playerId;
+
+  /* The player's leaderboard node once they are on the board, -1 until then */
+  int node = -1;
+  /* Hash of the last standing sent, so an unchanged standing is not sent again */
+  long lastHash;
+
+  StandingSubscriber(String sessionId, String subscriptionId, long playerId) {
+    this.sessionId = sessionId;
+    this.subscriptionId = subscriptionId;
+    this.playerId = playerId;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks which player each {@code /user/queue/standing} subscription belongs to.
+ * <p>
+ * Installed as an interceptor on the client inbound channel.  A client subscribes on a session
+ * connected as a player (see {@link PlayerSessions}), and the subscription is for that player in
+ * that quiz; it is then fed by {@link StandingPublisher} rather than by the broker.
+ */
+@Component
+public class StandingSubscriptions implements ChannelInterceptor {
+
+  public static final String DESTINATION = "/user/queue/standing";
+
+  private final Map<Long, QuizStandings> quizzes = new ConcurrentHashMap<>();
+  /* sessionId -> subscriptionId -> quizId, since UNSUBSCRIBE and DISCONNECT carry no destination */
+  private final Map<String, Map<String, Long>> sessions = new ConcurrentHashMap<>();
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+    StompCommand command = accessor.getCommand();
+    String sessionId = accessor.getSessionId();
+    if (command == null || sessionId == null) {
+      return message;
+    }
+    switch (command) {
+      case SUBSCRIBE -> {
+        if (DESTINATION.equals(accessor.getDestination()) && accessor.getSubscriptionId() != null) {
+          PlayerPrincipal player = PlayerSessions.subscriber(accessor);
+          add(player.quizId(), sessionId, accessor.getSubscriptionId(), player.playerId());
+        }
+      }
+      case UNSUBSCRIBE -> {
+        if (accessor.getSubscriptionId() != null) {
+          remove(sessionId, accessor.getSubscriptionId());
+        }
+      }
+      case DISCONNECT -> removeSession(sessionId);
+      default -> {
+      }
+    }
+    return message;
+  }
+
+  /**
+   * @return the standing subscriptions of a quiz, or null if it has none
+   */
+  QuizStandings find(long quizId) {
+    return quizzes.get(quizId);
+  }
+
+  void add(long quizId, String sessionId, String subscriptionId, long playerId) {
+    Long previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, quizId);
+    if (previous != null) {
+      removeFromQuiz(previous, sessionId, subscriptionId);
+    }
+    StandingSubscriber subscriber = new StandingSubscriber(sessionId, subscriptionId, playerId);
+    quizzes.compute(quizId, (id, existing) -> {
+      QuizStandings standings = existing == null ? new QuizStandings() : existing;
+      standings.subscribers.put(key(sessionId, subscriptionId), subscriber);
+      standings.newSubscribers.set(true);
+      return standings;
+    });
+  }
+
+  void remove(String sessionId, String subscriptionId) {
+    Map<String, Long> subscriptions = sessions.get(sessionId);
+    Long quizId = subscriptions == null ? null : subscriptions.remove(subscriptionId);
+    if (quizId != null) {
+      removeFromQuiz(quizId, sessionId, subscriptionId);
+    }
+  }
+
+  private void removeSession(String sessionId) {
+    Map<String, Long> subscriptions = sessions.remove(sessionId);
+    if (subscriptions != null) {
+      subscriptions.forEach((subscriptionId, quizId) -> removeFromQuiz(quizId, sessionId, subscriptionId));
+    }
+  }
+
+  private void removeFromQuiz(long quizId, String sessionId, String subscriptionId) {
+    quizzes.computeIfPresent(quizId, (id, standings) -> {
+      standings.subscribers.remove(key(sessionId, subscriptionId));
+      return standings.subscribers.isEmpty() ? null : standings;
+    });
+  }
+
+  private static String key(String sessionId, String subscriptionId) {
+    return sessionId + '\n' + subscriptionId;
+  }
+
+  /**
+   * The standing subscribers of one quiz.  The collection is weakly consistent; the other fields
+   * are only used by the publishing thread, apart from {@code newSubscribers}.
+   */
+  static final class QuizStandings {
+    final Map<String, StandingSubscriber> subscribers = new ConcurrentHashMap<>();
+    final AtomicBoolean newSubscribers = new AtomicBoolean();
+    long publishedVersion = -1;
+
+    Collection<StandingSubscriber> subscribers() {
+      return subscribers.values();
+    }
+
+    /**
+     * @return true (once) if subscribers were added since the last call
+     */
+    boolean takeNewSubscribers() {
+      // A subscriber added between a separate read and clear would not be seen until the version changed
+      return newSubscribers.get() && newSubscribers.getAndSet(false);
+    }
+  }
+}
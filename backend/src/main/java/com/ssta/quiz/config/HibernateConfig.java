@@ -23,6 +23,12 @@ public class HibernateConfig {
       hibernateProperties.put("hibernate.jdbc.batch_size", "50");
       hibernateProperties.put("hibernate.order_inserts", "true");
       hibernateProperties.put("hibernate.order_updates", "true");
+      // Ids come from sequences in blocks of allocationSize; pooled-lo means the sequence value is the block's first id
+      hibernateProperties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+      // The database decides the block size, so a sequence's INCREMENT BY can be tuned per entity without a rebuild
+      hibernateProperties.put("hibernate.id.sequence.increment_size_mismatch_strategy", "fix");
+      // player_answers is partitioned, and schema validation only looks for the table types it is told about
+      hibernateProperties.put("hibernate.hbm2ddl.extra_physical_table_types", "PARTITIONED TABLE");
       // Use the standard PostgreSQL dialect
       hibernateProperties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
     };
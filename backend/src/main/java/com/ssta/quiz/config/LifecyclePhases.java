@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.config;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * The {@link SmartLifecycle} phases of the components that take in answers and write them out.
+ * Spring starts the lowest phase first and stops the highest first, so each component here stops
+ * only once everything that hands it work has stopped.
+ * <p>
+ * All of them sit below the web server, which Spring Boot stops at {@link #WEB_SERVER}, after its
+ * graceful shutdown at {@code DEFAULT_PHASE - 1024} has let in-flight requests finish.  No request
+ * can then submit an answer to a component that has already stopped, and none can arrive before
+ * they have started.
+ */
+public final class LifecyclePhases {
+
+  /* Spring Boot's WebServerStartStopLifecycle; its graceful shutdown stops just before it, at DEFAULT_PHASE - 1024 */
+  public static final int WEB_SERVER = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+  /* Runs live quizzes, handing closed questions to the scorer and admitted answers to the queue */
+  public static final int GAME_ENGINE = WEB_SERVER - 100;
+
+  /* Scores closed questions, writing queued answers first, and records the scores */
+  public static final int ANSWER_SCORER = WEB_SERVER - 200;
+
+  /* Writes queued answers, so it stops after the scorer that drains it */
+  public static final int ANSWER_QUEUE = WEB_SERVER - 300;
+
+  /* Flushes the totals recorded by the scorer and the queue, so it stops after both */
+  public static final int ANSWER_ANALYTICS = WEB_SERVER - 400;
+
+  private LifecyclePhases() {
+  }
+}
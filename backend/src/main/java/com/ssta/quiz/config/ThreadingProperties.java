@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the virtual-thread mode switched on by {@code spring.threads.virtual.enabled}.
+ * Bound from the {@code quiz.threads.*} properties.
+ * <p>
+ * In that mode Spring Boot runs Tomcat requests and {@code @Scheduled} tasks on virtual threads,
+ * and {@link WebSocketConfig} does the same for STOMP messages sent to {@code /app}.  Blocking in
+ * a {@code @Transactional} service then parks a virtual thread instead of holding a platform one,
+ * so the number of database calls in flight is bounded by the HikariCP pool
+ * ({@code spring.datasource.hikari.maximum-pool-size}) rather than by thread pool sizes.
+ */
+@Data
+@ConfigurationProperties(prefix = "quiz.threads")
+public class ThreadingProperties {
+
+  /* Most inbound STOMP messages handled at once in virtual-thread mode; the rest wait in a queue */
+  private int inboundVirtualThreads = 10_000;
+}
@@ -5,26 +5,109 @@
  */
 package com.ssta.quiz.config;
 
+import com.ssta.quiz.broadcast.BroadcastSessionRegistry;
+import com.ssta.quiz.broadcast.ClockSync;
+import com.ssta.quiz.broadcast.PlayerSessions;
+import com.ssta.quiz.broadcast.QuizSubscriptionRegistry;
+import com.ssta.quiz.broadcast.StandingSubscriptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+  private final BroadcastSessionRegistry broadcastSessionRegistry;
+  private final PlayerSessions playerSessions;
+  private final StandingSubscriptions standingSubscriptions;
+  private final ClockSync clockSync;
+  private final ThreadingProperties threadingProperties;
+  private final boolean virtualThreads;
+
+  public WebSocketConfig(BroadcastSessionRegistry broadcastSessionRegistry, PlayerSessions playerSessions,
+                         StandingSubscriptions standingSubscriptions, ClockSync clockSync,
+                         ThreadingProperties threadingProperties, Environment environment) {
+    this.broadcastSessionRegistry = broadcastSessionRegistry;
+    this.playerSessions = playerSessions;
+    this.standingSubscriptions = standingSubscriptions;
+    this.clockSync = clockSync;
+    this.threadingProperties = threadingProperties;
+    this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+  }
+
+  /**
+   * The simple broker enabled here matches subscriptions with {@link QuizSubscriptionRegistry}
+   * rather than its default pattern-matching registry; the registry is swapped in by
+   * {@link #quizSubscriptionRegistryInstaller} when the broker handler is created, as
+   * {@link MessageBrokerRegistry} has no option for it.
+   */
   @Override
   public void configureMessageBroker(MessageBrokerRegistry registry) {
     registry.enableSimpleBroker("/topic");
     registry.setApplicationDestinationPrefixes("/app");
   }
 
+  @Bean
+  static BeanPostProcessor quizSubscriptionRegistryInstaller(ObjectProvider<QuizSubscriptionRegistry> subscriptionRegistry) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof SimpleBrokerMessageHandler broker) {
+          broker.setSubscriptionRegistry(subscriptionRegistry.getObject());
+        }
+        return bean;
+      }
+    };
+  }
+
   @Override
   public void registerStompEndpoints(StompEndpointRegistry registry) {
     registry.addEndpoint("/ws")
         .setAllowedOrigins("http://localhost:5173")
         .withSockJS();
   }
+
+  @Override
+  public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+    // Lets QuizBroadcaster write shared frames straight to the sessions
+    registration.addDecoratorFactory(broadcastSessionRegistry);
+  }
+
+  /**
+   * In virtual-thread mode, inbound messages are handled on virtual threads so that a handler
+   * waiting on the database does not hold one of the few platform threads of the default
+   * executor.  {@link ChannelRegistration} only accepts a {@link ThreadPoolTaskExecutor}, so this
+   * is a pool of virtual threads sized well above the connection pool, whose idle threads exit.
+   */
+  @Override
+  public void configureClientInboundChannel(ChannelRegistration registration) {
+    // Binds player sessions on CONNECT, records which player each /user/queue/standing subscription
+    // belongs to, and takes pongs for the time sync before they are queued behind other inbound messages
+    registration.interceptors(playerSessions, standingSubscriptions, clockSync);
+    if (virtualThreads) {
+      registration.taskExecutor(virtualThreadExecutor(threadingProperties.getInboundVirtualThreads()));
+    }
+  }
+
+  static ThreadPoolTaskExecutor virtualThreadExecutor(int threads) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setVirtualThreads(true);
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setKeepAliveSeconds(1);
+    executor.setAllowCoreThreadTimeOut(true);
+    return executor;
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent bitset over player slots, one per question, recording who has answered.
+ * <p>
+ * {@link #testAndSet} is a single atomic OR on the word holding the slot's bit, so concurrent
+ * answers from different players never block each other and the same player can only win once.
+ * The count of set bits is a {@link LongAdder}, so winners on different words do not all contend
+ * on one counter either.
+ * Words live in fixed-size pages created the first time a slot in them is used, so a bitset costs
+ * nothing for players who have not joined yet and never needs to be copied to grow.
+ */
+final class AnswerBitset {
+
+  private static final int PAGE_BITS = 12;
+  /* Longs per page: 4096, i.e. 262,144 slots */
+  private static final int PAGE_WORDS = 1 << PAGE_BITS;
+  /* Enough pages for 2^30 slots */
+  private static final int MAX_PAGES = 1 << (30 - PAGE_BITS - 6);
+  private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private final AtomicReferenceArray<long[]> pages = new AtomicReferenceArray<>(MAX_PAGES);
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * Set the slot's bit.
+   *
+   * @return true if the bit was clear, i.e. this call is the first to claim the slot
+   */
+  boolean testAndSet(int slot) {
+    long mask = 1L << slot;
+    long previous = (long) WORDS.getAndBitwiseOr(page(slot), (slot >>> 6) & (PAGE_WORDS - 1), mask);
+    if ((previous & mask) != 0) {
+      return false;
+    }
+    count.increment();
+    return true;
+  }
+
+  /**
+   * Clear a slot's bit, giving back a claim that did not go through.
+   */
+  void clear(int slot) {
+    long mask = 1L << slot;
+    long previous = (long) WORDS.getAndBitwiseAnd(page(slot), (slot >>> 6) & (PAGE_WORDS - 1), ~mask);
+    if ((previous & mask) != 0) {
+      count.decrement();
+    }
+  }
+
+  boolean get(int slot) {
+    long[] page = pages.get(slot >>> (PAGE_BITS + 6));
+    return page != null && ((long) WORDS.getVolatile(page, (slot >>> 6) & (PAGE_WORDS - 1)) & (1L << slot)) != 0;
+  }
+
+  /**
+   * @return the number of slots set, which may miss answers being set at the same moment
+   */
+  int cardinality() {
+    return (int) count.sum();
+  }
+
+  private long[] page(int slot) {
+    int index = slot >>> (PAGE_BITS + 6);
+    long[] page = pages.get(index);
+    if (page == null) {
+      pages.compareAndSet(index, null, new long[PAGE_WORDS]);
+      page = pages.get(index);
+    }
+    return page;
+  }
+}
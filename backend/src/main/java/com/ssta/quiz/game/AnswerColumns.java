@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import java.util.Arrays;
+
+/**
+ * Growable parallel arrays of the answers stored for one question and not yet scored: the
+ * player, the chosen option and the response time (-1 if there was none) of each.
+ * Not thread safe; owned by the quiz's carrier until handed to the scorer.
+ */
+final class AnswerColumns {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private long[] playerIds = new long[0];
+  private int[] answerOptions = new int[0];
+  private int[] responseTimesMs = new int[0];
+  private int size;
+
+  void add(long playerId, int answerOption, Integer responseTimeMs) {
+    if (size == playerIds.length) {
+      int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+      playerIds = Arrays.copyOf(playerIds, capacity);
+      answerOptions = Arrays.copyOf(answerOptions, capacity);
+      responseTimesMs = Arrays.copyOf(responseTimesMs, capacity);
+    }
+    playerIds[size] = playerId;
+    answerOptions[size] = answerOption;
+    responseTimesMs[size] = responseTimeMs == null ? -1 : responseTimeMs;
+    size++;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /* The backing arrays; only the first size() entries are answers */
+
+  long[] playerIds() {
+    return playerIds;
+  }
+
+  int[] answerOptions() {
+    return answerOptions;
+  }
+
+  int[] responseTimesMs() {
+    return responseTimesMs;
+  }
+}
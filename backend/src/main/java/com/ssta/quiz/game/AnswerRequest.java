@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+/**
+ * A player's answer to the open question of a live quiz.  Its response time is measured by the
+ * server.
+ *
+ * @param playerId the player ID
+ * @param questionId the question ID
+ * @param answerOption the selected answer option
+ */
+public record AnswerRequest(long playerId,
+                            long questionId,
+                            int answerOption) {
+}
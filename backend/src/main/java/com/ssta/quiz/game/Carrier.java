@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One platform thread that runs the quiz actors assigned to it, one turn at a time.  Actors with
+ * pending commands are queued on a {@link Mailbox}; the thread parks when none are ready.
+ */
+final class Carrier implements Runnable {
+
+  private final Mailbox<QuizActor> ready = new Mailbox<>();
+  private final Thread thread;
+  private volatile boolean running;
+  /* True while the thread is about to park or parked, so schedule() knows to wake it */
+  private volatile boolean waiting;
+
+  Carrier(String name) {
+    thread = new Thread(this, name);
+    thread.setDaemon(true);
+  }
+
+  void start() {
+    running = true;
+    thread.start();
+  }
+
+  void stop() throws InterruptedException {
+    running = false;
+    LockSupport.unpark(thread);
+    thread.join();
+  }
+
+  /**
+   * Queue an actor for a turn.  Called by whichever thread moved the actor to scheduled.
+   */
+  void schedule(QuizActor actor) {
+    ready.offer(actor);
+    if (waiting) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      QuizActor actor = ready.poll();
+      if (actor != null) {
+        actor.runTurn();
+        continue;
+      }
+      waiting = true;
+      // Re-check after publishing waiting: a schedule() that missed it has already linked its actor
+      if (ready.isEmpty() && running) {
+        LockSupport.park(this);
+      }
+      waiting = false;
+    }
+  }
+}
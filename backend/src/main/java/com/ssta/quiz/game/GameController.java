@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import com.ssta.quiz.common.ApiResponse;
+import com.ssta.quiz.playeranswer.PendingAnswer;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Quizmaster controls for the question window of a live quiz, and answer submission for players.
+ */
+@RestController
+public class GameController {
+
+  private final GameEngine gameEngine;
+
+  public GameController(GameEngine gameEngine) {
+    this.gameEngine = gameEngine;
+  }
+
+  @GetMapping("/api/quizmaster/quizzes/{quizId}/game")
+  public ApiResponse<GameState> state(@PathVariable long quizId) {
+    try {
+      return ApiResponse.success(gameEngine.state(quizId));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
+
+  @PostMapping("/api/quizmaster/quizzes/{quizId}/questions/{position}/open")
+  public ApiResponse<GameState> openQuestion(@PathVariable long quizId, @PathVariable int position) {
+    try {
+      return ApiResponse.success("Question opened", gameEngine.openQuestion(quizId, position));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+    }
+  }
+
+  @PostMapping("/api/quizmaster/quizzes/{quizId}/questions/close")
+  public ApiResponse<GameState> closeQuestion(@PathVariable long quizId) {
+    try {
+      return ApiResponse.success("Question closed", gameEngine.closeQuestion(quizId));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+    }
+  }
+
+  @PostMapping("/api/player/quizzes/{quizId}/players/{playerId}/join")
+  public ApiResponse<Integer> join(@PathVariable long quizId, @PathVariable long playerId) {
+    try {
+      return ApiResponse.success("Joined quiz", gameEngine.join(quizId, playerId));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+  }
+
+  @PostMapping("/api/player/quizzes/{quizId}/answers")
+  public ApiResponse<PendingAnswer> submitAnswer(@PathVariable long quizId, @RequestBody AnswerRequest request) {
+    try {
+      PendingAnswer answer = gameEngine.submitAnswer(quizId, request.playerId(), request.questionId(),
+          request.answerOption());
+      return ApiResponse.success("Answer accepted", answer);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import com.ssta.quiz.broadcast.ClockSync;
+import com.ssta.quiz.broadcast.QuestionReveal;
+import com.ssta.quiz.broadcast.QuizBroadcastScheduler;
+import com.ssta.quiz.config.LifecyclePhases;
+import com.ssta.quiz.live.LiveQuizSnapshot;
+import com.ssta.quiz.live.QuizPhase;
+import com.ssta.quiz.player.PlayerRepository;
+import com.ssta.quiz.playeranswer.BatchAnswerScorer;
+import com.ssta.quiz.playeranswer.PendingAnswer;
+import com.ssta.quiz.playeranswer.PlayerAnswerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The Game Engine Module: runs every live quiz as a single-writer event loop and puts it in front
+ * of {@link PlayerAnswerService}.
+ * <p>
+ * Each quiz's state (current question, open or closed, who has answered) belongs to a
+ * {@link QuizActor} that takes commands through a lock-free mailbox.  Actors are spread round-robin
+ * over a fixed pool of carrier threads, one per core by default, so quizzes scale across cores and
+ * commands for one quiz never contend with each other.
+ * <p>
+ * Carriers must never block.  An answer is admitted on the carrier; when answers are only queued
+ * for writing it is also scored and recorded there, otherwise the calling thread writes it to the
+ * database after admission.  Public methods block the caller until
+ * the quiz has handled the command, for at most {@code quiz.engine.command-timeout}.
+ * <p>
+ * Question windows are timed on the server.  A shared {@link TimingWheel} closes each question
+ * when its time limit runs out, reveals the answer {@code reveal-delay} later and, with
+ * {@code auto-advance}, opens the next question after {@code advance-delay}; each step runs as a
+ * command on the quiz's carrier.  Closing a window, by timer or by the quizmaster, hands its answers
+ * to the {@link BatchAnswerScorer} to be written and scored.  Response times are measured from
+ * the monotonic clock reading taken when the question opened, not reported by the player, less the
+ * player's network round trip as estimated by {@link ClockSync}.
+ * <p>
+ * When scoring is deferred, each stored answer is captured by its quiz and a question's answers
+ * go to the {@link BatchAnswerScorer} together when it closes.  An answer written by the calling
+ * thread is only captured once its row is committed, so one whose write finishes after the close is
+ * handed over on its own as it finishes.
+ */
+@Slf4j
+@Component
+public class GameEngine implements SmartLifecycle {
+
+  private final PlayerAnswerService playerAnswerService;
+  private final QuizBroadcastScheduler broadcastScheduler;
+  private final BatchAnswerScorer answerScorer;
+  private final ClockSync clockSync;
+  private final PlayerRepository playerRepository;
+  private final GameEngineProperties properties;
+  private final Carrier[] carriers;
+  private final TimingWheel timer;
+  private final AtomicInteger nextCarrier = new AtomicInteger();
+  private final Map<Long, QuizActor> actors = new ConcurrentHashMap<>();
+  private volatile boolean running;
+
+  public GameEngine(PlayerAnswerService playerAnswerService, QuizBroadcastScheduler broadcastScheduler,
+                    BatchAnswerScorer answerScorer, ClockSync clockSync, PlayerRepository playerRepository,
+                    GameEngineProperties properties) {
+    this.playerAnswerService = playerAnswerService;
+    this.broadcastScheduler = broadcastScheduler;
+    this.answerScorer = answerScorer;
+    this.clockSync = clockSync;
+    this.playerRepository = playerRepository;
+    this.properties = properties;
+    int threads = properties.getCarrierThreads() > 0
+        ? properties.getCarrierThreads()
+        : Runtime.getRuntime().availableProcessors();
+    this.carriers = new Carrier[threads];
+    for (int i = 0; i < threads; i++) {
+      carriers[i] = new Carrier("game-carrier-" + i);
+    }
+    this.timer = new TimingWheel("game-timer", properties.getTimerTick().toNanos());
+  }
+
+  /**
+   * Start running a live quiz, replacing any game already running for it.
+   */
+  public void start(LiveQuizSnapshot snapshot) {
+    Carrier carrier = carriers[Math.floorMod(nextCarrier.getAndIncrement(), carriers.length)];
+    QuizActor actor = new QuizActor(new QuizGame(snapshot), carrier, properties.getBatchSize());
+    QuizActor previous = actors.put(snapshot.quizId(), actor);
+    if (previous != null) {
+      retire(previous);
+    }
+  }
+
+  /**
+   * Stop running a quiz.  Commands already sent to it fail with IllegalStateException.
+   */
+  public void stop(long quizId) {
+    QuizActor actor = actors.remove(quizId);
+    if (actor != null) {
+      retire(actor);
+    }
+  }
+
+  /**
+   * Open the question at {@code position} of a live quiz for answers, closing the current one.
+   * The question closes by itself when its time limit runs out.
+   *
+   * @throws IllegalArgumentException if the quiz is not live or has no question at that position
+   */
+  public GameState openQuestion(long quizId, int position) {
+    QuizActor actor = actor(quizId);
+    return await(actor.ask(game -> open(actor, position)));
+  }
+
+  /**
+   * Stop accepting answers for the current question of a live quiz before its time runs out.
+   *
+   * @throws IllegalArgumentException if the quiz is not live
+   */
+  public GameState closeQuestion(long quizId) {
+    QuizActor actor = actor(quizId);
+    return await(actor.ask(game -> close(actor)));
+  }
+
+  /**
+   * @throws IllegalArgumentException if the quiz is not live
+   */
+  public GameState state(long quizId) {
+    return await(actor(quizId).ask(QuizGame::state));
+  }
+
+  /**
+   * Give a player of a live quiz a slot.  Players must join before they can answer.
+   *
+   * @return the player's slot
+   * @throws IllegalArgumentException if the quiz is not live, or the player does not belong to it
+   */
+  public int join(long quizId, long playerId) {
+    QuizActor actor = actor(quizId);
+    // Slots are never given back, so only the quiz's own players may take one
+    if (!playerRepository.existsByIdAndQuizId(playerId, quizId)) {
+      throw new IllegalArgumentException("Player " + playerId + " does not belong to quiz " + quizId);
+    }
+    return actor.game().join(playerId);
+  }
+
+  /**
+   * Submit a player's answer to the open question of a live quiz.  Its response time is the time
+   * from the question opening to the answer arriving here, less the time the question and the
+   * answer spent crossing the player's network.
+   * <p>
+   * The window check and the duplicate check (a test-and-set on the question's answer bitset) run
+   * on the calling thread, so a second answer is rejected before anything is queued or written.
+   * The quiz then confirms on its carrier that the window did not close in the meantime.
+   *
+   * @return the accepted answer
+   * @throws IllegalArgumentException if the quiz is not live, the question is not found or the
+   * player has not joined it
+   * @throws IllegalStateException if the question is not open, the player already answered it
+   * or the answer queue is full
+   */
+  public PendingAnswer submitAnswer(long quizId, long playerId, long questionId, int answerOption) {
+    long receivedAtNanos = System.nanoTime();
+    QuizActor actor = actor(quizId);
+    QuizGame game = actor.game();
+    int position = game.openPosition();
+    if (position < 0 || game.questionId(position) != questionId) {
+      throw new IllegalStateException("Question " + questionId + " is not open for answers");
+    }
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(receivedAtNanos - game.openedAtNanos());
+    Integer responseTimeMs = Math.clamp(elapsedMs - clockSync.correctionMs(playerId), 0, Integer.MAX_VALUE);
+    if (!game.claim(position, playerId)) {
+      throw new IllegalStateException("Player has already answered this question");
+    }
+
+    boolean deferred = playerAnswerService.defersScoring();
+    if (playerAnswerService.queuesAnswers()) {
+      return await(actor.ask(quiz -> {
+        quiz.admit(position, playerId, questionId);
+        PendingAnswer answer = record(quiz, position, playerId, questionId, answerOption, responseTimeMs);
+        if (deferred) {
+          quiz.capture(position, playerId, answerOption, responseTimeMs);
+        }
+        return answer;
+      }));
+    }
+    await(actor.ask(quiz -> {
+      quiz.admit(position, playerId, questionId);
+      return position;
+    }));
+    PendingAnswer answer = record(game, position, playerId, questionId, answerOption, responseTimeMs);
+    if (deferred) {
+      // The row is committed by now, so the scorer's UPDATE is sure to find it
+      actor.tell(() -> {
+        game.capture(position, playerId, answerOption, responseTimeMs);
+        scoreClosed(game, position);
+      });
+    }
+    return answer;
+  }
+
+  public int liveQuizCount() {
+    return actors.size();
+  }
+
+  @Override
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    for (Carrier carrier : carriers) {
+      carrier.start();
+    }
+    timer.start();
+    running = true;
+    log.info("Started game engine with {} carrier threads", carriers.length);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    try {
+      timer.stop();
+      for (Carrier carrier : carriers) {
+        carrier.stop();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /* Stop after the web server, which submits answers, but before the scorer and answer queue it hands them to */
+  @Override
+  public int getPhase() {
+    return LifecyclePhases.GAME_ENGINE;
+  }
+
+  /* Stop a quiz once its queued commands have run, then score anything its last question still holds */
+  private void retire(QuizActor actor) {
+    actor.stop();
+    actor.tell(() -> scoreClosed(actor.game(), actor.game().position()));
+  }
+
+  /* The steps of a quiz below run on its carrier */
+
+  /* Open a question, closing the one it replaces, and time its window */
+  private GameState open(QuizActor actor, int position) {
+    QuizGame game = actor.game();
+    int previous = game.openPosition();
+    GameState state = game.openQuestion(position);
+    game.cancelTimer();
+    broadcastScheduler.setPhase(game.quizId(), QuizPhase.QUESTION);
+    broadcastScheduler.publishQuestion(QuestionReveal.of(game.snapshot(), position, System.currentTimeMillis()));
+    if (previous >= 0 && previous != position) {
+      windowClosed(game, previous);
+    }
+    int timeLimitMs = game.timeLimitMs(position);
+    if (timeLimitMs > 0) {
+      after(actor, game.openedAtNanos() + TimeUnit.MILLISECONDS.toNanos(timeLimitMs), this::close);
+    }
+    return state;
+  }
+
+  /* Close the open question, send its answers to be written and scored, and time the reveal */
+  private GameState close(QuizActor actor) {
+    QuizGame game = actor.game();
+    int position = game.openPosition();
+    GameState state = game.closeQuestion();
+    if (position < 0) {
+      // Already closed, so leave whatever step is pending alone
+      return state;
+    }
+    game.cancelTimer();
+    broadcastScheduler.setPhase(game.quizId(), QuizPhase.LOBBY);
+    windowClosed(game, position);
+    after(actor, System.nanoTime() + properties.getRevealDelay().toNanos(), this::reveal);
+    return state;
+  }
+
+  /* Show the answer to the question that closed, and time the move to the next one */
+  private void reveal(QuizActor actor) {
+    QuizGame game = actor.game();
+    game.cancelTimer();
+    broadcastScheduler.setPhase(game.quizId(), QuizPhase.REVEAL);
+    if (properties.isAutoAdvance()) {
+      after(actor, System.nanoTime() + properties.getAdvanceDelay().toNanos(), this::advance);
+    }
+  }
+
+  /* Open the next question, or go back to the lobby after the last one */
+  private void advance(QuizActor actor) {
+    QuizGame game = actor.game();
+    int next = game.position() + 1;
+    if (next < game.questionCount()) {
+      open(actor, next);
+    } else {
+      game.cancelTimer();
+      broadcastScheduler.setPhase(game.quizId(), QuizPhase.LOBBY);
+    }
+  }
+
+  /* Run step on the quiz's carrier at deadlineNanos, unless the quiz has moved on to another step by then */
+  private void after(QuizActor actor, long deadlineNanos, Consumer<QuizActor> step) {
+    QuizGame game = actor.game();
+    long epoch = game.epoch();
+    game.setTimer(timer.schedule(deadlineNanos, () -> actor.tell(() -> {
+      if (game.epoch() == epoch && !game.isStopped()) {
+        step.accept(actor);
+      }
+    })));
+  }
+
+  /* A question's window has closed: score its captured answers, or just write out queued ones */
+  private void windowClosed(QuizGame game, int position) {
+    if (!scoreClosed(game, position)) {
+      answerScorer.submitFlush();
+    }
+  }
+
+  /* Hand the captured answers of a closed question to the batch scorer */
+  private boolean scoreClosed(QuizGame game, int position) {
+    AnswerColumns answers = game.takeUnscored(position);
+    if (answers == null) {
+      return false;
+    }
+    answerScorer.submit(game.quizId(), game.questionId(position), answers.playerIds(), answers.answerOptions(),
+        answers.responseTimesMs(), answers.size());
+    return true;
+  }
+
+  /* Hand an admitted answer to PlayerAnswerService, giving the claim back if it is not accepted */
+  private PendingAnswer record(QuizGame game, int position, long playerId, long questionId, int answerOption,
+                               Integer responseTimeMs) {
+    try {
+      return playerAnswerService.submitAnswer(playerId, questionId, answerOption, responseTimeMs);
+    } catch (RuntimeException e) {
+      game.release(position, playerId);
+      throw e;
+    }
+  }
+
+  private QuizActor actor(long quizId) {
+    QuizActor actor = actors.get(quizId);
+    if (actor == null) {
+      throw new IllegalArgumentException("Quiz " + quizId + " is not live");
+    }
+    return actor;
+  }
+
+  private <T> T await(CompletableFuture<T> result) {
+    try {
+      return result.get(properties.getCommandTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new IllegalStateException("Quiz did not handle the command within " + properties.getCommandTimeout());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for the quiz", e);
+    }
+  }
+}
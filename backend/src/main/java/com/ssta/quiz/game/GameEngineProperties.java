@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the per-quiz game engine.  Bound from the {@code quiz.engine.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "quiz.engine")
+public class GameEngineProperties {
+
+  /* Carrier threads running the quiz event loops; 0 means one per available core */
+  private int carrierThreads = 0;
+
+  /* Most commands a quiz runs before letting the other quizzes on its carrier have a turn */
+  private int batchSize = 256;
+
+  /* Longest a caller waits for a quiz to handle its command */
+  private Duration commandTimeout = Duration.ofSeconds(5);
+
+  /* Resolution of the timer that closes questions when their time runs out, reveals answers and advances */
+  private Duration timerTick = Duration.ofMillis(1);
+
+  /* How long after a question closes its answer is revealed */
+  private Duration revealDelay = Duration.ofSeconds(3);
+
+  /* Whether to open the next question by itself once an answer has been revealed for advanceDelay */
+  private boolean autoAdvance = false;
+
+  private Duration advanceDelay = Duration.ofSeconds(10);
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+/**
+ * Point-in-time view of a live quiz's game state.
+ *
+ * @param quizId the quiz ID
+ * @param position position of the current question in play order, or -1 before the first one
+ * @param questionId ID of the current question, or null before the first one
+ * @param open whether the current question is accepting answers
+ * @param answers number of answers accepted for the current question
+ */
+public record GameState(long quizId, int position, Long questionId, boolean open, int answers) {
+}
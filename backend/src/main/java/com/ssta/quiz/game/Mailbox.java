@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free multi-producer, single-consumer queue (Vyukov's intrusive MPSC design).
+ * <p>
+ * {@link #offer} may be called from any thread and is one atomic swap plus one volatile write.
+ * {@link #poll} and {@link #isEmpty} must only be called by the single consumer.  An offer that
+ * has swapped the tail but not yet linked its node is briefly invisible to the consumer, so an
+ * empty result only means "nothing ready yet"; callers that park on it must re-check after the
+ * producer signals them.
+ */
+final class Mailbox<T> {
+
+  private static final class Node<T> {
+    T value;
+    volatile Node<T> next;
+
+    Node(T value) {
+      this.value = value;
+    }
+  }
+
+  /* Last node linked by a producer */
+  private final AtomicReference<Node<T>> tail;
+  /* Consumer-owned stub: the node before the next one to poll */
+  private Node<T> head;
+
+  Mailbox() {
+    Node<T> stub = new Node<>(null);
+    head = stub;
+    tail = new AtomicReference<>(stub);
+  }
+
+  void offer(T value) {
+    Node<T> node = new Node<>(value);
+    Node<T> previous = tail.getAndSet(node);
+    previous.next = node;
+  }
+
+  /**
+   * @return the oldest value, or null if none is ready
+   */
+  T poll() {
+    Node<T> next = head.next;
+    if (next == null) {
+      return null;
+    }
+    T value = next.value;
+    next.value = null;
+    head = next;
+    return value;
+  }
+
+  boolean isEmpty() {
+    return head.next == null;
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives each player of a live quiz a dense int slot, 0, 1, 2... in the order they join, so
+ * per-player state can live in arrays and bitsets indexed by slot.  A player keeps their slot for
+ * as long as the quiz is live.  Thread-safe.
+ */
+final class PlayerSlots {
+
+  private final Map<Long, Integer> slots = new ConcurrentHashMap<>();
+  private final AtomicInteger next = new AtomicInteger();
+
+  /**
+   * @return the player's slot, assigning the next free one if they do not have one yet
+   */
+  int slotOf(long playerId) {
+    Integer slot = slots.get(playerId);
+    return slot != null ? slot : slots.computeIfAbsent(playerId, id -> next.getAndIncrement());
+  }
+
+  /**
+   * @return the player's slot, or -1 if they have not joined
+   */
+  int find(long playerId) {
+    Integer slot = slots.get(playerId);
+    return slot == null ? -1 : slot;
+  }
+
+  int size() {
+    return next.get();
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Single-writer event loop of one live quiz.  Every command runs on the quiz's {@link Carrier},
+ * one at a time and in the order it was sent, so the {@link QuizGame} it owns needs no locks.
+ * <p>
+ * An actor is scheduled on its carrier at most once at a time: a sender that finds it idle moves
+ * it to scheduled and queues it.  Each turn runs at most {@code batchSize} commands so that one
+ * busy quiz cannot starve the others on the same carrier.
+ */
+@Slf4j
+final class QuizActor {
+
+  private final QuizGame game;
+  private final Carrier carrier;
+  private final int batchSize;
+  private final Mailbox<Runnable> mailbox = new Mailbox<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  QuizActor(QuizGame game, Carrier carrier, int batchSize) {
+    this.game = game;
+    this.carrier = carrier;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * @return the game, of which only the thread-safe members may be used off the carrier
+   */
+  QuizGame game() {
+    return game;
+  }
+
+  /**
+   * Run a command against the game on the quiz's carrier.
+   *
+   * @return the command's result, or its exception
+   */
+  <T> CompletableFuture<T> ask(Function<QuizGame, T> command) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    tell(() -> {
+      try {
+        result.complete(command.apply(game));
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Stop the game once the commands already sent have run.
+   */
+  void stop() {
+    tell(game::stop);
+  }
+
+  void tell(Runnable command) {
+    mailbox.offer(command);
+    if (scheduled.compareAndSet(false, true)) {
+      carrier.schedule(this);
+    }
+  }
+
+  /**
+   * Run up to one batch of commands.  Only called by the carrier.
+   */
+  void runTurn() {
+    for (int i = 0; i < batchSize; i++) {
+      Runnable command = mailbox.poll();
+      if (command == null) {
+        break;
+      }
+      try {
+        command.run();
+      } catch (RuntimeException e) {
+        log.error("Command failed for quiz {}", game.quizId(), e);
+      }
+    }
+    scheduled.set(false);
+    // A sender that saw scheduled == true before the reset relies on this turn to pick its command up
+    if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+      carrier.schedule(this);
+    }
+  }
+}
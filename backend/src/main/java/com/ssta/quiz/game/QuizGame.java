@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import com.ssta.quiz.live.LiveQuizSnapshot;
+
+/**
+ * State of one live quiz: the current question, whether it is open and who has answered it.
+ * <p>
+ * The question window is owned by the quiz's {@link QuizActor} and only changed on its carrier.
+ * The thread-safe parts, player slots and the per-question {@link AnswerBitset}s, are also used by
+ * callers off the carrier so that a duplicate answer is turned away before it is even queued;
+ * {@link #openPosition()} lets them check the window first without a round trip.
+ * <p>
+ * When scoring is deferred, stored answers are also captured per question as {@link AnswerColumns}
+ * on the carrier and taken for scoring once their question has closed.
+ * <p>
+ * The quiz's next timed step (closing the question, revealing the answer, moving on) is a single
+ * {@link TimingWheel.Timeout}.  Every change of step bumps an epoch, so a step whose timeout fired
+ * just as it was replaced can tell that it is stale.
+ */
+final class QuizGame {
+
+  private final LiveQuizSnapshot snapshot;
+  private final PlayerSlots slots = new PlayerSlots();
+  /* Players who answered each question, by position, as bits indexed by slot */
+  private final AnswerBitset[] answered;
+  /* Stored answers to each question, by position, still to be scored; carrier only */
+  private final AnswerColumns[] unscored;
+  private int position = -1;
+  /* position while the question is open, -1 while closed; written only on the carrier */
+  private volatile int openPosition = -1;
+  /* System.nanoTime() when the current question opened; written before openPosition */
+  private volatile long openedAtNanos;
+  /* Carrier only */
+  private TimingWheel.Timeout timer;
+  private long epoch;
+  private boolean stopped;
+
+  QuizGame(LiveQuizSnapshot snapshot) {
+    this.snapshot = snapshot;
+    this.answered = new AnswerBitset[snapshot.questionCount()];
+    this.unscored = new AnswerColumns[snapshot.questionCount()];
+    for (int i = 0; i < answered.length; i++) {
+      answered[i] = new AnswerBitset();
+      unscored[i] = new AnswerColumns();
+    }
+  }
+
+  long quizId() {
+    return snapshot.quizId();
+  }
+
+  /**
+   * Give a player a slot in this quiz.  Thread-safe.
+   *
+   * @return the player's slot
+   */
+  int join(long playerId) {
+    return slots.slotOf(playerId);
+  }
+
+  int playerCount() {
+    return slots.size();
+  }
+
+  /**
+   * @return the position of the open question, or -1 if none is open.  Thread-safe.
+   */
+  int openPosition() {
+    return openPosition;
+  }
+
+  LiveQuizSnapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * @return {@link System#nanoTime()} when the current question opened.  Thread-safe.
+   */
+  long openedAtNanos() {
+    return openedAtNanos;
+  }
+
+  long questionId(int position) {
+    return snapshot.questionId(position);
+  }
+
+  int questionCount() {
+    return snapshot.questionCount();
+  }
+
+  /**
+   * @return the time limit of the question at {@code position} in milliseconds, or 0 if it has none
+   */
+  int timeLimitMs(int position) {
+    return snapshot.timeLimitMs(position);
+  }
+
+  /**
+   * Record that a player answered the question at {@code position}.  Thread-safe.
+   *
+   * @return true if this is the player's first answer to it
+   * @throws IllegalArgumentException if the player has not joined
+   */
+  boolean claim(int position, long playerId) {
+    return answered[position].testAndSet(joinedSlot(playerId));
+  }
+
+  /**
+   * Undo a {@link #claim} whose answer was not accepted after all.  Thread-safe.
+   *
+   * @throws IllegalArgumentException if the player has not joined
+   */
+  void release(int position, long playerId) {
+    answered[position].clear(joinedSlot(playerId));
+  }
+
+  /**
+   * Open the question at {@code position} for answers, closing the current one if it is open.
+   *
+   * @throws IllegalArgumentException if the quiz has no question at that position
+   * @throws IllegalStateException if the quiz is no longer live
+   */
+  GameState openQuestion(int position) {
+    checkLive();
+    if (position < 0 || position >= snapshot.questionCount()) {
+      throw new IllegalArgumentException("Quiz " + quizId() + " has no question at position " + position);
+    }
+    this.position = position;
+    this.openedAtNanos = System.nanoTime();
+    this.openPosition = position;
+    return state();
+  }
+
+  /**
+   * Stop accepting answers for the current question.  Does nothing if it is already closed.
+   *
+   * @throws IllegalStateException if the quiz is no longer live
+   */
+  GameState closeQuestion() {
+    checkLive();
+    openPosition = -1;
+    return state();
+  }
+
+  /**
+   * Confirm, on the carrier, that the question at {@code position} is still open for an answer
+   * claimed against it, releasing the claim if not.
+   *
+   * @throws IllegalStateException if it has closed since
+   */
+  void admit(int position, long playerId, long questionId) {
+    if (stopped || openPosition != position) {
+      release(position, playerId);
+      checkLive();
+      throw new IllegalStateException("Question " + questionId + " is not open for answers");
+    }
+  }
+
+  /**
+   * Capture a stored answer to the question at {@code position} for deferred scoring.
+   */
+  void capture(int position, long playerId, int answerOption, Integer responseTimeMs) {
+    unscored[position].add(playerId, answerOption, responseTimeMs);
+  }
+
+  /**
+   * Take the captured answers to the question at {@code position} for scoring, if it is closed and
+   * has any.  Answers captured later, from writes that finish after the close, are taken by a
+   * later call.
+   *
+   * @return the answers, or null if there is nothing to score yet
+   */
+  AnswerColumns takeUnscored(int position) {
+    if (position < 0 || openPosition == position || unscored[position].size() == 0) {
+      return null;
+    }
+    AnswerColumns answers = unscored[position];
+    unscored[position] = new AnswerColumns();
+    return answers;
+  }
+
+  /**
+   * @return the position of the current (or last) question, or -1 if none has been opened
+   */
+  int position() {
+    return position;
+  }
+
+  /**
+   * Cancel the pending timed step, if any, and start a new epoch.
+   */
+  void cancelTimer() {
+    epoch++;
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+  }
+
+  /**
+   * Make {@code timer} the pending timed step of the current epoch.
+   */
+  void setTimer(TimingWheel.Timeout timer) {
+    this.timer = timer;
+  }
+
+  long epoch() {
+    return epoch;
+  }
+
+  boolean isStopped() {
+    return stopped;
+  }
+
+  void stop() {
+    stopped = true;
+    openPosition = -1;
+    cancelTimer();
+  }
+
+  GameState state() {
+    if (position < 0) {
+      return new GameState(quizId(), -1, null, false, 0);
+    }
+    return new GameState(quizId(), position, snapshot.questionId(position), openPosition == position,
+        answered[position].cardinality());
+  }
+
+  private int joinedSlot(long playerId) {
+    int slot = slots.find(playerId);
+    if (slot < 0) {
+      throw new IllegalArgumentException("Player " + playerId + " has not joined quiz " + quizId());
+    }
+    return slot;
+  }
+
+  private void checkLive() {
+    if (stopped) {
+      throw new IllegalStateException("Quiz " + quizId() + " is not live");
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel on one platform thread, used for the timed steps of every live quiz:
+ * closing a question when its time runs out, revealing the answer and moving on.
+ * <p>
+ * Time is cut into ticks of {@code tickNanos}.  Each of the four levels has 256 slots; a slot of
+ * level {@code n} covers 256<sup>n</sup> ticks, so together they reach 2<sup>32</sup> ticks ahead
+ * (about 49 days at 1 ms).  A timeout is linked into the slot of the lowest level that reaches its
+ * deadline, and when the wheel turns onto a higher-level slot its timeouts are moved down.
+ * Scheduling and cancelling are O(1) whatever the number of pending timeouts; a timeout is moved
+ * at most once per level.
+ * <p>
+ * {@link #schedule} may be called from any thread: new timeouts are handed to the wheel's thread
+ * through a lock-free {@link Mailbox} and linked in at its next tick.  A timeout never fires before
+ * its deadline, and normally fires within one tick of it.  Tasks run on the wheel's thread, so
+ * they must be short and must not block; the game engine's tasks only send a command to a quiz.
+ */
+@Slf4j
+final class TimingWheel implements Runnable {
+
+  private static final int WHEEL_BITS = 8;
+  private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+  private static final int LEVELS = 4;
+  /* Furthest ahead, in ticks, a timeout can be linked; later ones are moved again as they come closer */
+  private static final long MAX_SPAN = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+  private final long tickNanos;
+  private final long startNanos = System.nanoTime();
+  /* Head of each slot's linked list, level by level */
+  private final Timeout[] slots = new Timeout[LEVELS * WHEEL_SIZE];
+  private final Mailbox<Timeout> incoming = new Mailbox<>();
+  private final Thread thread;
+  /* Last tick whose level 0 slot has been expired; wheel thread only */
+  private long currentTick;
+  /* Timeouts linked into a slot, including cancelled ones not yet reached; wheel thread only */
+  private int linked;
+  private volatile boolean running;
+  /* True while the thread is parked with nothing linked, so schedule() knows to wake it */
+  private volatile boolean idle;
+
+  TimingWheel(String name, long tickNanos) {
+    if (tickNanos <= 0) {
+      throw new IllegalArgumentException("Tick must be positive: " + tickNanos);
+    }
+    this.tickNanos = tickNanos;
+    this.thread = new Thread(this, name);
+    thread.setDaemon(true);
+  }
+
+  void start() {
+    running = true;
+    thread.start();
+  }
+
+  /**
+   * Stop the wheel.  Timeouts that have not fired yet never will.
+   */
+  void stop() throws InterruptedException {
+    running = false;
+    LockSupport.unpark(thread);
+    thread.join();
+  }
+
+  /**
+   * Run {@code task} on the wheel's thread once {@link System#nanoTime()} reaches
+   * {@code deadlineNanos}.  Thread-safe.
+   *
+   * @return a handle that can cancel the timeout
+   */
+  Timeout schedule(long deadlineNanos, Runnable task) {
+    Timeout timeout = new Timeout(deadlineNanos, task);
+    incoming.offer(timeout);
+    if (idle) {
+      LockSupport.unpark(thread);
+    }
+    return timeout;
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+      if (linked == 0 && currentTick < nowTick) {
+        // Nothing to expire on the way, so skip the ticks spent idle rather than turning through them
+        currentTick = nowTick;
+      }
+      linkIncoming();
+      while (currentTick < nowTick) {
+        advance();
+      }
+
+      if (linked == 0) {
+        idle = true;
+        // Re-check after publishing idle: a schedule() that missed it has already queued its timeout
+        if (incoming.isEmpty() && running) {
+          LockSupport.park(this);
+        }
+        idle = false;
+      } else {
+        long nextTickNanos = startNanos + (currentTick + 1) * tickNanos;
+        LockSupport.parkNanos(this, nextTickNanos - System.nanoTime());
+      }
+    }
+  }
+
+  private void linkIncoming() {
+    Timeout timeout;
+    while ((timeout = incoming.poll()) != null) {
+      timeout.deadlineTick = Math.max(0, Math.ceilDiv(timeout.deadlineNanos - startNanos, tickNanos));
+      place(timeout);
+    }
+  }
+
+  /* Turn the wheel by one tick: move timeouts down from any higher-level slot now reached, then expire the level 0 slot */
+  private void advance() {
+    currentTick++;
+    for (int level = LEVELS - 1; level >= 1; level--) {
+      int shift = WHEEL_BITS * level;
+      if ((currentTick & ((1L << shift) - 1)) == 0) {
+        drainSlot(level * WHEEL_SIZE + (int) ((currentTick >>> shift) & WHEEL_MASK));
+      }
+    }
+    drainSlot((int) (currentTick & WHEEL_MASK));
+  }
+
+  /* Unlink every timeout of a slot and place each again, which expires those that are due */
+  private void drainSlot(int slot) {
+    Timeout timeout = slots[slot];
+    slots[slot] = null;
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      timeout.next = null;
+      linked--;
+      place(timeout);
+      timeout = next;
+    }
+  }
+
+  private void place(Timeout timeout) {
+    if (timeout.state != Timeout.PENDING) {
+      return;
+    }
+    long delta = timeout.deadlineTick - currentTick;
+    if (delta <= 0) {
+      expire(timeout);
+      return;
+    }
+    int level = 0;
+    while (level < LEVELS - 1 && delta >>> (WHEEL_BITS * (level + 1)) != 0) {
+      level++;
+    }
+    long tick = delta > MAX_SPAN ? currentTick + MAX_SPAN : timeout.deadlineTick;
+    int slot = level * WHEEL_SIZE + (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    timeout.next = slots[slot];
+    slots[slot] = timeout;
+    linked++;
+  }
+
+  private void expire(Timeout timeout) {
+    if (!Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+      return;
+    }
+    try {
+      timeout.task.run();
+    } catch (RuntimeException e) {
+      log.error("Timer task failed", e);
+    }
+  }
+
+  /**
+   * A scheduled task.  Cancelled timeouts are dropped when the wheel next reaches their slot.
+   */
+  static final class Timeout {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    private static final VarHandle STATE;
+
+    static {
+      try {
+        STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final long deadlineNanos;
+    private final Runnable task;
+    private volatile int state;
+    /* Wheel thread only */
+    private long deadlineTick;
+    private Timeout next;
+
+    private Timeout(long deadlineNanos, Runnable task) {
+      this.deadlineNanos = deadlineNanos;
+      this.task = task;
+    }
+
+    long deadlineNanos() {
+      return deadlineNanos;
+    }
+
+    /**
+     * @return true if the task will now never run, false if it has already run or been cancelled
+     */
+    boolean cancel() {
+      return STATE.compareAndSet(this, PENDING, CANCELLED);
+    }
+
+    boolean isExpired() {
+      return state == EXPIRED;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Standings of a single live quiz, updated incrementally as answers are scored.
+ * <p>
+ * Players are ranked by total score (highest first); ties go to the player with the lower total
+ * response time, then the lower player ID.  Updates, "rank of player" and each entry of "top N" or
+ * "players around X" cost O(log n).  All methods are synchronized.
+ */
+public class Leaderboard {
+
+  /**
+   * A player's position on the leaderboard.
+   *
+   * @param rank 1-based rank
+   * @param playerId the player ID
+   * @param score the player's total score
+   */
+  public record Entry(int rank, long playerId, int score) {
+  }
+
+  private final long quizId;
+  private final RankTree tree;
+  private final Map<Long, Integer> nodeByPlayer;
+  /* Incremented on every change, so broadcasters can tell whether anything moved */
+  private long version;
+
+  public Leaderboard(long quizId) {
+    this(quizId, 64);
+  }
+
+  public Leaderboard(long quizId, int expectedPlayers) {
+    this.quizId = quizId;
+    this.tree = new RankTree(expectedPlayers);
+    this.nodeByPlayer = new HashMap<>(Math.max(16, expectedPlayers * 4 / 3));
+  }
+
+  public long quizId() {
+    return quizId;
+  }
+
+  /**
+   * Add a scored answer to a player's totals, adding the player if they are not yet on the board.
+   *
+   * @param playerId the player ID
+   * @param points the points awarded for the answer (may be negative)
+   * @param responseTimeMs the answer's response time, added to the player's tiebreak
+   */
+  public synchronized void recordAnswer(long playerId, int points, int responseTimeMs) {
+    Integer node = nodeByPlayer.get(playerId);
+    if (node == null) {
+      put(playerId, points, Math.max(responseTimeMs, 0));
+      return;
+    }
+    version++;
+    int newScore = tree.score(node) + points;
+    long newTiebreak = tree.tiebreak(node) + Math.max(responseTimeMs, 0);
+    tree.remove(node);
+    tree.insert(node, newScore, newTiebreak);
+  }
+
+  /**
+   * Set a player's totals outright, adding the player if needed.  Used when rebuilding.
+   *
+   * @param playerId the player ID
+   * @param totalScore the player's total score
+   * @param totalResponseTimeMs the player's total response time, used to break ties
+   */
+  public synchronized void put(long playerId, int totalScore, long totalResponseTimeMs) {
+    version++;
+    Integer node = nodeByPlayer.get(playerId);
+    if (node == null) {
+      node = tree.newNode(playerId);
+      nodeByPlayer.put(playerId, node);
+    } else {
+      tree.remove(node);
+    }
+    tree.insert(node, totalScore, totalResponseTimeMs);
+  }
+
+  /**
+   * @return the player's 1-based rank, or -1 if they are not on the board
+   */
+  public synchronized int rankOf(long playerId) {
+    Integer node = nodeByPlayer.get(playerId);
+    return node == null ? -1 : tree.rank(node) + 1;
+  }
+
+  /**
+   * @return the player's total score, or 0 if they are not on the board
+   */
+  public synchronized int scoreOf(long playerId) {
+    Integer node = nodeByPlayer.get(playerId);
+    return node == null ? 0 : tree.score(node);
+  }
+
+  /**
+   * @return the best {@code n} players, best first
+   */
+  public synchronized List<Entry> top(int n) {
+    return range(0, Math.min(n, tree.size()));
+  }
+
+  /**
+   * @return the player plus up to {@code radius} players either side, best first; empty if the
+   * player is not on the board
+   */
+  public synchronized List<Entry> around(long playerId, int radius) {
+    Integer node = nodeByPlayer.get(playerId);
+    if (node == null) {
+      return List.of();
+    }
+    int rank = tree.rank(node);
+    return range(Math.max(0, rank - radius), Math.min(tree.size(), rank + radius + 1));
+  }
+
+  /**
+   * @return a counter that changes whenever the standings may have changed
+   */
+  public synchronized long version() {
+    return version;
+  }
+
+  /**
+   * @return the best {@code n} players together with the version and size they were read at
+   */
+  public synchronized LeaderboardUpdate update(int n) {
+    return new LeaderboardUpdate(quizId, version, tree.size(), top(n));
+  }
+
+  /**
+   * Copy the whole ranking into {@code buffer} in a single in-order pass, reusing its arrays.
+   */
+  public synchronized void copyRanking(RankingBuffer buffer) {
+    buffer.fill(tree, version);
+  }
+
+  /**
+   * @return the player's node, to be resolved against a {@link RankingBuffer}, or -1 if the player
+   * is not on the board.  A player keeps the same node until the board is cleared.
+   */
+  public synchronized int nodeOf(long playerId) {
+    Integer node = nodeByPlayer.get(playerId);
+    return node == null ? -1 : node;
+  }
+
+  public synchronized int size() {
+    return tree.size();
+  }
+
+  public synchronized void clear() {
+    version++;
+    tree.clear();
+    nodeByPlayer.clear();
+  }
+
+  /* Entries for 0-based ranks [from, to) */
+  private List<Entry> range(int from, int to) {
+    List<Entry> entries = new ArrayList<>(Math.max(0, to - from));
+    for (int rank = from; rank < to; rank++) {
+      int node = tree.select(rank);
+      entries.add(new Entry(rank + 1, tree.playerId(node), tree.score(node)));
+    }
+    return entries;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import com.ssta.quiz.common.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Read access to the standings of a live quiz.
+ */
+@RestController
+@RequestMapping("/api/player/quizzes/{quizId}/leaderboard")
+public class LeaderboardController {
+
+  private static final int MAX_ENTRIES = 100;
+
+  private final LeaderboardService leaderboardService;
+
+  public LeaderboardController(LeaderboardService leaderboardService) {
+    this.leaderboardService = leaderboardService;
+  }
+
+  @GetMapping
+  public ApiResponse<List<Leaderboard.Entry>> top(@PathVariable long quizId,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+    return ApiResponse.success(leaderboard(quizId).top(Math.min(Math.max(limit, 0), MAX_ENTRIES)));
+  }
+
+  @GetMapping("/players/{playerId}")
+  public ApiResponse<List<Leaderboard.Entry>> around(@PathVariable long quizId,
+                                                     @PathVariable long playerId,
+                                                     @RequestParam(defaultValue = "2") int radius) {
+    List<Leaderboard.Entry> entries = leaderboard(quizId).around(playerId, Math.min(Math.max(radius, 0), MAX_ENTRIES / 2));
+    if (entries.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Player not on leaderboard");
+    }
+    return ApiResponse.success(entries);
+  }
+
+  private Leaderboard leaderboard(long quizId) {
+    return leaderboardService.find(quizId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz is not live"));
+  }
+}
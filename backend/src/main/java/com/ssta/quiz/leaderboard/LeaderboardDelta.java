@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import java.util.List;
+
+/**
+ * Change to the visible top of a quiz's leaderboard, as pushed to {@code /topic/quiz/{quizId}/scores}.
+ * <p>
+ * A keyframe carries the whole visible window in {@code entered} and replaces whatever the client
+ * holds.  A delta applies to the window as of sequence number {@code seq - 1}: remove the
+ * {@code exited} players, then add or update the {@code entered} and {@code changed} entries.  A
+ * client that sees a sequence number other than the one it expects has missed a message and should
+ * request a keyframe.
+ *
+ * @param quizId the quiz ID
+ * @param seq sequence number, increasing by one per message for the quiz
+ * @param keyframe true if this is a full window rather than a delta
+ * @param players number of players on the whole leaderboard
+ * @param entered players that moved into the window (every player in a keyframe)
+ * @param changed players still in the window whose rank or score changed
+ * @param exited IDs of players that dropped out of the window
+ */
+public record LeaderboardDelta(long quizId,
+                               long seq,
+                               boolean keyframe,
+                               int players,
+                               List<Leaderboard.Entry> entered,
+                               List<Leaderboard.Entry> changed,
+                               long[] exited) {
+}
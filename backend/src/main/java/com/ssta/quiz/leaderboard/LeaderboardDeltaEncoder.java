@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns successive {@link LeaderboardUpdate}s of one quiz into numbered {@link LeaderboardDelta}s
+ * against the window the client last received.
+ * <p>
+ * The visible window is small (the top N), so entries are matched by scanning rather than through a
+ * map.  Not thread-safe: one encoder belongs to the thread that publishes the quiz's scores.
+ */
+public final class LeaderboardDeltaEncoder {
+
+  private static final long[] NO_EXITS = new long[0];
+
+  private final long quizId;
+  private long seq;
+  /* Window as last sent, in rank order, so the rank of playerIds[i] is i + 1 */
+  private long[] playerIds = new long[0];
+  private int[] scores = new int[0];
+  private int players = -1;
+
+  public LeaderboardDeltaEncoder(long quizId) {
+    this.quizId = quizId;
+  }
+
+  /**
+   * @return the sequence number of the last message produced, 0 before the first
+   */
+  public long seq() {
+    return seq;
+  }
+
+  /**
+   * @return true until the first message has been produced, which is always a keyframe
+   */
+  public boolean needsKeyframe() {
+    return seq == 0;
+  }
+
+  /**
+   * Encode the change from the last window sent to {@code update}.
+   *
+   * @param update the current top of the leaderboard
+   * @param keyframe true to send the whole window regardless of what changed
+   * @return the message to send, or null if nothing visible changed and no keyframe was asked for
+   */
+  public LeaderboardDelta encode(LeaderboardUpdate update, boolean keyframe) {
+    List<Leaderboard.Entry> top = update.top();
+    if (keyframe || needsKeyframe()) {
+      remember(top, update.players());
+      return new LeaderboardDelta(quizId, ++seq, true, update.players(), List.copyOf(top), List.of(), NO_EXITS);
+    }
+
+    List<Leaderboard.Entry> entered = new ArrayList<>();
+    List<Leaderboard.Entry> changed = new ArrayList<>();
+    for (Leaderboard.Entry entry : top) {
+      int previous = indexOf(playerIds, entry.playerId());
+      if (previous < 0) {
+        entered.add(entry);
+      } else if (previous + 1 != entry.rank() || scores[previous] != entry.score()) {
+        changed.add(entry);
+      }
+    }
+
+    long[] current = new long[top.size()];
+    for (int i = 0; i < current.length; i++) {
+      current[i] = top.get(i).playerId();
+    }
+    long[] exited = NO_EXITS;
+    int exits = 0;
+    for (long playerId : playerIds) {
+      if (indexOf(current, playerId) < 0) {
+        if (exited == NO_EXITS) {
+          exited = new long[playerIds.length];
+        }
+        exited[exits++] = playerId;
+      }
+    }
+
+    if (entered.isEmpty() && changed.isEmpty() && exits == 0 && update.players() == players) {
+      return null;
+    }
+    remember(top, update.players());
+    return new LeaderboardDelta(quizId, ++seq, false, update.players(), entered, changed,
+        exits == exited.length ? exited : Arrays.copyOf(exited, exits));
+  }
+
+  private void remember(List<Leaderboard.Entry> top, int playerCount) {
+    if (playerIds.length != top.size()) {
+      playerIds = new long[top.size()];
+      scores = new int[top.size()];
+    }
+    for (int i = 0; i < playerIds.length; i++) {
+      playerIds[i] = top.get(i).playerId();
+      scores[i] = top.get(i).score();
+    }
+    players = playerCount;
+  }
+
+  private static int indexOf(long[] ids, long playerId) {
+    for (int i = 0; i < ids.length; i++) {
+      if (ids[i] == playerId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import com.ssta.quiz.playeranswer.PlayerAnswerRepository;
+import com.ssta.quiz.playeranswer.PlayerScoreTotal;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one in-memory {@link Leaderboard} per live quiz.
+ */
+@Service
+public class LeaderboardService {
+
+  private final PlayerAnswerRepository playerAnswerRepository;
+  private final Map<Long, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
+  public LeaderboardService(PlayerAnswerRepository playerAnswerRepository) {
+    this.playerAnswerRepository = playerAnswerRepository;
+  }
+
+  public Optional<Leaderboard> find(long quizId) {
+    return Optional.ofNullable(leaderboards.get(quizId));
+  }
+
+  /**
+   * Add a scored answer to the quiz's leaderboard.  Does nothing if the quiz has no leaderboard.
+   */
+  public void recordAnswer(long quizId, long playerId, int points, int responseTimeMs) {
+    Leaderboard leaderboard = leaderboards.get(quizId);
+    if (leaderboard != null) {
+      leaderboard.recordAnswer(playerId, points, responseTimeMs);
+    }
+  }
+
+  /**
+   * Rebuild a quiz's leaderboard from the player_answers table, replacing any existing one.
+   * Answers recorded while the rebuild runs may be missed, so this belongs at launch or startup.
+   *
+   * @param quizId the quiz ID
+   * @return the rebuilt leaderboard
+   */
+  @Transactional(readOnly = true)
+  public Leaderboard rebuild(long quizId) {
+    List<PlayerScoreTotal> totals = playerAnswerRepository.sumScoresByQuizId(quizId);
+    Leaderboard leaderboard = new Leaderboard(quizId, totals.size());
+    for (PlayerScoreTotal total : totals) {
+      leaderboard.put(total.getPlayerId(), Math.toIntExact(total.getTotalScore()), total.getTotalResponseTimeMs());
+    }
+    leaderboards.put(quizId, leaderboard);
+    return leaderboard;
+  }
+
+  public void remove(long quizId) {
+    leaderboards.remove(quizId);
+  }
+}
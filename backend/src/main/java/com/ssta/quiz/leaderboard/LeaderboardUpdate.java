@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import java.util.List;
+
+/**
+ * Top of a quiz's leaderboard, as pushed to {@code /topic/quiz/{quizId}/scores}.
+ *
+ * @param quizId the quiz ID
+ * @param version the leaderboard version the entries were read at
+ * @param players number of players on the leaderboard
+ * @param top the best players, best first
+ */
+public record LeaderboardUpdate(long quizId, long version, int players, List<Leaderboard.Entry> top) {
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic tree (a treap with subtree sizes) over players, ordered best first by
+ * score descending, then tiebreak ascending, then player ID ascending.
+ * <p>
+ * Nodes live in parallel primitive arrays and are addressed by index, so updates allocate nothing
+ * once the arrays have grown.  Insert, remove, rank and select are all O(log n) expected.
+ * Not thread safe.
+ */
+final class RankTree {
+
+  static final int NIL = -1;
+
+  private int[] left;
+  private int[] right;
+  private int[] size;
+  private int[] priority;
+  private int[] score;
+  private long[] tiebreak;
+  private long[] playerId;
+  /* Scratch stack for inOrder(); depth never exceeds the node count */
+  private int[] stack;
+
+  private int root = NIL;
+  private int nodeCount;
+  private final SplittableRandom random = new SplittableRandom(0x5EED);
+
+  /* Outputs of split(), read immediately by the caller */
+  private int splitLeft;
+  private int splitRight;
+
+  RankTree(int initialCapacity) {
+    int capacity = Math.max(initialCapacity, 16);
+    left = new int[capacity];
+    right = new int[capacity];
+    size = new int[capacity];
+    priority = new int[capacity];
+    score = new int[capacity];
+    tiebreak = new long[capacity];
+    playerId = new long[capacity];
+    stack = new int[capacity];
+  }
+
+  /**
+   * Allocate a detached node for a player.
+   *
+   * @return the node index
+   */
+  int newNode(long player) {
+    if (nodeCount == left.length) {
+      grow();
+    }
+    int node = nodeCount++;
+    left[node] = NIL;
+    right[node] = NIL;
+    size[node] = 1;
+    priority[node] = random.nextInt();
+    playerId[node] = player;
+    return node;
+  }
+
+  /**
+   * Insert a detached node with the given sort key.
+   */
+  void insert(int node, int nodeScore, long nodeTiebreak) {
+    score[node] = nodeScore;
+    tiebreak[node] = nodeTiebreak;
+    left[node] = NIL;
+    right[node] = NIL;
+    size[node] = 1;
+    split(root, node);
+    int lower = splitLeft;
+    int upper = splitRight;
+    root = merge(merge(lower, node), upper);
+  }
+
+  /**
+   * Detach a node currently in the tree.
+   */
+  void remove(int node) {
+    root = remove(root, node);
+  }
+
+  /**
+   * @return the number of nodes ordered before the given node, i.e. its 0-based rank
+   */
+  int rank(int node) {
+    int before = 0;
+    int t = root;
+    while (t != NIL) {
+      if (t == node) {
+        return before + sizeOf(left[t]);
+      }
+      if (precedes(node, t)) {
+        t = left[t];
+      } else {
+        before += sizeOf(left[t]) + 1;
+        t = right[t];
+      }
+    }
+    throw new IllegalStateException("Node " + node + " is not in the tree");
+  }
+
+  /**
+   * @return the node at the given 0-based rank
+   */
+  int select(int rank) {
+    int t = root;
+    int remaining = rank;
+    while (t != NIL) {
+      int leftSize = sizeOf(left[t]);
+      if (remaining < leftSize) {
+        t = left[t];
+      } else if (remaining == leftSize) {
+        return t;
+      } else {
+        remaining -= leftSize + 1;
+        t = right[t];
+      }
+    }
+    throw new IndexOutOfBoundsException("Rank " + rank + " out of range for " + size());
+  }
+
+  int size() {
+    return sizeOf(root);
+  }
+
+  /**
+   * @return one more than the highest node index handed out, for sizing arrays indexed by node
+   */
+  int nodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Write every node in rank order into {@code out}, which must hold at least {@link #size()}
+   * entries.  O(n) and allocation free.
+   *
+   * @return the number of nodes written
+   */
+  int inOrder(int[] out) {
+    int count = 0;
+    int depth = 0;
+    int t = root;
+    while (t != NIL || depth > 0) {
+      while (t != NIL) {
+        stack[depth++] = t;
+        t = left[t];
+      }
+      t = stack[--depth];
+      out[count++] = t;
+      t = right[t];
+    }
+    return count;
+  }
+
+  int score(int node) {
+    return score[node];
+  }
+
+  long tiebreak(int node) {
+    return tiebreak[node];
+  }
+
+  long playerId(int node) {
+    return playerId[node];
+  }
+
+  void clear() {
+    root = NIL;
+    nodeCount = 0;
+  }
+
+  /* true if node a is ordered before node b */
+  private boolean precedes(int a, int b) {
+    if (score[a] != score[b]) {
+      return score[a] > score[b];
+    }
+    if (tiebreak[a] != tiebreak[b]) {
+      return tiebreak[a] < tiebreak[b];
+    }
+    return playerId[a] < playerId[b];
+  }
+
+  /* Split subtree t into nodes ordered before pivot (splitLeft) and the rest (splitRight) */
+  private void split(int t, int pivot) {
+    if (t == NIL) {
+      splitLeft = NIL;
+      splitRight = NIL;
+      return;
+    }
+    if (precedes(t, pivot)) {
+      split(right[t], pivot);
+      right[t] = splitLeft;
+      update(t);
+      splitLeft = t;
+    } else {
+      split(left[t], pivot);
+      left[t] = splitRight;
+      update(t);
+      splitRight = t;
+    }
+  }
+
+  /* Merge two subtrees where every node of a precedes every node of b */
+  private int merge(int a, int b) {
+    if (a == NIL) {
+      return b;
+    }
+    if (b == NIL) {
+      return a;
+    }
+    if (priority[a] > priority[b]) {
+      right[a] = merge(right[a], b);
+      update(a);
+      return a;
+    }
+    left[b] = merge(a, left[b]);
+    update(b);
+    return b;
+  }
+
+  private int remove(int t, int node) {
+    if (t == NIL) {
+      throw new IllegalStateException("Node " + node + " is not in the tree");
+    }
+    if (t == node) {
+      return merge(left[t], right[t]);
+    }
+    if (precedes(node, t)) {
+      left[t] = remove(left[t], node);
+    } else {
+      right[t] = remove(right[t], node);
+    }
+    update(t);
+    return t;
+  }
+
+  private void update(int t) {
+    size[t] = 1 + sizeOf(left[t]) + sizeOf(right[t]);
+  }
+
+  private int sizeOf(int t) {
+    return t == NIL ? 0 : size[t];
+  }
+
+  private void grow() {
+    int capacity = left.length * 2;
+    left = Arrays.copyOf(left, capacity);
+    right = Arrays.copyOf(right, capacity);
+    size = Arrays.copyOf(size, capacity);
+    priority = Arrays.copyOf(priority, capacity);
+    score = Arrays.copyOf(score, capacity);
+    tiebreak = Arrays.copyOf(tiebreak, capacity);
+    playerId = Arrays.copyOf(playerId, capacity);
+    stack = new int[capacity];
+  }
+}
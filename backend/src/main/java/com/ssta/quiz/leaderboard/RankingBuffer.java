@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+/**
+ * Reusable copy of a whole {@link Leaderboard} in rank order, for work that needs every player's
+ * rank at once (such as personalised standings) without taking the leaderboard lock per player.
+ * <p>
+ * The arrays only grow, so refilling the same buffer every tick allocates nothing once it has
+ * reached the size of the largest leaderboard.  Ranks here are 0-based.  Not thread-safe.
+ */
+public final class RankingBuffer {
+
+  private int[] nodes = new int[0];
+  private long[] playerIds = new long[0];
+  private int[] scores = new int[0];
+  private int[] rankByNode = new int[0];
+  private int size;
+  private long version = -1;
+
+  void fill(RankTree tree, long leaderboardVersion) {
+    int count = tree.size();
+    if (nodes.length < count) {
+      int capacity = Math.max(count, nodes.length * 2);
+      nodes = new int[capacity];
+      playerIds = new long[capacity];
+      scores = new int[capacity];
+    }
+    if (rankByNode.length < tree.nodeCount()) {
+      rankByNode = new int[Math.max(tree.nodeCount(), rankByNode.length * 2)];
+    }
+    size = tree.inOrder(nodes);
+    for (int rank = 0; rank < size; rank++) {
+      int node = nodes[rank];
+      playerIds[rank] = tree.playerId(node);
+      scores[rank] = tree.score(node);
+      rankByNode[node] = rank;
+    }
+    version = leaderboardVersion;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the version of the leaderboard when it was copied, -1 before the first copy
+   */
+  public long version() {
+    return version;
+  }
+
+  public long playerIdAt(int rank) {
+    return playerIds[rank];
+  }
+
+  public int scoreAt(int rank) {
+    return scores[rank];
+  }
+
+  /**
+   * @param node a node from {@link Leaderboard#nodeOf(long)}
+   * @param playerId the player the node was looked up for
+   * @return the player's 0-based rank, or -1 if the node no longer belongs to that player
+   */
+  public int rankOf(int node, long playerId) {
+    if (node < 0 || node >= rankByNode.length) {
+      return -1;
+    }
+    int rank = rankByNode[node];
+    return rank < size && playerIds[rank] == playerId ? rank : -1;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+import com.ssta.quiz.common.ApiResponse;
+import com.ssta.quiz.scoring.ScoringStrategies;
+import com.ssta.quiz.scoring.ScoringStrategy;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Quizmaster controls for setting up, starting and finishing a live quiz.
+ */
+@RestController
+@RequestMapping("/api/quizmaster/quizzes/{quizId}")
+public class LiveQuizController {
+
+  private final LiveQuizService liveQuizService;
+  private final ScoringStrategies scoringStrategies;
+
+  public LiveQuizController(LiveQuizService liveQuizService, ScoringStrategies scoringStrategies) {
+    this.liveQuizService = liveQuizService;
+    this.scoringStrategies = scoringStrategies;
+  }
+
+  @PutMapping("/scoring/{strategy}")
+  public ApiResponse<String> setScoring(@PathVariable long quizId, @PathVariable String strategy) {
+    ScoringStrategy scoring = scoringStrategies.find(strategy)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown scoring strategy: " + strategy));
+    try {
+      liveQuizService.setScoringStrategy(quizId, scoring);
+      return ApiResponse.success("Scoring strategy set", scoring.name());
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+    }
+  }
+
+  @PostMapping("/launch")
+  public ApiResponse<Integer> launch(@PathVariable long quizId) {
+    try {
+      LiveQuizSnapshot snapshot = liveQuizService.launch(quizId);
+      return ApiResponse.success("Quiz launched", snapshot.questionCount());
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+    }
+  }
+
+  @PostMapping("/complete")
+  public ApiResponse<Void> complete(@PathVariable long quizId) {
+    try {
+      liveQuizService.complete(quizId);
+      return ApiResponse.success("Quiz completed", null);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+    }
+  }
+
+  @PostMapping("/archive")
+  public ApiResponse<Void> archive(@PathVariable long quizId) {
+    try {
+      liveQuizService.archive(quizId);
+      return ApiResponse.success("Quiz archived", null);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+    } catch (IllegalStateException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+    }
+  }
+}
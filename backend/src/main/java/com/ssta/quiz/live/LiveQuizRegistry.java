@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the snapshots of all quizzes currently being played, indexed by quiz ID and by question ID.
+ */
+@Component
+public class LiveQuizRegistry {
+
+  private final Map<Long, LiveQuizSnapshot> byQuizId = new ConcurrentHashMap<>();
+  private final Map<Long, LiveQuizSnapshot> byQuestionId = new ConcurrentHashMap<>();
+
+  /**
+   * Register a snapshot, replacing any previous snapshot of the same quiz.
+   */
+  public void register(LiveQuizSnapshot snapshot) {
+    LiveQuizSnapshot previous = byQuizId.put(snapshot.quizId(), snapshot);
+    if (previous != null) {
+      removeQuestions(previous);
+    }
+    for (int i = 0; i < snapshot.questionCount(); i++) {
+      byQuestionId.put(snapshot.questionId(i), snapshot);
+    }
+  }
+
+  /**
+   * Remove a quiz's snapshot.
+   *
+   * @return the removed snapshot, if the quiz was live
+   */
+  public Optional<LiveQuizSnapshot> evict(long quizId) {
+    LiveQuizSnapshot removed = byQuizId.remove(quizId);
+    if (removed != null) {
+      removeQuestions(removed);
+    }
+    return Optional.ofNullable(removed);
+  }
+
+  public Optional<LiveQuizSnapshot> find(long quizId) {
+    return Optional.ofNullable(byQuizId.get(quizId));
+  }
+
+  /**
+   * Find the snapshot of the live quiz a question belongs to.
+   */
+  public Optional<LiveQuizSnapshot> findByQuestionId(long questionId) {
+    return Optional.ofNullable(byQuestionId.get(questionId));
+  }
+
+  public Collection<LiveQuizSnapshot> all() {
+    return byQuizId.values();
+  }
+
+  private void removeQuestions(LiveQuizSnapshot snapshot) {
+    for (int i = 0; i < snapshot.questionCount(); i++) {
+      byQuestionId.remove(snapshot.questionId(i), snapshot);
+    }
+  }
+}
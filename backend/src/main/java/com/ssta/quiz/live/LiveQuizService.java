@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+import com.ssta.quiz.game.GameEngine;
+import com.ssta.quiz.leaderboard.LeaderboardService;
+import com.ssta.quiz.playeranswer.PlayerAnswerPartitions;
+import com.ssta.quiz.playeranswer.PlayerAnswerService;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.question.QuestionRepository;
+import com.ssta.quiz.quiz.Quiz;
+import com.ssta.quiz.quiz.QuizRepository;
+import com.ssta.quiz.quiz.QuizStatus;
+import com.ssta.quiz.scoring.ScoringStrategies;
+import com.ssta.quiz.scoring.ScoringStrategy;
+import com.ssta.quiz.stats.AnswerStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves quizzes through their live lifecycle and keeps {@link LiveQuizRegistry}, the leaderboards
+ * and the {@link GameEngine} in step: a snapshot is built and a game started when a quiz is
+ * launched, and both are dropped when it is completed or archived.  A quiz's answers get a partition
+ * of their own when it is first launched, which the archive sweep detaches once it is archived.
+ * <p>
+ * A launch only puts the quiz live in memory once its ACTIVE status has committed, so a launch that
+ * rolls back leaves nothing running for a quiz that is still a DRAFT.
+ */
+@Slf4j
+@Service
+public class LiveQuizService {
+
+  private final QuizRepository quizRepository;
+  private final QuestionRepository questionRepository;
+  private final PlayerAnswerService playerAnswerService;
+  private final PlayerAnswerPartitions playerAnswerPartitions;
+  private final LiveQuizRegistry liveQuizRegistry;
+  private final LeaderboardService leaderboardService;
+  private final AnswerStatsService answerStatsService;
+  private final GameEngine gameEngine;
+  private final ScoringStrategies scoringStrategies;
+  private final TransactionTemplate transactionTemplate;
+
+  public LiveQuizService(QuizRepository quizRepository,
+                         QuestionRepository questionRepository,
+                         PlayerAnswerService playerAnswerService,
+                         PlayerAnswerPartitions playerAnswerPartitions,
+                         LiveQuizRegistry liveQuizRegistry,
+                         LeaderboardService leaderboardService,
+                         AnswerStatsService answerStatsService,
+                         GameEngine gameEngine,
+                         ScoringStrategies scoringStrategies,
+                         PlatformTransactionManager transactionManager) {
+    this.quizRepository = quizRepository;
+    this.questionRepository = questionRepository;
+    this.playerAnswerService = playerAnswerService;
+    this.playerAnswerPartitions = playerAnswerPartitions;
+    this.liveQuizRegistry = liveQuizRegistry;
+    this.leaderboardService = leaderboardService;
+    this.answerStatsService = answerStatsService;
+    this.gameEngine = gameEngine;
+    this.scoringStrategies = scoringStrategies;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Choose how a quiz's answers are scored.  Only a DRAFT quiz can change strategy, so every
+   * answer to a quiz is scored the same way.
+   *
+   * @param quizId the quiz ID
+   * @param strategy the strategy
+   * @throws IllegalArgumentException if the quiz is not found
+   * @throws IllegalStateException if the quiz is no longer a DRAFT
+   */
+  @Transactional
+  public void setScoringStrategy(long quizId, ScoringStrategy strategy) {
+    Quiz quiz = findQuiz(quizId);
+    if (!QuizStatus.DRAFT.matches(quiz)) {
+      throw new IllegalStateException("Scoring of quiz " + quizId + " cannot be changed in status " + quiz.getStatus());
+    }
+    quiz.setScoringStrategy(strategy.name());
+    quiz.setUpdatedAt(ZonedDateTime.now());
+  }
+
+  /**
+   * Launch a quiz: create its answer partition, mark it ACTIVE and, once that has committed, put its
+   * snapshot live.  Launching a quiz that is already live returns its snapshot and leaves the game
+   * running as it is; an ACTIVE quiz that is not live, because it could not be restored, is put live
+   * again.
+   *
+   * @param quizId the quiz ID
+   * @return the snapshot serving the quiz
+   * @throws IllegalArgumentException if the quiz is not found
+   * @throws IllegalStateException if the quiz is COMPLETED or ARCHIVED, or its scoring strategy is unknown
+   */
+  @Transactional
+  public LiveQuizSnapshot launch(long quizId) {
+    Quiz quiz = findQuiz(quizId);
+    if (QuizStatus.ACTIVE.matches(quiz)) {
+      Optional<LiveQuizSnapshot> live = liveQuizRegistry.find(quizId);
+      if (live.isPresent()) {
+        return live.get();
+      }
+    } else if (!QuizStatus.DRAFT.matches(quiz)) {
+      throw new IllegalStateException("Quiz " + quizId + " cannot be launched from status " + quiz.getStatus());
+    }
+    LiveQuizSnapshot snapshot = buildSnapshot(quiz);
+    playerAnswerPartitions.create(quizId);
+    setStatus(quiz, QuizStatus.ACTIVE);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        goLive(snapshot);
+      }
+    });
+    return snapshot;
+  }
+
+  /**
+   * Finish a quiz: write any queued answers, mark it COMPLETED and evict its snapshot.
+   * The leaderboard and answer distributions are kept so final results can still be shown.
+   * Queued answers are written before the status changes, so no transaction is held open meanwhile.
+   *
+   * @param quizId the quiz ID
+   * @throws IllegalArgumentException if the quiz is not found
+   * @throws IllegalStateException if the quiz is not ACTIVE
+   */
+  public void complete(long quizId) {
+    requireStatus(findQuiz(quizId), "completed", QuizStatus.ACTIVE);
+    gameEngine.stop(quizId);
+    playerAnswerService.flushPendingAnswers();
+    transactionTemplate.executeWithoutResult(status -> {
+      // Another request may have moved the quiz on while answers were being written
+      Quiz quiz = requireStatus(findQuiz(quizId), "completed", QuizStatus.ACTIVE);
+      setStatus(quiz, QuizStatus.COMPLETED);
+    });
+    liveQuizRegistry.evict(quizId);
+  }
+
+  /**
+   * Archive a quiz, evicting its snapshot if it is still live and dropping its leaderboard and answer distributions.
+   * Its answer partition is detached later by the archive sweep, so this does not wait for that.
+   *
+   * @param quizId the quiz ID
+   * @throws IllegalArgumentException if the quiz is not found
+   * @throws IllegalStateException if the quiz is already ARCHIVED
+   */
+  public void archive(long quizId) {
+    requireStatus(findQuiz(quizId), "archived", QuizStatus.DRAFT, QuizStatus.ACTIVE, QuizStatus.COMPLETED);
+    gameEngine.stop(quizId);
+    playerAnswerService.flushPendingAnswers();
+    transactionTemplate.executeWithoutResult(status -> {
+      Quiz quiz = requireStatus(findQuiz(quizId), "archived", QuizStatus.DRAFT, QuizStatus.ACTIVE,
+          QuizStatus.COMPLETED);
+      setStatus(quiz, QuizStatus.ARCHIVED);
+    });
+    liveQuizRegistry.evict(quizId);
+    leaderboardService.remove(quizId);
+    answerStatsService.remove(quizId);
+  }
+
+  /**
+   * Snapshots only live in memory, so rebuild them for quizzes that were ACTIVE when the application stopped.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void restoreActiveQuizzes() {
+    for (Quiz quiz : quizRepository.findByStatus(QuizStatus.ACTIVE.name())) {
+      playerAnswerPartitions.create(quiz.getId());
+      goLive(buildSnapshot(quiz));
+      log.info("Restored live snapshot for quiz {}", quiz.getId());
+    }
+  }
+
+  private void goLive(LiveQuizSnapshot snapshot) {
+    liveQuizRegistry.register(snapshot);
+    leaderboardService.rebuild(snapshot.quizId());
+    answerStatsService.start(snapshot);
+    gameEngine.start(snapshot);
+  }
+
+  private LiveQuizSnapshot buildSnapshot(Quiz quiz) {
+    ScoringStrategy scoring;
+    try {
+      scoring = scoringStrategies.forName(quiz.getScoringStrategy());
+    } catch (IllegalArgumentException e) {
+      // The quiz exists, it just cannot be run until its strategy is changed or registered again
+      throw new IllegalStateException("Quiz " + quiz.getId() + " has an unknown scoring strategy: "
+          + quiz.getScoringStrategy(), e);
+    }
+    List<Question> questions = questionRepository.findByQuizIdOrderByOrderIndexAsc(quiz.getId());
+    return LiveQuizSnapshot.of(quiz.getId(), questions, scoring);
+  }
+
+  private Quiz findQuiz(long quizId) {
+    return quizRepository.findById(quizId)
+        .orElseThrow(() -> new IllegalArgumentException("Quiz not found: " + quizId));
+  }
+
+  private static Quiz requireStatus(Quiz quiz, String action, QuizStatus... allowed) {
+    for (QuizStatus status : allowed) {
+      if (status.matches(quiz)) {
+        return quiz;
+      }
+    }
+    throw new IllegalStateException(
+        "Quiz " + quiz.getId() + " cannot be " + action + " from status " + quiz.getStatus());
+  }
+
+  private void setStatus(Quiz quiz, QuizStatus status) {
+    quiz.setStatus(status.name());
+    quiz.setUpdatedAt(ZonedDateTime.now());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.question.QuestionOptions;
+import com.ssta.quiz.scoring.ScoringStrategies;
+import com.ssta.quiz.scoring.ScoringStrategy;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, pre-loaded view of a quiz's questions, built when the quiz is launched.
+ * <p>
+ * Questions never change once a quiz is ACTIVE, so the answer, reveal and scoring paths read
+ * everything they need from here instead of going back to the database.  Questions are addressed
+ * by their position in play order (ascending orderIndex); {@link #positionOf(long)} maps a
+ * question ID to its position.
+ */
+public final class LiveQuizSnapshot {
+
+  private final long quizId;
+  private final ScoringStrategy scoring;
+  private final long[] questionIds;
+  private final int[] timeLimitsMs;
+  private final int[] correctOptions;
+  private final String[] questionTexts;
+  private final String[] imageUrls;
+  private final QuestionOptions[] options;
+
+  /* Question IDs sorted ascending, with the matching position of each, for allocation-free lookups */
+  private final long[] sortedIds;
+  private final int[] sortedPositions;
+
+  private LiveQuizSnapshot(long quizId, List<Question> questions, ScoringStrategy scoring) {
+    int count = questions.size();
+    this.quizId = quizId;
+    this.scoring = scoring;
+    this.questionIds = new long[count];
+    this.timeLimitsMs = new int[count];
+    this.correctOptions = new int[count];
+    this.questionTexts = new String[count];
+    this.imageUrls = new String[count];
+    this.options = new QuestionOptions[count];
+
+    for (int i = 0; i < count; i++) {
+      Question question = questions.get(i);
+      questionIds[i] = question.getId();
+      timeLimitsMs[i] = question.getTimeLimit() == null ? 0 : question.getTimeLimit() * 1000;
+      options[i] = question.getDecodedOptions();
+      correctOptions[i] = options[i].correctOption();
+      questionTexts[i] = question.getQuestionText();
+      imageUrls[i] = question.getImageUrl();
+    }
+
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(questionIds[a], questionIds[b]));
+    this.sortedIds = new long[count];
+    this.sortedPositions = new int[count];
+    for (int i = 0; i < count; i++) {
+      sortedIds[i] = questionIds[order[i]];
+      sortedPositions[i] = order[i];
+    }
+  }
+
+  /**
+   * Build a snapshot of a quiz scored with the default strategy.
+   *
+   * @param quizId the quiz ID
+   * @param questions the quiz's questions, in play order
+   * @return the snapshot
+   * @throws IllegalArgumentException if a question has invalid options JSON
+   */
+  public static LiveQuizSnapshot of(long quizId, List<Question> questions) {
+    return of(quizId, questions, ScoringStrategies.DEFAULT);
+  }
+
+  /**
+   * Build a snapshot of a quiz scored with the given strategy.
+   *
+   * @param quizId the quiz ID
+   * @param questions the quiz's questions, in play order
+   * @param scoring the quiz's scoring strategy
+   * @return the snapshot
+   * @throws IllegalArgumentException if a question has invalid options JSON
+   */
+  public static LiveQuizSnapshot of(long quizId, List<Question> questions, ScoringStrategy scoring) {
+    return new LiveQuizSnapshot(quizId, questions, scoring);
+  }
+
+  public long quizId() {
+    return quizId;
+  }
+
+  public ScoringStrategy scoring() {
+    return scoring;
+  }
+
+  public int questionCount() {
+    return questionIds.length;
+  }
+
+  /**
+   * @return the position of the question in play order, or -1 if it is not part of this quiz
+   */
+  public int positionOf(long questionId) {
+    int index = Arrays.binarySearch(sortedIds, questionId);
+    return index < 0 ? -1 : sortedPositions[index];
+  }
+
+  public long questionId(int position) {
+    return questionIds[position];
+  }
+
+  /**
+   * @return the time limit in milliseconds, or 0 if the question has none
+   */
+  public int timeLimitMs(int position) {
+    return timeLimitsMs[position];
+  }
+
+  public String questionText(int position) {
+    return questionTexts[position];
+  }
+
+  public String imageUrl(int position) {
+    return imageUrls[position];
+  }
+
+  public QuestionOptions options(int position) {
+    return options[position];
+  }
+
+  /**
+   * @return index of the correct option, or -1 if none is marked correct
+   */
+  public int correctOption(int position) {
+    return correctOptions[position];
+  }
+
+  public boolean isCorrect(int position, int answerOption) {
+    int correctOption = correctOptions[position];
+    return correctOption >= 0 && correctOption == answerOption;
+  }
+}
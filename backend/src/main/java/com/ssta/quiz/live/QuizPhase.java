@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+/**
+ * What a live quiz is doing right now, which decides how often its state is pushed to players.
+ */
+public enum QuizPhase {
+  /* Players are joining or waiting between questions */
+  LOBBY,
+  /* A question is open for answers */
+  QUESTION,
+  /* The answer to the question that just closed is being shown */
+  REVEAL
+}
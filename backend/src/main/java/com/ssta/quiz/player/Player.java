@@ -15,6 +15,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -33,7 +34,8 @@ import lombok.NoArgsConstructor;
 public class Player {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "players_id_gen")
+  @SequenceGenerator(name = "players_id_gen", sequenceName = "players_id_seq", allocationSize = 100)
   private Long id;
 
   @Column(nullable = false, unique = true, length = 50)
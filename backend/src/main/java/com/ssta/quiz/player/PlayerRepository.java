@@ -31,4 +31,11 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
    * @return true if a player with the username exists, false otherwise
    */
   boolean existsByNickname(String nickname);
+
+  /**
+   * Check if a player belongs to a quiz.
+   *
+   * @return true if the player exists and belongs to the quiz, false otherwise
+   */
+  boolean existsByIdAndQuizId(long id, long quizId);
 }
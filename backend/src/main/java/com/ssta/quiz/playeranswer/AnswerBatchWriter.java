@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import java.util.List;
+
+/**
+ * Writes a batch of accepted answers to the player_answers table.
+ */
+public interface AnswerBatchWriter {
+
+  /**
+   * Persist the given answers.  Answers that cannot be stored (for example a second answer from the
+   * same player to the same question) are skipped rather than failing the rest of the batch.
+   *
+   * @param answers the answers to write
+   * @return the answers actually stored, as stored
+   */
+  List<PendingAnswer> write(List<PendingAnswer> answers);
+}
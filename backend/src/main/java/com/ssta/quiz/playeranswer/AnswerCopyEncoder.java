@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes answers in PostgreSQL's binary COPY format, as rows of
+ * {@code (quiz_id, player_id, question_id, answer_option, correct, response_time_ms, score)}.
+ * <p>
+ * The buffer is kept between batches and only grows, so a writer thread that reuses its encoder
+ * stops allocating once it has seen its largest batch.  Not thread-safe.
+ */
+final class AnswerCopyEncoder {
+
+  /* "PGCOPY\n\377\r\n\0", then a flags field and a header extension length, both zero */
+  private static final byte[] HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0, 0, 0, 0, 0, 0, 0, 0, 0};
+  private static final short FIELDS = 7;
+  /* Largest encoded row: field count, three int8s, an int4, a bool and two int4s, each field with its length */
+  static final int ROW_BYTES = 2 + 3 * (4 + 8) + (4 + 4) + (4 + 1) + 2 * (4 + 4);
+  private static final short TRAILER = -1;
+
+  private byte[] bytes;
+  private int length;
+
+  AnswerCopyEncoder(int initialRows) {
+    bytes = new byte[HEADER.length + initialRows * ROW_BYTES + 2];
+  }
+
+  /**
+   * Replace the buffer's contents with a complete COPY stream of the answers.
+   */
+  void encode(List<PendingAnswer> answers) {
+    int needed = HEADER.length + answers.size() * ROW_BYTES + 2;
+    if (bytes.length < needed) {
+      bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length * 2));
+    }
+    System.arraycopy(HEADER, 0, bytes, 0, HEADER.length);
+    length = HEADER.length;
+    for (PendingAnswer answer : answers) {
+      putShort(FIELDS);
+      putInt(8);
+      putLong(answer.quizId());
+      putInt(8);
+      putLong(answer.playerId());
+      putInt(8);
+      putLong(answer.questionId());
+      putInt(4);
+      putInt(answer.answerOption());
+      putInt(1);
+      bytes[length++] = (byte) (answer.correct() ? 1 : 0);
+      putNullableInt(answer.responseTimeMs());
+      putNullableInt(answer.score());
+    }
+    putShort(TRAILER);
+  }
+
+  byte[] bytes() {
+    return bytes;
+  }
+
+  int length() {
+    return length;
+  }
+
+  private void putNullableInt(Integer value) {
+    if (value == null) {
+      putInt(-1);
+    } else {
+      putInt(4);
+      putInt(value);
+    }
+  }
+
+  private void putShort(short value) {
+    bytes[length++] = (byte) (value >>> 8);
+    bytes[length++] = (byte) value;
+  }
+
+  private void putInt(int value) {
+    bytes[length++] = (byte) (value >>> 24);
+    bytes[length++] = (byte) (value >>> 16);
+    bytes[length++] = (byte) (value >>> 8);
+    bytes[length++] = (byte) value;
+  }
+
+  private void putLong(long value) {
+    putInt((int) (value >>> 32));
+    putInt((int) value);
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+/**
+ * Number of answers sharing a question, option, correctness and whole-second response time, as
+ * returned by {@link PlayerAnswerRepository#countAnswersByQuizId(Long)}.
+ */
+public interface AnswerCount {
+
+  Long getQuestionId();
+
+  Integer getAnswerOption();
+
+  Boolean getCorrect();
+
+  /* Null for answers without a response time */
+  Integer getResponseSecond();
+
+  Long getAnswers();
+}
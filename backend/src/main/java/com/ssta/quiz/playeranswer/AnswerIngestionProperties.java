@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for how submitted answers are written to the player_answers table.
+ * Bound from the {@code quiz.answers.ingestion.*} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "quiz.answers.ingestion")
+public class AnswerIngestionProperties {
+
+  /**
+   * How answers reach the database.
+   */
+  public enum Mode {
+    /* Each answer is validated and saved in its own transaction */
+    DIRECT,
+    /* Answers are acknowledged once queued and written in batches by the writer threads */
+    WRITE_BEHIND
+  }
+
+  /**
+   * When answers are scored.
+   */
+  public enum Scoring {
+    /* Each answer is scored as it is accepted */
+    IMMEDIATE,
+    /* Answers to a live quiz are stored unscored and scored together when their question closes */
+    DEFERRED
+  }
+
+  /**
+   * How write-behind batches are written.
+   */
+  public enum Writer {
+    /* saveAll through Hibernate, in JDBC batches */
+    JPA,
+    /* Binary COPY into a staging table, merged into player_answers in one statement */
+    COPY
+  }
+
+  private Mode mode = Mode.DIRECT;
+
+  private Scoring scoring = Scoring.IMMEDIATE;
+
+  /* Maximum number of answers waiting to be written before submissions are rejected */
+  private int queueCapacity = 50_000;
+
+  /* Maximum number of answers written in a single batch */
+  private int flushSize = 1_000;
+
+  /* Longest time a queued answer waits before a partial batch is written */
+  private Duration flushInterval = Duration.ofMillis(200);
+
+  private int writerThreads = 2;
+  /* Read by @ConditionalOnProperty on the writers; bound here so the setting is documented and checked */
+  private Writer writer = Writer.JPA;
+
+  /* Upper bound on how long a drain (question close or shutdown) waits for queued answers */
+  private Duration drainTimeout = Duration.ofSeconds(30);
+}
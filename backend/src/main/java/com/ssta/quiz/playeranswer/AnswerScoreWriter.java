@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+
+/**
+ * Writes the scores of a whole question back to the player_answers table in one statement, which
+ * returns the players it updated.
+ * <p>
+ * Player IDs and scores are bound as two arrays and joined to the table with {@code unnest}, so the
+ * statement text and the number of bind parameters do not depend on how many answers there are.
+ */
+@Repository
+public class AnswerScoreWriter {
+
+  private static final String UPDATE_SCORES = """
+      UPDATE player_answers pa SET score = v.score
+      FROM unnest(?::bigint[], ?::int[]) AS v(player_id, score)
+      WHERE pa.quiz_id = ? AND pa.question_id = ? AND pa.player_id = v.player_id
+      RETURNING pa.player_id""";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public AnswerScoreWriter(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Set the score of each player's answer to a question.
+   *
+   * @param quizId the question's quiz ID, so that only its partition is updated
+   * @param questionId the question ID
+   * @param playerIds the players, of which the first {@code count} are used
+   * @param scores the score of each player, in the same order
+   * @param count the number of answers to update
+   * @return the players whose answers were updated, in no particular order; players whose answer
+   * has no row (it was dropped as a duplicate or failed to be written) are left out
+   */
+  public long[] writeScores(long quizId, long questionId, long[] playerIds, int[] scores, int count) {
+    if (count == 0) {
+      return new long[0];
+    }
+    long[] updated = new long[count];
+    int[] size = {0};
+    RowCallbackHandler collect = rs -> updated[size[0]++] = rs.getLong(1);
+    jdbcTemplate.query(UPDATE_SCORES, collect,
+        playerIds.length == count ? playerIds : Arrays.copyOf(playerIds, count),
+        scores.length == count ? scores : Arrays.copyOf(scores, count),
+        quizId, questionId);
+    return size[0] == count ? updated : Arrays.copyOf(updated, size[0]);
+  }
+}
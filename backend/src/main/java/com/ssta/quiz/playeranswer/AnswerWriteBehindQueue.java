@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.analytics.AnswerAnalytics;
+import com.ssta.quiz.config.LifecyclePhases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory queue of accepted answers, written to the database in batches by a small
+ * pool of writer threads.
+ * <p>
+ * A batch is written as soon as {@code flushSize} answers are waiting, or once the oldest waiting
+ * answer has been queued for {@code flushInterval}.  {@link #drain()} blocks until every answer
+ * accepted before the call has been written, and is used when a question closes and on shutdown.
+ * It waits on a lock rather than a monitor so that a virtual thread calling it is unmounted from
+ * its carrier while it waits.
+ */
+@Slf4j
+@Component
+public class AnswerWriteBehindQueue implements SmartLifecycle {
+
+  /* How often an idle writer checks whether the queue has been stopped */
+  private static final long STOP_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private final AnswerIngestionProperties properties;
+  private final AnswerBatchWriter batchWriter;
+  private final AnswerAnalytics answerAnalytics;
+  private final BlockingQueue<PendingAnswer> queue;
+  private final List<Thread> writers = new ArrayList<>();
+
+  /* settled counts answers written or dropped, and is guarded by settleLock */
+  private final AtomicLong accepted = new AtomicLong();
+  private final ReentrantLock settleLock = new ReentrantLock();
+  private final Condition settledChanged = settleLock.newCondition();
+  private long settled;
+
+  private volatile boolean running;
+
+  public AnswerWriteBehindQueue(AnswerIngestionProperties properties, AnswerBatchWriter batchWriter,
+                                AnswerAnalytics answerAnalytics) {
+    this.properties = properties;
+    this.batchWriter = batchWriter;
+    this.answerAnalytics = answerAnalytics;
+    this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+  }
+
+  /**
+   * Accept an answer for writing.
+   *
+   * @param answer the answer to queue
+   * @return true if the answer was queued, false if the queue is full
+   */
+  public boolean offer(PendingAnswer answer) {
+    if (!queue.offer(answer)) {
+      return false;
+    }
+    accepted.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Number of answers currently waiting to be written.
+   */
+  public int size() {
+    return queue.size();
+  }
+
+  /**
+   * Write every answer accepted before this call, blocking until they have all been settled or
+   * the configured drain timeout has passed.  The calling thread helps to write queued batches.
+   *
+   * @return true if everything was written within the timeout
+   */
+  public boolean drain() {
+    long target = accepted.get();
+    List<PendingAnswer> batch = new ArrayList<>(properties.getFlushSize());
+    while (queue.drainTo(batch, properties.getFlushSize()) > 0) {
+      writeBatch(batch);
+    }
+
+    long remaining = properties.getDrainTimeout().toNanos();
+    settleLock.lock();
+    try {
+      while (settled < target) {
+        if (remaining <= 0) {
+          log.warn("Timed out draining answer queue: {} answers still outstanding", target - settled);
+          return false;
+        }
+        remaining = settledChanged.awaitNanos(remaining);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      settleLock.unlock();
+    }
+    return true;
+  }
+
+  @Override
+  public synchronized void start() {
+    if (running || properties.getMode() != AnswerIngestionProperties.Mode.WRITE_BEHIND) {
+      return;
+    }
+    running = true;
+    for (int i = 0; i < properties.getWriterThreads(); i++) {
+      Thread writer = new Thread(this::runWriter, "answer-writer-" + i);
+      writer.setDaemon(true);
+      writer.start();
+      writers.add(writer);
+    }
+    log.info("Started {} answer writer threads (flush size {}, interval {})",
+        writers.size(), properties.getFlushSize(), properties.getFlushInterval());
+  }
+
+  @Override
+  public void stop() {
+    synchronized (this) {
+      if (!running) {
+        return;
+      }
+      running = false;
+    }
+    // Writers notice running == false within STOP_CHECK_NANOS; interrupting them could abort a JDBC write
+    for (Thread writer : writers) {
+      try {
+        writer.join(properties.getDrainTimeout().toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    writers.clear();
+    drain();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /* Stop once nothing can offer more answers: after the web server, the game engine and the scorer */
+  @Override
+  public int getPhase() {
+    return LifecyclePhases.ANSWER_QUEUE;
+  }
+
+  private void runWriter() {
+    List<PendingAnswer> batch = new ArrayList<>(properties.getFlushSize());
+    boolean stopping = false;
+    while (running && !stopping) {
+      try {
+        collectBatch(batch);
+      } catch (InterruptedException e) {
+        // Whatever has been collected is still written below, anything left over by drain()
+        stopping = true;
+      }
+      if (!batch.isEmpty()) {
+        writeBatch(batch);
+      }
+    }
+  }
+
+  /**
+   * Block until either a full batch is available, the flush interval since the first answer of the
+   * batch has passed, or the queue is stopped.
+   */
+  private void collectBatch(List<PendingAnswer> batch) throws InterruptedException {
+    int flushSize = properties.getFlushSize();
+    long intervalNanos = properties.getFlushInterval().toNanos();
+    long deadline = 0;
+    while (running && batch.size() < flushSize) {
+      if (queue.drainTo(batch, flushSize - batch.size()) > 0) {
+        if (deadline == 0) {
+          deadline = System.nanoTime() + intervalNanos;
+        }
+        continue;
+      }
+      long wait = STOP_CHECK_NANOS;
+      if (deadline != 0) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return;
+        }
+        wait = Math.min(wait, remaining);
+      }
+      PendingAnswer next = queue.poll(wait, TimeUnit.NANOSECONDS);
+      if (next != null) {
+        batch.add(next);
+        if (deadline == 0) {
+          deadline = System.nanoTime() + intervalNanos;
+        }
+      }
+    }
+  }
+
+  private void writeBatch(List<PendingAnswer> batch) {
+    int size = batch.size();
+    try {
+      // Only the answers actually stored are counted, so duplicates dropped by the writer are not
+      answerAnalytics.recordAll(batchWriter.write(batch));
+    } catch (RuntimeException e) {
+      log.error("Failed to write batch of {} answers", size, e);
+    } finally {
+      batch.clear();
+      settleLock.lock();
+      try {
+        settled += size;
+        settledChanged.signalAll();
+      } finally {
+        settleLock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.analytics.AnswerAnalytics;
+import com.ssta.quiz.config.LifecyclePhases;
+import com.ssta.quiz.leaderboard.LeaderboardService;
+import com.ssta.quiz.live.LiveQuizRegistry;
+import com.ssta.quiz.live.LiveQuizSnapshot;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.question.QuestionRepository;
+import com.ssta.quiz.scoring.ScoringStrategies;
+import com.ssta.quiz.scoring.ScoringStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores every answer to a question in one pass once the question has closed, when
+ * {@code quiz.answers.ingestion.scoring=DEFERRED}.
+ * <p>
+ * Answers arrive as parallel primitive arrays (player, option, response time) captured by the game
+ * engine while the question was open.  The quiz's {@link ScoringStrategy} scores them in one pass
+ * over those arrays, the scores are written back with a single {@link AnswerScoreWriter} statement
+ * and only then added to the live leaderboard and the question's analytics.  Only the answers the
+ * statement actually updated are added, so an answer whose row was never stored earns no points.
+ * Batches run one at a time on a dedicated thread so that the caller, usually a game carrier, never
+ * waits on the database.
+ * <p>
+ * The same thread writes out queued answers when a question closes with nothing to score, so that
+ * a timed close never waits for the write-behind queue either.
+ */
+@Slf4j
+@Service
+public class BatchAnswerScorer implements SmartLifecycle {
+
+  private final AnswerScoreWriter scoreWriter;
+  private final AnswerWriteBehindQueue answerQueue;
+  private final AnswerIngestionProperties ingestionProperties;
+  private final LiveQuizRegistry liveQuizRegistry;
+  private final QuestionRepository questionRepository;
+  private final LeaderboardService leaderboardService;
+  private final ScoringStrategies scoringStrategies;
+  private final AnswerAnalytics answerAnalytics;
+  private volatile ExecutorService executor;
+
+  public BatchAnswerScorer(AnswerScoreWriter scoreWriter,
+                           AnswerWriteBehindQueue answerQueue,
+                           AnswerIngestionProperties ingestionProperties,
+                           LiveQuizRegistry liveQuizRegistry,
+                           QuestionRepository questionRepository,
+                           LeaderboardService leaderboardService,
+                           ScoringStrategies scoringStrategies,
+                           AnswerAnalytics answerAnalytics) {
+    this.scoreWriter = scoreWriter;
+    this.answerQueue = answerQueue;
+    this.ingestionProperties = ingestionProperties;
+    this.liveQuizRegistry = liveQuizRegistry;
+    this.questionRepository = questionRepository;
+    this.leaderboardService = leaderboardService;
+    this.scoringStrategies = scoringStrategies;
+    this.answerAnalytics = answerAnalytics;
+  }
+
+  /**
+   * Queue the answers to a closed question for scoring.  The arrays are handed over and must not be
+   * changed by the caller afterwards.
+   *
+   * @param quizId the quiz ID
+   * @param questionId the question ID
+   * @param playerIds the player of each answer
+   * @param answerOptions the option chosen in each answer
+   * @param responseTimesMs the response time of each answer, or a negative value if there was none
+   * @param count the number of answers, which may be less than the length of the arrays
+   */
+  public void submit(long quizId, long questionId, long[] playerIds, int[] answerOptions, int[] responseTimesMs,
+                     int count) {
+    ExecutorService scorer = executor;
+    if (scorer == null) {
+      throw new IllegalStateException("Batch answer scorer is not running");
+    }
+    scorer.execute(() -> {
+      try {
+        scoreQuestion(quizId, questionId, playerIds, answerOptions, responseTimesMs, count);
+      } catch (RuntimeException e) {
+        log.error("Failed to score {} answers to question {} of quiz {}", count, questionId, quizId, e);
+      }
+    });
+  }
+
+  /**
+   * Write out queued answers now that a question has closed, without blocking the caller.  Does
+   * nothing unless answers are queued ({@code quiz.answers.ingestion.mode=WRITE_BEHIND}).
+   */
+  public void submitFlush() {
+    if (ingestionProperties.getMode() != AnswerIngestionProperties.Mode.WRITE_BEHIND) {
+      return;
+    }
+    ExecutorService scorer = executor;
+    if (scorer == null) {
+      throw new IllegalStateException("Batch answer scorer is not running");
+    }
+    scorer.execute(() -> {
+      if (!answerQueue.drain()) {
+        log.warn("Answers to a closed question are still being written");
+      }
+    });
+  }
+
+  /**
+   * Score the answers to a closed question on the calling thread.  Queued answers are written
+   * first so that every answer being scored has its row.
+   *
+   * @return the number of answers updated in the database
+   * @throws IllegalArgumentException if the question or its quiz is not found
+   */
+  public int scoreQuestion(long quizId, long questionId, long[] playerIds, int[] answerOptions,
+                           int[] responseTimesMs, int count) {
+    ScoringStrategy scoring;
+    int correctOption;
+    int timeLimitMs;
+    LiveQuizSnapshot snapshot = liveQuizRegistry.find(quizId).orElse(null);
+    if (snapshot != null && snapshot.positionOf(questionId) >= 0) {
+      int position = snapshot.positionOf(questionId);
+      scoring = snapshot.scoring();
+      correctOption = snapshot.correctOption(position);
+      timeLimitMs = snapshot.timeLimitMs(position);
+    } else {
+      // The quiz finished before its last question was scored
+      Question question = questionRepository.findById(questionId)
+          .orElseThrow(() -> new IllegalArgumentException("Question not found: " + questionId));
+      scoring = scoringStrategies.forQuiz(quizId);
+      correctOption = question.getDecodedOptions().correctOption();
+      timeLimitMs = question.getTimeLimit() == null ? 0 : question.getTimeLimit() * 1000;
+    }
+
+    if (ingestionProperties.getMode() == AnswerIngestionProperties.Mode.WRITE_BEHIND && !answerQueue.drain()) {
+      log.warn("Scoring question {} before all of its answers were written", questionId);
+    }
+
+    int[] scores = new int[count];
+    scoring.scoreAll(correctOption, timeLimitMs, answerOptions, responseTimesMs, count, scores);
+    long[] updated = scoreWriter.writeScores(quizId, questionId, playerIds, scores, count);
+
+    if (updated.length < count) {
+      // Answers without a row were dropped as duplicates or failed to be written, so they score nothing
+      log.warn("{} of {} answers to question {} of quiz {} were not stored and are not scored",
+          count - updated.length, count, questionId, quizId);
+      Set<Long> stored = new HashSet<>(updated.length * 2);
+      for (long playerId : updated) {
+        stored.add(playerId);
+      }
+      long[] storedPlayerIds = new long[updated.length];
+      int[] storedOptions = new int[updated.length];
+      int[] storedResponseTimesMs = new int[updated.length];
+      int[] storedScores = new int[updated.length];
+      int kept = 0;
+      for (int i = 0; i < count; i++) {
+        if (stored.contains(playerIds[i])) {
+          storedPlayerIds[kept] = playerIds[i];
+          storedOptions[kept] = answerOptions[i];
+          storedResponseTimesMs[kept] = responseTimesMs[i];
+          storedScores[kept] = scores[i];
+          kept++;
+        }
+      }
+      playerIds = storedPlayerIds;
+      answerOptions = storedOptions;
+      responseTimesMs = storedResponseTimesMs;
+      scores = storedScores;
+      count = kept;
+    }
+
+    for (int i = 0; i < count; i++) {
+      leaderboardService.recordAnswer(quizId, playerIds[i], scores[i], Math.max(responseTimesMs[i], 0));
+    }
+    answerAnalytics.recordScored(quizId, questionId, correctOption, answerOptions, responseTimesMs, scores, count);
+    log.debug("Scored {} answers to question {} of quiz {}", count, questionId, quizId);
+    return count;
+  }
+
+  @Override
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "answer-scorer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (executor == null) {
+      return;
+    }
+    // Let batches already handed over finish, so closed questions are not left unscored
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(ingestionProperties.getDrainTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("Timed out waiting for answer scoring to finish");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    executor = null;
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return executor != null;
+  }
+
+  /* Stop after the web server, but before the answer queue that scoring drains */
+  @Override
+  public int getPhase() {
+    return LifecyclePhases.ANSWER_SCORER;
+  }
+}
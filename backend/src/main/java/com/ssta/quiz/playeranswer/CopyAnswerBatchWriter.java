@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes batches of answers with PostgreSQL's COPY protocol instead of INSERT statements.
+ * <p>
+ * A batch is encoded in the binary COPY format into the writer thread's reusable buffer, streamed
+ * into a session-local staging table, and merged into player_answers with one
+ * {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING}.  So a flush costs three round trips however
+ * many answers it holds, and a second answer from a player to a question is skipped by the merge
+ * rather than failing the batch.  The merge returns the rows it inserted, so the caller knows exactly
+ * which answers were stored.  If an answer refers to a player or question that does not exist,
+ * or to a quiz without a partition of player_answers, the batch is merged again keeping only the
+ * answers that can be stored.
+ * <p>
+ * Selected with {@code quiz.answers.ingestion.writer=COPY}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "quiz.answers.ingestion", name = "writer", havingValue = "COPY")
+public class CopyAnswerBatchWriter implements AnswerBatchWriter {
+
+  /* Temporary tables belong to the connection, so each pooled connection creates its own once */
+  private static final String CREATE_STAGING = """
+      CREATE TEMPORARY TABLE IF NOT EXISTS player_answers_staging (
+        quiz_id BIGINT NOT NULL,
+        player_id BIGINT NOT NULL,
+        question_id BIGINT NOT NULL,
+        answer_option INT NOT NULL,
+        correct BOOLEAN NOT NULL,
+        response_time_ms INT,
+        score INT
+      ) ON COMMIT DELETE ROWS""";
+
+  private static final String COPY = "COPY player_answers_staging FROM STDIN (FORMAT binary)";
+
+  /*
+   * Ids come from the entity's sequence, which also covers schemas without the column default.  Each
+   * nextval() reserves a block of INCREMENT BY ids, as Hibernate's pooled-lo optimizer uses them, so
+   * the staged rows are numbered and take their ids from one block per INCREMENT BY rows rather than
+   * a whole block each.
+   */
+  private static final String MERGE_TEMPLATE = """
+      WITH staged AS MATERIALIZED (
+        SELECT s.*, row_number() OVER () - 1 AS n
+        FROM player_answers_staging s
+        %s
+      ), block_size AS (
+        SELECT seqincrement AS ids FROM pg_sequence WHERE seqrelid = 'player_answers_id_seq'::regclass
+      ), blocks AS MATERIALIZED (
+        SELECT row_number() OVER () - 1 AS b, nextval('player_answers_id_seq') AS lo
+        FROM block_size, generate_series(1, ((SELECT count(*) FROM staged) + block_size.ids - 1) / block_size.ids)
+      )
+      INSERT INTO player_answers (id, quiz_id, player_id, question_id, answer_option, correct, response_time_ms, score,
+                                  created_at)
+      SELECT blocks.lo + s.n % block_size.ids, s.quiz_id, s.player_id, s.question_id, s.answer_option, s.correct,
+             s.response_time_ms, s.score, now()
+      FROM staged s
+      CROSS JOIN block_size
+      JOIN blocks ON blocks.b = s.n / block_size.ids
+      ON CONFLICT (player_id, question_id, quiz_id) DO NOTHING
+      RETURNING quiz_id, player_id, question_id, answer_option, correct, response_time_ms, score""";
+
+  private static final String MERGE = MERGE_TEMPLATE.formatted("");
+
+  private static final String MERGE_EXISTING = MERGE_TEMPLATE.formatted("""
+      WHERE EXISTS (SELECT 1 FROM players p WHERE p.id = s.player_id)
+          AND EXISTS (SELECT 1 FROM questions q WHERE q.id = s.question_id)
+          AND EXISTS (SELECT 1 FROM pg_inherits i
+                      WHERE i.inhparent = 'player_answers'::regclass
+                        AND i.inhrelid = to_regclass('player_answers_q' || s.quiz_id))""");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ThreadLocal<AnswerCopyEncoder> encoders;
+
+  public CopyAnswerBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               AnswerIngestionProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.encoders = ThreadLocal.withInitial(() -> new AnswerCopyEncoder(properties.getFlushSize()));
+  }
+
+  @Override
+  public List<PendingAnswer> write(List<PendingAnswer> answers) {
+    if (answers.isEmpty()) {
+      return List.of();
+    }
+    AnswerCopyEncoder encoder = encoders.get();
+    encoder.encode(answers);
+    try {
+      return copyAndMerge(encoder, MERGE);
+    } catch (DataIntegrityViolationException e) {
+      // The merge is one statement, so one dangling reference fails all of it
+      log.debug("Batch of {} answers rejected, merging only answers that can be stored: {}",
+          answers.size(), e.getMessage());
+      List<PendingAnswer> written = copyAndMerge(encoder, MERGE_EXISTING);
+      if (written.size() < answers.size()) {
+        log.warn("Dropped {} of {} answers to missing players, questions or partitions, or already answered",
+            answers.size() - written.size(), answers.size());
+      }
+      return written;
+    }
+  }
+
+  private List<PendingAnswer> copyAndMerge(AnswerCopyEncoder encoder, String merge) {
+    List<PendingAnswer> written = transactionTemplate.execute(status -> jdbcTemplate.execute(
+        (ConnectionCallback<List<PendingAnswer>>) connection -> stageAndMerge(connection, encoder, merge)));
+    return written == null ? List.of() : written;
+  }
+
+  private static List<PendingAnswer> stageAndMerge(Connection connection, AnswerCopyEncoder encoder, String merge)
+      throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(CREATE_STAGING);
+      CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY);
+      try {
+        copy.writeToCopy(encoder.bytes(), 0, encoder.length());
+        copy.endCopy();
+      } finally {
+        if (copy.isActive()) {
+          copy.cancelCopy();
+        }
+      }
+      List<PendingAnswer> written = new ArrayList<>();
+      try (ResultSet rows = statement.executeQuery(merge)) {
+        while (rows.next()) {
+          written.add(toAnswer(rows));
+        }
+      }
+      return written;
+    }
+  }
+
+  private static PendingAnswer toAnswer(ResultSet row) throws SQLException {
+    return new PendingAnswer(row.getLong("quiz_id"), row.getLong("player_id"), row.getLong("question_id"),
+        row.getInt("answer_option"), row.getBoolean("correct"), row.getObject("response_time_ms", Integer.class),
+        row.getObject("score", Integer.class));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.player.Player;
+import com.ssta.quiz.question.Question;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch writer that persists answers through JPA in a single transaction per batch.
+ * Player and question are attached as references so no rows are read back.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "quiz.answers.ingestion", name = "writer", havingValue = "JPA", matchIfMissing = true)
+public class JpaAnswerBatchWriter implements AnswerBatchWriter {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final PlayerAnswerRepository playerAnswerRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  public JpaAnswerBatchWriter(PlayerAnswerRepository playerAnswerRepository,
+                              PlatformTransactionManager transactionManager) {
+    this.playerAnswerRepository = playerAnswerRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public List<PendingAnswer> write(List<PendingAnswer> answers) {
+    if (answers.isEmpty()) {
+      return List.of();
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        playerAnswerRepository.saveAllAndFlush(answers.stream().map(this::toEntity).toList());
+        entityManager.clear();
+      });
+      return List.copyOf(answers);
+    } catch (DataIntegrityViolationException e) {
+      // One bad row (usually a duplicate answer) rolls back the whole batch, so retry row by row
+      log.debug("Batch of {} answers rejected, retrying individually: {}", answers.size(), e.getMessage());
+      return writeIndividually(answers);
+    }
+  }
+
+  private List<PendingAnswer> writeIndividually(List<PendingAnswer> answers) {
+    List<PendingAnswer> written = new ArrayList<>(answers.size());
+    for (PendingAnswer answer : answers) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> playerAnswerRepository.saveAndFlush(toEntity(answer)));
+        written.add(answer);
+      } catch (DataIntegrityViolationException e) {
+        log.warn("Dropping answer from player {} to question {}: {}",
+            answer.playerId(), answer.questionId(), e.getMessage());
+      }
+    }
+    return written;
+  }
+
+  private PlayerAnswer toEntity(PendingAnswer answer) {
+    return PlayerAnswer.builder()
+        .quizId(answer.quizId())
+        .player(entityManager.getReference(Player.class, answer.playerId()))
+        .question(entityManager.getReference(Question.class, answer.questionId()))
+        .answerOption(answer.answerOption())
+        .correct(answer.correct())
+        .responseTimeMs(answer.responseTimeMs())
+        .score(answer.score())
+        .build();
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+/**
+ * An answer that has been accepted and scored but not necessarily written to the database yet.
+ *
+ * @param quizId the ID of the question's quiz, which decides the answer's partition
+ * @param playerId the player ID
+ * @param questionId the question ID
+ * @param answerOption the selected answer option
+ * @param correct whether the selected option was the correct one
+ * @param responseTimeMs time taken to answer in milliseconds, or null if the time ran out
+ * @param score the awarded score, or null if not yet scored
+ */
+public record PendingAnswer(long quizId,
+                            long playerId,
+                            long questionId,
+                            int answerOption,
+                            boolean correct,
+                            Integer responseTimeMs,
+                            Integer score) {
+}
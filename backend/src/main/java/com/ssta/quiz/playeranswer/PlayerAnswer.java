@@ -16,7 +16,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,7 +34,10 @@ import java.time.Instant;
  * Maps to the player_answers table in the database.
  */
 @Entity
-@Table(name = "player_answers")
+// The unique key is what answer writers resolve duplicates against, so Hibernate-created test schemas need it too.
+// player_answers is partitioned by quiz_id, so the key includes it.
+@Table(name = "player_answers",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"player_id", "question_id", "quiz_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,9 +47,14 @@ import java.time.Instant;
 public class PlayerAnswer {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_answers_id_gen")
+  @SequenceGenerator(name = "player_answers_id_gen", sequenceName = "player_answers_id_seq", allocationSize = 500)
   private long id;
 
+  /* The partition key: queries that filter on it only read the quiz's own partition */
+  @Column(name = "quiz_id", nullable = false)
+  private Long quizId;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "player_id", nullable = false)
   private Player player;
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates and detaches the per-quiz partitions of player_answers.
+ * <p>
+ * player_answers is partitioned by quiz_id, one partition per quiz named {@code player_answers_q<quizId>}.
+ * A quiz's partition is created when it is launched, and detached by the archive sweep
+ * once the quiz is archived, after which its answers are a table of their own that no live insert or
+ * query touches.  There is no default partition, so an answer to a quiz without a partition is
+ * rejected like any other constraint violation.
+ */
+@Slf4j
+@Repository
+public class PlayerAnswerPartitions {
+
+  /* No row if the table does not exist; otherwise whether it is attached, and whether a detach was left half done */
+  private static final String PARTITION_STATE = """
+      SELECT c.relispartition, COALESCE(i.inhdetachpending, false)
+      FROM pg_class c LEFT JOIN pg_inherits i ON i.inhrelid = c.oid
+      WHERE c.oid = to_regclass(?)""";
+
+  /* Quizzes in a given status whose partition is still attached, found from the partitions rather than the quizzes */
+  private static final String ATTACHED_IN_STATUS = """
+      SELECT q.id
+      FROM pg_inherits i
+      JOIN pg_class c ON c.oid = i.inhrelid
+      JOIN quizzes q ON q.id = substring(c.relname FROM '^player_answers_q([0-9]+)$')::bigint
+      WHERE i.inhparent = to_regclass('player_answers') AND q.status = ?
+      ORDER BY q.updated_at, q.id
+      LIMIT ?""";
+
+  private static final String SECONDARY_INDEXES = """
+      SELECT indexrelid::regclass::text FROM pg_index WHERE indrelid = to_regclass(?) AND NOT indisunique""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSource dataSource;
+
+  public PlayerAnswerPartitions(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * @return the name of the quiz's partition
+   */
+  public static String partitionName(long quizId) {
+    return "player_answers_q" + quizId;
+  }
+
+  /**
+   * Give a quiz its partition, if it does not have one yet.  Runs in a transaction of its own so the
+   * locks it takes are released straight away rather than when the caller commits.
+   * <p>
+   * The partition is created as a plain table and then attached, since attaching only takes a SHARE
+   * UPDATE EXCLUSIVE lock on player_answers, which does not block inserts into other quizzes'
+   * partitions, where {@code CREATE TABLE ... PARTITION OF} would take an ACCESS EXCLUSIVE one.
+   *
+   * @param quizId the quiz ID
+   * @return true if the partition was created, false if it already existed or has been detached
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public boolean create(long quizId) {
+    // The same lock ATTACH takes, taken first so concurrent launches of a quiz see each other's partition
+    jdbcTemplate.execute("LOCK TABLE player_answers IN SHARE UPDATE EXCLUSIVE MODE");
+    String partition = partitionName(quizId);
+    if (!jdbcTemplate.queryForList(PARTITION_STATE, partition).isEmpty()) {
+      return false;
+    }
+    jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE player_answers INCLUDING DEFAULTS)");
+    jdbcTemplate.execute("ALTER TABLE player_answers ATTACH PARTITION " + partition + " FOR VALUES IN (" + quizId + ")");
+    log.info("Created answer partition {}", partition);
+    return true;
+  }
+
+  /**
+   * Detach a quiz's partition.  Live traffic no longer reaches the quiz, so the indexes it used to
+   * look answers up by question are dropped and the table is analyzed for the reads that remain.  It
+   * is not rewritten: that would hold an exclusive lock and a second copy of the table for the sake
+   * of the dead rows left behind by scoring, which ordinary autovacuum reclaims anyway.
+   * <p>
+   * Detaching concurrently waits for every transaction using player_answers and cannot run inside a
+   * transaction, so this takes a connection of its own and must not be called from a transaction that
+   * has touched player_answers.
+   *
+   * @param quizId the quiz ID
+   * @return true if the partition was detached, false if it was not attached
+   * @throws DataAccessException if detaching fails
+   */
+  public boolean detach(long quizId) {
+    String partition = partitionName(quizId);
+    String sql = PARTITION_STATE;
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(true);
+      boolean detachPending;
+      try (PreparedStatement state = connection.prepareStatement(PARTITION_STATE)) {
+        state.setString(1, partition);
+        try (ResultSet resultSet = state.executeQuery()) {
+          if (!resultSet.next() || !resultSet.getBoolean(1)) {
+            return false;
+          }
+          detachPending = resultSet.getBoolean(2);
+        }
+      }
+
+      try (Statement statement = connection.createStatement()) {
+        // A concurrent detach that was interrupted leaves the partition half detached until it is finalized
+        sql = "ALTER TABLE player_answers DETACH PARTITION " + partition + (detachPending ? " FINALIZE" : " CONCURRENTLY");
+        statement.execute(sql);
+        for (String index : secondaryIndexes(connection, partition)) {
+          sql = "DROP INDEX " + index;
+          statement.execute(sql);
+        }
+        // The partition is only read from now on, so fresh statistics are all it needs
+        sql = "ANALYZE " + partition;
+        statement.execute(sql);
+      }
+      log.info("Detached answer partition {}", partition);
+      return true;
+    } catch (SQLException e) {
+      DataAccessException translated = jdbcTemplate.getExceptionTranslator().translate("Detaching " + partition, sql, e);
+      throw translated != null ? translated : new UncategorizedSQLException("Detaching " + partition, sql, e);
+    }
+  }
+
+  /**
+   * @param quizStatus the quiz status
+   * @param limit the most quiz IDs to return
+   * @return quizzes in that status whose partition is still attached, longest in it first
+   */
+  public List<Long> findAttached(String quizStatus, int limit) {
+    return jdbcTemplate.queryForList(ATTACHED_IN_STATUS, Long.class, quizStatus, limit);
+  }
+
+  private static List<String> secondaryIndexes(Connection connection, String partition) throws SQLException {
+    List<String> indexes = new ArrayList<>();
+    try (PreparedStatement statement = connection.prepareStatement(SECONDARY_INDEXES)) {
+      statement.setString(1, partition);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          indexes.add(resultSet.getString(1));
+        }
+      }
+    }
+    return indexes;
+  }
+}
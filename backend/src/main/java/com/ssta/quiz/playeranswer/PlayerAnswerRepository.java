@@ -7,6 +7,8 @@
 package com.ssta.quiz.playeranswer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,15 +16,43 @@ import java.util.Optional;
 
 /**
  * Repository for accessing and manipulating PlayerAnswer entities.
+ * <p>
+ * player_answers is partitioned by quiz, so every query filters on the quiz ID and reads only that
+ * quiz's partition.
  */
 @Repository
 public interface PlayerAnswerRepository extends JpaRepository<PlayerAnswer, Long> {
 
-  Optional<PlayerAnswer> findByPlayerIdAndQuestionId(Long playerId, Long questionId);
-
-  List<PlayerAnswer> findByPlayerId(Long playerId);
-
-  List<PlayerAnswer> findByQuestionId(Long questionId);
-
-  List<PlayerAnswer> findByQuestionIdAndAnswerOption(Long questionId, int answerOption);
+  Optional<PlayerAnswer> findByQuizIdAndPlayerIdAndQuestionId(Long quizId, Long playerId, Long questionId);
+
+  List<PlayerAnswer> findByQuizIdAndPlayerId(Long quizId, Long playerId);
+
+  List<PlayerAnswer> findByQuizIdAndQuestionId(Long quizId, Long questionId);
+
+  List<PlayerAnswer> findByQuizIdAndQuestionIdAndAnswerOption(Long quizId, Long questionId, int answerOption);
+
+  /**
+   * Total score and response time of every player who has answered a question of the quiz.
+   * Used to rebuild a live leaderboard in a single query.
+   *
+   * @param quizId the quiz ID
+   * @return one row per player
+   */
+  @Query("SELECT pa.player.id AS playerId, SUM(COALESCE(pa.score, 0)) AS totalScore, "
+      + "SUM(COALESCE(pa.responseTimeMs, 0)) AS totalResponseTimeMs "
+      + "FROM PlayerAnswer pa WHERE pa.quizId = :quizId GROUP BY pa.player.id")
+  List<PlayerScoreTotal> sumScoresByQuizId(@Param("quizId") Long quizId);
+
+  /**
+   * Answer counts of a quiz grouped by question, option, correctness and whole second of response time.
+   * Used to rebuild live answer distributions in a single query.
+   *
+   * @param quizId the quiz ID
+   * @return one row per group
+   */
+  @Query("SELECT pa.question.id AS questionId, pa.answerOption AS answerOption, pa.correct AS correct, "
+      + "pa.responseTimeMs / 1000 AS responseSecond, COUNT(pa) AS answers "
+      + "FROM PlayerAnswer pa WHERE pa.quizId = :quizId "
+      + "GROUP BY pa.question.id, pa.answerOption, pa.correct, pa.responseTimeMs / 1000")
+  List<AnswerCount> countAnswersByQuizId(@Param("quizId") Long quizId);
 }
@@ -6,14 +6,27 @@
 
 package com.ssta.quiz.playeranswer;
 
+import com.ssta.quiz.analytics.AnswerAnalytics;
+import com.ssta.quiz.leaderboard.LeaderboardService;
+import com.ssta.quiz.live.LiveQuizRegistry;
+import com.ssta.quiz.live.LiveQuizSnapshot;
 import com.ssta.quiz.player.Player;
 import com.ssta.quiz.player.PlayerRepository;
 import com.ssta.quiz.question.Question;
 import com.ssta.quiz.question.QuestionRepository;
+import com.ssta.quiz.scoring.ScoringStrategies;
+import com.ssta.quiz.scoring.ScoringStrategy;
+import com.ssta.quiz.stats.AnswerStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,17 +36,111 @@ import java.util.Optional;
 @Service
 public class PlayerAnswerService {
 
+  /* SQLState of a unique constraint violation */
+  private static final String UNIQUE_VIOLATION = "23505";
+
   private final PlayerAnswerRepository playerAnswerRepository;
   private final PlayerRepository playerRepository;
   private final QuestionRepository questionRepository;
+  private final AnswerWriteBehindQueue answerQueue;
+  private final AnswerIngestionProperties ingestionProperties;
+  private final LiveQuizRegistry liveQuizRegistry;
+  private final LeaderboardService leaderboardService;
+  private final AnswerStatsService answerStatsService;
+  private final ScoringStrategies scoringStrategies;
+  private final AnswerAnalytics answerAnalytics;
+  private final TransactionTemplate transactionTemplate;
 
   @Autowired
   public PlayerAnswerService(PlayerAnswerRepository playerAnswerRepository,
                              PlayerRepository playerRepository,
-                             QuestionRepository questionRepository) {
+                             QuestionRepository questionRepository,
+                             AnswerWriteBehindQueue answerQueue,
+                             AnswerIngestionProperties ingestionProperties,
+                             LiveQuizRegistry liveQuizRegistry,
+                             LeaderboardService leaderboardService,
+                             AnswerStatsService answerStatsService,
+                             ScoringStrategies scoringStrategies,
+                             AnswerAnalytics answerAnalytics,
+                             PlatformTransactionManager transactionManager) {
     this.playerAnswerRepository = playerAnswerRepository;
     this.playerRepository = playerRepository;
     this.questionRepository = questionRepository;
+    this.answerQueue = answerQueue;
+    this.ingestionProperties = ingestionProperties;
+    this.liveQuizRegistry = liveQuizRegistry;
+    this.leaderboardService = leaderboardService;
+    this.answerStatsService = answerStatsService;
+    this.scoringStrategies = scoringStrategies;
+    this.answerAnalytics = answerAnalytics;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Accept a player's answer using the configured ingestion mode.
+   * In DIRECT mode the answer is written straight away, leaving duplicates to the database's unique
+   * constraint instead of looking them up first.  In WRITE_BEHIND mode the answer is scored
+   * and queued, and is acknowledged before it reaches the database; a second answer to the same
+   * question is dropped when the batch is written.
+   *
+   * @param playerId the player ID
+   * @param questionId the question ID
+   * @param answerOption the selected answer option
+   * @param responseTimeMs time taken to answer in milliseconds
+   * @return the accepted answer
+   * @throws IllegalArgumentException if the question (or in DIRECT mode, the player) is not found
+   * @throws IllegalStateException if the answer is a duplicate (DIRECT mode, detected by the
+   * database's unique constraint) or the answer queue is full
+   */
+  public PendingAnswer submitAnswer(Long playerId, Long questionId, Integer answerOption, Integer responseTimeMs) {
+    if (ingestionProperties.getMode() == AnswerIngestionProperties.Mode.DIRECT) {
+      // Duplicates were turned away in memory by the game engine; the unique constraint catches any that slip through
+      PlayerAnswer saved;
+      try {
+        saved = transactionTemplate.execute(
+            status -> saveAnswer(scoreAnswer(playerId, questionId, answerOption, responseTimeMs)));
+      } catch (DataIntegrityViolationException e) {
+        // Anything but the unique constraint, such as a missing partition, is not the player's doing
+        if (!isUniqueViolation(e)) {
+          throw e;
+        }
+        throw new IllegalStateException("Player has already answered this question", e);
+      }
+      return new PendingAnswer(saved.getQuizId(), playerId, questionId, saved.getAnswerOption(), saved.isCorrect(),
+          saved.getResponseTimeMs(), saved.getScore());
+    }
+
+    PendingAnswer answer = scoreAnswer(playerId, questionId, answerOption, responseTimeMs);
+    if (!answerQueue.offer(answer)) {
+      throw new IllegalStateException("Answer queue is full");
+    }
+    recordLiveAnswer(answer);
+    return answer;
+  }
+
+  /**
+   * @return true if {@link #submitAnswer} only queues answers, never waiting on the database
+   */
+  public boolean queuesAnswers() {
+    return ingestionProperties.getMode() == AnswerIngestionProperties.Mode.WRITE_BEHIND;
+  }
+
+  /**
+   * @return true if answers to a live quiz are stored unscored and scored by {@link BatchAnswerScorer}
+   * when their question closes
+   */
+  public boolean defersScoring() {
+    return ingestionProperties.getScoring() == AnswerIngestionProperties.Scoring.DEFERRED;
+  }
+
+  /**
+   * Write every answer accepted so far to the database.  Called when a question closes so that
+   * reveal and scoring see all of its answers.
+   *
+   * @return true if all queued answers were written within the drain timeout
+   */
+  public boolean flushPendingAnswers() {
+    return answerQueue.drain();
   }
 
   /**
@@ -48,102 +155,137 @@ public class PlayerAnswerService {
    */
   @Transactional
   public PlayerAnswer recordAnswer(Long playerId, Long questionId, Integer answerOption, Integer responseTimeMs) {
-    Player player = playerRepository.findById(playerId)
-        .orElseThrow(() -> new IllegalArgumentException("Player not found: " + playerId));
-
-    Question question = questionRepository.findById(questionId)
-        .orElseThrow(() -> new IllegalArgumentException("Question not found: " + questionId));
-
-    // Check if answer already exists
-    Optional<PlayerAnswer> existingAnswer = playerAnswerRepository.findByPlayerIdAndQuestionId(playerId, questionId);
+    // Scoring finds the question's quiz, which the lookup needs to read only that quiz's answers
+    PendingAnswer scored = scoreAnswer(playerId, questionId, answerOption, responseTimeMs);
+    Optional<PlayerAnswer> existingAnswer =
+        playerAnswerRepository.findByQuizIdAndPlayerIdAndQuestionId(scored.quizId(), playerId, questionId);
     if (existingAnswer.isPresent()) {
       throw new IllegalStateException("Player has already answered this question");
     }
+    return saveAnswer(scored);
+  }
 
-    // Calculate if answer is correct and score based on game rules
-    // This is placeholder logic - actual implementation would depend on how questions store correct answers
-    boolean correct = isCorrectAnswer(question, answerOption);
-    Integer score = calculateScore(correct, responseTimeMs, question.getTimeLimit());
+  /**
+   * Insert a scored answer, without checking for an earlier answer from the same player.
+   *
+   * @throws IllegalArgumentException if the player is not found
+   */
+  private PlayerAnswer saveAnswer(PendingAnswer scored) {
+    Player player = playerRepository.findById(scored.playerId())
+        .orElseThrow(() -> new IllegalArgumentException("Player not found: " + scored.playerId()));
 
+    // The question was either loaded while scoring or is served from the live snapshot, so a reference is enough
     PlayerAnswer playerAnswer = PlayerAnswer.builder()
+        .quizId(scored.quizId())
         .player(player)
-        .question(question)
-        .answerOption(answerOption)
-        .correct(correct)
-        .responseTimeMs(responseTimeMs)
-        .score(score)
+        .question(questionRepository.getReferenceById(scored.questionId()))
+        .answerOption(scored.answerOption())
+        .correct(scored.correct())
+        .responseTimeMs(scored.responseTimeMs())
+        .score(scored.score())
         .build();
 
-    return playerAnswerRepository.save(playerAnswer);
+    PlayerAnswer saved = playerAnswerRepository.save(playerAnswer);
+    // The insert may only fail at flush or commit, so only count the answer once it is certain to be stored
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        recordLiveAnswer(scored);
+        answerAnalytics.record(scored);
+      }
+    });
+    return saved;
   }
 
   /**
    * Get all answers for a specific player.
    *
+   * @param quizId the player's quiz ID
    * @param playerId the player ID
    * @return list of player answers
    */
-  public List<PlayerAnswer> getPlayerAnswers(Long playerId) {
-    return playerAnswerRepository.findByPlayerId(playerId);
+  public List<PlayerAnswer> getPlayerAnswers(Long quizId, Long playerId) {
+    return playerAnswerRepository.findByQuizIdAndPlayerId(quizId, playerId);
   }
 
   /**
    * Get all answers for a specific question.
    *
+   * @param quizId the question's quiz ID
    * @param questionId the question ID
    * @return list of answers for the question
    */
-  public List<PlayerAnswer> getQuestionAnswers(Long questionId) {
-    return playerAnswerRepository.findByQuestionId(questionId);
+  public List<PlayerAnswer> getQuestionAnswers(Long quizId, Long questionId) {
+    return playerAnswerRepository.findByQuizIdAndQuestionId(quizId, questionId);
   }
 
   /**
    * Calculate total score for a player in a quiz.
    *
+   * @param quizId the quiz ID
    * @param playerId the player ID
    * @return total score
    */
-  public int calculateTotalScore(Long playerId) {
-    return playerAnswerRepository.findByPlayerId(playerId).stream()
+  public int calculateTotalScore(Long quizId, Long playerId) {
+    return playerAnswerRepository.findByQuizIdAndPlayerId(quizId, playerId).stream()
         .mapToInt(answer -> answer.getScore() != null ? answer.getScore() : 0)
         .sum();
   }
 
   /**
-   * Determines if the selected answer option is correct.
-   * This is a placeholder implementation - in a real application, this would check against
-   * the question's correct answer data.
+   * Work out correctness and score of an answer with its quiz's {@link ScoringStrategy}.  Questions
+   * of a live quiz are read from its {@link LiveQuizSnapshot}, and when scoring is deferred their
+   * answers are left unscored for the batch scorer; anything else is loaded from the database and
+   * scored straight away.
+   *
+   * @throws IllegalArgumentException if the question or its quiz is not found
    */
-  private boolean isCorrectAnswer(Question question, Integer answerOption) {
-    // Placeholder logic - would need to be replaced with actual implementation
-    // that checks against the question's stored correct answer
-    return true; // For testing purposes
+  private PendingAnswer scoreAnswer(long playerId, long questionId, int answerOption, Integer responseTimeMs) {
+    LiveQuizSnapshot snapshot = liveQuizRegistry.findByQuestionId(questionId).orElse(null);
+    if (snapshot != null) {
+      int position = snapshot.positionOf(questionId);
+      boolean correct = snapshot.isCorrect(position, answerOption);
+      Integer score = defersScoring()
+          ? null
+          : snapshot.scoring().score(correct, responseMs(responseTimeMs), snapshot.timeLimitMs(position));
+      return new PendingAnswer(snapshot.quizId(), playerId, questionId, answerOption, correct, responseTimeMs, score);
+    }
+
+    Question question = questionRepository.findById(questionId)
+        .orElseThrow(() -> new IllegalArgumentException("Question not found: " + questionId));
+    boolean correct = question.getDecodedOptions().isCorrect(answerOption);
+    int timeLimitMs = question.getTimeLimit() == null ? 0 : question.getTimeLimit() * 1000;
+    ScoringStrategy scoring = scoringStrategies.forQuiz(question.getQuizId());
+    return new PendingAnswer(question.getQuizId(), playerId, questionId, answerOption, correct, responseTimeMs,
+        scoring.score(correct, responseMs(responseTimeMs), timeLimitMs));
   }
 
   /**
-   * Calculate score based on correctness and response time.
-   * Faster correct answers get higher scores.
+   * Fold an accepted answer into the answer distribution and leaderboard of its live quiz, if there is one.
    */
-  private Integer calculateScore(boolean correct, Integer responseTimeMs, Integer timeLimit) {
-      if (!correct) {return 0;}
-
-    // Simple scoring formula: maximum score for instant answers, decreasing with time
-    int maxScore = 100;
-    int minScore = 10;
-
-    if (responseTimeMs == null || timeLimit == null || timeLimit <= 0) {
-      return correct ? maxScore : 0;
+  private void recordLiveAnswer(PendingAnswer answer) {
+    LiveQuizSnapshot snapshot = liveQuizRegistry.findByQuestionId(answer.questionId()).orElse(null);
+    if (snapshot == null) {
+      return;
     }
+    answerStatsService.record(snapshot.quizId(), snapshot.positionOf(answer.questionId()),
+        answer.answerOption(), answer.correct(), answer.responseTimeMs());
+    if (answer.score() != null) {
+      leaderboardService.recordAnswer(snapshot.quizId(), answer.playerId(), answer.score(),
+          answer.responseTimeMs() == null ? 0 : answer.responseTimeMs());
+    }
+  }
 
-    // Convert timeLimit from seconds to milliseconds
-    int timeLimitMs = timeLimit * 1000;
-
-    // Calculate score based on response time
-    if (responseTimeMs >= timeLimitMs) {
-      return minScore; // Minimum score for correct answers at time limit
+  private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException) {
+        return UNIQUE_VIOLATION.equals(sqlException.getSQLState());
+      }
     }
+    return false;
+  }
 
-    // Linear score reduction based on time used
-    return (int) (maxScore - ((maxScore - minScore) * responseTimeMs / (double) timeLimitMs));
+  private static int responseMs(Integer responseTimeMs) {
+    return responseTimeMs == null ? ScoringStrategy.NO_RESPONSE : responseTimeMs;
   }
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+/**
+ * Per-player totals over a quiz's answers, as returned by
+ * {@link PlayerAnswerRepository#sumScoresByQuizId(Long)}.
+ */
+public interface PlayerScoreTotal {
+
+  Long getPlayerId();
+
+  /* Unscored answers count as zero */
+  Long getTotalScore();
+
+  /* Answers without a response time count as zero */
+  Long getTotalResponseTimeMs();
+}
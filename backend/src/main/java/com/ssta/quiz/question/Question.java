@@ -15,10 +15,17 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -28,11 +35,11 @@ import java.time.ZonedDateTime;
 @Table(name = "questions")
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Question {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_id_gen")
+  @SequenceGenerator(name = "questions_id_gen", sequenceName = "questions_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "quiz_id", nullable = false)
@@ -58,9 +65,45 @@ public class Question {
   @JdbcTypeCode(SqlTypes.JSON)
   private String options;
 
+  /* Decoded form of options, built once on load or first use and dropped whenever options changes */
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private QuestionOptions decodedOptions;
+
   @Column(name = "created_at")
   private ZonedDateTime createdAt;
 
   @Column(name = "updated_at")
   private ZonedDateTime updatedAt;
-}
\ No newline at end of file
+
+  public void setOptions(String options) {
+    this.options = options;
+    this.decodedOptions = null;
+  }
+
+  /**
+   * @return the decoded answer options, never null
+   * @throws IllegalArgumentException if the stored options JSON is invalid
+   */
+  public QuestionOptions getDecodedOptions() {
+    QuestionOptions decoded = decodedOptions;
+    if (decoded == null) {
+      decoded = QuestionOptions.parse(options);
+      decodedOptions = decoded;
+    }
+    return decoded;
+  }
+
+  @PostLoad
+  protected void decodeOptions() {
+    try {
+      decodedOptions = QuestionOptions.parse(options);
+    } catch (IllegalArgumentException e) {
+      // Leave it to getDecodedOptions() to fail, so a question with bad options can still be loaded and fixed
+      decodedOptions = null;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decoded, immutable form of the JSON stored in {@link Question#getOptions()}.
+ * <p>
+ * The stored JSON is an array of options in display order, each one
+ * {@code {"text": "...", "correct": true|false, "imageUrl": "..."}} where {@code correct} and
+ * {@code imageUrl} are optional.  The first option marked correct is the correct answer.  A bare
+ * string is not accepted as an option, since it could not say whether it is the correct one.
+ * Decoding happens once; checking an answer afterwards is a single int comparison.
+ */
+public final class QuestionOptions {
+
+  public static final QuestionOptions EMPTY = new QuestionOptions(new String[0], null, -1);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final String[] texts;
+  /* Null when no option has an image, so the common case carries no per-option array */
+  private final String[] imageUrls;
+  private final int correctOption;
+
+  private QuestionOptions(String[] texts, String[] imageUrls, int correctOption) {
+    this.texts = texts;
+    this.imageUrls = imageUrls;
+    this.correctOption = correctOption;
+  }
+
+  /**
+   * Decode the options JSON of a question.
+   *
+   * @param json the stored JSON, may be null
+   * @return the decoded options, {@link #EMPTY} for null or blank JSON
+   * @throws IllegalArgumentException if the JSON is not an array of option objects
+   */
+  public static QuestionOptions parse(String json) {
+    if (json == null || json.isBlank()) {
+      return EMPTY;
+    }
+    JsonNode root;
+    try {
+      root = MAPPER.readTree(json);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Invalid question options JSON", e);
+    }
+    if (!root.isArray()) {
+      throw new IllegalArgumentException("Question options must be a JSON array");
+    }
+
+    int count = root.size();
+    String[] texts = new String[count];
+    String[] imageUrls = null;
+    int correctOption = -1;
+    for (int i = 0; i < count; i++) {
+      JsonNode option = root.get(i);
+      if (!option.isObject()) {
+        throw new IllegalArgumentException(
+            "Question option " + i + " must be a JSON object, not " + option.getNodeType());
+      }
+      texts[i] = option.path("text").asText();
+      if (correctOption < 0 && option.path("correct").asBoolean(false)) {
+        correctOption = i;
+      }
+      JsonNode imageUrl = option.get("imageUrl");
+      if (imageUrl != null && !imageUrl.isNull()) {
+        if (imageUrls == null) {
+          imageUrls = new String[count];
+        }
+        imageUrls[i] = imageUrl.asText();
+      }
+    }
+    return new QuestionOptions(texts, imageUrls, correctOption);
+  }
+
+  /**
+   * Build options directly, mainly for tests and question editing.
+   *
+   * @param texts the option texts in display order
+   * @param correctOption index of the correct option, or -1 if none
+   */
+  public static QuestionOptions of(List<String> texts, int correctOption) {
+    if (correctOption >= texts.size()) {
+      throw new IllegalArgumentException("Correct option " + correctOption + " out of range for " + texts.size() + " options");
+    }
+    return new QuestionOptions(texts.toArray(new String[0]), null, Math.max(correctOption, -1));
+  }
+
+  public int size() {
+    return texts.length;
+  }
+
+  public String text(int option) {
+    return texts[option];
+  }
+
+  public List<String> texts() {
+    return List.of(texts);
+  }
+
+  /**
+   * @return the image URL of the option, or null if it has none
+   */
+  public String imageUrl(int option) {
+    return imageUrls == null ? null : imageUrls[option];
+  }
+
+  /**
+   * @return index of the correct option, or -1 if none is marked correct
+   */
+  public int correctOption() {
+    return correctOption;
+  }
+
+  public boolean isCorrect(int answerOption) {
+    return correctOption >= 0 && answerOption == correctOption;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof QuestionOptions other)) {
+      return false;
+    }
+    return correctOption == other.correctOption
+        && Arrays.equals(texts, other.texts)
+        && Arrays.equals(imageUrls, other.imageUrls);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * Arrays.hashCode(texts) + Arrays.hashCode(imageUrls)) + correctOption;
+  }
+
+  @Override
+  public String toString() {
+    return "QuestionOptions" + Arrays.toString(texts) + ", correct=" + correctOption;
+  }
+}
@@ -33,6 +33,14 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
    */
   List<Question> findByQuizId(Long quizId);
 
+  /**
+   * Find all questions for a specific quiz in play order.
+   *
+   * @param quizId The ID of the quiz
+   * @return List of questions belonging to the quiz, ordered by orderIndex
+   */
+  List<Question> findByQuizIdOrderByOrderIndexAsc(Long quizId);
+
   /**
    * Find all questions for a specific quiz with pagination support.
    *
@@ -78,16 +86,6 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
    */
   long deleteByQuizId(Long quizId);
 
-  /**
-   * Search for questions by text content with pagination.
-   *
-   * @param searchTerm The search term to look for in question text
-   * @param pageable Pagination information
-   * @return Page of matching questions
-   */
-  @Query("SELECT q FROM Question q WHERE LOWER(q.questionText) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-  Page<Question> searchByQuestionText(@Param("searchTerm") String searchTerm, Pageable pageable);
-
   /**
    * Update the order of a question within a quiz.
    *
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Searches the questions of one user's quizzes, with every kind of match served by an index on
+ * questions (see V8__add_question_search.sql):
+ * <ul>
+ *   <li>words, stemmed, against the generated search_vector column, so "volcanoes" finds "volcano"</li>
+ *   <li>substrings, case-insensitively, through the trigram index on question_text</li>
+ *   <li>misspelt words, through the same trigram index, when some word of the question shares enough
+ *   trigrams with the term ({@code pg_trgm.word_similarity_threshold}, 0.6 by default)</li>
+ * </ul>
+ * Results are ranked by full-text rank plus word similarity, so a question containing the term's
+ * words outranks one that only nearly does.
+ */
+@Repository
+public class QuestionSearch {
+
+  static final String SEARCH = """
+      SELECT q.id, q.quiz_id, z.title, q.question_text,
+             ts_rank_cd(q.search_vector, query) + public.word_similarity(?, q.question_text) AS rank
+      FROM questions q
+      JOIN quizzes z ON z.id = q.quiz_id,
+           websearch_to_tsquery('english', ?) query
+      WHERE z.user_id = ?
+        AND (q.search_vector @@ query
+             OR q.question_text ILIKE ?
+             OR q.question_text OPERATOR(public.%>) ?)
+      ORDER BY rank DESC, q.id
+      LIMIT ?""";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public QuestionSearch(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * @param userId the user whose quizzes' questions are searched
+   * @param term words, a substring, or a misspelling of a word, of the question text
+   * @param limit the most results to return
+   * @return the matching questions, best match first; none if the term is blank
+   */
+  public List<QuestionSearchResult> search(long userId, String term, int limit) {
+    String trimmed = term == null ? "" : term.strip();
+    if (trimmed.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    return jdbcTemplate.query(SEARCH, (resultSet, row) -> new QuestionSearchResult(
+            resultSet.getLong("id"),
+            resultSet.getLong("quiz_id"),
+            resultSet.getString("title"),
+            resultSet.getString("question_text"),
+            resultSet.getDouble("rank")),
+        trimmed, trimmed, userId, "%" + escapeLike(trimmed) + "%", trimmed, limit);
+  }
+
+  /* Match the term's own % and _ literally */
+  static String escapeLike(String term) {
+    return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+import com.ssta.quiz.common.ApiResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Search of a quizmaster's question bank: the questions of every quiz they own.
+ */
+@RestController
+@RequestMapping("/api/quizmaster/users/{userId}/questions/search")
+public class QuestionSearchController {
+
+  private static final int MAX_RESULTS = 100;
+
+  private final QuestionSearch questionSearch;
+
+  public QuestionSearchController(QuestionSearch questionSearch) {
+    this.questionSearch = questionSearch;
+  }
+
+  @GetMapping
+  public ApiResponse<List<QuestionSearchResult>> search(@PathVariable long userId,
+                                                        @RequestParam("q") String term,
+                                                        @RequestParam(defaultValue = "20") int limit) {
+    return ApiResponse.success(questionSearch.search(userId, term, Math.min(Math.max(limit, 0), MAX_RESULTS)));
+  }
+}
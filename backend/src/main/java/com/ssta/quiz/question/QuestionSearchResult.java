@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+/**
+ * A question matching a search, with the quiz it belongs to.
+ *
+ * @param questionId the question ID
+ * @param quizId the question's quiz ID
+ * @param quizTitle the question's quiz title
+ * @param questionText the question text
+ * @param rank how well the question matches; higher is better, and only comparable within one search
+ */
+public record QuestionSearchResult(long questionId,
+                                   long quizId,
+                                   String quizTitle,
+                                   String questionText,
+                                   double rank) {
+}
@@ -6,6 +6,7 @@
 
 package com.ssta.quiz.quiz;
 
+import com.ssta.quiz.scoring.BuiltInScoring;
 import com.ssta.quiz.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -15,6 +16,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -30,7 +32,8 @@ import java.time.ZonedDateTime;
 public class Quiz {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizzes_id_gen")
+  @SequenceGenerator(name = "quizzes_id_gen", sequenceName = "quizzes_id_seq", allocationSize = 10)
   private Long id;
 
   @Column(name = "title", nullable = false)
@@ -49,6 +52,10 @@ public class Quiz {
   @Column(name = "status", nullable = false)
   private String status;
 
+  /* Name of the ScoringStrategy the quiz's answers are scored with */
+  @Column(name = "scoring_strategy", nullable = false)
+  private String scoringStrategy = BuiltInScoring.LINEAR.name();
+
   @Column(name = "created_at")
   private ZonedDateTime createdAt;
 
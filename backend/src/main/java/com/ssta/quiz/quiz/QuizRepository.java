@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.quiz;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for accessing and manipulating Quiz entities.
+ */
+@Repository
+public interface QuizRepository extends JpaRepository<Quiz, Long> {
+
+  /**
+   * Find all quizzes in the given status.
+   *
+   * @param status the status name, see {@link QuizStatus}
+   * @return list of matching quizzes
+   */
+  List<Quiz> findByStatus(String status);
+}
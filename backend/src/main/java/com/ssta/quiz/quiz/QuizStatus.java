@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.quiz;
+
+/**
+ * Lifecycle states stored in {@link Quiz#getStatus()}.
+ */
+public enum QuizStatus {
+  DRAFT,
+  ACTIVE,
+  COMPLETED,
+  ARCHIVED;
+
+  /**
+   * @return true if the given quiz is in this state
+   */
+  public boolean matches(Quiz quiz) {
+    return name().equals(quiz.getStatus());
+  }
+}
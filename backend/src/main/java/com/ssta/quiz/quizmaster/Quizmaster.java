@@ -12,6 +12,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,7 +33,8 @@ import java.time.ZonedDateTime;
 public class Quizmaster {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizmasters_id_gen")
+  @SequenceGenerator(name = "quizmasters_id_gen", sequenceName = "quizmasters_id_seq", allocationSize = 10)
   private Long id;
 
   @Column(nullable = false, unique = true, length = 50)
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.scoring;
+
+/**
+ * The scoring strategies that ship with the application.
+ * <p>
+ * Each constant overrides {@link #scoreAll} with its own loop so the JIT compiles one tight,
+ * monomorphic loop per strategy rather than one shared loop calling through the interface.
+ */
+public enum BuiltInScoring implements ScoringStrategy {
+
+  /**
+   * 100 points for an instant correct answer, falling linearly to 10 at the time limit.  Wrong
+   * answers score 0; a correct answer without a response time or time limit scores 100.
+   */
+  LINEAR {
+    @Override
+    public int score(boolean correct, int responseMs, int limitMs) {
+      return linear(correct, responseMs, limitMs);
+    }
+
+    @Override
+    public void scoreAll(int correctOption, int limitMs, int[] answerOptions, int[] responseMs, int count,
+                         int[] scores) {
+      for (int i = 0; i < count; i++) {
+        scores[i] = linear(ScoringStrategy.isCorrect(correctOption, answerOptions[i]), responseMs[i], limitMs);
+      }
+    }
+  },
+
+  /**
+   * 100, 75, 50 or 25 points for a correct answer in the first, second, third or last quarter of
+   * the time limit, and 25 at or after it.  Wrong answers score 0; a correct answer without a
+   * response time or time limit scores 100.
+   */
+  STEPPED {
+    @Override
+    public int score(boolean correct, int responseMs, int limitMs) {
+      return stepped(correct, responseMs, limitMs);
+    }
+
+    @Override
+    public void scoreAll(int correctOption, int limitMs, int[] answerOptions, int[] responseMs, int count,
+                         int[] scores) {
+      for (int i = 0; i < count; i++) {
+        scores[i] = stepped(ScoringStrategy.isCorrect(correctOption, answerOptions[i]), responseMs[i], limitMs);
+      }
+    }
+  },
+
+  /**
+   * The model in GameDescription.md: up to 10,000 points, losing 500 for every second taken, and a
+   * wrong answer loses the points a correct one would have earned at the same time.  Nothing is
+   * won or lost at or after the time limit or without a response time.
+   */
+  PENALTY {
+    @Override
+    public int score(boolean correct, int responseMs, int limitMs) {
+      return penalty(correct, responseMs, limitMs);
+    }
+
+    @Override
+    public void scoreAll(int correctOption, int limitMs, int[] answerOptions, int[] responseMs, int count,
+                         int[] scores) {
+      for (int i = 0; i < count; i++) {
+        scores[i] = penalty(ScoringStrategy.isCorrect(correctOption, answerOptions[i]), responseMs[i], limitMs);
+      }
+    }
+  };
+
+  private static final int LINEAR_MAX = 100;
+  private static final int LINEAR_MIN = 10;
+  private static final int STEP_MAX = 100;
+  private static final int STEP_POINTS = 25;
+  private static final int STEPS = 4;
+  private static final int PENALTY_MAX = 10_000;
+  /* 500 points a second is one point every two milliseconds */
+  private static final int PENALTY_MS_PER_POINT = 2;
+
+  private static int linear(boolean correct, int responseMs, int limitMs) {
+    if (!correct) {
+      return 0;
+    }
+    if (responseMs < 0 || limitMs <= 0) {
+      return LINEAR_MAX;
+    }
+    if (responseMs >= limitMs) {
+      return LINEAR_MIN;
+    }
+    return (int) (LINEAR_MAX - ((LINEAR_MAX - LINEAR_MIN) * responseMs / (double) limitMs));
+  }
+
+  private static int stepped(boolean correct, int responseMs, int limitMs) {
+    if (!correct) {
+      return 0;
+    }
+    if (responseMs < 0 || limitMs <= 0) {
+      return STEP_MAX;
+    }
+    if (responseMs >= limitMs) {
+      return STEP_POINTS;
+    }
+    return STEP_MAX - STEP_POINTS * (int) ((long) responseMs * STEPS / limitMs);
+  }
+
+  private static int penalty(boolean correct, int responseMs, int limitMs) {
+    if (responseMs < 0 || (limitMs > 0 && responseMs >= limitMs)) {
+      return 0;
+    }
+    int available = Math.max(0, PENALTY_MAX - responseMs / PENALTY_MS_PER_POINT);
+    return correct ? available : -available;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.scoring;
+
+import com.ssta.quiz.quiz.Quiz;
+import com.ssta.quiz.quiz.QuizRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Looks up scoring strategies by name: the {@link BuiltInScoring} ones plus every
+ * {@link ScoringStrategy} bean in the context.  A quiz without a strategy is scored with
+ * {@link BuiltInScoring#LINEAR}.
+ */
+@Component
+public class ScoringStrategies {
+
+  public static final ScoringStrategy DEFAULT = BuiltInScoring.LINEAR;
+
+  private final QuizRepository quizRepository;
+  private final Map<String, ScoringStrategy> strategies = new LinkedHashMap<>();
+
+  public ScoringStrategies(QuizRepository quizRepository, ObjectProvider<ScoringStrategy> plugins) {
+    this.quizRepository = quizRepository;
+    for (ScoringStrategy strategy : BuiltInScoring.values()) {
+      register(strategy);
+    }
+    plugins.orderedStream().forEach(this::register);
+  }
+
+  /**
+   * @return the strategy with the given name, ignoring case
+   */
+  public Optional<ScoringStrategy> find(String name) {
+    return name == null ? Optional.empty() : Optional.ofNullable(strategies.get(name.toUpperCase(Locale.ROOT)));
+  }
+
+  /**
+   * @param name a strategy name, or null for the default
+   * @return the strategy
+   * @throws IllegalArgumentException if there is no strategy with that name
+   */
+  public ScoringStrategy forName(String name) {
+    if (name == null) {
+      return DEFAULT;
+    }
+    return find(name).orElseThrow(() -> new IllegalArgumentException("Unknown scoring strategy: " + name));
+  }
+
+  /**
+   * @return the strategy the quiz is scored with
+   * @throws IllegalArgumentException if the quiz is not found or its strategy is unknown
+   */
+  public ScoringStrategy forQuiz(long quizId) {
+    Quiz quiz = quizRepository.findById(quizId)
+        .orElseThrow(() -> new IllegalArgumentException("Quiz not found: " + quizId));
+    return forName(quiz.getScoringStrategy());
+  }
+
+  public Collection<ScoringStrategy> all() {
+    return Collections.unmodifiableCollection(strategies.values());
+  }
+
+  private void register(ScoringStrategy strategy) {
+    String name = strategy.name().toUpperCase(Locale.ROOT);
+    if (strategies.putIfAbsent(name, strategy) != null) {
+      throw new IllegalStateException("Duplicate scoring strategy: " + name);
+    }
+  }
+}
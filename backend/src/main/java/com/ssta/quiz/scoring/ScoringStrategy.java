@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.scoring;
+
+/**
+ * How many points an answer is worth, chosen per quiz.
+ * <p>
+ * A strategy is a pure function of primitives, so it can be shared by every quiz and thread and
+ * applied to a whole question's answers at once with {@link #scoreAll}.  The built-in strategies
+ * are in {@link BuiltInScoring}; others can be plugged in as Spring beans and are picked up by
+ * {@link ScoringStrategies} under their {@link #name()}.
+ */
+public interface ScoringStrategy {
+
+  /* Response time of an answer that has none, for example because the time ran out */
+  int NO_RESPONSE = -1;
+
+  /**
+   * @return the name a quiz selects this strategy by; upper case
+   */
+  String name();
+
+  /**
+   * Score one answer.
+   *
+   * @param correct whether the chosen option was the correct one
+   * @param responseMs time taken to answer, or {@link #NO_RESPONSE}
+   * @param limitMs the question's time limit, or 0 if it has none
+   * @return the points awarded, which may be negative
+   */
+  int score(boolean correct, int responseMs, int limitMs);
+
+  /**
+   * Score the first {@code count} answers to one question into {@code scores}.  Must not allocate.
+   * Implementations should override this with a loop over their own scoring function so that it
+   * is compiled separately for each strategy.
+   *
+   * @param correctOption index of the correct option, or -1 if none is marked correct
+   * @param limitMs the question's time limit, or 0 if it has none
+   * @param answerOptions the option chosen in each answer
+   * @param responseMs the response time of each answer; negative if there was none
+   * @param count the number of answers
+   * @param scores receives the score of each answer
+   */
+  default void scoreAll(int correctOption, int limitMs, int[] answerOptions, int[] responseMs, int count,
+                        int[] scores) {
+    for (int i = 0; i < count; i++) {
+      scores[i] = score(isCorrect(correctOption, answerOptions[i]), Math.max(responseMs[i], NO_RESPONSE), limitMs);
+    }
+  }
+
+  static boolean isCorrect(int correctOption, int answerOption) {
+    return correctOption >= 0 && answerOption == correctOption;
+  }
+}
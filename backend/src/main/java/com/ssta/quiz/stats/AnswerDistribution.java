@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live answer counters for one question: answers per option, correct/incorrect split and a
+ * response-time histogram with one-second buckets.
+ * <p>
+ * Every counter is a {@link LongAdder}, so concurrent answers update striped cells without locking
+ * and reads never block writers.  Reads are not an atomic snapshot across counters, which is fine
+ * for display.
+ */
+public final class AnswerDistribution {
+
+  public static final int BUCKET_WIDTH_MS = 1000;
+
+  private final long questionId;
+  private final LongAdder[] optionCounts;
+  private final LongAdder correct = new LongAdder();
+  private final LongAdder incorrect = new LongAdder();
+  /* The last bucket collects answers at or past the time limit and answers without a response time */
+  private final LongAdder[] responseTimeBuckets;
+
+  AnswerDistribution(long questionId, int optionCount, int timeLimitMs) {
+    this.questionId = questionId;
+    this.optionCounts = adders(optionCount);
+    int limitBuckets = timeLimitMs <= 0 ? 0 : (timeLimitMs + BUCKET_WIDTH_MS - 1) / BUCKET_WIDTH_MS;
+    this.responseTimeBuckets = adders(limitBuckets + 1);
+  }
+
+  public long questionId() {
+    return questionId;
+  }
+
+  /**
+   * Count one answer.  Options outside the question's range are counted as incorrect but not per option.
+   */
+  public void record(int answerOption, boolean isCorrect, Integer responseTimeMs) {
+    add(answerOption, isCorrect, bucketOf(responseTimeMs), 1);
+  }
+
+  /**
+   * Add {@code count} answers with the same option, correctness and response-time bucket.
+   */
+  void add(int answerOption, boolean isCorrect, int bucket, long count) {
+    if (answerOption >= 0 && answerOption < optionCounts.length) {
+      optionCounts[answerOption].add(count);
+    }
+    (isCorrect ? correct : incorrect).add(count);
+    responseTimeBuckets[Math.min(bucket, responseTimeBuckets.length - 1)].add(count);
+  }
+
+  /**
+   * @return the histogram bucket for a response time
+   */
+  int bucketOf(Integer responseTimeMs) {
+    if (responseTimeMs == null || responseTimeMs < 0) {
+      return responseTimeBuckets.length - 1;
+    }
+    return Math.min(responseTimeMs / BUCKET_WIDTH_MS, responseTimeBuckets.length - 1);
+  }
+
+  public long total() {
+    return correct.sum() + incorrect.sum();
+  }
+
+  public AnswerDistributionView view() {
+    return new AnswerDistributionView(questionId, sums(optionCounts), correct.sum(), incorrect.sum(),
+        sums(responseTimeBuckets), BUCKET_WIDTH_MS);
+  }
+
+  private static LongAdder[] adders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  private static long[] sums(LongAdder[] adders) {
+    long[] sums = new long[adders.length];
+    for (int i = 0; i < adders.length; i++) {
+      sums[i] = adders[i].sum();
+    }
+    return sums;
+  }
+}
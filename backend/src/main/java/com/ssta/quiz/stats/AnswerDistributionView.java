@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.stats;
+
+/**
+ * Point-in-time copy of an {@link AnswerDistribution}, as sent to the quizmaster screen.
+ *
+ * @param questionId the question ID
+ * @param optionCounts number of answers per option, in option order
+ * @param correct number of correct answers
+ * @param incorrect number of incorrect answers
+ * @param responseTimeHistogram answers per response-time bucket; the last bucket holds answers at or
+ *                              past the time limit
+ * @param bucketWidthMs width of each histogram bucket
+ */
+public record AnswerDistributionView(long questionId,
+                                     long[] optionCounts,
+                                     long correct,
+                                     long incorrect,
+                                     long[] responseTimeHistogram,
+                                     int bucketWidthMs) {
+}
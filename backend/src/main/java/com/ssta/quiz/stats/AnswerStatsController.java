@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.stats;
+
+import com.ssta.quiz.common.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Live answer distribution of a question, for the quizmaster screen.
+ */
+@RestController
+@RequestMapping("/api/quizmaster/quizzes/{quizId}/questions/{questionId}/distribution")
+public class AnswerStatsController {
+
+  private final AnswerStatsService answerStatsService;
+
+  public AnswerStatsController(AnswerStatsService answerStatsService) {
+    this.answerStatsService = answerStatsService;
+  }
+
+  @GetMapping
+  public ApiResponse<AnswerDistributionView> distribution(@PathVariable long quizId, @PathVariable long questionId) {
+    return answerStatsService.find(quizId)
+        .flatMap(stats -> stats.forQuestion(questionId))
+        .map(distribution -> ApiResponse.success(distribution.view()))
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Question is not part of a live quiz"));
+  }
+}
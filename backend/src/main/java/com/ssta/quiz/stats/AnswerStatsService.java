@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.stats;
+
+import com.ssta.quiz.live.LiveQuizSnapshot;
+import com.ssta.quiz.playeranswer.AnswerCount;
+import com.ssta.quiz.playeranswer.PlayerAnswerRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the live answer distributions of every live quiz.  Counters are updated in memory as
+ * answers arrive; the database is only read to rebuild them when a quiz is (re)started.
+ */
+@Service
+public class AnswerStatsService {
+
+  private final PlayerAnswerRepository playerAnswerRepository;
+  private final Map<Long, QuizAnswerStats> statsByQuiz = new ConcurrentHashMap<>();
+
+  public AnswerStatsService(PlayerAnswerRepository playerAnswerRepository) {
+    this.playerAnswerRepository = playerAnswerRepository;
+  }
+
+  /**
+   * Create the counters for a live quiz, seeded from any answers already stored.
+   *
+   * @param snapshot the quiz's snapshot
+   * @return the new counters
+   */
+  @Transactional(readOnly = true)
+  public QuizAnswerStats start(LiveQuizSnapshot snapshot) {
+    QuizAnswerStats stats = new QuizAnswerStats(snapshot);
+    for (AnswerCount count : playerAnswerRepository.countAnswersByQuizId(snapshot.quizId())) {
+      stats.forQuestion(count.getQuestionId()).ifPresent(distribution -> distribution.add(
+          count.getAnswerOption(),
+          Boolean.TRUE.equals(count.getCorrect()),
+          count.getResponseSecond() == null ? Integer.MAX_VALUE : count.getResponseSecond(),
+          count.getAnswers()));
+    }
+    statsByQuiz.put(snapshot.quizId(), stats);
+    return stats;
+  }
+
+  /**
+   * Count an answer to the question at {@code position} of a live quiz.
+   */
+  public void record(long quizId, int position, int answerOption, boolean correct, Integer responseTimeMs) {
+    QuizAnswerStats stats = statsByQuiz.get(quizId);
+    if (stats != null) {
+      stats.atPosition(position).record(answerOption, correct, responseTimeMs);
+    }
+  }
+
+  public Optional<QuizAnswerStats> find(long quizId) {
+    return Optional.ofNullable(statsByQuiz.get(quizId));
+  }
+
+  public Collection<QuizAnswerStats> all() {
+    return statsByQuiz.values();
+  }
+
+  public void remove(long quizId) {
+    statsByQuiz.remove(quizId);
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.stats;
+
+import com.ssta.quiz.live.LiveQuizSnapshot;
+
+import java.util.Optional;
+
+/**
+ * The {@link AnswerDistribution}s of every question of a live quiz, indexed by the question's
+ * position in the quiz's {@link LiveQuizSnapshot}.
+ */
+public final class QuizAnswerStats {
+
+  private final LiveQuizSnapshot snapshot;
+  private final AnswerDistribution[] distributions;
+  /* Totals at the last broadcast, only touched by the broadcasting thread */
+  private final long[] lastPublishedTotals;
+
+  QuizAnswerStats(LiveQuizSnapshot snapshot) {
+    this.snapshot = snapshot;
+    this.distributions = new AnswerDistribution[snapshot.questionCount()];
+    this.lastPublishedTotals = new long[snapshot.questionCount()];
+    for (int i = 0; i < distributions.length; i++) {
+      distributions[i] = new AnswerDistribution(snapshot.questionId(i), snapshot.options(i).size(),
+          snapshot.timeLimitMs(i));
+    }
+  }
+
+  public long quizId() {
+    return snapshot.quizId();
+  }
+
+  public int questionCount() {
+    return distributions.length;
+  }
+
+  public AnswerDistribution atPosition(int position) {
+    return distributions[position];
+  }
+
+  public Optional<AnswerDistribution> forQuestion(long questionId) {
+    int position = snapshot.positionOf(questionId);
+    return position < 0 ? Optional.empty() : Optional.of(distributions[position]);
+  }
+
+  /**
+   * @return the number of answers to the question since the previous call, which is remembered as
+   * published; only call from the broadcasting thread
+   */
+  public long takeUnpublishedAnswers(int position) {
+    long total = distributions[position].total();
+    long unpublished = total - lastPublishedTotals[position];
+    lastPublishedTotals[position] = total;
+    return unpublished;
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+-- Sequence backed ids so Hibernate can batch inserts.
+-- Hibernate uses the pooled-lo optimizer: each nextval() reserves a block of INCREMENT BY ids, so the
+-- increment of each sequence must match the allocationSize declared on its entity.  The column defaults
+-- let plain SQL inserts (and COPY) share the same sequences; they simply consume a whole block per row.
+
+CREATE SEQUENCE users_id_seq INCREMENT BY 10 OWNED BY users.id;
+SELECT setval('users_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM users;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_id_seq');
+
+CREATE SEQUENCE quizzes_id_seq INCREMENT BY 10 OWNED BY quizzes.id;
+SELECT setval('quizzes_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM quizzes;
+ALTER TABLE quizzes ALTER COLUMN id SET DEFAULT nextval('quizzes_id_seq');
+
+CREATE SEQUENCE questions_id_seq INCREMENT BY 50 OWNED BY questions.id;
+SELECT setval('questions_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM questions;
+ALTER TABLE questions ALTER COLUMN id SET DEFAULT nextval('questions_id_seq');
+
+CREATE SEQUENCE players_id_seq INCREMENT BY 100 OWNED BY players.id;
+SELECT setval('players_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM players;
+ALTER TABLE players ALTER COLUMN id SET DEFAULT nextval('players_id_seq');
+
+CREATE SEQUENCE player_answers_id_seq INCREMENT BY 500 OWNED BY player_answers.id;
+SELECT setval('player_answers_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM player_answers;
+ALTER TABLE player_answers ALTER COLUMN id SET DEFAULT nextval('player_answers_id_seq');
+
+-- quizmasters was created as BIGSERIAL, so it already owns quizmasters_id_seq
+ALTER SEQUENCE quizmasters_id_seq INCREMENT BY 10;
@@ -0,0 +1,8 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+-- Each quiz picks how its answers are scored; names match ScoringStrategy.name()
+ALTER TABLE quizzes ADD COLUMN scoring_strategy VARCHAR(50) NOT NULL DEFAULT 'LINEAR';
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+-- Partition player_answers by quiz.
+-- Each quiz gets a partition of its own, player_answers_q<quiz id>, created when the quiz is launched
+-- (PlayerAnswerPartitions), so live inserts only maintain the indexes of the quiz being played, queries
+-- that filter on quiz_id are pruned to one partition, and an archived quiz's answers are detached
+-- rather than deleted.  There is no default partition: an answer to a quiz without a partition is
+-- rejected, and a default partition would stop partitions being detached concurrently.
+-- Unique keys of a partitioned table must include the partition key.  Ids still come from one
+-- sequence, so id alone stays unique, and the answer key now leads with player_id, which makes the
+-- separate player_id index redundant.
+-- quiz_id has no foreign key: the partition bounds already limit it to launched quizzes, and a
+-- reference would have every answer lock its quiz's row.
+
+ALTER SEQUENCE player_answers_id_seq OWNED BY NONE;
+ALTER TABLE player_answers RENAME TO player_answers_unpartitioned;
+ALTER TABLE player_answers_unpartitioned RENAME CONSTRAINT player_answers_pkey TO player_answers_unpartitioned_pkey;
+ALTER TABLE player_answers_unpartitioned
+    RENAME CONSTRAINT player_answers_player_id_question_id_key TO player_answers_unpartitioned_key;
+DROP INDEX idx_player_answers_player_id;
+DROP INDEX idx_player_answers_question_id;
+
+CREATE TABLE player_answers
+(
+    id               BIGINT  NOT NULL DEFAULT nextval('player_answers_id_seq'),
+    quiz_id          BIGINT  NOT NULL,
+    player_id        BIGINT  NOT NULL REFERENCES players (id),
+    question_id      BIGINT  NOT NULL REFERENCES questions (id),
+    answer_option    INT     NOT NULL,
+    correct          BOOLEAN NOT NULL DEFAULT FALSE,
+    response_time_ms INTEGER,
+    score            INTEGER,
+    created_at       TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, quiz_id),
+    UNIQUE (player_id, question_id, quiz_id)
+) PARTITION BY LIST (quiz_id);
+
+CREATE INDEX idx_player_answers_question_id ON player_answers (question_id);
+
+ALTER SEQUENCE player_answers_id_seq OWNED BY player_answers.id;
+
+-- Partitions for every quiz that has been launched or has answers, then the answers themselves.
+-- Archived quizzes' partitions are detached straight away, as they are when a quiz is archived.
+DO
+$$
+    DECLARE
+        quiz RECORD;
+    BEGIN
+        FOR quiz IN SELECT q.id
+                    FROM quizzes q
+                    WHERE q.status <> 'DRAFT'
+                       OR EXISTS (SELECT 1
+                                  FROM questions qu
+                                           JOIN player_answers_unpartitioned pa ON pa.question_id = qu.id
+                                  WHERE qu.quiz_id = q.id)
+            LOOP
+                EXECUTE format('CREATE TABLE player_answers_q%s PARTITION OF player_answers FOR VALUES IN (%s)',
+                               quiz.id, quiz.id);
+            END LOOP;
+
+        INSERT INTO player_answers (id, quiz_id, player_id, question_id, answer_option, correct, response_time_ms,
+                                    score, created_at)
+        SELECT pa.id, qu.quiz_id, pa.player_id, pa.question_id, pa.answer_option, pa.correct, pa.response_time_ms,
+               pa.score, pa.created_at
+        FROM player_answers_unpartitioned pa
+                 JOIN questions qu ON qu.id = pa.question_id;
+
+        FOR quiz IN SELECT q.id FROM quizzes q WHERE q.status = 'ARCHIVED' AND to_regclass('player_answers_q' || q.id) IS NOT NULL
+            LOOP
+                EXECUTE format('ALTER TABLE player_answers DETACH PARTITION player_answers_q%s', quiz.id);
+            END LOOP;
+    END
+$$;
+
+DROP TABLE player_answers_unpartitioned;
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+-- Final results of finished quizzes, one compressed blob per quiz (see QuizResultsFormat)
+
+CREATE TABLE quiz_archives
+(
+    quiz_id        BIGINT PRIMARY KEY REFERENCES quizzes (id),
+    format_version SMALLINT NOT NULL,
+    players        INTEGER  NOT NULL,
+    answers        INTEGER  NOT NULL,
+    results        BYTEA    NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The blob is already deflated, so keep TOAST from trying to compress it again
+ALTER TABLE quiz_archives ALTER COLUMN results SET STORAGE EXTERNAL;
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+-- Running totals of scored answers per question and per quiz, folded in batch by batch as answers are
+-- stored and scored (see AnswerAnalytics).  Response times are kept as serialized ResponseTimeSketch
+-- histograms, which merge by adding bucket counts.  Derived data, so they go with their question or quiz.
+
+CREATE TABLE question_stats
+(
+    question_id          BIGINT PRIMARY KEY REFERENCES questions (id) ON DELETE CASCADE,
+    quiz_id              BIGINT   NOT NULL REFERENCES quizzes (id) ON DELETE CASCADE,
+    answers              BIGINT   NOT NULL,
+    correct              BIGINT   NOT NULL,
+    option_counts        BIGINT[] NOT NULL,
+    timed_answers        BIGINT   NOT NULL,
+    response_time_sum_ms BIGINT   NOT NULL,
+    response_time_sketch BYTEA    NOT NULL,
+    score_sum            BIGINT   NOT NULL,
+    updated_at           TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_question_stats_quiz_id ON question_stats (quiz_id);
+
+CREATE TABLE quiz_stats
+(
+    quiz_id              BIGINT PRIMARY KEY REFERENCES quizzes (id) ON DELETE CASCADE,
+    answers              BIGINT NOT NULL,
+    correct              BIGINT NOT NULL,
+    timed_answers        BIGINT NOT NULL,
+    response_time_sum_ms BIGINT NOT NULL,
+    response_time_sketch BYTEA  NOT NULL,
+    score_sum            BIGINT NOT NULL,
+    updated_at           TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
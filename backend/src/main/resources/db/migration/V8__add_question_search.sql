@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+-- Indexed question search (see QuestionSearch): words through a generated tsvector, substrings and
+-- misspellings through pg_trgm trigrams.  Both replace a LIKE '%term%' scan of every question.
+
+-- An extension exists once per database, so it goes in public where every schema migrated into the
+-- database can reach it; its operators and operator classes are referred to as public.*
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+ALTER TABLE questions
+    ADD COLUMN search_vector TSVECTOR
+        GENERATED ALWAYS AS (to_tsvector('english'::regconfig, question_text)) STORED;
+
+CREATE INDEX idx_questions_search_vector ON questions USING GIN (search_vector);
+CREATE INDEX idx_questions_question_text_trgm ON questions USING GIN (question_text public.gin_trgm_ops);
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import com.ssta.quiz.analytics.AnswerStatsStore.QuestionDelta;
+import com.ssta.quiz.playeranswer.PendingAnswer;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AnswerAnalyticsTest {
+
+  private static final long QUIZ_ID = 7L;
+
+  private final AnswerStatsStore answerStatsStore = mock(AnswerStatsStore.class);
+  private final AnswerAnalytics analytics = new AnswerAnalytics(answerStatsStore);
+
+  @Test
+  void flush_shouldFoldTotalsPerQuestion() {
+    analytics.record(new PendingAnswer(QUIZ_ID, 1L, 10L, 1, true, 2_000, 900));
+    analytics.recordAll(List.of(
+        new PendingAnswer(QUIZ_ID, 2L, 10L, 0, false, null, 0),
+        new PendingAnswer(QUIZ_ID, 3L, 11L, 2, false, 5_000, 0)));
+    analytics.recordScored(QUIZ_ID, 11L, 2, new int[]{2, 3, 0}, new int[]{1_000, -1, 0}, new int[]{800, 0, 0}, 2);
+
+    assertEquals(2, analytics.flush());
+
+    List<QuestionDelta> deltas = foldedDeltas(1);
+    AnswerStats first = deltas.get(0).stats();
+    assertEquals(10L, deltas.get(0).questionId());
+    assertEquals(2, first.answers);
+    assertEquals(1, first.correct);
+    assertArrayEquals(new long[]{1, 1}, first.optionCounts);
+    assertEquals(1, first.timedAnswers);
+    assertEquals(2_000, first.responseTimeSumMs);
+    assertEquals(900, first.scoreSum);
+    AnswerStats second = deltas.get(1).stats();
+    assertEquals(QUIZ_ID, deltas.get(1).quizId());
+    assertEquals(3, second.answers);
+    assertEquals(1, second.correct);
+    assertArrayEquals(new long[]{0, 0, 2, 1}, second.optionCounts);
+    assertEquals(2, second.timedAnswers);
+    assertEquals(6_000, second.responseTimeSumMs);
+    assertEquals(800, second.scoreSum);
+  }
+
+  @Test
+  void flush_shouldIgnoreUnscoredAnswersAndSkipEmptyFlushes() {
+    analytics.record(new PendingAnswer(QUIZ_ID, 1L, 10L, 1, false, 2_000, null));
+
+    assertEquals(0, analytics.flush());
+
+    verifyNoInteractions(answerStatsStore);
+  }
+
+  @Test
+  void flush_whenFoldFails_shouldKeepTotalsForNextFlush() {
+    doThrow(new QueryTimeoutException("timed out")).doNothing().when(answerStatsStore).fold(any());
+    analytics.record(new PendingAnswer(QUIZ_ID, 1L, 10L, 1, true, 2_000, 900));
+
+    assertEquals(0, analytics.flush());
+    analytics.record(new PendingAnswer(QUIZ_ID, 2L, 10L, 1, true, 3_000, 700));
+    assertEquals(1, analytics.flush());
+
+    AnswerStats stats = foldedDeltas(2).get(0).stats();
+    assertEquals(2, stats.answers);
+    assertEquals(1_600, stats.scoreSum);
+    assertEquals(2, stats.responseTimes.count());
+  }
+
+  @Test
+  void flush_whenAQuestionHasBeenDeleted_shouldFoldTheOthersAndDropIt() {
+    doAnswer(invocation -> {
+      Collection<QuestionDelta> deltas = invocation.getArgument(0);
+      if (deltas.stream().anyMatch(delta -> delta.questionId() == 11L)) {
+        throw new DataIntegrityViolationException("question_stats_question_id_fkey");
+      }
+      return null;
+    }).when(answerStatsStore).fold(any());
+    analytics.record(new PendingAnswer(QUIZ_ID, 1L, 10L, 1, true, 2_000, 900));
+    analytics.record(new PendingAnswer(QUIZ_ID, 1L, 11L, 1, true, 2_000, 900));
+
+    assertEquals(1, analytics.flush());
+
+    // The whole batch, then each question on its own
+    verify(answerStatsStore, times(3)).fold(any());
+    verify(answerStatsStore).fold(argThat(deltas -> deltas.size() == 1
+        && deltas.iterator().next().questionId() == 10L));
+
+    // Nothing is left of the deleted question to fail the next flush
+    clearInvocations(answerStatsStore);
+    assertEquals(0, analytics.flush());
+    verifyNoInteractions(answerStatsStore);
+  }
+
+  @Test
+  void quiz_withoutAnalytics_shouldThrow() {
+    when(answerStatsStore.findQuiz(QUIZ_ID)).thenReturn(Optional.empty());
+
+    assertThrows(IllegalArgumentException.class, () -> analytics.quiz(QUIZ_ID));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<QuestionDelta> foldedDeltas(int folds) {
+    ArgumentCaptor<Collection<QuestionDelta>> captor = ArgumentCaptor.forClass(Collection.class);
+    verify(answerStatsStore, times(folds)).fold(captor.capture());
+    List<QuestionDelta> deltas = new ArrayList<>(captor.getValue());
+    deltas.sort(Comparator.comparingLong(QuestionDelta::questionId));
+    return deltas;
+  }
+}
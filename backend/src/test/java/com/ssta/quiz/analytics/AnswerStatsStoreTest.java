@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import com.ssta.quiz.analytics.AnswerStatsStore.QuestionDelta;
+import com.ssta.quiz.testconfig.AbstractRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that batches of answer totals fold into question_stats and quiz_stats, and that the
+ * analytics read back from those rows are those of every batch together.
+ * <p>
+ * Like {@link com.ssta.quiz.archive.QuizArchiveServiceTest} this runs against a migrated schema,
+ * since the stats tables have no entities.
+ */
+@Import({AnswerAnalytics.class, AnswerStatsStore.class})
+@TestPropertySource(properties = {
+    "spring.flyway.schemas=partitioned",
+    "spring.datasource.hikari.schema=partitioned",
+    "spring.jpa.hibernate.ddl-auto=validate"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AnswerStatsStoreTest extends AbstractRepositoryTest {
+
+  private static final AtomicInteger QUIZZES = new AtomicInteger();
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private AnswerStatsStore answerStatsStore;
+
+  @Autowired
+  private AnswerAnalytics answerAnalytics;
+
+  @Test
+  @DisplayName("Should merge each fold into the existing rows and keep quiz totals in step with question totals")
+  public void testFold() {
+    // Given: a quiz with two questions
+    long quizId = seedQuiz();
+    List<Long> questionIds = jdbcTemplate.queryForList(
+        "SELECT id FROM questions WHERE quiz_id = ? ORDER BY order_index", Long.class, quizId);
+    long q1 = questionIds.get(0);
+    long q2 = questionIds.get(1);
+
+    // When: answers arrive over two flushes
+    answerAnalytics.recordScored(quizId, q1, 0, new int[]{0, 1}, new int[]{1_000, 3_000}, new int[]{900, 0}, 2);
+    answerAnalytics.flush();
+    answerAnalytics.recordScored(quizId, q1, 0, new int[]{0, 3}, new int[]{2_000, -1}, new int[]{800, 0}, 2);
+    answerAnalytics.recordScored(quizId, q2, 2, new int[]{2}, new int[]{10_000}, new int[]{500}, 1);
+    answerAnalytics.flush();
+    QuizAnalytics analytics = answerAnalytics.quiz(quizId);
+
+    // Then
+    assertThat(analytics.answers()).isEqualTo(5);
+    assertThat(analytics.correctRate()).isEqualTo(0.6);
+    assertThat(analytics.meanResponseTimeMs()).isEqualTo(4_000.0);
+    assertThat(analytics.meanScore()).isEqualTo(440.0);
+    assertThat(analytics.questions()).extracting(QuestionAnalytics::questionId).containsExactly(q1, q2);
+    QuestionAnalytics first = analytics.questions().get(0);
+    assertThat(first.answers()).isEqualTo(4);
+    assertThat(first.correctRate()).isEqualTo(0.5);
+    assertThat(first.optionCounts()).containsExactly(2, 1, 0, 1);
+    assertThat(first.meanResponseTimeMs()).isEqualTo(2_000.0);
+    assertThat(first.medianResponseTimeMs()).isBetween(1_980, 2_020);
+    assertThat(first.p90ResponseTimeMs()).isBetween(2_970, 3_030);
+    assertThat(analytics.questions().get(1).medianResponseTimeMs()).isBetween(9_900, 10_100);
+    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM question_stats WHERE quiz_id = ?", Long.class,
+        quizId)).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should report no analytics for a quiz without scored answers, or null times for untimed answers")
+  public void testEmpty() {
+    // Given
+    long quizId = seedQuiz();
+    long questionId = jdbcTemplate.queryForObject(
+        "SELECT id FROM questions WHERE quiz_id = ? ORDER BY order_index LIMIT 1", Long.class, quizId);
+    assertThatThrownBy(() -> answerAnalytics.quiz(quizId)).isInstanceOf(IllegalArgumentException.class);
+
+    // When
+    AnswerStats untimed = new AnswerStats();
+    untimed.add(1, false, -1, 0);
+    answerStatsStore.fold(List.of(new QuestionDelta(quizId, questionId, untimed)));
+    Map<Long, AnswerStats> questions = answerStatsStore.findQuestions(quizId);
+
+    // Then
+    assertThat(questions).containsOnlyKeys(questionId);
+    QuestionAnalytics analytics = QuestionAnalytics.of(questionId, questions.get(questionId));
+    assertThat(analytics.answers()).isEqualTo(1);
+    assertThat(analytics.optionCounts()).containsExactly(0, 1);
+    assertThat(analytics.meanResponseTimeMs()).isNull();
+    assertThat(analytics.medianResponseTimeMs()).isNull();
+    assertThat(analytics.meanScore()).isEqualTo(0.0);
+  }
+
+  private long seedQuiz() {
+    int n = QUIZZES.incrementAndGet();
+    Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username) VALUES (?) RETURNING id", Long.class,
+        "analytics" + n);
+    Long quizId = jdbcTemplate.queryForObject(
+        "INSERT INTO quizzes (title, user_id, status) VALUES (?, ?, 'ACTIVE') RETURNING id", Long.class,
+        "Analytics " + n, userId);
+    String options = "[{\"text\":\"a\",\"correct\":true},{\"text\":\"b\"},{\"text\":\"c\"},{\"text\":\"d\"}]";
+    jdbcTemplate.update("""
+        INSERT INTO questions (quiz_id, question_text, time_limit, order_index, options)
+        SELECT ?, 'Question ' || g, 20, g, ?::jsonb FROM generate_series(0, 1) g""", quizId, options);
+    return quizId;
+  }
+}
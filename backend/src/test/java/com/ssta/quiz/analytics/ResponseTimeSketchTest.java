@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseTimeSketchTest {
+
+  @Test
+  void quantile_shouldBeWithinOnePercentOfExactValue() {
+    Random random = new Random(42);
+    int[] times = new int[10_000];
+    ResponseTimeSketch sketch = new ResponseTimeSketch();
+    for (int i = 0; i < times.length; i++) {
+      // Long-tailed, like real response times
+      times[i] = (int) (1_000 * Math.exp(random.nextGaussian()));
+      sketch.add(times[i]);
+    }
+    Arrays.sort(times);
+
+    for (double quantile : new double[]{0.01, 0.5, 0.9, 0.99, 1}) {
+      int exact = times[(int) Math.ceil(quantile * times.length) - 1];
+      int estimate = sketch.quantile(quantile);
+      assertTrue(Math.abs(estimate - exact) <= exact / 100.0 + 1,
+          "p" + quantile + " was " + estimate + ", expected about " + exact);
+    }
+    assertEquals(times.length, sketch.count());
+  }
+
+  @Test
+  void quantile_ofSmallTimes_shouldBeExact() {
+    ResponseTimeSketch sketch = new ResponseTimeSketch();
+    for (int time : new int[]{5, 1, 40, 63, -3}) {
+      sketch.add(time);
+    }
+
+    assertEquals(0, sketch.quantile(0));
+    assertEquals(5, sketch.quantile(0.5));
+    assertEquals(63, sketch.quantile(1));
+  }
+
+  @Test
+  void quantile_whenEmpty_shouldBeNegative() {
+    assertEquals(-1, new ResponseTimeSketch().quantile(0.5));
+  }
+
+  @Test
+  void merge_shouldEqualSketchOfAllTimes() {
+    ResponseTimeSketch first = new ResponseTimeSketch();
+    ResponseTimeSketch second = new ResponseTimeSketch();
+    ResponseTimeSketch all = new ResponseTimeSketch();
+    for (int time = 0; time < 50_000; time += 7) {
+      (time % 3 == 0 ? first : second).add(time);
+      all.add(time);
+    }
+
+    first.merge(second);
+
+    assertArrayEquals(all.toBytes(), first.toBytes());
+    assertEquals(all.quantile(0.9), first.quantile(0.9));
+  }
+
+  @Test
+  void fromBytes_shouldRoundTrip() {
+    ResponseTimeSketch sketch = new ResponseTimeSketch();
+    for (int time : new int[]{0, 12, 900, 900, 20_000, Integer.MAX_VALUE}) {
+      sketch.add(time);
+    }
+
+    ResponseTimeSketch read = ResponseTimeSketch.fromBytes(sketch.toBytes());
+
+    assertEquals(6, read.count());
+    assertArrayEquals(sketch.toBytes(), read.toBytes());
+    assertEquals(sketch.quantile(0.5), read.quantile(0.5));
+    assertEquals(0, ResponseTimeSketch.fromBytes(new ResponseTimeSketch().toBytes()).count());
+  }
+
+  @Test
+  void fromBytes_whenCorrupt_shouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeSketch.fromBytes(new byte[0]));
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeSketch.fromBytes(new byte[]{9, 1, 1}));
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeSketch.fromBytes(new byte[]{1, 1, (byte) 0x80}));
+  }
+
+  @Test
+  void indexOf_shouldIncreaseWithValueAndContainItsRepresentative() {
+    int previous = -1;
+    for (int value = 0; value < 1 << 20; value++) {
+      int index = ResponseTimeSketch.indexOf(value);
+      assertTrue(index == previous || index == previous + 1, "Bucket skipped at " + value);
+      previous = index;
+      assertEquals(index, ResponseTimeSketch.indexOf(ResponseTimeSketch.representative(index)));
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import com.ssta.quiz.playeranswer.PlayerAnswerPartitions;
+import com.ssta.quiz.stats.AnswerDistributionView;
+import com.ssta.quiz.testconfig.AbstractRepositoryTest;
+import com.ssta.quiz.testconfig.StatementCountingConfig;
+import com.ssta.quiz.testconfig.StatementCountingConfig.StatementCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies that a finished quiz's players and answers are archived into quiz_archives, and that its
+ * results are then served from the archive alone.
+ * <p>
+ * Like {@link com.ssta.quiz.playeranswer.PlayerAnswerPartitionsTest} this runs against a migrated
+ * schema, since answers are read from the quiz's partition and quiz_archives has no entity.
+ */
+@Import({QuizArchiveService.class, QuizArchiveStore.class, QuizArchiveProperties.class, PlayerAnswerPartitions.class,
+    StatementCountingConfig.class})
+@TestPropertySource(properties = {
+    "spring.flyway.schemas=partitioned",
+    "spring.datasource.hikari.schema=partitioned",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    // Sweeps are run by the tests themselves
+    "quiz.archive.sweep-ms=3600000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class QuizArchiveServiceTest extends AbstractRepositoryTest {
+
+  private static final AtomicInteger QUIZZES = new AtomicInteger();
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private QuizArchiveService quizArchiveService;
+
+  @Autowired
+  private QuizArchiveStore quizArchiveStore;
+
+  @Autowired
+  private PlayerAnswerPartitions playerAnswerPartitions;
+
+  @Autowired
+  private StatementCounter statementCounter;
+
+  private record SeededQuiz(long quizId, List<Long> questionIds, List<Long> playerIds) {
+  }
+
+  @Test
+  @DisplayName("Should archive a finished quiz and serve its standings, answers and stats from the archive")
+  public void testArchiveAndRead() {
+    // Given: a finished quiz whose partition has already been detached
+    SeededQuiz quiz = seedQuiz("COMPLETED", 3);
+    long q1 = quiz.questionIds().get(0);
+    long q2 = quiz.questionIds().get(1);
+    long ann = quiz.playerIds().get(0);
+    long bob = quiz.playerIds().get(1);
+    long cat = quiz.playerIds().get(2);
+    answer(quiz, ann, q1, 0, true, 1_200, 900);
+    answer(quiz, bob, q1, 0, true, 3_400, 700);
+    answer(quiz, cat, q1, 2, false, null, null);
+    answer(quiz, bob, q2, 1, true, 25_000, 500);
+    answer(quiz, cat, q2, 3, false, 4_000, 0);
+    playerAnswerPartitions.detach(quiz.quizId());
+
+    // When
+    boolean archived = quizArchiveService.archive(quiz.quizId());
+    boolean archivedAgain = quizArchiveService.archive(quiz.quizId());
+    statementCounter.reset();
+    List<ArchivedStanding> standings = quizArchiveService.standings(quiz.quizId(), 10);
+    ArchivedPlayerResult catResult = quizArchiveService.playerResult(quiz.quizId(), cat);
+    List<AnswerDistributionView> questions = quizArchiveService.questions(quiz.quizId());
+
+    // Then: every read was of the archive row alone
+    assertThat(archived).isTrue();
+    assertThat(archivedAgain).isFalse();
+    assertThat(statementCounter.statements("select")).containsExactly(
+        "select results from quiz_archives where quiz_id = ?");
+    assertThat(statementCounter.count("select")).isEqualTo(3);
+
+    assertThat(standings).containsExactly(
+        new ArchivedStanding(1, bob, "player1", 1_200, 28_400),
+        new ArchivedStanding(2, ann, "player0", 900, 1_200),
+        new ArchivedStanding(3, cat, "player2", 0, 4_000));
+    assertThat(catResult.standing()).isEqualTo(new ArchivedStanding(3, cat, "player2", 0, 4_000));
+    assertThat(catResult.answers()).containsExactly(
+        new ArchivedAnswer(q1, 2, false, null, null),
+        new ArchivedAnswer(q2, 3, false, 4_000, 0));
+    assertThat(questions)
+        .extracting(AnswerDistributionView::questionId, AnswerDistributionView::correct,
+            AnswerDistributionView::incorrect)
+        .containsExactly(tuple(q1, 2L, 1L), tuple(q2, 1L, 1L));
+    assertThat(questions.get(0).optionCounts()).containsExactly(2, 0, 1, 0);
+    assertThat(questions.get(1).optionCounts()).containsExactly(0, 1, 0, 1);
+    // 20 second limit: 21 buckets, the last holding the answer without a response time and the late one
+    assertThat(questions.get(0).responseTimeHistogram()).hasSize(21);
+    assertThat(questions.get(0).responseTimeHistogram()[1]).isEqualTo(1);
+    assertThat(questions.get(0).responseTimeHistogram()[3]).isEqualTo(1);
+    assertThat(questions.get(0).responseTimeHistogram()[20]).isEqualTo(1);
+    assertThat(questions.get(1).responseTimeHistogram()[4]).isEqualTo(1);
+    assertThat(questions.get(1).responseTimeHistogram()[20]).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should only sweep up quizzes that finished before the settle time")
+  public void testSweep() {
+    // Given
+    SeededQuiz settled = seedQuiz("COMPLETED", 2);
+    SeededQuiz recent = seedQuiz("COMPLETED", 2);
+    SeededQuiz active = seedQuiz("ACTIVE", 2);
+    answer(settled, settled.playerIds().get(0), settled.questionIds().get(0), 1, true, 2_000, 800);
+    for (SeededQuiz quiz : List.of(settled, active)) {
+      jdbcTemplate.update("UPDATE quizzes SET updated_at = now() - interval '1 hour' WHERE id = ?", quiz.quizId());
+    }
+
+    // When
+    quizArchiveService.sweep();
+
+    // Then
+    assertThat(quizArchiveStore.exists(settled.quizId())).isTrue();
+    assertThat(quizArchiveStore.exists(recent.quizId())).isFalse();
+    assertThat(quizArchiveStore.exists(active.quizId())).isFalse();
+    assertThat(quizArchiveService.standings(settled.quizId(), 1))
+        .containsExactly(new ArchivedStanding(1, settled.playerIds().get(0), "player0", 800, 2_000));
+  }
+
+  @Test
+  @DisplayName("Should detach the answer partitions of archived quizzes only")
+  public void testSweepDetachesArchivedQuizzes() {
+    // Given
+    SeededQuiz archived = seedQuiz("ARCHIVED", 1);
+    SeededQuiz completed = seedQuiz("COMPLETED", 1);
+    answer(archived, archived.playerIds().get(0), archived.questionIds().get(0), 0, true, 1_000, 900);
+    assertThat(playerAnswerPartitions.findAttached("ARCHIVED", 1_000)).contains(archived.quizId());
+
+    // When
+    quizArchiveService.sweep();
+
+    // Then: the archived quiz's answers are still readable from its detached partition
+    assertThat(playerAnswerPartitions.findAttached("ARCHIVED", 1_000)).doesNotContain(archived.quizId());
+    assertThat(playerAnswerPartitions.findAttached("COMPLETED", 1_000)).contains(completed.quizId());
+    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + PlayerAnswerPartitions.partitionName(
+        archived.quizId()), Long.class)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should reject reads of a quiz that has not been archived, or of a player who did not play it")
+  public void testMissing() {
+    // Given
+    SeededQuiz quiz = seedQuiz("COMPLETED", 1);
+    quizArchiveService.archive(quiz.quizId());
+
+    // When / Then
+    assertThatThrownBy(() -> quizArchiveService.standings(-1L, 10)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> quizArchiveService.playerResult(quiz.quizId(), -1L))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(quizArchiveService.playerResult(quiz.quizId(), quiz.playerIds().get(0)).answers()).isEmpty();
+  }
+
+  private SeededQuiz seedQuiz(String status, int players) {
+    int n = QUIZZES.incrementAndGet();
+    Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username) VALUES (?) RETURNING id", Long.class,
+        "archive" + n);
+    Long quizId = jdbcTemplate.queryForObject(
+        "INSERT INTO quizzes (title, user_id, status) VALUES (?, ?, ?) RETURNING id", Long.class,
+        "Archived " + n, userId, status);
+    String options = "[{\"text\":\"a\",\"correct\":true},{\"text\":\"b\"},{\"text\":\"c\"},{\"text\":\"d\"}]";
+    jdbcTemplate.update("""
+        INSERT INTO questions (quiz_id, question_text, time_limit, order_index, options)
+        SELECT ?, 'Question ' || g, 20, g, ?::jsonb FROM generate_series(0, 1) g""", quizId, options);
+    List<Long> questionIds = jdbcTemplate.queryForList(
+        "SELECT id FROM questions WHERE quiz_id = ? ORDER BY order_index", Long.class, quizId);
+    jdbcTemplate.update("""
+        INSERT INTO players (nickname, quiz_id, session_id)
+        SELECT 'player' || g, ?, 'session' || g FROM generate_series(0, ? - 1) g""", quizId, players);
+    List<Long> playerIds = jdbcTemplate.queryForList("SELECT id FROM players WHERE quiz_id = ? ORDER BY id",
+        Long.class, quizId);
+    playerAnswerPartitions.create(quizId);
+    return new SeededQuiz(quizId, questionIds, playerIds);
+  }
+
+  private void answer(SeededQuiz quiz, long playerId, long questionId, int option, boolean correct,
+                      Integer responseTimeMs, Integer score) {
+    jdbcTemplate.update("""
+        INSERT INTO player_answers (quiz_id, player_id, question_id, answer_option, correct, response_time_ms, score)
+        VALUES (?, ?, ?, ?, ?, ?, ?)""", quiz.quizId(), playerId, questionId, option, correct, responseTimeMs, score);
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ssta.quiz.archive.QuizResultsFormat.NONE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizResultsEncoderTest {
+
+  @Test
+  void encode_shouldRoundTripQuestionsPlayersAndAnswerColumns() throws IOException {
+    QuizResultsEncoder encoder = new QuizResultsEncoder(9L);
+    encoder.question(120L, 4, 20_000);
+    encoder.question(118L, 2, 10_000);
+    encoder.player(7L, "Ann");
+    encoder.player(8L, "Bó");
+    encoder.player(7_000_000_001L, "Cy");
+    encoder.answer(120L, 7L, 3, true, 1_500, 900);
+    encoder.answer(120L, 7_000_000_001L, 0, false, NONE, NONE);
+    encoder.answer(118L, 7L, 1, false, 12_000, 0);
+    encoder.answer(118L, 8L, 0, true, -40, 750);
+
+    try (QuizResultsReader reader = reader(encoder.encode())) {
+      assertEquals(9L, reader.quizId());
+      assertEquals(3, reader.playerCount());
+      assertEquals(4, reader.answerCount());
+      assertEquals(List.of(new ArchivedQuestion(120L, 4, 20_000, 2), new ArchivedQuestion(118L, 2, 10_000, 2)),
+          reader.questions());
+
+      ArchivedPlayers players = reader.players();
+      assertArrayEquals(new long[]{7L, 8L, 7_000_000_001L}, players.ids());
+      assertArrayEquals(new String[]{"Ann", "Bó", "Cy"}, players.nicknames());
+      assertEquals(2, players.indexOf(7_000_000_001L));
+      assertEquals(-1, players.indexOf(6L));
+
+      assertArrayEquals(new int[]{0, 2}, reader.answersOf(0));
+      assertArrayEquals(new int[]{3, 0, 1, 0}, column(reader::options, reader.answerCount()));
+      assertArrayEquals(new int[]{1, 0, 0, 1}, column(reader::correct, reader.answerCount()));
+      assertArrayEquals(new int[]{1_500, NONE, 12_000, -40}, column(reader::responseTimes, reader.answerCount()));
+      assertArrayEquals(new int[]{900, NONE, 0, 750}, column(reader::scores, reader.answerCount()));
+    }
+  }
+
+  @Test
+  void encode_shouldRankByScoreThenResponseTimeThenPlayerId() throws IOException {
+    QuizResultsEncoder encoder = new QuizResultsEncoder(1L);
+    encoder.question(1L, 2, 20_000);
+    for (long playerId = 1; playerId <= 4; playerId++) {
+      encoder.player(playerId, "p" + playerId);
+    }
+    encoder.answer(1L, 1L, 0, true, 3_000, 500);
+    encoder.answer(1L, 2L, 0, true, 2_000, 500);
+    encoder.answer(1L, 3L, 1, false, 2_000, NONE);
+    encoder.answer(1L, 4L, 0, true, 2_000, 500);
+
+    List<String> standings = new ArrayList<>();
+    try (QuizResultsReader reader = reader(encoder.encode())) {
+      reader.standings((rank, player, score, totalResponseTimeMs) -> {
+        standings.add(rank + ":" + player + ":" + score + ":" + totalResponseTimeMs);
+        return true;
+      });
+    }
+
+    assertEquals(List.of("1:1:500:2000", "2:3:500:2000", "3:0:500:3000", "4:2:0:2000"), standings);
+  }
+
+  @Test
+  void answersOf_shouldFindEachPlayersAnswerAcrossManyPlayers() throws IOException {
+    QuizResultsEncoder encoder = new QuizResultsEncoder(1L);
+    encoder.question(1L, 4, 20_000);
+    encoder.question(2L, 4, 20_000);
+    for (long playerId = 100; playerId < 300; playerId++) {
+      encoder.player(playerId, "p" + playerId);
+    }
+    // Every player answers the first question, every third player the second
+    for (long playerId = 100; playerId < 300; playerId++) {
+      encoder.answer(1L, playerId, (int) (playerId % 4), false, 1_000, 0);
+    }
+    for (long playerId = 100; playerId < 300; playerId += 3) {
+      encoder.answer(2L, playerId, 2, true, 1_000, 10);
+    }
+
+    byte[] blob = encoder.encode();
+    for (int player : new int[]{0, 1, 7, 8, 63, 64, 65, 198, 199}) {
+      try (QuizResultsReader reader = reader(blob)) {
+        assertArrayEquals(new int[]{player, player % 3 == 0 ? 200 + player / 3 : -1}, reader.answersOf(player));
+      }
+    }
+  }
+
+  @Test
+  void reader_shouldSkipSectionsButNotGoBack() throws IOException {
+    QuizResultsEncoder encoder = new QuizResultsEncoder(1L);
+    encoder.question(1L, 2, 20_000);
+    encoder.player(1L, "p1");
+    encoder.answer(1L, 1L, 1, true, 800, 1_000);
+
+    try (QuizResultsReader reader = reader(encoder.encode())) {
+      assertArrayEquals(new int[]{1_000}, column(reader::scores, 1));
+      assertThrows(IllegalStateException.class, reader::players);
+    }
+  }
+
+  @Test
+  void answer_shouldRejectOutOfOrderAndUnknownAnswers() {
+    QuizResultsEncoder encoder = new QuizResultsEncoder(1L);
+    encoder.question(1L, 2, 20_000);
+    encoder.question(2L, 2, 20_000);
+    encoder.player(1L, "p1");
+    encoder.player(2L, "p2");
+    encoder.answer(2L, 1L, 0, true, 800, 100);
+
+    assertThrows(IllegalArgumentException.class, () -> encoder.answer(1L, 2L, 0, true, 800, 100));
+    assertThrows(IllegalArgumentException.class, () -> encoder.answer(2L, 1L, 0, true, 800, 100));
+    assertThrows(IllegalArgumentException.class, () -> encoder.answer(3L, 2L, 0, true, 800, 100));
+    assertThrows(IllegalArgumentException.class, () -> encoder.answer(2L, 3L, 0, true, 800, 100));
+    assertThrows(IllegalStateException.class, () -> encoder.player(3L, "p3"));
+  }
+
+  @Test
+  void reader_shouldRejectOtherBlobs() {
+    byte[] blob = new QuizResultsEncoder(1L).encode();
+    blob[QuizResultsFormat.MAGIC.length]++;
+
+    assertThrows(IOException.class, () -> reader(blob));
+    assertThrows(IOException.class, () -> reader("PGCOPY".getBytes()));
+  }
+
+  @Test
+  void encode_shouldBeSmallerThanTheAnswerRows() {
+    QuizResultsEncoder encoder = new QuizResultsEncoder(1L);
+    for (long questionId = 1; questionId <= 20; questionId++) {
+      encoder.question(questionId, 4, 20_000);
+    }
+    for (long playerId = 1_000; playerId < 2_000; playerId++) {
+      encoder.player(playerId, "player" + playerId);
+    }
+    for (long questionId = 1; questionId <= 20; questionId++) {
+      for (long playerId = 1_000; playerId < 2_000; playerId++) {
+        int option = (int) ((playerId * 31 + questionId * 7) % 4);
+        encoder.answer(questionId, playerId, option, option == 0, (int) (playerId * 13 % 20_000),
+            option == 0 ? 1_000 - (int) (playerId * 13 % 20_000) / 40 : 0);
+      }
+    }
+
+    // 20,000 answers, which take over 50 bytes each as rows of player_answers
+    int length = encoder.encode().length;
+    assertTrue(length < 20_000 * 4, "Encoded in " + length + " bytes");
+  }
+
+  private static QuizResultsReader reader(byte[] blob) throws IOException {
+    return new QuizResultsReader(new ByteArrayInputStream(blob));
+  }
+
+  @FunctionalInterface
+  private interface Column {
+    void read(QuizResultsReader.AnswerVisitor visitor) throws IOException;
+  }
+
+  private static int[] column(Column column, int answers) throws IOException {
+    int[] values = new int[answers];
+    column.read((answer, value) -> values[answer] = value);
+    return values;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.web.socket.TextMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BroadcastFrameTest {
+
+  private static final byte[] PAYLOAD = "{\"rank\":1,\"score\":950}".getBytes(StandardCharsets.UTF_8);
+
+  private static Message<byte[]> decode(TextMessage message) {
+    List<Message<byte[]>> frames = new StompDecoder().decode(ByteBuffer.wrap(message.asBytes()));
+    assertEquals(1, frames.size());
+    return frames.get(0);
+  }
+
+  @Test
+  void forSubscription_shouldEncodeValidStompMessageFrame() {
+    BroadcastFrame frame = new BroadcastFrame("/topic/quiz/42/scores", "application/json", "b-1", PAYLOAD);
+
+    Message<byte[]> decoded = decode(frame.forSubscription("sub-0"));
+
+    StompHeaderAccessor headers = StompHeaderAccessor.wrap(decoded);
+    assertEquals(StompCommand.MESSAGE, headers.getCommand());
+    assertEquals("/topic/quiz/42/scores", headers.getDestination());
+    assertEquals("sub-0", headers.getSubscriptionId());
+    assertEquals("b-1", headers.getMessageId());
+    assertEquals(PAYLOAD.length, headers.getContentLength());
+    assertArrayEquals(PAYLOAD, decoded.getPayload());
+  }
+
+  @Test
+  void forSubscription_withSameId_shouldReuseTheSameFrame() {
+    BroadcastFrame frame = new BroadcastFrame("/topic/quiz/42/scores", "application/json", "b-1", PAYLOAD);
+
+    TextMessage first = frame.forSubscription("scores");
+    TextMessage other = frame.forSubscription("sub-7");
+
+    assertSame(first, frame.forSubscription("scores"));
+    assertSame(other, frame.forSubscription("sub-7"));
+    assertNotSame(first, other);
+    assertEquals("sub-7", StompHeaderAccessor.wrap(decode(other)).getSubscriptionId());
+  }
+
+  @Test
+  void escape_shouldEscapeStompSpecialCharacters() {
+    assertEquals("plain", BroadcastFrame.escape("plain"));
+    assertEquals("a\\cb\\nc\\rd\\\\e", BroadcastFrame.escape("a:b\nc\rd\\e"));
+  }
+}
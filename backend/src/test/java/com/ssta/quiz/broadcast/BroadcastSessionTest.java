@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BroadcastSessionTest {
+
+  private final WebSocketSession delegate = mock(WebSocketSession.class);
+  private final List<String> written = new CopyOnWriteArrayList<>();
+
+  @Test
+  void sendUrgent_whileAnotherSendIsWriting_shouldGoAheadOfQueuedFrames() throws Exception {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      WebSocketMessage<?> message = invocation.getArgument(0);
+      written.add((String) message.getPayload());
+      if (written.size() == 1) {
+        writing.countDown();
+        release.await(5, TimeUnit.SECONDS);
+      }
+      return null;
+    }).when(delegate).sendMessage(any());
+    BroadcastSession session = new BroadcastSession(delegate, 10_000, 1024 * 1024);
+
+    Thread broadcaster = new Thread(() -> send(session, "first"));
+    broadcaster.start();
+    assertTrue(writing.await(5, TimeUnit.SECONDS));
+    session.sendMessage(new TextMessage("second"));
+    session.sendMessage(new TextMessage("third"));
+    session.sendUrgent(new TextMessage("ping"));
+    release.countDown();
+    broadcaster.join(5_000);
+
+    assertEquals(List.of("first", "ping", "second", "third"), written);
+    assertEquals(0, session.getBufferSize());
+  }
+
+  @Test
+  void sendMessage_whenTheBufferOutgrowsItsLimit_shouldCloseTheSession() throws Exception {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      writing.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(delegate).sendMessage(any());
+    when(delegate.getId()).thenReturn("s1");
+    BroadcastSession session = new BroadcastSession(delegate, 10_000, 8);
+
+    Thread broadcaster = new Thread(() -> send(session, "first"));
+    broadcaster.start();
+    assertTrue(writing.await(5, TimeUnit.SECONDS));
+    assertThrows(SessionLimitExceededException.class, () -> session.sendMessage(new TextMessage("too much to buffer")));
+    // Closed by the sender that hit the limit, not left for a STOMP handler that never sees it
+    verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+    release.countDown();
+    broadcaster.join(5_000);
+
+    session.close(CloseStatus.NORMAL);
+    verify(delegate, times(1)).close(any());
+  }
+
+  private static void send(BroadcastSession session, String payload) {
+    try {
+      session.sendMessage(new TextMessage(payload));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
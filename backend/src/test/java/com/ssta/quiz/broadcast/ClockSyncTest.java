@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClockSyncTest {
+
+  private static final long PLAYER_ID = 77L;
+  private static final PlayerPrincipal PLAYER = new PlayerPrincipal(7L, PLAYER_ID);
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final BroadcastSessionRegistry sessions = mock(BroadcastSessionRegistry.class);
+  private final MessageChannel channel = mock(MessageChannel.class);
+  private final ClockSyncProperties properties = new ClockSyncProperties();
+  private final WebSocketSession session = mock(WebSocketSession.class);
+  private ClockSync clockSync;
+
+  @BeforeEach
+  void setUp() {
+    properties.setMaxCorrection(Duration.ofMillis(300));
+    clockSync = new ClockSync(sessions, properties);
+    when(session.getId()).thenReturn("s1");
+    when(sessions.get("s1")).thenReturn(session);
+  }
+
+  private static Message<byte[]> stomp(StompCommand command, String destination, String... nativeHeaders) {
+    return stomp(PLAYER, command, destination, nativeHeaders);
+  }
+
+  private static Message<byte[]> stomp(PlayerPrincipal user, StompCommand command, String destination,
+                                       String... nativeHeaders) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    accessor.setSessionId("s1");
+    accessor.setUser(user);
+    accessor.setDestination(destination);
+    if (command == StompCommand.SUBSCRIBE) {
+      accessor.setSubscriptionId("time");
+    }
+    for (int i = 0; i < nativeHeaders.length; i += 2) {
+      accessor.addNativeHeader(nativeHeaders[i], nativeHeaders[i + 1]);
+    }
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  private void subscribe() {
+    clockSync.preSend(stomp(StompCommand.SUBSCRIBE, ClockSync.DESTINATION), channel);
+  }
+
+  private List<Message<byte[]>> pings(int times) throws Exception {
+    ArgumentCaptor<TextMessage> frames = ArgumentCaptor.forClass(TextMessage.class);
+    verify(session, times(times)).sendMessage(frames.capture());
+    return frames.getAllValues().stream()
+        .map(frame -> new StompDecoder().decode(ByteBuffer.wrap(frame.asBytes())).get(0))
+        .toList();
+  }
+
+  @Test
+  void sweep_afterSubscribe_shouldPingTheSessionAtOnce() throws Exception {
+    subscribe();
+
+    assertEquals(1, clockSync.sweep(System.nanoTime()));
+
+    Message<byte[]> ping = pings(1).get(0);
+    StompHeaderAccessor headers = StompHeaderAccessor.wrap(ping);
+    assertEquals(StompCommand.MESSAGE, headers.getCommand());
+    assertEquals(ClockSync.DESTINATION, headers.getDestination());
+    assertEquals("time", headers.getSubscriptionId());
+    String payload = new String(ping.getPayload(), StandardCharsets.UTF_8);
+    assertTrue(payload.matches("\\{\"seq\":1,\"serverTime\":\\d+,\"rttMs\":null,\"offsetMs\":null}"), payload);
+  }
+
+  @Test
+  void preSend_withPong_shouldUpdateTheEstimateAndDropTheMessage() {
+    subscribe();
+    clockSync.sweep(System.nanoTime());
+
+    Message<?> pong = stomp(StompCommand.SEND, ClockSync.PONG_DESTINATION,
+        ClockSync.SEQ_HEADER, "1", ClockSync.CLIENT_TIME_HEADER, String.valueOf(System.currentTimeMillis()));
+
+    assertNull(clockSync.preSend(pong, channel), "Pongs go no further than the interceptor");
+    ClockEstimate estimate = clockSync.find(PLAYER_ID);
+    assertTrue(estimate.rttMs() >= 0 && estimate.rttMs() < 1_000, "was " + estimate.rttMs());
+    assertEquals(Math.min(estimate.rttMs(), 300), clockSync.correctionMs(PLAYER_ID));
+  }
+
+  @Test
+  void sweep_shouldWarmUpThenPingLessThanOncePerSecond() {
+    properties.setWarmupPings(3);
+    properties.setWarmupInterval(Duration.ofSeconds(1));
+    properties.setInterval(Duration.ofSeconds(5));
+    subscribe();
+    long start = System.nanoTime();
+
+    int pings = 0;
+    for (long ms = 0; ms < 3_000; ms += 250) {
+      pings += clockSync.sweep(start + ms * MS);
+    }
+    assertEquals(3, pings, "Warm-up pings a second apart");
+
+    pings = 0;
+    for (long ms = 3_000; ms < 63_000; ms += 250) {
+      pings += clockSync.sweep(start + ms * MS);
+    }
+    assertEquals(12, pings, "One ping, and so one pong, every 5 seconds");
+  }
+
+  @Test
+  void correctionMs_shouldBeCappedAndZeroWithoutAnEstimate() {
+    assertEquals(0, clockSync.correctionMs(PLAYER_ID));
+    subscribe();
+    assertEquals(0, clockSync.correctionMs(PLAYER_ID), "No pong yet");
+
+    clockSync.find(PLAYER_ID).sample(2_000, 0);
+
+    assertEquals(300, clockSync.correctionMs(PLAYER_ID));
+  }
+
+  @Test
+  void preSend_withDisconnect_shouldForgetTheSession() {
+    subscribe();
+    clockSync.find(PLAYER_ID).sample(50, 0);
+
+    clockSync.preSend(stomp(StompCommand.DISCONNECT, null), channel);
+
+    assertEquals(0, clockSync.sessionCount());
+    assertEquals(0, clockSync.correctionMs(PLAYER_ID));
+  }
+
+  @Test
+  void preSend_subscribeFromASessionNotConnectedAsAPlayer_shouldBeRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> clockSync.preSend(stomp(null, StompCommand.SUBSCRIBE, ClockSync.DESTINATION), channel));
+  }
+
+  @Test
+  void preSend_subscribeNamingAnotherPlayer_shouldBeRejected() {
+    assertThrows(IllegalArgumentException.class, () -> clockSync.preSend(
+        stomp(StompCommand.SUBSCRIBE, ClockSync.DESTINATION, PlayerSessions.PLAYER_ID_HEADER, "78"), channel));
+
+    clockSync.preSend(
+        stomp(StompCommand.SUBSCRIBE, ClockSync.DESTINATION, PlayerSessions.PLAYER_ID_HEADER, "77"), channel);
+    assertEquals(1, clockSync.sessionCount());
+  }
+
+  @Test
+  void sweep_withABroadcastSession_shouldSendThePingAheadOfQueuedFrames() throws Exception {
+    BroadcastSession shared = mock(BroadcastSession.class);
+    when(sessions.get("s1")).thenReturn(shared);
+    subscribe();
+
+    assertEquals(1, clockSync.sweep(System.nanoTime()));
+
+    verify(shared).sendUrgent(any(TextMessage.class));
+    verify(shared, never()).sendMessage(any());
+  }
+
+  @Test
+  void pong_shouldMeasureRoundTripAndOffsetFromTheMidpoint() {
+    ClockEstimate estimate = new ClockEstimate("s1", "time", PLAYER_ID);
+    int seq = estimate.ping(0);
+
+    // Sent at 0, back after 100 ms; the player's clock read 1,000,050 when the ping arrived at 50 ms
+    assertTrue(estimate.pong(seq, 1_000_050L, 100 * MS, 1_000_100L));
+
+    assertEquals(100, estimate.rttMs());
+    assertEquals(0, estimate.offsetMs());
+  }
+
+  @Test
+  void pong_shouldOnlyBeTakenOnceAndForTheLastPing() {
+    ClockEstimate estimate = new ClockEstimate("s1", "time", PLAYER_ID);
+    int first = estimate.ping(0);
+    int second = estimate.ping(10 * MS);
+
+    assertFalse(estimate.pong(first, 0L, 20 * MS, 0L), "Answers an earlier ping");
+    assertTrue(estimate.pong(second, 0L, 20 * MS, 0L));
+    assertFalse(estimate.pong(second, 0L, 30 * MS, 0L), "Already answered");
+    assertEquals(10, estimate.rttMs());
+  }
+
+  @Test
+  void sweep_atAFixedRateOnVirtualThreads_shouldNeverOverlap() throws Exception {
+    // Every sweep pings, and every ping is slow
+    properties.setWarmupInterval(Duration.ZERO);
+    properties.setInterval(Duration.ZERO);
+    subscribe();
+    AtomicInteger sending = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    AtomicInteger pings = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (sending.incrementAndGet() > 1) {
+        overlaps.incrementAndGet();
+      }
+      Thread.sleep(20);
+      pings.incrementAndGet();
+      sending.decrementAndGet();
+      return null;
+    }).when(session).sendMessage(any());
+
+    // What Spring Boot runs @Scheduled tasks on when spring.threads.virtual.enabled=true
+    SimpleAsyncTaskScheduler taskScheduler = new SimpleAsyncTaskScheduler();
+    taskScheduler.setVirtualThreads(true);
+    try {
+      taskScheduler.scheduleAtFixedRate(clockSync::sweep, Duration.ofMillis(2));
+      Thread.sleep(300);
+    } finally {
+      taskScheduler.close();
+    }
+
+    assertTrue(pings.get() > 1, "pinged " + pings.get() + " times");
+    assertEquals(0, overlaps.get());
+  }
+
+  @Test
+  void sample_shouldKeepTheFastestRoundTripAndAgeTowardsSlowerOnes() {
+    ClockEstimate estimate = new ClockEstimate("s1", "time", PLAYER_ID);
+    estimate.sample(100, 5);
+    estimate.sample(40, -20);
+
+    // A spike moves the estimate an eighth of the way and keeps the offset of the fast sample
+    estimate.sample(400, 999);
+    assertEquals(85, estimate.rttMs());
+    assertEquals(-20, estimate.offsetMs());
+
+    // A lasting slower route is followed
+    for (int i = 0; i < 40; i++) {
+      estimate.sample(200, 30);
+    }
+    assertTrue(estimate.rttMs() >= 190 && estimate.rttMs() <= 200, "was " + estimate.rttMs());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.player.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlayerSessionsTest {
+
+  private final PlayerRepository playerRepository = mock(PlayerRepository.class);
+  private final MessageChannel channel = mock(MessageChannel.class);
+  private final PlayerSessions playerSessions = new PlayerSessions(playerRepository);
+
+  private static StompHeaderAccessor connect(String... nativeHeaders) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+    accessor.setSessionId("s1");
+    for (int i = 0; i < nativeHeaders.length; i += 2) {
+      accessor.addNativeHeader(nativeHeaders[i], nativeHeaders[i + 1]);
+    }
+    // As on the inbound channel, where interceptors may still change the headers
+    accessor.setLeaveMutable(true);
+    return accessor;
+  }
+
+  private Message<?> preSend(StompHeaderAccessor accessor) {
+    return playerSessions.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel);
+  }
+
+  @Test
+  void preSend_connectAsAPlayerOfTheQuiz_shouldBindTheSessionToThePlayer() {
+    when(playerRepository.existsByIdAndQuizId(77L, 42L)).thenReturn(true);
+    StompHeaderAccessor accessor = connect(PlayerSessions.QUIZ_ID_HEADER, "42", PlayerSessions.PLAYER_ID_HEADER, "77");
+
+    assertNotNull(preSend(accessor));
+
+    assertEquals(new PlayerPrincipal(42L, 77L), accessor.getUser());
+  }
+
+  @Test
+  void preSend_connectAsAPlayerOfAnotherQuiz_shouldBeRejected() {
+    StompHeaderAccessor accessor = connect(PlayerSessions.QUIZ_ID_HEADER, "42", PlayerSessions.PLAYER_ID_HEADER, "77");
+
+    assertThrows(IllegalArgumentException.class, () -> preSend(accessor));
+    assertNull(accessor.getUser());
+  }
+
+  @Test
+  void preSend_connectWithoutAPlayer_shouldLeaveTheSessionAnonymous() {
+    StompHeaderAccessor accessor = connect();
+
+    assertNotNull(preSend(accessor));
+
+    assertNull(accessor.getUser());
+  }
+
+  @Test
+  void subscriber_shouldOnlyAcceptAHeaderNamingTheSessionsPlayer() {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+    accessor.setUser(new PlayerPrincipal(42L, 77L));
+    assertEquals(77L, PlayerSessions.subscriber(accessor).playerId());
+
+    accessor.addNativeHeader(PlayerSessions.PLAYER_ID_HEADER, "78");
+    assertThrows(IllegalArgumentException.class, () -> PlayerSessions.subscriber(accessor));
+  }
+
+  @Test
+  void subscriber_shouldOnlyAcceptAHeaderNamingTheSessionsQuiz() {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+    accessor.setUser(new PlayerPrincipal(42L, 77L));
+    accessor.addNativeHeader(PlayerSessions.QUIZ_ID_HEADER, "42");
+    assertEquals(42L, PlayerSessions.subscriber(accessor).quizId());
+
+    StompHeaderAccessor otherQuiz = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+    otherQuiz.setUser(new PlayerPrincipal(42L, 77L));
+    otherQuiz.addNativeHeader(PlayerSessions.QUIZ_ID_HEADER, "43");
+    assertThrows(IllegalArgumentException.class, () -> PlayerSessions.subscriber(otherQuiz));
+  }
+}
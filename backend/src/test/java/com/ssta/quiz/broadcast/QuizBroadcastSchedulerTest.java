@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.leaderboard.LeaderboardService;
+import com.ssta.quiz.leaderboard.LeaderboardDelta;
+import com.ssta.quiz.live.LiveQuizRegistry;
+import com.ssta.quiz.live.LiveQuizSnapshot;
+import com.ssta.quiz.live.QuizPhase;
+import com.ssta.quiz.playeranswer.PlayerAnswerRepository;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.stats.AnswerDistributionView;
+import com.ssta.quiz.stats.AnswerStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class QuizBroadcastSchedulerTest {
+
+  private static final long QUIZ_ID = 7L;
+  private static final String SCORES = "/topic/quiz/7/scores";
+  private static final String PLAYERS = "/topic/quiz/7/players";
+  private static final String DISTRIBUTION = "/topic/quiz/7/distribution";
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final LiveQuizRegistry liveQuizRegistry = new LiveQuizRegistry();
+  private final QuizBroadcaster broadcaster = mock(QuizBroadcaster.class);
+  private final BroadcastMetrics metrics = new BroadcastMetrics();
+  private LeaderboardService leaderboardService;
+  private AnswerStatsService answerStatsService;
+  private QuizBroadcastScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    PlayerAnswerRepository playerAnswerRepository = mock(PlayerAnswerRepository.class);
+    when(playerAnswerRepository.sumScoresByQuizId(QUIZ_ID)).thenReturn(List.of());
+    leaderboardService = new LeaderboardService(playerAnswerRepository);
+    leaderboardService.rebuild(QUIZ_ID);
+    liveQuizRegistry.register(LiveQuizSnapshot.of(QUIZ_ID, List.of()));
+
+    answerStatsService = new AnswerStatsService(playerAnswerRepository);
+    // One subscriber on every channel
+    when(broadcaster.broadcast(anyString(), any())).thenReturn(1);
+    scheduler = new QuizBroadcastScheduler(liveQuizRegistry, leaderboardService, answerStatsService,
+        new QuizSubscriptionRegistry(), broadcaster, mock(StandingPublisher.class), metrics, new BroadcastProperties());
+  }
+
+  @Test
+  void tick_shouldPublishInitialStateThenNothingWhileUnchanged() {
+    scheduler.tick(0);
+    verify(broadcaster).broadcast(eq(SCORES), any(LeaderboardDelta.class));
+    verify(broadcaster).broadcast(eq(PLAYERS), eq(new PlayerCountUpdate(QUIZ_ID, 0)));
+
+    clearInvocations(broadcaster);
+    scheduler.tick(2000 * MS);
+
+    verify(broadcaster, never()).broadcast(anyString(), any());
+  }
+
+  @Test
+  void tick_shouldCoalesceAnswersBetweenTicksIntoOneUpdate() {
+    scheduler.tick(0);
+    clearInvocations(broadcaster);
+
+    for (long player = 1; player <= 50; player++) {
+      leaderboardService.recordAnswer(QUIZ_ID, player, 100, 1000);
+    }
+    scheduler.tick(1000 * MS);
+
+    ArgumentCaptor<Object> update = ArgumentCaptor.forClass(Object.class);
+    verify(broadcaster, times(1)).broadcast(eq(SCORES), update.capture());
+    LeaderboardDelta scores = (LeaderboardDelta) update.getValue();
+    assertFalse(scores.keyframe());
+    assertEquals(2, scores.seq());
+    assertEquals(50, scores.players());
+    assertEquals(10, scores.entered().size());
+    assertEquals(3, metrics.view().messages());
+    assertEquals(52, metrics.view().changes());
+  }
+
+  @Test
+  void tick_shouldSendTheChangedDistributionsOfAllQuestionsInOneMessage() {
+    LiveQuizSnapshot snapshot = LiveQuizSnapshot.of(QUIZ_ID,
+        List.of(question(10L, 0), question(11L, 1), question(12L, 2)));
+    liveQuizRegistry.register(snapshot);
+    answerStatsService.start(snapshot);
+    scheduler.tick(0);
+    clearInvocations(broadcaster);
+
+    answerStatsService.record(QUIZ_ID, 0, 1, true, 1000);
+    answerStatsService.record(QUIZ_ID, 2, 0, false, 2000);
+    answerStatsService.record(QUIZ_ID, 2, 1, true, 3000);
+    scheduler.tick(1000 * MS);
+
+    ArgumentCaptor<Object> update = ArgumentCaptor.forClass(Object.class);
+    verify(broadcaster, times(1)).broadcast(eq(DISTRIBUTION), update.capture());
+    DistributionUpdate distributions = (DistributionUpdate) update.getValue();
+    assertEquals(QUIZ_ID, distributions.quizId());
+    assertEquals(List.of(10L, 12L), distributions.questions().stream().map(AnswerDistributionView::questionId).toList());
+    assertEquals(2, distributions.questions().get(1).correct() + distributions.questions().get(1).incorrect());
+  }
+
+  @Test
+  void tick_shouldNotCountFailedBroadcastsAsPublished() {
+    doThrow(new IllegalStateException("session closed")).when(broadcaster).broadcast(eq(SCORES), any());
+
+    scheduler.tick(0);
+
+    verify(broadcaster).broadcast(eq(PLAYERS), any());
+    assertEquals(1, metrics.view().messages());
+  }
+
+  @Test
+  void tick_shouldNotCountBroadcastsThatReachedNobody() {
+    when(broadcaster.broadcast(eq(SCORES), any())).thenReturn(0);
+
+    scheduler.tick(0);
+
+    verify(broadcaster).broadcast(eq(SCORES), any(LeaderboardDelta.class));
+    assertEquals(1, metrics.view().messages());
+  }
+
+  @Test
+  void requestKeyframe_shouldSendKeyframeOnNextTickEvenWithoutChanges() {
+    scheduler.tick(0);
+    clearInvocations(broadcaster);
+
+    scheduler.requestKeyframe(QUIZ_ID);
+    scheduler.requestKeyframe(QUIZ_ID);
+    scheduler.tick(1000 * MS);
+
+    ArgumentCaptor<Object> update = ArgumentCaptor.forClass(Object.class);
+    verify(broadcaster, times(1)).broadcast(eq(SCORES), update.capture());
+    LeaderboardDelta keyframe = (LeaderboardDelta) update.getValue();
+    assertTrue(keyframe.keyframe());
+    assertEquals(2, keyframe.seq());
+  }
+
+  @Test
+  void publishQuestion_shouldSendTheQuestionOnTheNextTickOnly() {
+    scheduler.tick(0);
+    clearInvocations(broadcaster);
+    QuestionReveal question = new QuestionReveal(QUIZ_ID, 0, 10L, "Largest ocean?", null,
+        List.of("Atlantic", "Pacific"), 20_000, 1_751_472_615_123L);
+
+    // Brought forward from the lobby rate's next tick at 1000ms
+    scheduler.publishQuestion(question, 300 * MS);
+    scheduler.tick(350 * MS);
+    verify(broadcaster).broadcast("/topic/quiz/7/question", question);
+
+    scheduler.tick(2000 * MS);
+    verify(broadcaster, times(1)).broadcast(eq("/topic/quiz/7/question"), any());
+  }
+
+  @Test
+  void tick_shouldRunAtThePhaseRate() {
+    scheduler.tick(0);
+    leaderboardService.recordAnswer(QUIZ_ID, 1, 100, 1000);
+    clearInvocations(broadcaster);
+
+    // Lobby: 1 Hz, so nothing is due 300ms later
+    scheduler.tick(300 * MS);
+    verify(broadcaster, never()).broadcast(anyString(), any());
+
+    // Question: 4 Hz, so the next tick moves forward to 250ms after the switch
+    scheduler.setPhase(QUIZ_ID, QuizPhase.QUESTION, 300 * MS);
+    assertEquals(QuizPhase.QUESTION, scheduler.phaseOf(QUIZ_ID));
+    scheduler.tick(500 * MS);
+    verify(broadcaster, never()).broadcast(anyString(), any());
+    scheduler.tick(550 * MS);
+    verify(broadcaster).broadcast(eq(SCORES), any(LeaderboardDelta.class));
+  }
+
+  @Test
+  void tick_shouldForgetQuizzesThatAreNoLongerLive() {
+    scheduler.setPhase(QUIZ_ID, QuizPhase.QUESTION, 0);
+    liveQuizRegistry.evict(QUIZ_ID);
+
+    scheduler.tick(0);
+
+    assertEquals(QuizPhase.LOBBY, scheduler.phaseOf(QUIZ_ID));
+    verify(broadcaster, never()).broadcast(anyString(), any());
+  }
+
+  @Test
+  void tick_atAFixedRateOnVirtualThreads_shouldNeverOverlap() throws Exception {
+    LiveQuizRegistry slowRegistry = spy(new LiveQuizRegistry());
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    AtomicInteger ticks = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (running.incrementAndGet() > 1) {
+        overlaps.incrementAndGet();
+      }
+      try {
+        Thread.sleep(20);
+        ticks.incrementAndGet();
+        return invocation.callRealMethod();
+      } finally {
+        running.decrementAndGet();
+      }
+    }).when(slowRegistry).all();
+    QuizBroadcastScheduler slowScheduler = new QuizBroadcastScheduler(slowRegistry, leaderboardService,
+        answerStatsService, new QuizSubscriptionRegistry(), broadcaster, mock(StandingPublisher.class), metrics,
+        new BroadcastProperties());
+
+    // What Spring Boot runs @Scheduled tasks on when spring.threads.virtual.enabled=true
+    SimpleAsyncTaskScheduler taskScheduler = new SimpleAsyncTaskScheduler();
+    taskScheduler.setVirtualThreads(true);
+    try {
+      taskScheduler.scheduleAtFixedRate(slowScheduler::tick, Duration.ofMillis(2));
+      Thread.sleep(300);
+    } finally {
+      taskScheduler.close();
+    }
+
+    assertTrue(ticks.get() > 1, "ticked " + ticks.get() + " times");
+    assertEquals(0, overlaps.get());
+  }
+
+  private static Question question(long id, int orderIndex) {
+    Question question = new Question();
+    question.setId(id);
+    question.setQuizId(QUIZ_ID);
+    question.setQuestionText("Question " + id);
+    question.setOrderIndex(orderIndex);
+    question.setTimeLimit(20);
+    question.setOptions("[{\"text\":\"A\"},{\"text\":\"B\",\"correct\":true}]");
+    return question;
+  }
+}
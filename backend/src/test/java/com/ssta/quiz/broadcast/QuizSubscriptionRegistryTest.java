@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizSubscriptionRegistryTest {
+
+  private final QuizSubscriptionRegistry registry = new QuizSubscriptionRegistry();
+
+  private static Message<byte[]> message(SimpMessageType type, String sessionId, String subscriptionId, String destination) {
+    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+    accessor.setSessionId(sessionId);
+    accessor.setSubscriptionId(subscriptionId);
+    accessor.setDestination(destination);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  private void subscribe(String sessionId, String subscriptionId, String destination) {
+    registry.registerSubscription(message(SimpMessageType.SUBSCRIBE, sessionId, subscriptionId, destination));
+  }
+
+  @Test
+  void findSubscriptions_shouldMatchExactDestinationOnly() {
+    subscribe("s1", "scores", "/topic/quiz/1/scores");
+    subscribe("s2", "scores", "/topic/quiz/1/scores");
+    subscribe("s3", "scores", "/topic/quiz/2/scores");
+    subscribe("s4", "state", "/topic/quiz/1/state");
+
+    MultiValueMap<String, String> found = registry.findSubscriptions("/topic/quiz/1/scores");
+
+    assertEquals(2, found.size());
+    assertEquals(List.of("scores"), found.get("s1"));
+    assertEquals(List.of("scores"), found.get("s2"));
+    assertTrue(registry.findSubscriptions("/topic/quiz/3/scores").isEmpty());
+    assertEquals(2, registry.quizCount());
+  }
+
+  @Test
+  void findSubscriptions_fromMessage_shouldUseDestinationHeader() {
+    subscribe("s1", "sub-0", "/topic/quiz/7/question");
+
+    MultiValueMap<String, String> found = registry.findSubscriptions(
+        message(SimpMessageType.MESSAGE, null, null, "/topic/quiz/7/question"));
+
+    assertEquals(List.of("sub-0"), found.get("s1"));
+  }
+
+  @Test
+  void unregisterSubscription_shouldRemoveSubscriberAndEmptyQuiz() {
+    subscribe("s1", "scores", "/topic/quiz/1/scores");
+
+    registry.unregisterSubscription(message(SimpMessageType.UNSUBSCRIBE, "s1", "scores", null));
+
+    assertTrue(registry.findSubscriptions("/topic/quiz/1/scores").isEmpty());
+    assertEquals(0, registry.quizCount());
+  }
+
+  @Test
+  void unregisterAllSubscriptions_shouldRemoveEverySubscriptionOfSession() {
+    subscribe("s1", "scores", "/topic/quiz/1/scores");
+    subscribe("s1", "state", "/topic/quiz/1/state");
+    subscribe("s1", "news", "/topic/news");
+    subscribe("s2", "scores", "/topic/quiz/1/scores");
+
+    registry.unregisterAllSubscriptions("s1");
+
+    assertEquals(List.of("s2"), List.copyOf(registry.findSubscriptions("/topic/quiz/1/scores").keySet()));
+    assertTrue(registry.findSubscriptions("/topic/quiz/1/state").isEmpty());
+    assertTrue(registry.findSubscriptions("/topic/news").isEmpty());
+  }
+
+  @Test
+  void registerSubscription_withReusedSubscriptionId_shouldMoveSubscription() {
+    subscribe("s1", "sub-0", "/topic/quiz/1/scores");
+    subscribe("s1", "sub-0", "/topic/quiz/2/scores");
+
+    assertTrue(registry.findSubscriptions("/topic/quiz/1/scores").isEmpty());
+    assertEquals(List.of("sub-0"), registry.findSubscriptions("/topic/quiz/2/scores").get("s1"));
+  }
+
+  @Test
+  void registerSubscription_withPattern_shouldBeIgnored() {
+    subscribe("s1", "all", "/topic/quiz/*/scores");
+
+    assertTrue(registry.findSubscriptions("/topic/quiz/1/scores").isEmpty());
+    assertEquals(0, registry.quizCount());
+  }
+
+  @Test
+  void findSubscriptions_shouldReflectChangesAfterCachedLookup() {
+    subscribe("s1", "scores", "/topic/quiz/1/scores");
+    assertEquals(1, registry.findSubscriptions("/topic/quiz/1/scores").size());
+
+    subscribe("s2", "scores", "/topic/quiz/1/scores");
+
+    assertEquals(2, registry.findSubscriptions("/topic/quiz/1/scores").size());
+  }
+
+  @Test
+  void quizIdOf_shouldOnlyParseQuizChannelDestinations() {
+    assertEquals(42, QuizSubscriptionRegistry.quizIdOf("/topic/quiz/42/scores"));
+    assertEquals(-1, QuizSubscriptionRegistry.quizIdOf("/topic/quiz/42/"));
+    assertEquals(-1, QuizSubscriptionRegistry.quizIdOf("/topic/quiz/abc/scores"));
+    assertEquals(-1, QuizSubscriptionRegistry.quizIdOf("/topic/quiz//scores"));
+    assertEquals(-1, QuizSubscriptionRegistry.quizIdOf("/topic/news"));
+  }
+}
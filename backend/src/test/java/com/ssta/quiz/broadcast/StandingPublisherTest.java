@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.broadcast;
+
+import com.ssta.quiz.leaderboard.Leaderboard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StandingPublisherTest {
+
+  private static final long QUIZ_ID = 3L;
+
+  private final StandingSubscriptions subscriptions = new StandingSubscriptions();
+  private final BroadcastSessionRegistry sessions = mock(BroadcastSessionRegistry.class);
+  private final Leaderboard leaderboard = new Leaderboard(QUIZ_ID);
+  private StandingPublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    BroadcastProperties properties = new BroadcastProperties();
+    properties.setLeaderboardSize(2);
+    properties.setStandingRadius(1);
+    publisher = new StandingPublisher(subscriptions, sessions, properties);
+    for (long player = 1; player <= 5; player++) {
+      leaderboard.recordAnswer(player, (int) (100 * player), 1000);
+    }
+  }
+
+  private WebSocketSession subscribe(String sessionId, long playerId) {
+    WebSocketSession session = mock(WebSocketSession.class);
+    when(session.getId()).thenReturn(sessionId);
+    when(sessions.get(sessionId)).thenReturn(session);
+    subscriptions.add(QUIZ_ID, sessionId, "standing", playerId);
+    return session;
+  }
+
+  private static List<String> payloads(WebSocketSession session, int times) throws Exception {
+    ArgumentCaptor<TextMessage> frames = ArgumentCaptor.forClass(TextMessage.class);
+    verify(session, times(times)).sendMessage(frames.capture());
+    return frames.getAllValues().stream()
+        .map(frame -> frame.getPayload().substring(frame.getPayload().indexOf("\n\n") + 2, frame.getPayload().length() - 1))
+        .toList();
+  }
+
+  @Test
+  void publish_shouldSendRankNeighboursAndTop() throws Exception {
+    WebSocketSession session = subscribe("s1", 3L);
+
+    assertEquals(1, publisher.publish(QUIZ_ID, leaderboard));
+
+    assertEquals(List.of("{\"quizId\":3,\"rank\":3,\"score\":300,\"neighbours\":["
+        + "{\"rank\":2,\"playerId\":4,\"score\":400},{\"rank\":3,\"playerId\":3,\"score\":300},{\"rank\":4,\"playerId\":2,\"score\":200}],"
+        + "\"players\":5,\"top\":[{\"rank\":1,\"playerId\":5,\"score\":500},{\"rank\":2,\"playerId\":4,\"score\":400}]}"),
+        payloads(session, 1));
+  }
+
+  @Test
+  void publish_shouldOnlyResendStandingsThatChanged() throws Exception {
+    WebSocketSession top = subscribe("s1", 5L);
+    WebSocketSession bottom = subscribe("s2", 1L);
+    publisher.publish(QUIZ_ID, leaderboard);
+
+    // Player 1 moves from 5th to 4th; the top two and player 5's neighbours are unaffected
+    leaderboard.recordAnswer(1L, 150, 1000);
+
+    assertEquals(1, publisher.publish(QUIZ_ID, leaderboard));
+    assertEquals(1, payloads(top, 1).size());
+    assertTrue(payloads(bottom, 2).get(1).startsWith("{\"quizId\":3,\"rank\":4,\"score\":250,"));
+  }
+
+  @Test
+  void publish_whenNothingChanged_shouldSendNothing() throws Exception {
+    WebSocketSession session = subscribe("s1", 2L);
+    publisher.publish(QUIZ_ID, leaderboard);
+
+    assertEquals(0, publisher.publish(QUIZ_ID, leaderboard));
+    payloads(session, 1);
+  }
+
+  @Test
+  void publish_forPlayerWithoutScore_shouldSendNullRank() throws Exception {
+    WebSocketSession session = subscribe("s1", 99L);
+
+    publisher.publish(QUIZ_ID, leaderboard);
+
+    assertTrue(payloads(session, 1).get(0).startsWith("{\"quizId\":3,\"rank\":null,\"score\":0,\"neighbours\":[],\"players\":5,"));
+  }
+
+  @Test
+  void publish_afterDisconnect_shouldSendNothing() throws Exception {
+    WebSocketSession session = subscribe("s1", 2L);
+    subscriptions.remove("s1", "standing");
+
+    assertEquals(0, publisher.publish(QUIZ_ID, leaderboard));
+    verify(session, never()).sendMessage(any());
+  }
+}
@@ -5,21 +5,50 @@
  */
 package com.ssta.quiz.config;
 
+import com.ssta.quiz.broadcast.BroadcastProperties;
+import com.ssta.quiz.broadcast.BroadcastSessionRegistry;
+import com.ssta.quiz.broadcast.ClockSync;
+import com.ssta.quiz.broadcast.ClockSyncProperties;
+import com.ssta.quiz.broadcast.PlayerSessions;
+import com.ssta.quiz.broadcast.QuizSubscriptionRegistry;
+import com.ssta.quiz.broadcast.StandingSubscriptions;
+import com.ssta.quiz.player.PlayerRepository;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.config.SimpleBrokerRegistration;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.SockJsServiceRegistration;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.StompWebSocketEndpointRegistration;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class WebSocketConfigTest {
 
+  private final BroadcastSessionRegistry broadcastSessionRegistry = new BroadcastSessionRegistry(new BroadcastProperties());
+  private final PlayerSessions playerSessions = new PlayerSessions(mock(PlayerRepository.class));
+  private final StandingSubscriptions standingSubscriptions = new StandingSubscriptions();
+  private final ClockSync clockSync = new ClockSync(broadcastSessionRegistry, new ClockSyncProperties());
+  private final ThreadingProperties threadingProperties = new ThreadingProperties();
+
   @Test
   void configureMessageBroker_ShouldConfigureTopicDestinationsAndAppPrefix() {
     // Arrange
-    WebSocketConfig config = new WebSocketConfig();
+    WebSocketConfig config = new WebSocketConfig(broadcastSessionRegistry, playerSessions, standingSubscriptions, clockSync, threadingProperties, new MockEnvironment());
     MessageBrokerRegistry registry = mock(MessageBrokerRegistry.class);
     SimpleBrokerRegistration simpleBrokerRegistration = mock(SimpleBrokerRegistration.class);
     when(registry.enableSimpleBroker("/topic")).thenReturn(simpleBrokerRegistration);
@@ -36,7 +65,7 @@ class WebSocketConfigTest {
   @Test
   void registerStompEndpoints_ShouldRegisterWsEndpointWithCorrectOrigin() {
     // Arrange
-    WebSocketConfig config = new WebSocketConfig();
+    WebSocketConfig config = new WebSocketConfig(broadcastSessionRegistry, playerSessions, standingSubscriptions, clockSync, threadingProperties, new MockEnvironment());
     StompEndpointRegistry registry = mock(StompEndpointRegistry.class);
     StompWebSocketEndpointRegistration registration = mock(StompWebSocketEndpointRegistration.class);
     SockJsServiceRegistration sockJsRegistration = mock(SockJsServiceRegistration.class);
@@ -53,4 +82,74 @@ class WebSocketConfigTest {
     verify(registration).setAllowedOrigins("http://localhost:5173");
     verify(registration).withSockJS();
   }
+
+  @Test
+  void configureWebSocketTransport_ShouldInstallBroadcastSessionRegistry() {
+    // Arrange
+    WebSocketConfig config = new WebSocketConfig(broadcastSessionRegistry, playerSessions, standingSubscriptions, clockSync, threadingProperties, new MockEnvironment());
+    WebSocketTransportRegistration registration = mock(WebSocketTransportRegistration.class);
+
+    // Act
+    config.configureWebSocketTransport(registration);
+
+    // Assert
+    verify(registration).addDecoratorFactory(broadcastSessionRegistry);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void quizSubscriptionRegistryInstaller_ShouldReplaceSimpleBrokerRegistry() {
+    // Arrange
+    QuizSubscriptionRegistry subscriptionRegistry = new QuizSubscriptionRegistry();
+    ObjectProvider<QuizSubscriptionRegistry> provider = mock(ObjectProvider.class);
+    when(provider.getObject()).thenReturn(subscriptionRegistry);
+    BeanPostProcessor installer = WebSocketConfig.quizSubscriptionRegistryInstaller(provider);
+    SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(mock(SubscribableChannel.class),
+        mock(SubscribableChannel.class), mock(SubscribableChannel.class), List.of("/topic"));
+
+    // Act
+    installer.postProcessBeforeInitialization(broker, "simpleBrokerMessageHandler");
+
+    // Assert
+    assertSame(subscriptionRegistry, broker.getSubscriptionRegistry());
+  }
+
+  @Test
+  void configureClientInboundChannel_ShouldInstallPlayerSessionsStandingSubscriptionsAndClockSync() {
+    // Arrange
+    WebSocketConfig config = new WebSocketConfig(broadcastSessionRegistry, playerSessions, standingSubscriptions, clockSync, threadingProperties, new MockEnvironment());
+    ChannelRegistration registration = mock(ChannelRegistration.class);
+
+    // Act
+    config.configureClientInboundChannel(registration);
+
+    // Assert
+    verify(registration).interceptors(playerSessions, standingSubscriptions, clockSync);
+    verify(registration, never()).taskExecutor(any(ThreadPoolTaskExecutor.class));
+  }
+
+  @Test
+  void configureClientInboundChannel_InVirtualThreadMode_ShouldUseVirtualThreadExecutor() throws Exception {
+    // Arrange
+    MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+    WebSocketConfig config = new WebSocketConfig(broadcastSessionRegistry, playerSessions, standingSubscriptions, clockSync, threadingProperties, environment);
+    ChannelRegistration registration = mock(ChannelRegistration.class);
+    ArgumentCaptor<ThreadPoolTaskExecutor> executor = ArgumentCaptor.forClass(ThreadPoolTaskExecutor.class);
+
+    // Act
+    config.configureClientInboundChannel(registration);
+
+    // Assert
+    verify(registration).taskExecutor(executor.capture());
+    ThreadPoolTaskExecutor inbound = executor.getValue();
+    inbound.initialize();
+    try {
+      CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+      inbound.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+      assertTrue(virtual.get());
+      assertFalse(Thread.currentThread().isVirtual());
+    } finally {
+      inbound.shutdown();
+    }
+  }
 }
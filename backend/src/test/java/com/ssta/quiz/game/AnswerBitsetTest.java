@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerBitsetTest {
+
+  @Test
+  void testAndSet_shouldOnlySucceedOncePerSlot() {
+    AnswerBitset bitset = new AnswerBitset();
+
+    assertTrue(bitset.testAndSet(5));
+    assertFalse(bitset.testAndSet(5));
+    assertTrue(bitset.testAndSet(69), "Same bit index in the next word");
+    assertTrue(bitset.testAndSet(300_000), "Slot on a later page");
+    assertTrue(bitset.get(300_000));
+    assertFalse(bitset.get(300_001));
+    assertEquals(3, bitset.cardinality());
+  }
+
+  @Test
+  void clear_shouldReleaseSlotForAnotherClaim() {
+    AnswerBitset bitset = new AnswerBitset();
+    bitset.testAndSet(7);
+
+    bitset.clear(7);
+    bitset.clear(8);
+
+    assertFalse(bitset.get(7));
+    assertEquals(0, bitset.cardinality());
+    assertTrue(bitset.testAndSet(7));
+  }
+
+  @Test
+  void concurrentClaims_shouldHaveExactlyOneWinnerPerSlot() throws InterruptedException {
+    int slots = 50_000;
+    AnswerBitset bitset = new AnswerBitset();
+    AtomicInteger wins = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(() -> {
+        for (int slot = 0; slot < slots; slot++) {
+          if (bitset.testAndSet(slot)) {
+            wins.incrementAndGet();
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(slots, wins.get());
+    assertEquals(slots, bitset.cardinality());
+  }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import com.ssta.quiz.broadcast.ClockSync;
+import com.ssta.quiz.broadcast.QuestionReveal;
+import com.ssta.quiz.broadcast.QuizBroadcastScheduler;
+import com.ssta.quiz.live.LiveQuizSnapshot;
+import com.ssta.quiz.live.QuizPhase;
+import com.ssta.quiz.player.PlayerRepository;
+import com.ssta.quiz.playeranswer.BatchAnswerScorer;
+import com.ssta.quiz.playeranswer.PendingAnswer;
+import com.ssta.quiz.playeranswer.PlayerAnswerService;
+import com.ssta.quiz.question.Question;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GameEngineTest {
+
+  private static final long QUIZ_ID = 7L;
+
+  private final PlayerAnswerService playerAnswerService = mock(PlayerAnswerService.class);
+  private final QuizBroadcastScheduler broadcastScheduler = mock(QuizBroadcastScheduler.class);
+  private final BatchAnswerScorer answerScorer = mock(BatchAnswerScorer.class);
+  private final ClockSync clockSync = mock(ClockSync.class);
+  private final PlayerRepository playerRepository = mock(PlayerRepository.class);
+  private final Set<String> submittingThreads = ConcurrentHashMap.newKeySet();
+  private GameEngine engine;
+
+  @BeforeEach
+  void setUp() {
+    GameEngineProperties properties = new GameEngineProperties();
+    properties.setCarrierThreads(2);
+    properties.setRevealDelay(Duration.ofMillis(50));
+    engine = new GameEngine(playerAnswerService, broadcastScheduler, answerScorer, clockSync, playerRepository,
+        properties);
+    engine.start();
+    engine.start(snapshot(20));
+    when(playerAnswerService.submitAnswer(anyLong(), anyLong(), anyInt(), any())).thenAnswer(invocation -> {
+      submittingThreads.add(Thread.currentThread().getName());
+      return new PendingAnswer(QUIZ_ID, invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+          true, invocation.getArgument(3), 100);
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    engine.stop();
+  }
+
+  private static LiveQuizSnapshot snapshot(int timeLimitSeconds) {
+    List<Question> questions = new ArrayList<>();
+    for (long id = 10; id <= 12; id++) {
+      Question question = new Question();
+      question.setId(id);
+      question.setQuizId(QUIZ_ID);
+      question.setOrderIndex((int) id);
+      question.setTimeLimit(timeLimitSeconds);
+      question.setOptions("[{\"text\":\"A\",\"correct\":true},{\"text\":\"B\"}]");
+      questions.add(question);
+    }
+    return LiveQuizSnapshot.of(QUIZ_ID, questions);
+  }
+
+  private void join(long... playerIds) {
+    for (long playerId : playerIds) {
+      when(playerRepository.existsByIdAndQuizId(playerId, QUIZ_ID)).thenReturn(true);
+      engine.join(QUIZ_ID, playerId);
+    }
+  }
+
+  @Test
+  void openQuestion_shouldOpenWindowAndSwitchBroadcastPhase() {
+    GameState state = engine.openQuestion(QUIZ_ID, 1);
+
+    assertEquals(new GameState(QUIZ_ID, 1, 11L, true, 0), state);
+    verify(broadcastScheduler).setPhase(QUIZ_ID, QuizPhase.QUESTION);
+    ArgumentCaptor<QuestionReveal> question = ArgumentCaptor.forClass(QuestionReveal.class);
+    verify(broadcastScheduler).publishQuestion(question.capture());
+    assertEquals(11L, question.getValue().questionId());
+    assertEquals(List.of("A", "B"), question.getValue().options());
+    assertEquals(20_000, question.getValue().timeLimitMs());
+
+    assertFalse(engine.closeQuestion(QUIZ_ID).open());
+    verify(broadcastScheduler).setPhase(QUIZ_ID, QuizPhase.LOBBY);
+  }
+
+  @Test
+  void submitAnswer_shouldOnlyAcceptAnswersToTheOpenQuestion() {
+    join(1L, 2L);
+    assertThrows(IllegalStateException.class, () -> engine.submitAnswer(QUIZ_ID, 1L, 10L, 0),
+        "No question is open yet");
+
+    engine.openQuestion(QUIZ_ID, 0);
+    assertThrows(IllegalStateException.class, () -> engine.submitAnswer(QUIZ_ID, 1L, 11L, 0),
+        "Question 11 is not the open one");
+    assertEquals(100, engine.submitAnswer(QUIZ_ID, 1L, 10L, 0).score());
+
+    engine.closeQuestion(QUIZ_ID);
+    assertThrows(IllegalStateException.class, () -> engine.submitAnswer(QUIZ_ID, 2L, 10L, 0));
+    verify(playerAnswerService, times(1)).submitAnswer(anyLong(), anyLong(), anyInt(), any());
+  }
+
+  @Test
+  void submitAnswer_shouldRejectSecondAnswerFromSamePlayer() {
+    join(1L);
+    engine.openQuestion(QUIZ_ID, 0);
+    engine.submitAnswer(QUIZ_ID, 1L, 10L, 0);
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> engine.submitAnswer(QUIZ_ID, 1L, 10L, 1));
+    assertEquals("Player has already answered this question", e.getMessage());
+    assertEquals(1, engine.state(QUIZ_ID).answers());
+  }
+
+  @Test
+  void submitAnswer_whenNotAccepted_shouldLetThePlayerTryAgain() {
+    join(1L);
+    engine.openQuestion(QUIZ_ID, 0);
+    when(playerAnswerService.submitAnswer(eq(1L), eq(10L), eq(0), any())).thenThrow(new IllegalStateException("Answer queue is full"));
+
+    assertThrows(IllegalStateException.class, () -> engine.submitAnswer(QUIZ_ID, 1L, 10L, 0));
+    assertEquals(0, engine.state(QUIZ_ID).answers());
+
+    assertEquals(100, engine.submitAnswer(QUIZ_ID, 1L, 10L, 1).score());
+    assertEquals(1, engine.state(QUIZ_ID).answers());
+  }
+
+  @Test
+  void join_shouldGiveDenseSlotsInJoinOrder() {
+    when(playerRepository.existsByIdAndQuizId(anyLong(), eq(QUIZ_ID))).thenReturn(true);
+    assertEquals(0, engine.join(QUIZ_ID, 500L));
+    assertEquals(1, engine.join(QUIZ_ID, 20L));
+    assertEquals(0, engine.join(QUIZ_ID, 500L));
+    assertThrows(IllegalArgumentException.class, () -> engine.join(99L, 1L));
+  }
+
+  @Test
+  void join_byAPlayerOfAnotherQuiz_shouldBeRejectedWithoutTakingASlot() {
+    when(playerRepository.existsByIdAndQuizId(500L, QUIZ_ID)).thenReturn(true);
+
+    assertThrows(IllegalArgumentException.class, () -> engine.join(QUIZ_ID, 20L));
+
+    assertEquals(0, engine.join(QUIZ_ID, 500L));
+  }
+
+  @Test
+  void submitAnswer_fromAPlayerWhoHasNotJoined_shouldBeRejectedBeforeItIsRecorded() {
+    join(1L);
+    engine.openQuestion(QUIZ_ID, 0);
+
+    assertThrows(IllegalArgumentException.class, () -> engine.submitAnswer(QUIZ_ID, 2L, 10L, 0));
+
+    assertEquals(0, engine.state(QUIZ_ID).answers());
+    verify(playerAnswerService, never()).submitAnswer(anyLong(), anyLong(), anyInt(), any());
+    when(playerRepository.existsByIdAndQuizId(3L, QUIZ_ID)).thenReturn(true);
+    assertEquals(1, engine.join(QUIZ_ID, 3L), "No slot was given to the stranger");
+  }
+
+  @Test
+  void submitAnswer_whenAnswersAreQueued_shouldRecordThemOnTheCarrier() {
+    join(1L);
+    when(playerAnswerService.queuesAnswers()).thenReturn(true);
+    engine.openQuestion(QUIZ_ID, 0);
+
+    engine.submitAnswer(QUIZ_ID, 1L, 10L, 0);
+
+    assertEquals(1, submittingThreads.size());
+    assertTrue(submittingThreads.iterator().next().startsWith("game-carrier-"));
+  }
+
+  @Test
+  void submitAnswer_fromManyThreads_shouldAdmitEachPlayerOnce() throws Exception {
+    when(playerAnswerService.queuesAnswers()).thenReturn(true);
+    for (long playerId = 0; playerId < 1000; playerId++) {
+      join(playerId);
+    }
+    engine.openQuestion(QUIZ_ID, 2);
+    AtomicInteger rejected = new AtomicInteger();
+    ExecutorService submitters = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < 4000; i++) {
+        long playerId = i % 1000;
+        results.add(submitters.submit(() -> {
+          try {
+            engine.submitAnswer(QUIZ_ID, playerId, 12L, 0);
+          } catch (IllegalStateException e) {
+            rejected.incrementAndGet();
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      submitters.shutdown();
+    }
+
+    assertEquals(1000, engine.state(QUIZ_ID).answers());
+    assertEquals(3000, rejected.get());
+  }
+
+  @Test
+  void closeQuestion_whenScoringIsDeferred_shouldHandCapturedAnswersToTheScorer() {
+    join(1L, 2L);
+    when(playerAnswerService.defersScoring()).thenReturn(true);
+    engine.openQuestion(QUIZ_ID, 0);
+    engine.submitAnswer(QUIZ_ID, 1L, 10L, 0);
+    engine.submitAnswer(QUIZ_ID, 2L, 10L, 1);
+    verify(answerScorer, never()).submit(anyLong(), anyLong(), any(), any(), any(), anyInt());
+
+    engine.closeQuestion(QUIZ_ID);
+
+    ArgumentCaptor<long[]> playerIds = ArgumentCaptor.forClass(long[].class);
+    ArgumentCaptor<int[]> options = ArgumentCaptor.forClass(int[].class);
+    ArgumentCaptor<int[]> responseTimes = ArgumentCaptor.forClass(int[].class);
+    verify(answerScorer).submit(eq(QUIZ_ID), eq(10L), playerIds.capture(), options.capture(), responseTimes.capture(), eq(2));
+    assertArrayEquals(new long[]{1L, 2L}, Arrays.copyOf(playerIds.getValue(), 2));
+    assertArrayEquals(new int[]{0, 1}, Arrays.copyOf(options.getValue(), 2));
+    for (int responseTimeMs : Arrays.copyOf(responseTimes.getValue(), 2)) {
+      assertTrue(responseTimeMs >= 0 && responseTimeMs < 20_000, "Timed by the server from the question opening");
+    }
+
+    // Nothing is left to score when the next question opens
+    engine.openQuestion(QUIZ_ID, 1);
+    verify(answerScorer, times(1)).submit(anyLong(), anyLong(), any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void openQuestion_whenScoringIsDeferred_shouldScoreTheQuestionItReplaces() {
+    join(1L);
+    when(playerAnswerService.defersScoring()).thenReturn(true);
+    when(playerAnswerService.queuesAnswers()).thenReturn(true);
+    engine.openQuestion(QUIZ_ID, 0);
+    engine.submitAnswer(QUIZ_ID, 1L, 10L, 0);
+
+    engine.openQuestion(QUIZ_ID, 1);
+
+    verify(answerScorer).submit(eq(QUIZ_ID), eq(10L), any(), any(), any(), eq(1));
+  }
+
+  @Test
+  void closeQuestion_whenScoringIsImmediate_shouldOnlyFlushQueuedAnswers() {
+    join(1L);
+    engine.openQuestion(QUIZ_ID, 0);
+    engine.submitAnswer(QUIZ_ID, 1L, 10L, 0);
+
+    engine.closeQuestion(QUIZ_ID);
+
+    verify(answerScorer).submitFlush();
+    verify(answerScorer, never()).submit(anyLong(), anyLong(), any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void submitAnswer_shouldTimeResponseFromTheQuestionOpening() throws Exception {
+    join(1L);
+    engine.openQuestion(QUIZ_ID, 0);
+    Thread.sleep(50);
+
+    engine.submitAnswer(QUIZ_ID, 1L, 10L, 0);
+
+    ArgumentCaptor<Integer> responseTime = ArgumentCaptor.forClass(Integer.class);
+    verify(playerAnswerService).submitAnswer(eq(1L), eq(10L), eq(0), responseTime.capture());
+    assertTrue(responseTime.getValue() >= 50 && responseTime.getValue() < 5_000, "was " + responseTime.getValue());
+  }
+
+  @Test
+  void submitAnswer_shouldTakeThePlayersRoundTripOffTheResponseTime() throws Exception {
+    join(1L, 2L);
+    when(clockSync.correctionMs(1L)).thenReturn(40);
+    when(clockSync.correctionMs(2L)).thenReturn(10_000);
+    engine.openQuestion(QUIZ_ID, 0);
+    Thread.sleep(100);
+
+    engine.submitAnswer(QUIZ_ID, 1L, 10L, 0);
+    engine.submitAnswer(QUIZ_ID, 2L, 10L, 0);
+
+    ArgumentCaptor<Integer> corrected = ArgumentCaptor.forClass(Integer.class);
+    verify(playerAnswerService).submitAnswer(eq(1L), eq(10L), eq(0), corrected.capture());
+    assertTrue(corrected.getValue() >= 60 && corrected.getValue() < 5_000, "was " + corrected.getValue());
+    verify(playerAnswerService).submitAnswer(2L, 10L, 0, 0);
+  }
+
+  @Test
+  void openQuestion_whenTimeRunsOut_shouldCloseRevealAndAdvance() {
+    engine.stop();
+    GameEngineProperties properties = new GameEngineProperties();
+    properties.setCarrierThreads(1);
+    properties.setRevealDelay(Duration.ofMillis(50));
+    properties.setAutoAdvance(true);
+    properties.setAdvanceDelay(Duration.ofMillis(50));
+    engine = new GameEngine(playerAnswerService, broadcastScheduler, answerScorer, clockSync, playerRepository,
+        properties);
+    engine.start();
+    engine.start(snapshot(1));
+
+    engine.openQuestion(QUIZ_ID, 1);
+
+    // Closed after a second, revealed and then the last question opened
+    verify(broadcastScheduler, timeout(5_000)).setPhase(QUIZ_ID, QuizPhase.REVEAL);
+    verify(broadcastScheduler, timeout(5_000).times(2)).setPhase(QUIZ_ID, QuizPhase.QUESTION);
+    assertEquals(2, engine.state(QUIZ_ID).position());
+    verify(answerScorer, atLeastOnce()).submitFlush();
+  }
+
+  @Test
+  void closeQuestion_beforeTimeRunsOut_shouldKeepTheRevealButNotCloseAgain() {
+    engine.openQuestion(QUIZ_ID, 0);
+
+    engine.closeQuestion(QUIZ_ID);
+    engine.closeQuestion(QUIZ_ID);
+
+    verify(broadcastScheduler, timeout(5_000)).setPhase(QUIZ_ID, QuizPhase.REVEAL);
+    verify(broadcastScheduler, times(1)).setPhase(QUIZ_ID, QuizPhase.LOBBY);
+    verify(answerScorer, times(1)).submitFlush();
+  }
+
+  @Test
+  void stop_shouldRejectFurtherCommands() {
+    engine.stop(QUIZ_ID);
+
+    assertThrows(IllegalArgumentException.class, () -> engine.openQuestion(QUIZ_ID, 0));
+    assertEquals(0, engine.liveQuizCount());
+  }
+}
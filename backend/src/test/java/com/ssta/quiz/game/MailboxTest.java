@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailboxTest {
+
+  @Test
+  void poll_shouldReturnValuesInOfferOrder() {
+    Mailbox<String> mailbox = new Mailbox<>();
+    assertTrue(mailbox.isEmpty());
+    assertNull(mailbox.poll());
+
+    mailbox.offer("a");
+    mailbox.offer("b");
+
+    assertFalse(mailbox.isEmpty());
+    assertEquals("a", mailbox.poll());
+    assertEquals("b", mailbox.poll());
+    assertNull(mailbox.poll());
+  }
+
+  @Test
+  void concurrentProducers_shouldDeliverEveryValueInPerProducerOrder() throws InterruptedException {
+    int producers = 8;
+    int perProducer = 50_000;
+    Mailbox<long[]> mailbox = new Mailbox<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int producer = p;
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          mailbox.offer(new long[] {producer, i});
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    long[] next = new long[producers];
+    int received = 0;
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (received < producers * perProducer && System.currentTimeMillis() < deadline) {
+      long[] value = mailbox.poll();
+      if (value == null) {
+        Thread.onSpinWait();
+        continue;
+      }
+      int producer = (int) value[0];
+      assertEquals(next[producer], value[1], "Values from one producer should arrive in order");
+      next[producer]++;
+      received++;
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(producers * perProducer, received);
+    assertTrue(mailbox.isEmpty());
+  }
+}
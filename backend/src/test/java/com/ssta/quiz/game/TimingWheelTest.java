@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+  /* A short tick so that deadlines a second or two away already cross into the upper levels */
+  private static final long TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private TimingWheel wheel;
+
+  @BeforeEach
+  void setUp() {
+    wheel = new TimingWheel("test-timer", TICK_NANOS);
+    wheel.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    wheel.stop();
+  }
+
+  @Test
+  void schedule_shouldNeverFireBeforeTheDeadline() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(30);
+    AtomicLong firedAt = new AtomicLong();
+    CountDownLatch fired = new CountDownLatch(1);
+
+    TimingWheel.Timeout timeout = wheel.schedule(deadline, () -> {
+      firedAt.set(System.nanoTime());
+      fired.countDown();
+    });
+
+    assertTrue(fired.await(5, TimeUnit.SECONDS));
+    assertTrue(firedAt.get() >= deadline, "Fired " + (deadline - firedAt.get()) + "ns early");
+    assertTrue(timeout.isExpired());
+    assertFalse(timeout.cancel(), "An expired timeout cannot be cancelled");
+  }
+
+  @Test
+  void schedule_shouldFireInDeadlineOrderAcrossLevels() throws InterruptedException {
+    long now = System.nanoTime();
+    // 256 ticks is 25.6 ms and 65,536 ticks 6.5 s at this tick, so these span levels 0 to 2
+    long[] delaysMs = {2_000, 60, 300, 100, 1_200, 80};
+    List<Long> order = new CopyOnWriteArrayList<>();
+    CountDownLatch fired = new CountDownLatch(delaysMs.length);
+    for (long delayMs : delaysMs) {
+      wheel.schedule(now + TimeUnit.MILLISECONDS.toNanos(delayMs), () -> {
+        order.add(delayMs);
+        fired.countDown();
+      });
+    }
+
+    assertTrue(fired.await(10, TimeUnit.SECONDS));
+    assertEquals(List.of(60L, 80L, 100L, 300L, 1_200L, 2_000L), order);
+  }
+
+  @Test
+  void schedule_withPastDeadline_shouldFireAtOnce() throws InterruptedException {
+    CountDownLatch fired = new CountDownLatch(1);
+
+    wheel.schedule(System.nanoTime() - TimeUnit.SECONDS.toNanos(1), fired::countDown);
+
+    assertTrue(fired.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void cancel_shouldStopTheTaskFromRunning() throws InterruptedException {
+    long now = System.nanoTime();
+    CountDownLatch cancelledFired = new CountDownLatch(1);
+    CountDownLatch laterFired = new CountDownLatch(1);
+
+    TimingWheel.Timeout timeout = wheel.schedule(now + TimeUnit.MILLISECONDS.toNanos(20), cancelledFired::countDown);
+    assertTrue(timeout.cancel());
+    assertFalse(timeout.cancel(), "Already cancelled");
+    wheel.schedule(now + TimeUnit.MILLISECONDS.toNanos(60), laterFired::countDown);
+
+    assertTrue(laterFired.await(5, TimeUnit.SECONDS));
+    assertEquals(1, cancelledFired.getCount());
+    assertFalse(timeout.isExpired());
+  }
+
+  @Test
+  void schedule_whenTaskFails_shouldKeepRunningLaterTasks() throws InterruptedException {
+    long now = System.nanoTime();
+    CountDownLatch fired = new CountDownLatch(1);
+
+    wheel.schedule(now, () -> {
+      throw new IllegalStateException("boom");
+    });
+    wheel.schedule(now + TimeUnit.MILLISECONDS.toNanos(10), fired::countDown);
+
+    assertTrue(fired.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void schedule_afterIdling_shouldWakeTheWheel() throws InterruptedException {
+    CountDownLatch first = new CountDownLatch(1);
+    wheel.schedule(System.nanoTime(), first::countDown);
+    assertTrue(first.await(1, TimeUnit.SECONDS));
+    // Nothing is linked now, so the wheel parks until the next schedule()
+    Thread.sleep(50);
+
+    CountDownLatch second = new CountDownLatch(1);
+    wheel.schedule(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5), second::countDown);
+
+    assertTrue(second.await(1, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardDeltaEncoderTest {
+
+  private final Leaderboard leaderboard = new Leaderboard(1L);
+  private final LeaderboardDeltaEncoder encoder = new LeaderboardDeltaEncoder(1L);
+
+  private LeaderboardDelta encode(boolean keyframe) {
+    return encoder.encode(leaderboard.update(3), keyframe);
+  }
+
+  @Test
+  void encode_firstMessage_shouldBeKeyframe() {
+    leaderboard.put(10, 300, 0);
+    leaderboard.put(20, 200, 0);
+
+    LeaderboardDelta delta = encode(false);
+
+    assertTrue(delta.keyframe());
+    assertEquals(1, delta.seq());
+    assertEquals(2, delta.players());
+    assertEquals(List.of(new Leaderboard.Entry(1, 10, 300), new Leaderboard.Entry(2, 20, 200)), delta.entered());
+  }
+
+  @Test
+  void encode_withoutVisibleChange_shouldReturnNull() {
+    leaderboard.put(10, 300, 0);
+    encode(false);
+
+    assertNull(encode(false));
+    assertEquals(1, encoder.seq());
+  }
+
+  @Test
+  void encode_shouldReportEntriesExitsAndRankChanges() {
+    leaderboard.put(10, 300, 0);
+    leaderboard.put(20, 200, 0);
+    leaderboard.put(30, 100, 0);
+    encode(false);
+
+    // 40 jumps to the top, pushing 30 out of the top 3; 10 and 20 each drop a place
+    leaderboard.put(40, 400, 0);
+    LeaderboardDelta delta = encode(false);
+
+    assertFalse(delta.keyframe());
+    assertEquals(2, delta.seq());
+    assertEquals(4, delta.players());
+    assertEquals(List.of(new Leaderboard.Entry(1, 40, 400)), delta.entered());
+    assertEquals(List.of(new Leaderboard.Entry(2, 10, 300), new Leaderboard.Entry(3, 20, 200)), delta.changed());
+    assertArrayEquals(new long[] {30}, delta.exited());
+  }
+
+  @Test
+  void encode_shouldReportScoreChangeWithoutRankChange() {
+    leaderboard.put(10, 300, 0);
+    leaderboard.put(20, 200, 0);
+    encode(false);
+
+    leaderboard.recordAnswer(20, 50, 0);
+    LeaderboardDelta delta = encode(false);
+
+    assertEquals(List.of(), delta.entered());
+    assertEquals(List.of(new Leaderboard.Entry(2, 20, 250)), delta.changed());
+    assertEquals(0, delta.exited().length);
+  }
+
+  @Test
+  void encode_withPlayerJoiningOutsideWindow_shouldSendPlayerCountOnly() {
+    leaderboard.put(10, 300, 0);
+    leaderboard.put(20, 200, 0);
+    leaderboard.put(30, 100, 0);
+    encode(false);
+
+    leaderboard.put(40, 0, 0);
+    LeaderboardDelta delta = encode(false);
+
+    assertEquals(4, delta.players());
+    assertTrue(delta.entered().isEmpty() && delta.changed().isEmpty() && delta.exited().length == 0);
+  }
+
+  @Test
+  void encode_withKeyframeRequested_shouldSendWholeWindowWithNextSeq() {
+    leaderboard.put(10, 300, 0);
+    encode(false);
+
+    LeaderboardDelta keyframe = encode(true);
+
+    assertTrue(keyframe.keyframe());
+    assertEquals(2, keyframe.seq());
+    assertEquals(List.of(new Leaderboard.Entry(1, 10, 300)), keyframe.entered());
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+  @Test
+  void recordAnswer_shouldRankByScoreThenResponseTime() {
+    Leaderboard leaderboard = new Leaderboard(1L);
+    leaderboard.recordAnswer(10L, 100, 4000);
+    leaderboard.recordAnswer(20L, 100, 2000);
+    leaderboard.recordAnswer(30L, 50, 1000);
+
+    assertEquals(1, leaderboard.rankOf(20L), "Same score, faster total response time wins");
+    assertEquals(2, leaderboard.rankOf(10L));
+    assertEquals(3, leaderboard.rankOf(30L));
+
+    leaderboard.recordAnswer(30L, 90, 1000);
+    assertEquals(1, leaderboard.rankOf(30L));
+    assertEquals(140, leaderboard.scoreOf(30L));
+    assertEquals(-1, leaderboard.rankOf(99L));
+  }
+
+  @Test
+  void topAndAround_shouldReturnEntriesBestFirst() {
+    Leaderboard leaderboard = new Leaderboard(1L);
+    for (long player = 1; player <= 10; player++) {
+      leaderboard.put(player, (int) player * 10, 0);
+    }
+
+    assertEquals(List.of(new Leaderboard.Entry(1, 10L, 100), new Leaderboard.Entry(2, 9L, 90)), leaderboard.top(2));
+    assertEquals(10, leaderboard.top(50).size());
+
+    List<Leaderboard.Entry> around = leaderboard.around(5L, 1);
+    assertEquals(List.of(6L, 5L, 4L), around.stream().map(Leaderboard.Entry::playerId).toList());
+    assertEquals(6, around.get(1).rank());
+
+    assertEquals(List.of(10L, 9L), leaderboard.around(10L, 1).stream().map(Leaderboard.Entry::playerId).toList());
+  }
+
+  @Test
+  void randomUpdates_shouldMatchFullSort() {
+    Leaderboard leaderboard = new Leaderboard(1L);
+    Map<Long, long[]> totals = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 20_000; i++) {
+      long player = random.nextInt(1000);
+      int points = random.nextInt(200) - 50;
+      int responseTime = random.nextInt(20_000);
+      leaderboard.recordAnswer(player, points, responseTime);
+      long[] total = totals.computeIfAbsent(player, p -> new long[2]);
+      total[0] += points;
+      total[1] += responseTime;
+    }
+
+    List<Long> expected = new ArrayList<>(totals.keySet());
+    expected.sort(Comparator.<Long>comparingLong(p -> -totals.get(p)[0])
+        .thenComparingLong(p -> totals.get(p)[1])
+        .thenComparingLong(p -> p));
+
+    assertEquals(expected.size(), leaderboard.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(i + 1, leaderboard.rankOf(expected.get(i)));
+    }
+    assertEquals(expected.subList(0, 10), leaderboard.top(10).stream().map(Leaderboard.Entry::playerId).toList());
+  }
+
+  @Test
+  void copyRanking_shouldMatchRanksAndDetectStaleNodes() {
+    Leaderboard leaderboard = new Leaderboard(1L);
+    leaderboard.recordAnswer(10L, 100, 1000);
+    leaderboard.recordAnswer(11L, 300, 1000);
+    leaderboard.recordAnswer(12L, 200, 1000);
+    RankingBuffer ranking = new RankingBuffer();
+
+    leaderboard.copyRanking(ranking);
+
+    assertEquals(3, ranking.size());
+    assertEquals(leaderboard.version(), ranking.version());
+    assertEquals(List.of(11L, 12L, 10L), List.of(ranking.playerIdAt(0), ranking.playerIdAt(1), ranking.playerIdAt(2)));
+    assertEquals(2, ranking.rankOf(leaderboard.nodeOf(10L), 10L));
+    assertEquals(-1, ranking.rankOf(leaderboard.nodeOf(10L), 11L), "A node looked up for another player is stale");
+    assertEquals(-1, ranking.rankOf(leaderboard.nodeOf(99L), 99L));
+  }
+}
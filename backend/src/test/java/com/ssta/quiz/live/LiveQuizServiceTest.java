@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+import com.ssta.quiz.game.GameEngine;
+import com.ssta.quiz.leaderboard.LeaderboardService;
+import com.ssta.quiz.playeranswer.PlayerAnswerPartitions;
+import com.ssta.quiz.playeranswer.PlayerAnswerService;
+import com.ssta.quiz.question.QuestionRepository;
+import com.ssta.quiz.quiz.Quiz;
+import com.ssta.quiz.quiz.QuizRepository;
+import com.ssta.quiz.quiz.QuizStatus;
+import com.ssta.quiz.scoring.BuiltInScoring;
+import com.ssta.quiz.scoring.ScoringStrategies;
+import com.ssta.quiz.stats.AnswerStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class LiveQuizServiceTest {
+
+  private static final long QUIZ_ID = 7L;
+
+  private final QuizRepository quizRepository = mock(QuizRepository.class);
+  private final QuestionRepository questionRepository = mock(QuestionRepository.class);
+  private final PlayerAnswerPartitions playerAnswerPartitions = mock(PlayerAnswerPartitions.class);
+  private final LiveQuizRegistry liveQuizRegistry = new LiveQuizRegistry();
+  private final LeaderboardService leaderboardService = mock(LeaderboardService.class);
+  private final AnswerStatsService answerStatsService = mock(AnswerStatsService.class);
+  private final GameEngine gameEngine = mock(GameEngine.class);
+  private final ScoringStrategies scoringStrategies = mock(ScoringStrategies.class);
+  private final LiveQuizService service = new LiveQuizService(quizRepository, questionRepository,
+      mock(PlayerAnswerService.class), playerAnswerPartitions, liveQuizRegistry, leaderboardService,
+      answerStatsService, gameEngine, scoringStrategies, mock(PlatformTransactionManager.class));
+  private final Quiz quiz = new Quiz();
+
+  @BeforeEach
+  void setUp() {
+    // Stands in for the transaction @Transactional would open around launch
+    TransactionSynchronizationManager.initSynchronization();
+    quiz.setId(QUIZ_ID);
+    quiz.setStatus(QuizStatus.DRAFT.name());
+    when(quizRepository.findById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+    when(questionRepository.findByQuizIdOrderByOrderIndexAsc(QUIZ_ID)).thenReturn(List.of());
+    when(scoringStrategies.forName(any())).thenReturn(BuiltInScoring.LINEAR);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.clearSynchronization();
+  }
+
+  private static void complete(int status) {
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      if (status == TransactionSynchronization.STATUS_COMMITTED) {
+        synchronization.afterCommit();
+      }
+      synchronization.afterCompletion(status);
+    }
+  }
+
+  @Test
+  void launch_fromDraft_shouldOnlyGoLiveOnceTheStatusHasCommitted() {
+    LiveQuizSnapshot snapshot = service.launch(QUIZ_ID);
+
+    assertEquals(QuizStatus.ACTIVE.name(), quiz.getStatus());
+    verify(playerAnswerPartitions).create(QUIZ_ID);
+    assertTrue(liveQuizRegistry.find(QUIZ_ID).isEmpty());
+    verifyNoInteractions(gameEngine, leaderboardService, answerStatsService);
+
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+
+    assertSame(snapshot, liveQuizRegistry.find(QUIZ_ID).orElseThrow());
+    verify(leaderboardService).rebuild(QUIZ_ID);
+    verify(answerStatsService).start(snapshot);
+    verify(gameEngine).start(snapshot);
+  }
+
+  @Test
+  void launch_whenRolledBack_shouldLeaveNothingRunning() {
+    service.launch(QUIZ_ID);
+
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertTrue(liveQuizRegistry.find(QUIZ_ID).isEmpty());
+    verifyNoInteractions(gameEngine, leaderboardService, answerStatsService);
+  }
+
+  @Test
+  void launch_whenAlreadyLive_shouldKeepTheRunningGame() {
+    quiz.setStatus(QuizStatus.ACTIVE.name());
+    LiveQuizSnapshot live = LiveQuizSnapshot.of(QUIZ_ID, List.of());
+    liveQuizRegistry.register(live);
+
+    assertSame(live, service.launch(QUIZ_ID));
+
+    assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    verifyNoInteractions(gameEngine, leaderboardService, answerStatsService, playerAnswerPartitions);
+  }
+
+  @Test
+  void launch_whenActiveButNotLive_shouldPutItLiveAgain() {
+    quiz.setStatus(QuizStatus.ACTIVE.name());
+
+    LiveQuizSnapshot snapshot = service.launch(QUIZ_ID);
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+
+    verify(gameEngine).start(snapshot);
+  }
+
+  @Test
+  void launch_fromCompleted_shouldBeRejected() {
+    quiz.setStatus(QuizStatus.COMPLETED.name());
+
+    assertThrows(IllegalStateException.class, () -> service.launch(QUIZ_ID));
+
+    assertEquals(QuizStatus.COMPLETED.name(), quiz.getStatus());
+    verifyNoInteractions(playerAnswerPartitions, gameEngine);
+  }
+
+  @Test
+  void launch_withUnknownScoringStrategy_shouldBeAConflictNotANotFound() {
+    quiz.setScoringStrategy("RETIRED");
+    when(scoringStrategies.forName("RETIRED")).thenThrow(new IllegalArgumentException("Unknown scoring strategy"));
+
+    assertThrows(IllegalStateException.class, () -> service.launch(QUIZ_ID));
+
+    assertEquals(QuizStatus.DRAFT.name(), quiz.getStatus());
+    verify(gameEngine, never()).start(any());
+    verify(leaderboardService, never()).rebuild(anyLong());
+  }
+}
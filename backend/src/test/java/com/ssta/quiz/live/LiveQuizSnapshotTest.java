@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.live;
+
+import com.ssta.quiz.question.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveQuizSnapshotTest {
+
+  private static Question question(long id, int orderIndex, int timeLimit, String options) {
+    Question question = new Question();
+    question.setId(id);
+    question.setQuizId(7L);
+    question.setQuestionText("Question " + id);
+    question.setOrderIndex(orderIndex);
+    question.setTimeLimit(timeLimit);
+    question.setOptions(options);
+    return question;
+  }
+
+  private LiveQuizSnapshot snapshot() {
+    return LiveQuizSnapshot.of(7L, List.of(
+        question(30L, 1, 20, "[{\"text\":\"A\"},{\"text\":\"B\"},{\"text\":\"C\",\"correct\":true}]"),
+        question(10L, 2, 15, "[{\"text\":\"Yes\",\"correct\":true},{\"text\":\"No\"}]"),
+        question(20L, 3, 30, null)));
+  }
+
+  @Test
+  void positionOf_shouldMapQuestionIdsToPlayOrder() {
+    LiveQuizSnapshot snapshot = snapshot();
+
+    assertEquals(3, snapshot.questionCount());
+    assertEquals(0, snapshot.positionOf(30L));
+    assertEquals(1, snapshot.positionOf(10L));
+    assertEquals(2, snapshot.positionOf(20L));
+    assertEquals(-1, snapshot.positionOf(99L));
+    assertEquals(10L, snapshot.questionId(1));
+  }
+
+  @Test
+  void accessors_shouldExposeDecodedQuestionData() {
+    LiveQuizSnapshot snapshot = snapshot();
+
+    assertEquals(20_000, snapshot.timeLimitMs(0));
+    assertEquals(15_000, snapshot.timeLimitMs(1));
+    assertEquals("Question 30", snapshot.questionText(0));
+    assertEquals(List.of("A", "B", "C"), snapshot.options(0).texts());
+    assertEquals(3, snapshot.options(0).size());
+    assertEquals(2, snapshot.correctOption(0));
+  }
+
+  @Test
+  void isCorrect_shouldCompareAgainstCorrectOption() {
+    LiveQuizSnapshot snapshot = snapshot();
+
+    assertTrue(snapshot.isCorrect(0, 2));
+    assertFalse(snapshot.isCorrect(0, 1));
+    assertTrue(snapshot.isCorrect(1, 0));
+    assertFalse(snapshot.isCorrect(2, -1), "A question without a correct option never matches");
+  }
+
+  @Test
+  void registry_shouldIndexByQuestionAndEvict() {
+    LiveQuizRegistry registry = new LiveQuizRegistry();
+    LiveQuizSnapshot snapshot = snapshot();
+
+    registry.register(snapshot);
+    assertSame(snapshot, registry.find(7L).orElseThrow());
+    assertSame(snapshot, registry.findByQuestionId(20L).orElseThrow());
+
+    registry.evict(7L);
+    assertTrue(registry.find(7L).isEmpty());
+    assertTrue(registry.findByQuestionId(20L).isEmpty());
+  }
+}
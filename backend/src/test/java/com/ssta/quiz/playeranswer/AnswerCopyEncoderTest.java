@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerCopyEncoderTest {
+
+  private static final int HEADER_BYTES = 19;
+
+  @Test
+  void encode_shouldWriteBinaryCopyHeaderRowsAndTrailer() {
+    AnswerCopyEncoder encoder = new AnswerCopyEncoder(1);
+
+    encoder.encode(List.of(
+        new PendingAnswer(9L, 7_000_000_001L, 42L, 2, true, 3_412, 870),
+        new PendingAnswer(9L, 7L, 43L, 0, false, null, null)));
+
+    ByteBuffer buffer = ByteBuffer.wrap(encoder.bytes(), 0, encoder.length());
+    byte[] signature = new byte[11];
+    buffer.get(signature);
+    assertEquals("PGCOPY\nÿ\r\n\0", new String(signature, StandardCharsets.ISO_8859_1));
+    assertEquals(0, buffer.getInt());
+    assertEquals(0, buffer.getInt());
+
+    assertEquals(7, buffer.getShort());
+    assertEquals(8, buffer.getInt());
+    assertEquals(9L, buffer.getLong());
+    assertEquals(8, buffer.getInt());
+    assertEquals(7_000_000_001L, buffer.getLong());
+    assertEquals(8, buffer.getInt());
+    assertEquals(42L, buffer.getLong());
+    assertEquals(4, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals(1, buffer.get());
+    assertEquals(4, buffer.getInt());
+    assertEquals(3_412, buffer.getInt());
+    assertEquals(4, buffer.getInt());
+    assertEquals(870, buffer.getInt());
+
+    assertEquals(7, buffer.getShort());
+    assertEquals(8, buffer.getInt());
+    assertEquals(9L, buffer.getLong());
+    assertEquals(8, buffer.getInt());
+    assertEquals(7L, buffer.getLong());
+    assertEquals(8, buffer.getInt());
+    assertEquals(43L, buffer.getLong());
+    assertEquals(4, buffer.getInt());
+    assertEquals(0, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals(0, buffer.get());
+    assertEquals(-1, buffer.getInt(), "null response time");
+    assertEquals(-1, buffer.getInt(), "null score");
+
+    assertEquals(-1, buffer.getShort());
+    assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  void encode_shouldReuseBufferAndGrowOnlyWhenNeeded() {
+    AnswerCopyEncoder encoder = new AnswerCopyEncoder(2);
+    PendingAnswer answer = new PendingAnswer(1L, 2L, 3L, 4, false, 100, 0);
+    byte[] initial = encoder.bytes();
+
+    encoder.encode(List.of(answer, answer));
+    assertSame(initial, encoder.bytes());
+    assertEquals(HEADER_BYTES + 2 * AnswerCopyEncoder.ROW_BYTES + 2, encoder.length());
+
+    encoder.encode(List.of(answer, answer, answer));
+    byte[] grown = encoder.bytes();
+    assertNotSame(initial, grown);
+    assertEquals(HEADER_BYTES + 3 * AnswerCopyEncoder.ROW_BYTES + 2, encoder.length());
+
+    encoder.encode(List.of(answer));
+    assertSame(grown, encoder.bytes());
+    assertEquals(HEADER_BYTES + AnswerCopyEncoder.ROW_BYTES + 2, encoder.length());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.player.Player;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.quiz.Quiz;
+import com.ssta.quiz.testconfig.AbstractRepositoryTest;
+import com.ssta.quiz.user.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies that the scores of a question are written back with one set-based UPDATE.
+ */
+@Import(AnswerScoreWriter.class)
+public class AnswerScoreWriterTest extends AbstractRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private PlayerAnswerRepository playerAnswerRepository;
+
+  @Autowired
+  private AnswerScoreWriter answerScoreWriter;
+
+  @Test
+  @DisplayName("Should set the score of every listed answer to the question and leave the rest alone")
+  public void testWriteScores() {
+    // Given
+    List<Question> questions = createQuestions(2);
+    List<Player> players = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      players.add(entityManager.persist(Player.builder().nickname("scored" + i).build()));
+    }
+    for (Question question : questions) {
+      for (Player player : players) {
+        entityManager.persist(PlayerAnswer.builder()
+            .quizId(question.getQuizId())
+            .player(player)
+            .question(question)
+            .answerOption(0)
+            .responseTimeMs(1000)
+            .build());
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+    Long quizId = questions.get(0).getQuizId();
+    Long scoredQuestion = questions.get(0).getId();
+
+    // When: the arrays are longer than count, as handed over by the game engine
+    long[] playerIds = {players.get(0).getId(), players.get(2).getId(), players.get(1).getId()};
+    long[] updated = answerScoreWriter.writeScores(quizId, scoredQuestion, playerIds, new int[]{80, 0, 55}, 2);
+
+    // Then
+    assertThat(updated).containsExactlyInAnyOrder(players.get(0).getId(), players.get(2).getId());
+    assertThat(playerAnswerRepository.findByQuizIdAndQuestionId(quizId, scoredQuestion))
+        .extracting(answer -> answer.getPlayer().getId(), PlayerAnswer::getScore)
+        .containsExactlyInAnyOrder(
+            tuple(players.get(0).getId(), 80),
+            tuple(players.get(1).getId(), null),
+            tuple(players.get(2).getId(), 0));
+    assertThat(playerAnswerRepository.findByQuizIdAndQuestionId(quizId, questions.get(1).getId()))
+        .allMatch(answer -> answer.getScore() == null);
+  }
+
+  private List<Question> createQuestions(int count) {
+    User user = new User();
+    user.setUsername("scoreuser");
+    user.setCreatedAt(ZonedDateTime.now());
+    user.setUpdatedAt(ZonedDateTime.now());
+    entityManager.persist(user);
+
+    Quiz quiz = new Quiz();
+    quiz.setTitle("Scoring Quiz");
+    quiz.setUserId(user.getId());
+    quiz.setStatus("ACTIVE");
+    entityManager.persist(quiz);
+
+    List<Question> questions = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Question question = new Question();
+      question.setQuizId(quiz.getId());
+      question.setQuestionText("Question " + i);
+      question.setTimeLimit(20);
+      question.setOrderIndex(i);
+      entityManager.persist(question);
+      questions.add(question);
+    }
+    return questions;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.analytics.AnswerAnalytics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AnswerWriteBehindQueueTest {
+
+  private final List<List<PendingAnswer>> batches = Collections.synchronizedList(new ArrayList<>());
+  private final AnswerBatchWriter recordingWriter = answers -> {
+    batches.add(List.copyOf(answers));
+    return List.copyOf(answers);
+  };
+
+  private final AnswerAnalytics answerAnalytics = mock(AnswerAnalytics.class);
+
+  private AnswerWriteBehindQueue queue;
+
+  @AfterEach
+  void tearDown() {
+    if (queue != null) {
+      queue.stop();
+    }
+  }
+
+  private AnswerIngestionProperties properties(int capacity, int flushSize, Duration interval) {
+    AnswerIngestionProperties properties = new AnswerIngestionProperties();
+    properties.setMode(AnswerIngestionProperties.Mode.WRITE_BEHIND);
+    properties.setQueueCapacity(capacity);
+    properties.setFlushSize(flushSize);
+    properties.setFlushInterval(interval);
+    properties.setWriterThreads(1);
+    properties.setDrainTimeout(Duration.ofSeconds(5));
+    return properties;
+  }
+
+  private static PendingAnswer answer(long playerId) {
+    return new PendingAnswer(1L, playerId, 1L, 0, true, 1000, 50);
+  }
+
+  @Test
+  void offer_whenQueueIsFull_shouldRejectAnswer() {
+    queue = new AnswerWriteBehindQueue(properties(2, 10, Duration.ofSeconds(1)), recordingWriter, answerAnalytics);
+
+    assertTrue(queue.offer(answer(1)));
+    assertTrue(queue.offer(answer(2)));
+    assertFalse(queue.offer(answer(3)), "Third answer should be rejected by a queue of capacity 2");
+    assertEquals(2, queue.size());
+  }
+
+  @Test
+  void drain_shouldWriteEverythingInBatchesOfFlushSize() {
+    queue = new AnswerWriteBehindQueue(properties(100, 4, Duration.ofSeconds(10)), recordingWriter, answerAnalytics);
+    for (long i = 0; i < 10; i++) {
+      assertTrue(queue.offer(answer(i)));
+    }
+
+    assertTrue(queue.drain());
+
+    assertEquals(0, queue.size());
+    assertEquals(List.of(4, 4, 2), batches.stream().map(List::size).toList());
+  }
+
+  @Test
+  void writerThread_shouldFlushPartialBatchAfterInterval() throws InterruptedException {
+    queue = new AnswerWriteBehindQueue(properties(100, 1000, Duration.ofMillis(50)), recordingWriter, answerAnalytics);
+    queue.start();
+
+    queue.offer(answer(1));
+    queue.offer(answer(2));
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (batches.isEmpty() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, batches.size(), "Partial batch should be written once the flush interval passes");
+    assertEquals(2, batches.get(0).size());
+  }
+
+  @Test
+  void stop_shouldDrainQueuedAnswers() {
+    queue = new AnswerWriteBehindQueue(properties(100, 1000, Duration.ofSeconds(10)), recordingWriter, answerAnalytics);
+    queue.start();
+    for (long i = 0; i < 5; i++) {
+      queue.offer(answer(i));
+    }
+
+    queue.stop();
+
+    assertEquals(5, batches.stream().mapToInt(List::size).sum());
+    assertFalse(queue.isRunning());
+  }
+
+  @Test
+  void drain_whenWriterFails_shouldStillSettleAnswers() {
+    AnswerBatchWriter failingWriter = answers -> {
+      throw new IllegalStateException("database unavailable");
+    };
+    queue = new AnswerWriteBehindQueue(properties(100, 10, Duration.ofSeconds(10)), failingWriter, answerAnalytics);
+    queue.offer(answer(1));
+
+    assertTrue(queue.drain(), "A failed batch should not leave drain waiting forever");
+  }
+
+  @Test
+  void drain_whenBatchHadDuplicates_shouldRecordOnlyStoredAnswers() {
+    AnswerBatchWriter deduplicatingWriter = answers -> answers.subList(0, 1);
+    queue = new AnswerWriteBehindQueue(properties(100, 10, Duration.ofSeconds(10)), deduplicatingWriter,
+        answerAnalytics);
+    queue.offer(answer(1));
+    queue.offer(answer(1));
+
+    assertTrue(queue.drain());
+    verify(answerAnalytics).recordAll(List.of(answer(1)));
+  }
+}
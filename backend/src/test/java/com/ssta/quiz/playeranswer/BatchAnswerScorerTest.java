@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.analytics.AnswerAnalytics;
+import com.ssta.quiz.leaderboard.LeaderboardService;
+import com.ssta.quiz.live.LiveQuizRegistry;
+import com.ssta.quiz.live.LiveQuizSnapshot;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.question.QuestionRepository;
+import com.ssta.quiz.scoring.BuiltInScoring;
+import com.ssta.quiz.scoring.ScoringStrategies;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchAnswerScorerTest {
+
+  private static final long QUIZ_ID = 7L;
+  private static final long QUESTION_ID = 10L;
+
+  private final AnswerScoreWriter scoreWriter = mock(AnswerScoreWriter.class);
+  private final AnswerWriteBehindQueue answerQueue = mock(AnswerWriteBehindQueue.class);
+  private final AnswerIngestionProperties properties = new AnswerIngestionProperties();
+  private final LiveQuizRegistry liveQuizRegistry = new LiveQuizRegistry();
+  private final QuestionRepository questionRepository = mock(QuestionRepository.class);
+  private final LeaderboardService leaderboardService = mock(LeaderboardService.class);
+  private final ScoringStrategies scoringStrategies = mock(ScoringStrategies.class);
+  private final AnswerAnalytics answerAnalytics = mock(AnswerAnalytics.class);
+  private final BatchAnswerScorer scorer = new BatchAnswerScorer(scoreWriter, answerQueue, properties,
+      liveQuizRegistry, questionRepository, leaderboardService, scoringStrategies, answerAnalytics);
+
+  private static Question question() {
+    Question question = new Question();
+    question.setId(QUESTION_ID);
+    question.setQuizId(QUIZ_ID);
+    question.setOrderIndex(1);
+    question.setTimeLimit(20);
+    question.setOptions("[{\"text\":\"A\"},{\"text\":\"B\",\"correct\":true}]");
+    return question;
+  }
+
+  @Test
+  void scoreQuestion_shouldWriteAllScoresInOneCallThenUpdateLeaderboard() {
+    liveQuizRegistry.register(LiveQuizSnapshot.of(QUIZ_ID, List.of(question())));
+    when(scoreWriter.writeScores(eq(QUIZ_ID), eq(QUESTION_ID), any(), any(), eq(3))).thenReturn(new long[]{3L, 1L, 2L});
+    // Arrays are larger than the batch, as handed over by the game engine
+    long[] playerIds = {1L, 2L, 3L, 0L};
+    int[] options = {1, 0, 1, 0};
+    int[] responseTimes = {2_000, 3_000, 18_000, 0};
+
+    assertEquals(3, scorer.scoreQuestion(QUIZ_ID, QUESTION_ID, playerIds, options, responseTimes, 3));
+
+    ArgumentCaptor<int[]> scores = ArgumentCaptor.forClass(int[].class);
+    verify(scoreWriter, times(1)).writeScores(eq(QUIZ_ID), eq(QUESTION_ID), eq(playerIds), scores.capture(), eq(3));
+    assertEquals(91, scores.getValue()[0]);
+    assertEquals(0, scores.getValue()[1]);
+    assertEquals(19, scores.getValue()[2]);
+    verify(leaderboardService).recordAnswer(QUIZ_ID, 1L, 91, 2_000);
+    verify(leaderboardService).recordAnswer(QUIZ_ID, 2L, 0, 3_000);
+    verify(leaderboardService).recordAnswer(QUIZ_ID, 3L, 19, 18_000);
+    verify(leaderboardService, times(3)).recordAnswer(anyLong(), anyLong(), anyInt(), anyInt());
+    verify(answerAnalytics).recordScored(QUIZ_ID, QUESTION_ID, 1, options, responseTimes, scores.getValue(), 3);
+    verifyNoInteractions(answerQueue, questionRepository, scoringStrategies);
+  }
+
+  @Test
+  void scoreQuestion_whenSomeAnswersWereNotStored_shouldOnlyRecordTheStoredOnes() {
+    liveQuizRegistry.register(LiveQuizSnapshot.of(QUIZ_ID, List.of(question())));
+    // Player 2's answer was dropped by the write, so it has no row to score
+    when(scoreWriter.writeScores(eq(QUIZ_ID), eq(QUESTION_ID), any(), any(), eq(3))).thenReturn(new long[]{3L, 1L});
+
+    assertEquals(2, scorer.scoreQuestion(QUIZ_ID, QUESTION_ID, new long[]{1L, 2L, 3L}, new int[]{1, 0, 1},
+        new int[]{2_000, 3_000, 18_000}, 3));
+
+    verify(leaderboardService).recordAnswer(QUIZ_ID, 1L, 91, 2_000);
+    verify(leaderboardService).recordAnswer(QUIZ_ID, 3L, 19, 18_000);
+    verify(leaderboardService, times(2)).recordAnswer(anyLong(), anyLong(), anyInt(), anyInt());
+    verify(answerAnalytics).recordScored(QUIZ_ID, QUESTION_ID, 1, new int[]{1, 1}, new int[]{2_000, 18_000},
+        new int[]{91, 19}, 2);
+  }
+
+  @Test
+  void scoreQuestion_withLiveStrategy_shouldUseIt() {
+    liveQuizRegistry.register(LiveQuizSnapshot.of(QUIZ_ID, List.of(question()), BuiltInScoring.PENALTY));
+    when(scoreWriter.writeScores(eq(QUIZ_ID), eq(QUESTION_ID), any(), any(), eq(2))).thenReturn(new long[]{1L, 2L});
+
+    scorer.scoreQuestion(QUIZ_ID, QUESTION_ID, new long[]{1L, 2L}, new int[]{1, 0}, new int[]{2_000, 4_000}, 2);
+
+    verify(scoreWriter).writeScores(eq(QUIZ_ID), eq(QUESTION_ID), any(), eq(new int[]{9_000, -8_000}), eq(2));
+    verify(leaderboardService).recordAnswer(QUIZ_ID, 2L, -8_000, 4_000);
+  }
+
+  @Test
+  void scoreQuestion_whenAnswersAreQueued_shouldDrainBeforeUpdating() {
+    properties.setMode(AnswerIngestionProperties.Mode.WRITE_BEHIND);
+    // The quiz has finished, so the question and strategy are loaded
+    when(questionRepository.findById(QUESTION_ID)).thenReturn(Optional.of(question()));
+    when(scoringStrategies.forQuiz(QUIZ_ID)).thenReturn(BuiltInScoring.LINEAR);
+    when(answerQueue.drain()).thenReturn(true);
+    when(scoreWriter.writeScores(eq(QUIZ_ID), eq(QUESTION_ID), any(), any(), eq(1))).thenReturn(new long[]{1L});
+
+    scorer.scoreQuestion(QUIZ_ID, QUESTION_ID, new long[]{1L}, new int[]{1}, new int[]{0}, 1);
+
+    InOrder order = inOrder(answerQueue, scoreWriter);
+    order.verify(answerQueue).drain();
+    order.verify(scoreWriter).writeScores(eq(QUIZ_ID), eq(QUESTION_ID), any(), eq(new int[]{100}), eq(1));
+  }
+}
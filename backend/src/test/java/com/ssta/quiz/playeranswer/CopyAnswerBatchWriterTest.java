@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.player.Player;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.quiz.Quiz;
+import com.ssta.quiz.testconfig.AbstractRepositoryTest;
+import com.ssta.quiz.user.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies that answers are copied into player_answers through the staging table, with duplicates
+ * skipped by the merge.
+ */
+@Import({CopyAnswerBatchWriter.class, AnswerIngestionProperties.class})
+@TestPropertySource(properties = "quiz.answers.ingestion.writer=COPY")
+public class CopyAnswerBatchWriterTest extends AbstractRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private PlayerAnswerRepository playerAnswerRepository;
+
+  @Autowired
+  private CopyAnswerBatchWriter copyAnswerBatchWriter;
+
+  @Test
+  @DisplayName("Should copy a batch of answers, skipping ones that duplicate a stored answer or each other")
+  public void testWriteSkipsDuplicates() {
+    // Given: the first player has already answered
+    Question question = createQuestion();
+    List<Player> players = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      players.add(entityManager.persist(Player.builder().nickname("copied" + i).build()));
+    }
+    entityManager.persist(PlayerAnswer.builder()
+        .quizId(question.getQuizId())
+        .player(players.get(0))
+        .question(question)
+        .answerOption(1)
+        .responseTimeMs(900)
+        .build());
+    entityManager.flush();
+    entityManager.clear();
+    long quizId = question.getQuizId();
+    long questionId = question.getId();
+
+    // When
+    List<PendingAnswer> written = copyAnswerBatchWriter.write(List.of(
+        new PendingAnswer(quizId, players.get(0).getId(), questionId, 3, false, 1_000, null),
+        new PendingAnswer(quizId, players.get(1).getId(), questionId, 2, true, 2_500, 900),
+        new PendingAnswer(quizId, players.get(2).getId(), questionId, 0, false, null, null),
+        new PendingAnswer(quizId, players.get(1).getId(), questionId, 0, false, 4_000, null)));
+
+    // Then: the stored answer is kept, the second answer from player 1 is dropped, and only the new rows are returned
+    assertThat(written).containsExactlyInAnyOrder(
+        new PendingAnswer(quizId, players.get(1).getId(), questionId, 2, true, 2_500, 900),
+        new PendingAnswer(quizId, players.get(2).getId(), questionId, 0, false, null, null));
+    assertThat(playerAnswerRepository.findByQuizIdAndQuestionId(quizId, questionId))
+        .extracting(answer -> answer.getPlayer().getId(), PlayerAnswer::getAnswerOption, PlayerAnswer::isCorrect,
+            PlayerAnswer::getResponseTimeMs, PlayerAnswer::getScore)
+        .containsExactlyInAnyOrder(
+            tuple(players.get(0).getId(), 1, false, 900, null),
+            tuple(players.get(1).getId(), 2, true, 2_500, 900),
+            tuple(players.get(2).getId(), 0, false, null, null));
+    // Both new rows took their ids from the one block of 500 reserved for the batch, not a block each
+    List<Long> newIds = playerAnswerRepository.findByQuizIdAndQuestionId(quizId, questionId).stream()
+        .filter(answer -> !answer.getPlayer().getId().equals(players.get(0).getId()))
+        .map(PlayerAnswer::getId)
+        .toList();
+    assertThat(newIds).hasSize(2);
+    assertThat(Math.abs(newIds.get(0) - newIds.get(1))).isLessThan(4);
+  }
+
+  private Question createQuestion() {
+    User user = new User();
+    user.setUsername("copyuser");
+    user.setCreatedAt(ZonedDateTime.now());
+    user.setUpdatedAt(ZonedDateTime.now());
+    entityManager.persist(user);
+
+    Quiz quiz = new Quiz();
+    quiz.setTitle("Copy Quiz");
+    quiz.setUserId(user.getId());
+    quiz.setStatus("ACTIVE");
+    entityManager.persist(quiz);
+
+    Question question = new Question();
+    question.setQuizId(quiz.getId());
+    question.setQuestionText("Question");
+    question.setTimeLimit(20);
+    question.setOrderIndex(0);
+    return entityManager.persist(question);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.config.HibernateConfig;
+import com.ssta.quiz.player.Player;
+import com.ssta.quiz.question.Question;
+import com.ssta.quiz.quiz.Quiz;
+import com.ssta.quiz.testconfig.AbstractRepositoryTest;
+import com.ssta.quiz.testconfig.StatementCountingConfig;
+import com.ssta.quiz.testconfig.StatementCountingConfig.StatementCounter;
+import com.ssta.quiz.user.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that sequence-based ids let Hibernate send player answers to the database in JDBC batches.
+ */
+@Import({HibernateConfig.class, StatementCountingConfig.class})
+public class PlayerAnswerBatchInsertTest extends AbstractRepositoryTest {
+
+  private static final int PLAYERS = 100;
+  private static final int QUESTIONS = 10;
+  /* Matches hibernate.jdbc.batch_size in HibernateConfig, which @DataJpaTest only applies when imported */
+  private static final int JDBC_BATCH_SIZE = 50;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private PlayerAnswerRepository playerAnswerRepository;
+
+  @Autowired
+  private StatementCounter statementCounter;
+
+  @Test
+  @DisplayName("Should insert 1,000 answers in JDBC batches rather than one statement per row")
+  public void testBulkAnswerInsertIsBatched() {
+    // Given
+    List<Question> questions = createQuestions();
+    List<Player> players = createPlayers();
+    entityManager.flush();
+    entityManager.clear();
+    statementCounter.reset();
+
+    List<PlayerAnswer> answers = new ArrayList<>();
+    for (Player player : players) {
+      for (Question question : questions) {
+        answers.add(PlayerAnswer.builder()
+            .quizId(question.getQuizId())
+            .player(entityManager.getEntityManager().getReference(Player.class, player.getId()))
+            .question(entityManager.getEntityManager().getReference(Question.class, question.getId()))
+            .answerOption(1)
+            .correct(true)
+            .responseTimeMs(2500)
+            .score(75)
+            .build());
+      }
+    }
+
+    // When
+    playerAnswerRepository.saveAll(answers);
+    entityManager.flush();
+
+    // Then
+    assertThat(answers).hasSize(1000);
+    assertThat(statementCounter.count("insert into player_answers")).isEqualTo(1000 / JDBC_BATCH_SIZE);
+    // allocationSize 500 means two sequence calls cover all 1,000 ids
+    assertThat(statementCounter.count("select nextval")).isLessThanOrEqualTo(3);
+    assertThat(playerAnswerRepository.count()).isEqualTo(1000);
+  }
+
+  private List<Question> createQuestions() {
+    User user = new User();
+    user.setUsername("batchuser");
+    user.setCreatedAt(ZonedDateTime.now());
+    user.setUpdatedAt(ZonedDateTime.now());
+    entityManager.persist(user);
+
+    Quiz quiz = new Quiz();
+    quiz.setTitle("Batch Quiz");
+    quiz.setUserId(user.getId());
+    quiz.setStatus("ACTIVE");
+    entityManager.persist(quiz);
+
+    List<Question> questions = new ArrayList<>();
+    for (int i = 0; i < QUESTIONS; i++) {
+      Question question = new Question();
+      question.setQuizId(quiz.getId());
+      question.setQuestionText("Question " + i);
+      question.setTimeLimit(20);
+      question.setOrderIndex(i);
+      entityManager.persist(question);
+      questions.add(question);
+    }
+    return questions;
+  }
+
+  private List<Player> createPlayers() {
+    List<Player> players = new ArrayList<>();
+    for (int i = 0; i < PLAYERS; i++) {
+      players.add(entityManager.persist(Player.builder().nickname("player" + i).build()));
+    }
+    return players;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.playeranswer;
+
+import com.ssta.quiz.testconfig.AbstractRepositoryTest;
+import com.ssta.quiz.testconfig.StatementCountingConfig;
+import com.ssta.quiz.testconfig.StatementCountingConfig.StatementCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that answers go to their quiz's partition, that queries of a quiz's answers only read that
+ * partition, and that an archived quiz's partition is detached.
+ * <p>
+ * Only the Flyway migrations partition player_answers, so this runs against a migrated schema of its
+ * own, validated against the entities, instead of the one Hibernate creates for the other repository
+ * tests.  Partitions are created and detached outside any test transaction, as they are by the
+ * application, so each test seeds a quiz of its own.
+ */
+@Import({PlayerAnswerPartitions.class, AnswerScoreWriter.class, StatementCountingConfig.class})
+@TestPropertySource(properties = {
+    "spring.flyway.schemas=partitioned",
+    "spring.datasource.hikari.schema=partitioned",
+    "spring.jpa.hibernate.ddl-auto=validate"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PlayerAnswerPartitionsTest extends AbstractRepositoryTest {
+
+  private static final AtomicInteger QUIZZES = new AtomicInteger();
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlayerAnswerPartitions playerAnswerPartitions;
+
+  @Autowired
+  private PlayerAnswerRepository playerAnswerRepository;
+
+  @Autowired
+  private AnswerScoreWriter answerScoreWriter;
+
+  @Autowired
+  private StatementCounter statementCounter;
+
+  private record SeededQuiz(long quizId, long questionId, List<Long> playerIds) {
+  }
+
+  @Test
+  @DisplayName("Should create a quiz's partition once and store the quiz's answers in it")
+  public void testCreate() {
+    // Given
+    SeededQuiz quiz = seedQuiz(2);
+
+    // When
+    boolean created = playerAnswerPartitions.create(quiz.quizId());
+    boolean createdAgain = playerAnswerPartitions.create(quiz.quizId());
+    answer(quiz);
+
+    // Then
+    assertThat(created).isTrue();
+    assertThat(createdAgain).isFalse();
+    assertThat(jdbcTemplate.queryForList(
+        "SELECT DISTINCT tableoid::regclass::text FROM player_answers WHERE quiz_id = ?", String.class, quiz.quizId()))
+        .containsExactly(PlayerAnswerPartitions.partitionName(quiz.quizId()));
+  }
+
+  @Test
+  @DisplayName("Should plan every query of a quiz's answers against that quiz's partition alone")
+  public void testQueriesArePruned() {
+    // Given: two launched quizzes with answers
+    SeededQuiz quiz = seedQuiz(3);
+    SeededQuiz other = seedQuiz(3);
+    for (SeededQuiz seeded : List.of(quiz, other)) {
+      playerAnswerPartitions.create(seeded.quizId());
+      answer(seeded);
+    }
+    long quizId = quiz.quizId();
+    long questionId = quiz.questionId();
+    long playerId = quiz.playerIds().get(0);
+
+    // When
+    List<String> plans = List.of(
+        plan("select", () -> playerAnswerRepository.sumScoresByQuizId(quizId), quizId),
+        plan("select", () -> playerAnswerRepository.countAnswersByQuizId(quizId), quizId),
+        plan("select", () -> playerAnswerRepository.findByQuizIdAndQuestionId(quizId, questionId), quizId, questionId),
+        plan("select", () -> playerAnswerRepository.findByQuizIdAndPlayerId(quizId, playerId), quizId, playerId),
+        plan("update", () -> answerScoreWriter.writeScores(quizId, questionId, new long[]{playerId}, new int[]{10}, 1),
+            new long[]{playerId}, new int[]{10}, quizId, questionId));
+
+    // Then
+    assertThat(plans).allSatisfy(plan -> assertThat(plan)
+        .containsPattern(PlayerAnswerPartitions.partitionName(quizId) + "\\b")
+        .doesNotContainPattern(PlayerAnswerPartitions.partitionName(other.quizId()) + "\\b"));
+  }
+
+  @Test
+  @DisplayName("Should detach an archived quiz's partition, keeping its answers but not its question index")
+  public void testDetach() {
+    // Given
+    SeededQuiz quiz = seedQuiz(2);
+    playerAnswerPartitions.create(quiz.quizId());
+    answer(quiz);
+    String partition = PlayerAnswerPartitions.partitionName(quiz.quizId());
+
+    // When
+    boolean detached = playerAnswerPartitions.detach(quiz.quizId());
+    boolean detachedAgain = playerAnswerPartitions.detach(quiz.quizId());
+
+    // Then: the answers have left player_answers for a table of their own
+    assertThat(detached).isTrue();
+    assertThat(detachedAgain).isFalse();
+    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM player_answers WHERE quiz_id = ?", Integer.class,
+        quiz.quizId())).isZero();
+    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition, Integer.class)).isEqualTo(2);
+    assertThat(jdbcTemplate.queryForObject("SELECT relispartition FROM pg_class WHERE oid = to_regclass(?)",
+        Boolean.class, partition)).isFalse();
+    assertThat(jdbcTemplate.queryForList("SELECT indexrelid::regclass::text FROM pg_index "
+        + "WHERE indrelid = to_regclass(?) AND NOT indisunique", String.class, partition)).isEmpty();
+  }
+
+  /**
+   * Run a query and return the plan of the statement it executed, with the same parameters bound.
+   */
+  private String plan(String sqlPrefix, Runnable query, Object... parameters) {
+    statementCounter.reset();
+    query.run();
+    List<String> statements = statementCounter.statements(sqlPrefix);
+    assertThat(statements).hasSize(1);
+    return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + statements.get(0), String.class, parameters));
+  }
+
+  private SeededQuiz seedQuiz(int players) {
+    int n = QUIZZES.incrementAndGet();
+    Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username) VALUES (?) RETURNING id", Long.class,
+        "partitions" + n);
+    Long quizId = jdbcTemplate.queryForObject(
+        "INSERT INTO quizzes (title, user_id, status) VALUES (?, ?, 'ACTIVE') RETURNING id", Long.class,
+        "Partitioned " + n, userId);
+    Long questionId = jdbcTemplate.queryForObject("""
+        INSERT INTO questions (quiz_id, question_text, time_limit, order_index) VALUES (?, 'Question', 20, 0)
+        RETURNING id""", Long.class, quizId);
+    jdbcTemplate.update("""
+        INSERT INTO players (nickname, quiz_id, session_id)
+        SELECT 'player' || g, ?, 'session' || g FROM generate_series(1, ?) g""", quizId, players);
+    List<Long> playerIds = jdbcTemplate.queryForList("SELECT id FROM players WHERE quiz_id = ? ORDER BY id",
+        Long.class, quizId);
+    return new SeededQuiz(quizId, questionId, playerIds);
+  }
+
+  private void answer(SeededQuiz quiz) {
+    for (Long playerId : quiz.playerIds()) {
+      jdbcTemplate.update("""
+          INSERT INTO player_answers (quiz_id, player_id, question_id, answer_option, correct, response_time_ms)
+          VALUES (?, ?, ?, 1, true, 2000)""", quiz.quizId(), playerId, quiz.questionId());
+    }
+  }
+}
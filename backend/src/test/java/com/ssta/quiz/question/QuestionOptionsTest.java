@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionOptionsTest {
+
+  @Test
+  void parse_shouldDecodeTextsCorrectOptionAndImages() {
+    QuestionOptions options = QuestionOptions.parse(
+        "[{\"text\":\"Option A\",\"correct\":false},"
+            + "{\"text\":\"Option B\",\"correct\":true,\"imageUrl\":\"http://example.com/b.png\"},"
+            + "{\"text\":\"Option C\"}]");
+
+    assertEquals(3, options.size());
+    assertEquals(List.of("Option A", "Option B", "Option C"), options.texts());
+    assertEquals(1, options.correctOption());
+    assertTrue(options.isCorrect(1));
+    assertFalse(options.isCorrect(0));
+    assertNull(options.imageUrl(0));
+    assertEquals("http://example.com/b.png", options.imageUrl(1));
+  }
+
+  @Test
+  void parse_withNullOrBlank_shouldReturnEmpty() {
+    assertSame(QuestionOptions.EMPTY, QuestionOptions.parse(null));
+    assertSame(QuestionOptions.EMPTY, QuestionOptions.parse("  "));
+    assertFalse(QuestionOptions.EMPTY.isCorrect(-1));
+  }
+
+  @Test
+  void parse_withInvalidJson_shouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> QuestionOptions.parse("{not json"));
+    assertThrows(IllegalArgumentException.class, () -> QuestionOptions.parse("{\"text\":\"A\"}"));
+  }
+
+  @Test
+  void parse_withBareStrings_shouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> QuestionOptions.parse("[\"Paris\",\"London\"]"));
+    assertThrows(IllegalArgumentException.class, () -> QuestionOptions.parse("[{\"text\":\"A\"},null]"));
+  }
+
+  @Test
+  void question_shouldCacheDecodedOptionsUntilOptionsChange() {
+    Question question = new Question();
+    question.setOptions("[{\"text\":\"A\",\"correct\":true}]");
+
+    QuestionOptions first = question.getDecodedOptions();
+    assertSame(first, question.getDecodedOptions(), "Options should only be decoded once");
+
+    question.setOptions("[{\"text\":\"A\"},{\"text\":\"B\",\"correct\":true}]");
+    assertEquals(1, question.getDecodedOptions().correctOption());
+  }
+}
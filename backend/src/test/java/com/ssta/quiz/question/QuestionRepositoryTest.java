@@ -213,23 +213,6 @@ public class QuestionRepositoryTest extends AbstractRepositoryTest {
     assertThat(questionRepository.findByQuizId(testQuiz2.getId())).hasSize(2);
   }
 
-  @Test
-  @DisplayName("Should search questions by text content")
-  public void testSearchByQuestionText() {
-    // When
-    Page<Question> foundQuestions = questionRepository.searchByQuestionText("spring", PageRequest.of(0, 10));
-
-    // Then
-    assertThat(foundQuestions.getTotalElements()).isEqualTo(3); // 3 questions contain "spring"
-    assertThat(foundQuestions.getContent())
-        .extracting(Question::getId)
-        .containsExactlyInAnyOrder(question1.getId(), question2.getId(), question4.getId());
-
-    // Search should be case-insensitive
-    Page<Question> foundQuestionsLowerCase = questionRepository.searchByQuestionText("SPRING", PageRequest.of(0, 10));
-    assertThat(foundQuestionsLowerCase.getTotalElements()).isEqualTo(3);
-  }
-
   @Test
   @DisplayName("Should update order index of a question")
   @Transactional
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.question;
+
+import com.ssta.quiz.testconfig.AbstractRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that question search finds words, substrings and misspellings in the questions of one
+ * user's quizzes only, best match first.
+ * <p>
+ * Runs against a migrated schema, since the search column and indexes are created by Flyway rather
+ * than mapped on {@link Question}.
+ */
+@Import(QuestionSearch.class)
+@TestPropertySource(properties = {
+    "spring.flyway.schemas=partitioned",
+    "spring.datasource.hikari.schema=partitioned",
+    "spring.jpa.hibernate.ddl-auto=validate"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class QuestionSearchTest extends AbstractRepositoryTest {
+
+  private static final AtomicInteger USERS = new AtomicInteger();
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private QuestionSearch questionSearch;
+
+  private long userId;
+  private long springBoot;
+  private long springData;
+  private long springRepository;
+  private long volcanoes;
+  private long planets;
+
+  @BeforeEach
+  public void setup() {
+    userId = seedUser();
+    long quiz1 = seedQuiz(userId);
+    long quiz2 = seedQuiz(userId);
+    springBoot = seedQuestion(quiz1, "What is Spring Boot?");
+    springData = seedQuestion(quiz1, "What is Spring Data JPA?");
+    seedQuestion(quiz2, "What is Java?");
+    springRepository = seedQuestion(quiz2, "What is a Spring repository?");
+    volcanoes = seedQuestion(quiz2, "Which volcanoes are active?");
+    planets = seedQuestion(quiz2, "Name 100% of the planets");
+    // Another user's question bank is never searched
+    seedQuestion(seedQuiz(seedUser()), "What is Spring Cloud?");
+  }
+
+  @Test
+  @DisplayName("Should find the user's questions containing a word, in any case")
+  public void testSearchByWord() {
+    // When
+    List<QuestionSearchResult> found = questionSearch.search(userId, "spring", 10);
+    List<QuestionSearchResult> foundUpperCase = questionSearch.search(userId, "SPRING", 10);
+
+    // Then
+    assertThat(found).extracting(QuestionSearchResult::questionId)
+        .containsExactlyInAnyOrder(springBoot, springData, springRepository);
+    assertThat(foundUpperCase).extracting(QuestionSearchResult::questionId)
+        .containsExactlyInAnyOrderElementsOf(found.stream().map(QuestionSearchResult::questionId).toList());
+    assertThat(found.get(0).quizTitle()).startsWith("Quiz ");
+  }
+
+  @Test
+  @DisplayName("Should find other forms of a word, substrings and misspellings")
+  public void testSearchByStemSubstringAndMisspelling() {
+    // When / Then
+    assertThat(questionSearch.search(userId, "activity", 10)).extracting(QuestionSearchResult::questionId)
+        .containsExactly(volcanoes);
+    assertThat(questionSearch.search(userId, "ositor", 10)).extracting(QuestionSearchResult::questionId)
+        .containsExactly(springRepository);
+    assertThat(questionSearch.search(userId, "repositry", 10)).extracting(QuestionSearchResult::questionId)
+        .containsExactly(springRepository);
+  }
+
+  @Test
+  @DisplayName("Should rank the closest match first and honour the limit")
+  public void testRanking() {
+    // When
+    List<QuestionSearchResult> found = questionSearch.search(userId, "spring boot", 10);
+    List<QuestionSearchResult> limited = questionSearch.search(userId, "spring", 2);
+
+    // Then
+    assertThat(found).first().extracting(QuestionSearchResult::questionId).isEqualTo(springBoot);
+    assertThat(found).extracting(QuestionSearchResult::rank).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+    assertThat(limited).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Should match LIKE wildcards literally and find nothing for a blank term")
+  public void testSpecialTerms() {
+    // When / Then
+    assertThat(questionSearch.search(userId, "%", 10)).extracting(QuestionSearchResult::questionId)
+        .containsExactly(planets);
+    assertThat(questionSearch.search(userId, "_", 10)).isEmpty();
+    assertThat(questionSearch.search(userId, "  ", 10)).isEmpty();
+  }
+
+  private long seedUser() {
+    return jdbcTemplate.queryForObject("INSERT INTO users (username) VALUES (?) RETURNING id", Long.class,
+        "search" + USERS.incrementAndGet());
+  }
+
+  private long seedQuiz(long owner) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO quizzes (title, user_id, status) VALUES (?, ?, 'DRAFT') RETURNING id", Long.class,
+        "Quiz " + owner, owner);
+  }
+
+  private long seedQuestion(long quizId, String text) {
+    return jdbcTemplate.queryForObject("""
+        INSERT INTO questions (quiz_id, question_text, time_limit, order_index) VALUES (?, ?, 20, 0)
+        RETURNING id""", Long.class, quizId, text);
+  }
+}
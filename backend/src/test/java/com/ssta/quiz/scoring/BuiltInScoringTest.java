@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static com.ssta.quiz.scoring.ScoringStrategy.NO_RESPONSE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuiltInScoringTest {
+
+  private static final int LIMIT_MS = 20_000;
+
+  @Test
+  void linear_shouldFallFromOneHundredToTen() {
+    ScoringStrategy linear = BuiltInScoring.LINEAR;
+
+    assertEquals(100, linear.score(true, 0, LIMIT_MS));
+    assertEquals(55, linear.score(true, 10_000, LIMIT_MS));
+    assertEquals(10, linear.score(true, 25_000, LIMIT_MS));
+    assertEquals(100, linear.score(true, NO_RESPONSE, LIMIT_MS));
+    assertEquals(100, linear.score(true, 5_000, 0), "A question without a time limit");
+    assertEquals(0, linear.score(false, 0, LIMIT_MS));
+  }
+
+  @Test
+  void stepped_shouldAwardQuartersOfTheTimeLimit() {
+    ScoringStrategy stepped = BuiltInScoring.STEPPED;
+
+    assertEquals(100, stepped.score(true, 4_999, LIMIT_MS));
+    assertEquals(75, stepped.score(true, 5_000, LIMIT_MS));
+    assertEquals(50, stepped.score(true, 14_999, LIMIT_MS));
+    assertEquals(25, stepped.score(true, 19_999, LIMIT_MS));
+    assertEquals(25, stepped.score(true, 20_000, LIMIT_MS));
+    assertEquals(100, stepped.score(true, NO_RESPONSE, LIMIT_MS));
+    assertEquals(0, stepped.score(false, 1_000, LIMIT_MS));
+  }
+
+  @Test
+  void penalty_shouldLoseFiveHundredPointsASecondAndPunishWrongAnswers() {
+    ScoringStrategy penalty = BuiltInScoring.PENALTY;
+
+    assertEquals(10_000, penalty.score(true, 0, LIMIT_MS));
+    assertEquals(9_500, penalty.score(true, 1_000, LIMIT_MS));
+    assertEquals(2_500, penalty.score(true, 15_000, LIMIT_MS));
+    assertEquals(-9_500, penalty.score(false, 1_000, LIMIT_MS), "Wrong answers lose what they could have won");
+    assertEquals(0, penalty.score(false, 20_000, LIMIT_MS));
+    assertEquals(0, penalty.score(true, NO_RESPONSE, LIMIT_MS));
+    assertEquals(0, penalty.score(true, 30_000, 0), "No points left after 20 seconds without a time limit");
+    assertEquals(0, penalty.score(true, 8_000, 5_000), "Nothing is won after the time limit");
+  }
+
+  @Test
+  void scoreAll_shouldMatchScoringEachAnswer() {
+    SplittableRandom random = new SplittableRandom(42);
+    int count = 1_000;
+    int[] options = new int[count + 10];
+    int[] responseTimes = new int[count + 10];
+    for (int i = 0; i < count; i++) {
+      options[i] = random.nextInt(4);
+      responseTimes[i] = random.nextInt(-1, 25_000);
+    }
+
+    for (BuiltInScoring strategy : BuiltInScoring.values()) {
+      int[] scores = new int[count + 10];
+      strategy.scoreAll(2, LIMIT_MS, options, responseTimes, count, scores);
+      for (int i = 0; i < count; i++) {
+        assertEquals(strategy.score(options[i] == 2, responseTimes[i], LIMIT_MS), scores[i], strategy + " answer " + i);
+      }
+      assertEquals(0, scores[count], "Nothing past count is written");
+    }
+  }
+
+  @Test
+  void scoreAll_withoutCorrectOption_shouldTreatEveryAnswerAsWrong() {
+    int[] scores = new int[2];
+
+    BuiltInScoring.PENALTY.scoreAll(-1, LIMIT_MS, new int[]{-1, 0}, new int[]{0, 0}, 2, scores);
+
+    assertArrayEquals(new int[]{-10_000, -10_000}, scores);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.scoring;
+
+import com.ssta.quiz.quiz.Quiz;
+import com.ssta.quiz.quiz.QuizRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ScoringStrategiesTest {
+
+  private final QuizRepository quizRepository = mock(QuizRepository.class);
+
+  /* Everything right is worth one point */
+  private static final ScoringStrategy FLAT = new ScoringStrategy() {
+    @Override
+    public String name() {
+      return "FLAT";
+    }
+
+    @Override
+    public int score(boolean correct, int responseMs, int limitMs) {
+      return correct ? 1 : 0;
+    }
+  };
+
+  private ScoringStrategies strategies(Map<String, Object> beans) {
+    return new ScoringStrategies(quizRepository, new StaticListableBeanFactory(beans).getBeanProvider(ScoringStrategy.class));
+  }
+
+  @Test
+  void find_shouldIncludeBuiltInsAndPlugins() {
+    ScoringStrategies strategies = strategies(Map.of("flatScoring", FLAT));
+
+    assertSame(BuiltInScoring.PENALTY, strategies.find("penalty").orElseThrow());
+    assertSame(FLAT, strategies.find("Flat").orElseThrow());
+    assertTrue(strategies.find("unknown").isEmpty());
+    assertEquals(4, strategies.all().size());
+  }
+
+  @Test
+  void forName_shouldDefaultToLinearAndRejectUnknownNames() {
+    ScoringStrategies strategies = strategies(Map.of());
+
+    assertSame(BuiltInScoring.LINEAR, strategies.forName(null));
+    assertThrows(IllegalArgumentException.class, () -> strategies.forName("FLAT"));
+  }
+
+  @Test
+  void forQuiz_shouldUseTheQuizStrategy() {
+    Quiz quiz = new Quiz();
+    quiz.setId(7L);
+    quiz.setScoringStrategy("STEPPED");
+    when(quizRepository.findById(7L)).thenReturn(Optional.of(quiz));
+
+    assertSame(BuiltInScoring.STEPPED, strategies(Map.of()).forQuiz(7L));
+    assertThrows(IllegalArgumentException.class, () -> strategies(Map.of()).forQuiz(8L));
+  }
+
+  @Test
+  void plugin_withBuiltInName_shouldBeRejected() {
+    ScoringStrategy linear = mock(ScoringStrategy.class);
+    when(linear.name()).thenReturn("linear");
+
+    assertThrows(IllegalStateException.class, () -> strategies(Map.of("linearScoring", linear)));
+  }
+
+  @Test
+  void plugin_defaultScoreAll_shouldScoreEachAnswer() {
+    int[] scores = new int[3];
+
+    FLAT.scoreAll(1, 20_000, new int[]{1, 0, 1}, new int[]{100, 200, -1}, 3, scores);
+
+    assertArrayEquals(new int[]{1, 0, 1}, scores);
+  }
+}
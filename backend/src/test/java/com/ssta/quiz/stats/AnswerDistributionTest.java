@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerDistributionTest {
+
+  @Test
+  void record_shouldCountOptionsCorrectnessAndResponseTimes() {
+    AnswerDistribution distribution = new AnswerDistribution(5L, 4, 20_000);
+
+    distribution.record(2, true, 500);
+    distribution.record(2, true, 1500);
+    distribution.record(0, false, 19_999);
+    distribution.record(1, false, 25_000);
+    distribution.record(3, false, null);
+
+    AnswerDistributionView view = distribution.view();
+    assertEquals(5L, view.questionId());
+    assertArrayEquals(new long[]{1, 1, 2, 1}, view.optionCounts());
+    assertEquals(2, view.correct());
+    assertEquals(3, view.incorrect());
+    assertEquals(21, view.responseTimeHistogram().length, "20 one-second buckets plus one for late answers");
+    assertEquals(1, view.responseTimeHistogram()[0]);
+    assertEquals(1, view.responseTimeHistogram()[1]);
+    assertEquals(1, view.responseTimeHistogram()[19]);
+    assertEquals(2, view.responseTimeHistogram()[20]);
+    assertEquals(5, distribution.total());
+  }
+
+  @Test
+  void record_withOptionOutOfRange_shouldOnlyCountAsIncorrect() {
+    AnswerDistribution distribution = new AnswerDistribution(5L, 2, 10_000);
+
+    distribution.record(7, false, 100);
+
+    assertArrayEquals(new long[]{0, 0}, distribution.view().optionCounts());
+    assertEquals(1, distribution.view().incorrect());
+  }
+
+  @Test
+  void record_fromManyThreads_shouldNotLoseCounts() throws InterruptedException {
+    AnswerDistribution distribution = new AnswerDistribution(5L, 4, 20_000);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      int option = t % 4;
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          distribution.record(option, option == 2, i % 20_000);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    AnswerDistributionView view = distribution.view();
+    assertArrayEquals(new long[]{20_000, 20_000, 20_000, 20_000}, view.optionCounts());
+    assertEquals(20_000, view.correct());
+    assertEquals(60_000, view.incorrect());
+  }
+}
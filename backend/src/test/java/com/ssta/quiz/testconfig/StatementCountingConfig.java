@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.testconfig;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test configuration that wraps the DataSource so tests can count how many statements actually reach
+ * the database, and see their SQL.  A JDBC batch counts as a single execution.
+ */
+@TestConfiguration
+public class StatementCountingConfig {
+
+  /**
+   * Counts statement executions by the first few words of their SQL (e.g. "insert into player_answers").
+   */
+  public static class StatementCounter {
+
+    private final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+    public int count(String sqlPrefix) {
+      String prefix = sqlPrefix.toLowerCase(Locale.ROOT);
+      return executions.entrySet().stream()
+          .filter(entry -> entry.getKey().startsWith(prefix))
+          .mapToInt(entry -> entry.getValue().get())
+          .sum();
+    }
+
+    /**
+     * @return the distinct statements executed whose SQL starts with the prefix, normalised as for {@link #count}
+     */
+    public List<String> statements(String sqlPrefix) {
+      String prefix = sqlPrefix.toLowerCase(Locale.ROOT);
+      return executions.keySet().stream()
+          .filter(sql -> sql.startsWith(prefix))
+          .toList();
+    }
+
+    public void reset() {
+      executions.clear();
+    }
+
+    void record(String sql) {
+      String normalised = sql.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+      executions.computeIfAbsent(normalised, key -> new AtomicInteger()).incrementAndGet();
+    }
+  }
+
+  @Bean
+  public StatementCounter statementCounter() {
+    return new StatementCounter();
+  }
+
+  @Bean
+  public static BeanPostProcessor statementCountingDataSourcePostProcessor(StatementCounter statementCounter) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+          return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Connection connection ? countingConnection(connection, statementCounter) : result;
+          });
+        }
+        return bean;
+      }
+    };
+  }
+
+  private static Connection countingConnection(Connection connection, StatementCounter statementCounter) {
+    return proxy(Connection.class, connection, (target, method, args) -> {
+      Object result = method.invoke(target, args);
+      if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+        String sql = (String) args[0];
+        return proxy(PreparedStatement.class, statement, (ps, psMethod, psArgs) -> {
+          String name = psMethod.getName();
+          if (name.equals("executeBatch") || name.equals("executeUpdate")
+              || name.equals("executeQuery") || name.equals("execute")) {
+            statementCounter.record(sql);
+          }
+          return psMethod.invoke(ps, psArgs);
+        });
+      }
+      return result;
+    });
+  }
+
+  @FunctionalInterface
+  private interface Handler<T> {
+    Object handle(T target, Method method, Object[] args) throws Exception;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+    InvocationHandler invocationHandler = (proxy, method, args) -> {
+      try {
+        return handler.handle(target, method, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    };
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plays one quiz with simulated players and reports what they saw.
+ * <p>
+ * The run seeds a quiz and its players in the database, launches it, connects the players at
+ * {@code --connect-rate}, then opens each question in turn for its time limit while the players
+ * answer.  When the last question has closed it completes the quiz and writes the report.  With
+ * {@code --local} the backend and its database are started for the run and stopped after it.
+ * <p>
+ * Every option is described on {@link LoadOptions}.
+ */
+public final class LoadGenerator {
+
+  /* Time allowed for answers still in flight when the last question closes */
+  private static final Duration DRAIN = Duration.ofSeconds(10);
+
+  private LoadGenerator() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadOptions options;
+    try {
+      options = LoadOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.exit(2);
+      return;
+    }
+
+    if (options.local()) {
+      try (LocalBackend backend = LocalBackend.start()) {
+        run(backend.apply(options));
+      }
+    } else {
+      run(options);
+    }
+  }
+
+  static void run(LoadOptions options) throws Exception {
+    long startNanos = System.nanoTime();
+    SplittableRandom random = new SplittableRandom();
+    QuizSeeder.SeededQuiz quiz = new QuizSeeder(options).seed(random.split());
+    log("Seeded quiz %d with %d players", quiz.quizId(), quiz.playerIds().length);
+
+    LoadMetrics metrics = new LoadMetrics();
+    ObjectMapper objectMapper = new ObjectMapper();
+    HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(30))
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+    ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    try {
+      QuizmasterClient quizmaster = new QuizmasterClient(http, options, quiz.quizId());
+      quizmaster.launch();
+
+      connectPlayers(options, quiz, metrics, http, scheduler, objectMapper, random);
+      log("Connected %d of %d players", metrics.connected.sum(), options.players());
+
+      for (int position = 0; position < options.questions(); position++) {
+        quizmaster.open(position);
+        log("Question %d open", position + 1);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.timeLimitSeconds()));
+        quizmaster.close();
+        if (position + 1 < options.questions()) {
+          Thread.sleep(TimeUnit.SECONDS.toMillis(options.gapSeconds()));
+        }
+      }
+
+      awaitAnswers(metrics);
+      quizmaster.complete();
+    } finally {
+      scheduler.shutdownNow();
+    }
+
+    LoadReport report = LoadReport.of(options, Duration.ofNanos(System.nanoTime() - startNanos), metrics);
+    report.write(options.report());
+    report.print(System.out);
+    log("Report written to %s", options.report().toAbsolutePath());
+  }
+
+  private static void connectPlayers(LoadOptions options, QuizSeeder.SeededQuiz quiz, LoadMetrics metrics,
+                                     HttpClient http, ScheduledExecutorService scheduler, ObjectMapper objectMapper,
+                                     SplittableRandom random) throws InterruptedException {
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.connectRate();
+    long nextNanos = System.nanoTime();
+    List<CompletableFuture<Void>> connections = new ArrayList<>(options.players());
+    for (long playerId : quiz.playerIds()) {
+      long waitNanos = nextNanos - System.nanoTime();
+      if (waitNanos > 0) {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      }
+      nextNanos += intervalNanos;
+      PlayerClient player = new PlayerClient(quiz.quizId(), playerId, options, metrics, http, scheduler, objectMapper,
+          random.split());
+      connections.add(player.connect().whenComplete((ignored, failure) -> {
+        if (failure != null) {
+          metrics.connectFailures.increment();
+        }
+      }));
+    }
+    try {
+      CompletableFuture.allOf(connections.toArray(CompletableFuture[]::new))
+          .exceptionally(failure -> null)
+          .get(1, TimeUnit.MINUTES);
+    } catch (TimeoutException | ExecutionException e) {
+      log("Gave up waiting for %d players to connect", options.players() - metrics.connected.sum());
+    }
+  }
+
+  private static void awaitAnswers(LoadMetrics metrics) throws InterruptedException {
+    long deadline = System.nanoTime() + DRAIN.toNanos();
+    while (System.nanoTime() < deadline && metrics.answersSubmitted.sum()
+        > metrics.answersAccepted.sum() + metrics.answersRejected.sum() + metrics.answerErrors.sum()) {
+      Thread.sleep(100);
+    }
+  }
+
+  private static void log(String format, Object... args) {
+    System.out.printf("[loadgen] " + format + "%n", args);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What a load run observed, recorded from every player's threads at once.
+ * <p>
+ * Latencies go into HdrHistograms in microseconds, up to a minute at three significant digits:
+ * <ul>
+ *   <li>{@code revealToReceive}: from the question opening on the server ({@code openedAt} in the
+ *   question message) to the message reaching the player.  Both clocks are the same machine's
+ *   when run against a local backend.</li>
+ *   <li>{@code submitToAck}: from sending an answer to its HTTP response.</li>
+ *   <li>{@code connect}: from opening the WebSocket to the STOMP CONNECTED frame.</li>
+ * </ul>
+ */
+public final class LoadMetrics {
+
+  private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  final Histogram revealToReceive = new ConcurrentHistogram(MAX_MICROS, 3);
+  final Histogram submitToAck = new ConcurrentHistogram(MAX_MICROS, 3);
+  final Histogram connect = new ConcurrentHistogram(MAX_MICROS, 3);
+
+  final LongAdder connected = new LongAdder();
+  final LongAdder connectFailures = new LongAdder();
+  final LongAdder disconnects = new LongAdder();
+  final LongAdder answersSkipped = new LongAdder();
+  final LongAdder answersSubmitted = new LongAdder();
+  final LongAdder answersAccepted = new LongAdder();
+  final LongAdder answersRejected = new LongAdder();
+  final LongAdder answerErrors = new LongAdder();
+  final LongAdder pongs = new LongAdder();
+  /* Messages received per destination, with the quiz ID taken out */
+  final Map<String, LongAdder> messages = new ConcurrentHashMap<>();
+
+  void recordMicros(Histogram histogram, long nanos) {
+    histogram.recordValue(Math.clamp(TimeUnit.NANOSECONDS.toMicros(nanos), 0, MAX_MICROS));
+  }
+
+  void recordMessage(String destination) {
+    messages.computeIfAbsent(destination, d -> new LongAdder()).increment();
+  }
+}
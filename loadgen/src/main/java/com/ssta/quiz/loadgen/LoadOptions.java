@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of one load run, from {@code --name=value} command line arguments.  Connection settings
+ * default to the backend's own {@code application.properties}.
+ *
+ * @param local start a throwaway PostgreSQL container and the backend jar instead of using a running backend
+ * @param baseUrl the backend's HTTP base URL
+ * @param origin the Origin sent with WebSocket handshakes, which the endpoint checks
+ * @param jdbcUrl the backend's database, where the quiz and its players are created
+ * @param jdbcUser the database user
+ * @param jdbcPassword the database password
+ * @param adminUser the user for the quizmaster endpoints
+ * @param adminPassword the password for the quizmaster endpoints
+ * @param players simulated players, each with its own WebSocket connection
+ * @param questions questions in the quiz
+ * @param options answer options per question
+ * @param timeLimitSeconds time limit of each question
+ * @param gapSeconds time between one question closing and the next opening
+ * @param connectRate connections opened per second while players join
+ * @param answerRate fraction of players who answer each question
+ * @param responseTime how long players take to answer
+ * @param report where the JSON report is written
+ */
+public record LoadOptions(boolean local,
+                          String baseUrl,
+                          String origin,
+                          String jdbcUrl,
+                          String jdbcUser,
+                          String jdbcPassword,
+                          String adminUser,
+                          String adminPassword,
+                          int players,
+                          int questions,
+                          int options,
+                          int timeLimitSeconds,
+                          int gapSeconds,
+                          int connectRate,
+                          double answerRate,
+                          ResponseTimeDistribution responseTime,
+                          Path report) {
+
+  private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+  static {
+    DEFAULTS.put("local", "false");
+    DEFAULTS.put("base-url", "http://localhost:8080");
+    DEFAULTS.put("origin", "http://localhost:5173");
+    DEFAULTS.put("jdbc-url", "jdbc:postgresql://localhost:5432/QUIZPOC");
+    DEFAULTS.put("jdbc-user", "postgres");
+    DEFAULTS.put("jdbc-password", "0Password1");
+    DEFAULTS.put("admin-user", "admin");
+    DEFAULTS.put("admin-password", "admin");
+    DEFAULTS.put("players", "1000");
+    DEFAULTS.put("questions", "5");
+    DEFAULTS.put("options", "4");
+    DEFAULTS.put("time-limit", "20");
+    DEFAULTS.put("gap", "5");
+    DEFAULTS.put("connect-rate", "500");
+    DEFAULTS.put("answer-rate", "0.95");
+    DEFAULTS.put("response-time", "lognormal:4000:0.6");
+    DEFAULTS.put("report", "build/loadgen-report.json");
+  }
+
+  /**
+   * @throws IllegalArgumentException for an unknown option or a value that does not parse
+   */
+  public static LoadOptions parse(String... args) {
+    Map<String, String> values = new HashMap<>(DEFAULTS);
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Expected --name=value but got " + arg);
+      }
+      int equals = arg.indexOf('=');
+      String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+      // A bare flag is true
+      String value = equals < 0 ? "true" : arg.substring(equals + 1);
+      if (!DEFAULTS.containsKey(name)) {
+        throw new IllegalArgumentException("Unknown option --" + name + "; options are " + DEFAULTS.keySet());
+      }
+      values.put(name, value);
+    }
+
+    LoadOptions options = new LoadOptions(
+        Boolean.parseBoolean(values.get("local")),
+        stripSlash(values.get("base-url")),
+        values.get("origin"),
+        values.get("jdbc-url"),
+        values.get("jdbc-user"),
+        values.get("jdbc-password"),
+        values.get("admin-user"),
+        values.get("admin-password"),
+        positive(values, "players"),
+        positive(values, "questions"),
+        positive(values, "options"),
+        positive(values, "time-limit"),
+        Integer.parseInt(values.get("gap")),
+        positive(values, "connect-rate"),
+        Double.parseDouble(values.get("answer-rate")),
+        ResponseTimeDistribution.parse(values.get("response-time")),
+        Path.of(values.get("report")));
+    if (options.answerRate < 0 || options.answerRate > 1) {
+      throw new IllegalArgumentException("--answer-rate must be between 0 and 1");
+    }
+    return options;
+  }
+
+  /**
+   * @return the same settings against another backend, as started by {@link LocalBackend}
+   */
+  public LoadOptions withBackend(String baseUrl, String jdbcUrl, String jdbcUser, String jdbcPassword) {
+    return new LoadOptions(local, baseUrl, origin, jdbcUrl, jdbcUser, jdbcPassword, adminUser, adminPassword,
+        players, questions, options, timeLimitSeconds, gapSeconds, connectRate, answerRate, responseTime, report);
+  }
+
+  /**
+   * @return the raw WebSocket URL of the SockJS endpoint, which needs no SockJS framing
+   */
+  public String webSocketUrl() {
+    return baseUrl.replaceFirst("^http", "ws") + "/ws/websocket";
+  }
+
+  private static int positive(Map<String, String> values, String name) {
+    int value = Integer.parseInt(values.get(name));
+    if (value <= 0) {
+      throw new IllegalArgumentException("--" + name + " must be positive");
+    }
+    return value;
+  }
+
+  private static String stripSlash(String url) {
+    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The machine-readable result of a load run: its settings, counters and latency percentiles.
+ * Latencies are in milliseconds.
+ *
+ * @param settings the run's options as given on the command line
+ * @param durationSeconds wall-clock time from seeding the quiz to completing it
+ * @param counters connection and answer counts
+ * @param messages messages received per destination, over all players
+ * @param latencies percentile summary of each histogram
+ */
+public record LoadReport(Map<String, Object> settings,
+                         double durationSeconds,
+                         Map<String, Long> counters,
+                         Map<String, Long> messages,
+                         Map<String, LatencySummary> latencies) {
+
+  /**
+   * @param count samples recorded
+   * @param mean mean in ms
+   * @param p50 median in ms
+   * @param p90 90th percentile in ms
+   * @param p99 99th percentile in ms
+   * @param p999 99.9th percentile in ms
+   * @param max largest sample in ms
+   */
+  public record LatencySummary(long count, double mean, double p50, double p90, double p99, double p999, double max) {
+
+    static LatencySummary of(Histogram micros) {
+      return new LatencySummary(micros.getTotalCount(),
+          millis(micros.getMean()),
+          millis(micros.getValueAtPercentile(50)),
+          millis(micros.getValueAtPercentile(90)),
+          millis(micros.getValueAtPercentile(99)),
+          millis(micros.getValueAtPercentile(99.9)),
+          millis(micros.getMaxValue()));
+    }
+
+    private static double millis(double micros) {
+      return Math.round(micros) / 1000.0;
+    }
+  }
+
+  static LoadReport of(LoadOptions options, Duration duration, LoadMetrics metrics) {
+    Map<String, Object> settings = new TreeMap<>();
+    settings.put("baseUrl", options.baseUrl());
+    settings.put("local", options.local());
+    settings.put("players", options.players());
+    settings.put("questions", options.questions());
+    settings.put("options", options.options());
+    settings.put("timeLimitSeconds", options.timeLimitSeconds());
+    settings.put("gapSeconds", options.gapSeconds());
+    settings.put("connectRate", options.connectRate());
+    settings.put("answerRate", options.answerRate());
+    settings.put("responseTime", options.responseTime().toString());
+
+    Map<String, Long> counters = new TreeMap<>();
+    counters.put("connected", metrics.connected.sum());
+    counters.put("connectFailures", metrics.connectFailures.sum());
+    counters.put("disconnects", metrics.disconnects.sum());
+    counters.put("answersSkipped", metrics.answersSkipped.sum());
+    counters.put("answersSubmitted", metrics.answersSubmitted.sum());
+    counters.put("answersAccepted", metrics.answersAccepted.sum());
+    counters.put("answersRejected", metrics.answersRejected.sum());
+    counters.put("answerErrors", metrics.answerErrors.sum());
+    counters.put("pongs", metrics.pongs.sum());
+
+    Map<String, Long> messages = new TreeMap<>();
+    metrics.messages.forEach((destination, count) -> messages.put(destination, count.sum()));
+
+    Map<String, LatencySummary> latencies = new TreeMap<>();
+    latencies.put("revealToReceive", LatencySummary.of(metrics.revealToReceive));
+    latencies.put("submitToAck", LatencySummary.of(metrics.submitToAck));
+    latencies.put("connect", LatencySummary.of(metrics.connect));
+
+    return new LoadReport(settings, duration.toMillis() / 1000.0, counters, messages, latencies);
+  }
+
+  void write(Path path) throws IOException {
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+  }
+
+  void print(PrintStream out) {
+    out.printf("%s players, %s questions in %.1f s%n", settings.get("players"), settings.get("questions"), durationSeconds);
+    counters.forEach((name, value) -> out.printf("  %-18s %d%n", name, value));
+    out.printf("  %-18s %8s %8s %8s %8s %8s %8s %8s%n", "latency (ms)", "count", "mean", "p50", "p90", "p99", "p99.9", "max");
+    latencies.forEach((name, s) -> out.printf("  %-18s %8d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+        name, s.count(), s.mean(), s.p50(), s.p90(), s.p99(), s.p999(), s.max()));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A backend of its own for one load run: a throwaway PostgreSQL container, and the backend's boot
+ * jar started against it on a free port.  The backend's output goes to
+ * {@code build/loadgen-backend.log}.
+ */
+final class LocalBackend implements AutoCloseable {
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+  private final PostgreSQLContainer<?> database;
+  private final Process process;
+  private final String baseUrl;
+
+  private LocalBackend(PostgreSQLContainer<?> database, Process process, String baseUrl) {
+    this.database = database;
+    this.process = process;
+    this.baseUrl = baseUrl;
+  }
+
+  /**
+   * Start the database and the backend, and wait until the backend answers its health check.
+   *
+   * @throws IllegalStateException if the backend jar is not set or the backend does not come up
+   */
+  static LocalBackend start() throws IOException, InterruptedException {
+    String jar = System.getProperty("loadgen.backendJar");
+    if (jar == null || !Files.isRegularFile(Path.of(jar))) {
+      throw new IllegalStateException("--local needs the backend jar in -Dloadgen.backendJar; run it with ./gradlew :loadgen:run");
+    }
+
+    PostgreSQLContainer<?> database = new PostgreSQLContainer<>("postgres:16-alpine");
+    database.start();
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    Path log = Path.of("build", "loadgen-backend.log");
+    Files.createDirectories(log.getParent());
+    Process process = new ProcessBuilder(List.of(
+        Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+        "-jar", jar,
+        "--server.port=" + port,
+        "--spring.datasource.url=" + database.getJdbcUrl(),
+        "--spring.datasource.username=" + database.getUsername(),
+        "--spring.datasource.password=" + database.getPassword(),
+        // Per-statement SQL logging would swamp the run
+        "--spring.jpa.show-sql=false",
+        "--logging.level.com.ssta.quiz=INFO"))
+        .redirectErrorStream(true)
+        .redirectOutput(log.toFile())
+        .start();
+
+    LocalBackend backend = new LocalBackend(database, process, "http://localhost:" + port);
+    try {
+      backend.awaitHealthy();
+    } catch (InterruptedException | RuntimeException e) {
+      backend.close();
+      throw e;
+    }
+    return backend;
+  }
+
+  /**
+   * @return the settings pointed at this backend and its database
+   */
+  LoadOptions apply(LoadOptions options) {
+    return options.withBackend(baseUrl, database.getJdbcUrl(), database.getUsername(), database.getPassword());
+  }
+
+  private void awaitHealthy() throws InterruptedException {
+    HttpClient http = HttpClient.newHttpClient();
+    HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/api/public/health")).build();
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("The backend exited with " + process.exitValue() + "; see build/loadgen-backend.log");
+      }
+      try {
+        if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Not listening yet
+      }
+      Thread.sleep(500);
+    }
+    throw new IllegalStateException("The backend did not start within " + STARTUP_TIMEOUT + "; see build/loadgen-backend.log");
+  }
+
+  @Override
+  public void close() {
+    process.destroy();
+    try {
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    } catch (InterruptedException e) {
+      process.destroyForcibly();
+      Thread.currentThread().interrupt();
+    }
+    database.stop();
+  }
+}
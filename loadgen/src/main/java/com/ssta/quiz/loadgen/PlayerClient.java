@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated player: a WebSocket connection speaking STOMP, plus HTTP calls to join and answer.
+ * <p>
+ * Once connected it subscribes to its quiz's question, scores, players and state topics, its own
+ * standing and the time sync, and joins the quiz.  Each question that arrives is answered with
+ * probability {@code answer-rate} after a delay drawn from the response time distribution, unless
+ * that delay is past the question's time limit.  Time sync pings are answered at once.
+ * <p>
+ * The listener methods are called by the HTTP client one at a time per connection, and its sends
+ * are chained because a WebSocket allows only one outstanding send.
+ */
+final class PlayerClient implements WebSocket.Listener {
+
+  private final long quizId;
+  private final long playerId;
+  private final LoadOptions options;
+  private final LoadMetrics metrics;
+  private final HttpClient http;
+  private final ScheduledExecutorService scheduler;
+  private final ObjectMapper objectMapper;
+  private final SplittableRandom random;
+  private final CompletableFuture<Void> connected = new CompletableFuture<>();
+  private final StringBuilder partial = new StringBuilder();
+  private CompletableFuture<WebSocket> sending;
+  private long connectStartNanos;
+
+  PlayerClient(long quizId, long playerId, LoadOptions options, LoadMetrics metrics, HttpClient http,
+               ScheduledExecutorService scheduler, ObjectMapper objectMapper, SplittableRandom random) {
+    this.quizId = quizId;
+    this.playerId = playerId;
+    this.options = options;
+    this.metrics = metrics;
+    this.http = http;
+    this.scheduler = scheduler;
+    this.objectMapper = objectMapper;
+    this.random = random;
+  }
+
+  /**
+   * Open the connection.
+   *
+   * @return completes once the player has subscribed and joined, or exceptionally if it could not
+   */
+  CompletableFuture<Void> connect() {
+    connectStartNanos = System.nanoTime();
+    http.newWebSocketBuilder()
+        .header("Origin", options.origin())
+        .connectTimeout(Duration.ofSeconds(30))
+        .buildAsync(URI.create(options.webSocketUrl()), this)
+        .whenComplete((webSocket, failure) -> {
+          if (failure != null) {
+            connected.completeExceptionally(failure);
+          }
+        });
+    return connected;
+  }
+
+  @Override
+  public void onOpen(WebSocket webSocket) {
+    sending = CompletableFuture.completedFuture(webSocket);
+    // Binds the session to this player, for the standing and time sync queues
+    send(StompFrame.encode("CONNECT", "", "accept-version", "1.2", "host", "localhost", "heart-beat", "0,0",
+        "quiz-id", String.valueOf(quizId), "player-id", String.valueOf(playerId)));
+    webSocket.request(1);
+  }
+
+  @Override
+  public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+    partial.append(data);
+    if (last) {
+      String text = partial.toString();
+      partial.setLength(0);
+      try {
+        handle(StompFrame.decode(text));
+      } catch (RuntimeException e) {
+        connected.completeExceptionally(e);
+      }
+    }
+    webSocket.request(1);
+    return null;
+  }
+
+  @Override
+  public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+    metrics.disconnects.increment();
+    connected.completeExceptionally(new IllegalStateException("Closed " + statusCode + ": " + reason));
+    return null;
+  }
+
+  @Override
+  public void onError(WebSocket webSocket, Throwable error) {
+    metrics.disconnects.increment();
+    connected.completeExceptionally(error);
+  }
+
+  private void handle(StompFrame frame) {
+    if (frame == null) {
+      return;
+    }
+    switch (frame.command()) {
+      case "CONNECTED" -> subscribeAndJoin();
+      case "MESSAGE" -> onMessage(frame);
+      case "ERROR" -> connected.completeExceptionally(new IllegalStateException("STOMP error: " + frame.header("message")));
+      default -> {
+      }
+    }
+  }
+
+  private void subscribeAndJoin() {
+    metrics.recordMicros(metrics.connect, System.nanoTime() - connectStartNanos);
+    String topic = "/topic/quiz/" + quizId + "/";
+    for (String name : new String[]{"question", "scores", "players", "state"}) {
+      // Subscription IDs named after the topic let the server share one frame across players
+      send(StompFrame.encode("SUBSCRIBE", "", "id", name, "destination", topic + name));
+    }
+    send(StompFrame.encode("SUBSCRIBE", "", "id", "standing", "destination", "/user/queue/standing"));
+    send(StompFrame.encode("SUBSCRIBE", "", "id", "time", "destination", "/user/queue/time"));
+
+    HttpRequest join = HttpRequest.newBuilder(URI.create(options.baseUrl() + "/api/player/quizzes/" + quizId
+            + "/players/" + playerId + "/join"))
+        .POST(HttpRequest.BodyPublishers.noBody())
+        .build();
+    http.sendAsync(join, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+      if (failure != null) {
+        connected.completeExceptionally(failure);
+      } else if (response.statusCode() != 200) {
+        connected.completeExceptionally(new IllegalStateException("Join returned " + response.statusCode()));
+      } else {
+        metrics.connected.increment();
+        connected.complete(null);
+      }
+    });
+  }
+
+  private void onMessage(StompFrame frame) {
+    String destination = frame.header("destination");
+    if (destination == null) {
+      return;
+    }
+    metrics.recordMessage(destination.replace("/" + quizId + "/", "/{quizId}/"));
+    if (destination.equals("/user/queue/time")) {
+      pong(frame);
+    } else if (destination.endsWith("/question")) {
+      onQuestion(frame);
+    }
+  }
+
+  private void pong(StompFrame ping) {
+    try {
+      String seq = objectMapper.readTree(ping.body()).path("seq").asText();
+      send(StompFrame.encode("SEND", "", "destination", "/app/time/pong", "seq", seq,
+          "client-time", String.valueOf(System.currentTimeMillis())));
+      metrics.pongs.increment();
+    } catch (Exception e) {
+      // A malformed ping only costs the estimate one sample
+    }
+  }
+
+  private void onQuestion(StompFrame frame) {
+    long receivedAtMs = System.currentTimeMillis();
+    JsonNode question;
+    try {
+      question = objectMapper.readTree(frame.body());
+    } catch (Exception e) {
+      return;
+    }
+    metrics.recordMicros(metrics.revealToReceive,
+        TimeUnit.MILLISECONDS.toNanos(receivedAtMs - question.path("openedAt").asLong(receivedAtMs)));
+
+    long questionId = question.path("questionId").asLong();
+    int optionCount = Math.max(1, question.path("options").size());
+    long timeLimitMs = question.path("timeLimitMs").asLong();
+    if (random.nextDouble() >= options.answerRate()) {
+      metrics.answersSkipped.increment();
+      return;
+    }
+    long delayMs = options.responseTime().sampleMs(random);
+    int option = random.nextInt(optionCount);
+    if (timeLimitMs > 0 && delayMs >= timeLimitMs) {
+      metrics.answersSkipped.increment();
+      return;
+    }
+    scheduler.schedule(() -> answer(questionId, option), delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  private void answer(long questionId, int option) {
+    String body = "{\"playerId\":" + playerId + ",\"questionId\":" + questionId + ",\"answerOption\":" + option + "}";
+    HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl() + "/api/player/quizzes/" + quizId + "/answers"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    long sentAt = System.nanoTime();
+    metrics.answersSubmitted.increment();
+    http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+      if (failure != null) {
+        metrics.answerErrors.increment();
+        return;
+      }
+      metrics.recordMicros(metrics.submitToAck, System.nanoTime() - sentAt);
+      switch (response.statusCode()) {
+        case 200 -> metrics.answersAccepted.increment();
+        case 409 -> metrics.answersRejected.increment();
+        default -> metrics.answerErrors.increment();
+      }
+    });
+  }
+
+  private synchronized void send(String frame) {
+    sending = sending.thenCompose(webSocket -> webSocket.sendText(frame, true));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.SplittableRandom;
+
+/**
+ * Creates the quiz a load run plays, straight in the backend's database: there is no API for
+ * creating quizzes or registering players yet.  IDs come from the tables' own sequences.
+ */
+final class QuizSeeder {
+
+  private static final int PLAYER_BATCH = 1000;
+
+  private final LoadOptions options;
+
+  QuizSeeder(LoadOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * The seeded quiz.
+   *
+   * @param quizId the quiz, in DRAFT and ready to launch
+   * @param playerIds its players, one per simulated player
+   */
+  record SeededQuiz(long quizId, long[] playerIds) {
+  }
+
+  /**
+   * @throws SQLException if the database cannot be reached or rejects the rows
+   */
+  SeededQuiz seed(SplittableRandom random) throws SQLException {
+    String run = Long.toString(System.currentTimeMillis(), 36);
+    try (Connection connection = DriverManager.getConnection(options.jdbcUrl(), options.jdbcUser(), options.jdbcPassword())) {
+      connection.setAutoCommit(false);
+      long userId = insertReturningId(connection,
+          "INSERT INTO users (username) VALUES (?) RETURNING id", "loadgen-" + run);
+      long quizId;
+      try (PreparedStatement statement = connection.prepareStatement(
+          "INSERT INTO quizzes (title, description, user_id) VALUES (?, ?, ?) RETURNING id")) {
+        statement.setString(1, "Load test " + run);
+        statement.setString(2, options.players() + " simulated players");
+        statement.setLong(3, userId);
+        quizId = singleId(statement);
+      }
+      insertQuestions(connection, quizId, random);
+      long[] playerIds = insertPlayers(connection, quizId, run);
+      connection.commit();
+      return new SeededQuiz(quizId, playerIds);
+    }
+  }
+
+  private void insertQuestions(Connection connection, long quizId, SplittableRandom random) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO questions (quiz_id, question_text, time_limit, order_index, options) VALUES (?, ?, ?, ?, ?::jsonb)")) {
+      for (int q = 0; q < options.questions(); q++) {
+        int correct = random.nextInt(options.options());
+        StringBuilder json = new StringBuilder("[");
+        for (int o = 0; o < options.options(); o++) {
+          json.append(o == 0 ? "" : ",")
+              .append("{\"text\":\"Option ").append((char) ('A' + o % 26)).append("\",\"correct\":").append(o == correct)
+              .append('}');
+        }
+        statement.setLong(1, quizId);
+        statement.setString(2, "Question " + (q + 1));
+        statement.setInt(3, options.timeLimitSeconds());
+        statement.setInt(4, q);
+        statement.setString(5, json.append(']').toString());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private long[] insertPlayers(Connection connection, long quizId, String run) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO players (nickname, quiz_id, session_id) VALUES (?, ?, ?)")) {
+      for (int p = 0; p < options.players(); p++) {
+        statement.setString(1, "player-" + p);
+        statement.setLong(2, quizId);
+        statement.setString(3, run + "-" + p);
+        statement.addBatch();
+        if ((p + 1) % PLAYER_BATCH == 0) {
+          statement.executeBatch();
+        }
+      }
+      statement.executeBatch();
+    }
+
+    long[] playerIds = new long[options.players()];
+    try (PreparedStatement statement = connection.prepareStatement(
+        "SELECT id FROM players WHERE quiz_id = ? ORDER BY id")) {
+      statement.setLong(1, quizId);
+      try (ResultSet rows = statement.executeQuery()) {
+        int i = 0;
+        while (rows.next()) {
+          playerIds[i++] = rows.getLong(1);
+        }
+      }
+    }
+    return playerIds;
+  }
+
+  private static long insertReturningId(Connection connection, String sql, String value) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, value);
+      return singleId(statement);
+    }
+  }
+
+  private static long singleId(PreparedStatement statement) throws SQLException {
+    try (ResultSet rows = statement.executeQuery()) {
+      rows.next();
+      return rows.getLong(1);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Drives the quiz through the quizmaster endpoints, as the admin user.
+ */
+final class QuizmasterClient {
+
+  private final HttpClient http;
+  private final String quizUrl;
+  private final String authorization;
+
+  QuizmasterClient(HttpClient http, LoadOptions options, long quizId) {
+    this.http = http;
+    this.quizUrl = options.baseUrl() + "/api/quizmaster/quizzes/" + quizId;
+    this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+        (options.adminUser() + ":" + options.adminPassword()).getBytes(StandardCharsets.UTF_8));
+  }
+
+  void launch() throws IOException, InterruptedException {
+    post("/launch");
+  }
+
+  void open(int position) throws IOException, InterruptedException {
+    post("/questions/" + position + "/open");
+  }
+
+  /**
+   * Close the open question.  A question the server has already closed at its time limit is not
+   * an error.
+   */
+  void close() throws IOException, InterruptedException {
+    HttpResponse<String> response = send("/questions/close");
+    if (response.statusCode() != 200 && response.statusCode() != 409) {
+      throw new IOException("Closing the question returned " + response.statusCode() + ": " + response.body());
+    }
+  }
+
+  void complete() throws IOException, InterruptedException {
+    post("/complete");
+  }
+
+  private void post(String path) throws IOException, InterruptedException {
+    HttpResponse<String> response = send(path);
+    if (response.statusCode() != 200) {
+      throw new IOException("POST " + path + " returned " + response.statusCode() + ": " + response.body());
+    }
+  }
+
+  private HttpResponse<String> send(String path) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(quizUrl + path))
+        .header("Authorization", authorization)
+        .POST(HttpRequest.BodyPublishers.noBody())
+        .build();
+    return http.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+}
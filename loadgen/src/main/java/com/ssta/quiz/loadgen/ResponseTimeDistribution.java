@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import java.util.SplittableRandom;
+
+/**
+ * How long a simulated player takes to answer after a question reaches them.  Written on the
+ * command line as {@code kind:param[:param]}, in milliseconds:
+ * <ul>
+ *   <li>{@code fixed:2000}</li>
+ *   <li>{@code uniform:500:8000} between the two bounds</li>
+ *   <li>{@code normal:4000:1500} mean and standard deviation</li>
+ *   <li>{@code lognormal:4000:0.6} median and sigma, the usual shape of human reaction times</li>
+ *   <li>{@code exponential:3000} mean</li>
+ * </ul>
+ * Samples are never negative.
+ */
+public sealed interface ResponseTimeDistribution {
+
+  long sampleMs(SplittableRandom random);
+
+  /**
+   * @throws IllegalArgumentException if the spec is not one of the forms above
+   */
+  static ResponseTimeDistribution parse(String spec) {
+    String[] parts = spec.trim().split(":");
+    try {
+      ResponseTimeDistribution distribution = switch (parts[0]) {
+        case "fixed" -> parts.length == 2 ? new Fixed(Long.parseLong(parts[1])) : null;
+        case "uniform" -> parts.length == 3 ? new Uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2])) : null;
+        case "normal" -> parts.length == 3 ? new Normal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2])) : null;
+        case "lognormal" -> parts.length == 3 ? new LogNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2])) : null;
+        case "exponential" -> parts.length == 2 ? new Exponential(Double.parseDouble(parts[1])) : null;
+        default -> null;
+      };
+      if (distribution == null) {
+        throw new IllegalArgumentException("Unknown response time distribution: " + spec);
+      }
+      return distribution;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid response time distribution: " + spec, e);
+    }
+  }
+
+  record Fixed(long ms) implements ResponseTimeDistribution {
+    @Override
+    public long sampleMs(SplittableRandom random) {
+      return Math.max(0, ms);
+    }
+  }
+
+  record Uniform(long minMs, long maxMs) implements ResponseTimeDistribution {
+    public Uniform {
+      if (maxMs < minMs) {
+        throw new IllegalArgumentException("Uniform bounds are the wrong way round: " + minMs + " > " + maxMs);
+      }
+    }
+
+    @Override
+    public long sampleMs(SplittableRandom random) {
+      return Math.max(0, random.nextLong(minMs, maxMs + 1));
+    }
+  }
+
+  record Normal(double meanMs, double stdDevMs) implements ResponseTimeDistribution {
+    @Override
+    public long sampleMs(SplittableRandom random) {
+      return Math.max(0, Math.round(meanMs + stdDevMs * gaussian(random)));
+    }
+  }
+
+  record LogNormal(double medianMs, double sigma) implements ResponseTimeDistribution {
+    @Override
+    public long sampleMs(SplittableRandom random) {
+      return Math.round(medianMs * Math.exp(sigma * gaussian(random)));
+    }
+  }
+
+  record Exponential(double meanMs) implements ResponseTimeDistribution {
+    @Override
+    public long sampleMs(SplittableRandom random) {
+      return Math.round(-meanMs * Math.log(1 - random.nextDouble()));
+    }
+  }
+
+  /* Standard normal sample by the Box-Muller transform */
+  private static double gaussian(SplittableRandom random) {
+    return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough STOMP 1.2 for a simulated player: encoding client frames and decoding the frames the
+ * server sends, one per WebSocket message.
+ *
+ * @param command the frame's command, e.g. {@code MESSAGE}
+ * @param headers the headers in the order they appeared, unescaped; the first occurrence wins
+ * @param body the body without its trailing NUL
+ */
+public record StompFrame(String command, Map<String, String> headers, String body) {
+
+  public String header(String name) {
+    return headers.get(name);
+  }
+
+  /**
+   * @param headers alternating header names and values
+   */
+  public static String encode(String command, String body, String... headers) {
+    StringBuilder frame = new StringBuilder(64 + body.length()).append(command).append('\n');
+    for (int i = 0; i < headers.length; i += 2) {
+      frame.append(headers[i]).append(':').append(command.equals("CONNECT") ? headers[i + 1] : escape(headers[i + 1]))
+          .append('\n');
+    }
+    return frame.append('\n').append(body).append('\0').toString();
+  }
+
+  /**
+   * @return the frame, or null for a heart-beat (a bare end of line)
+   * @throws IllegalArgumentException if the text is not a STOMP frame
+   */
+  public static StompFrame decode(String text) {
+    int start = 0;
+    while (start < text.length() && (text.charAt(start) == '\n' || text.charAt(start) == '\r')) {
+      start++;
+    }
+    if (start == text.length()) {
+      return null;
+    }
+    int headersEnd = text.indexOf("\n\n", start);
+    if (headersEnd < 0) {
+      throw new IllegalArgumentException("STOMP frame has no blank line after its headers");
+    }
+    String[] lines = text.substring(start, headersEnd).split("\n");
+    Map<String, String> headers = new LinkedHashMap<>();
+    for (int i = 1; i < lines.length; i++) {
+      String line = lines[i].endsWith("\r") ? lines[i].substring(0, lines[i].length() - 1) : lines[i];
+      int colon = line.indexOf(':');
+      if (colon > 0) {
+        headers.putIfAbsent(line.substring(0, colon), unescape(line.substring(colon + 1)));
+      }
+    }
+    int bodyEnd = text.indexOf('\0', headersEnd + 2);
+    String body = text.substring(headersEnd + 2, bodyEnd < 0 ? text.length() : bodyEnd);
+    return new StompFrame(lines[0].trim(), headers, body);
+  }
+
+  static String escape(String value) {
+    return value.replace("\\", "\\\\").replace(":", "\\c").replace("\n", "\\n").replace("\r", "\\r");
+  }
+
+  static String unescape(String value) {
+    if (value.indexOf('\\') < 0) {
+      return value;
+    }
+    StringBuilder unescaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char next = value.charAt(++i);
+        unescaped.append(switch (next) {
+          case 'c' -> ':';
+          case 'n' -> '\n';
+          case 'r' -> '\r';
+          default -> next;
+        });
+      } else {
+        unescaped.append(c);
+      }
+    }
+    return unescaped.toString();
+  }
+}
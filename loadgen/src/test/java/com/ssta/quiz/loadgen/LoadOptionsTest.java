@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadOptionsTest {
+
+  @Test
+  void parse_shouldDefaultToLocalBackendSettings() {
+    LoadOptions options = LoadOptions.parse();
+
+    assertFalse(options.local());
+    assertEquals("http://localhost:8080", options.baseUrl());
+    assertEquals("jdbc:postgresql://localhost:5432/QUIZPOC", options.jdbcUrl());
+    assertEquals(1000, options.players());
+    assertEquals(Path.of("build/loadgen-report.json"), options.report());
+  }
+
+  @Test
+  void parse_shouldReadNameValueArgumentsAndBareFlags() {
+    LoadOptions options = LoadOptions.parse("--local", "--players=20000", "--base-url=http://quiz:9000/",
+        "--response-time=fixed:1500", "--answer-rate=0.5");
+
+    assertTrue(options.local());
+    assertEquals(20000, options.players());
+    assertEquals("http://quiz:9000", options.baseUrl());
+    assertEquals(new ResponseTimeDistribution.Fixed(1500), options.responseTime());
+    assertEquals(0.5, options.answerRate());
+  }
+
+  @Test
+  void parse_shouldRejectUnknownAndInvalidOptions() {
+    assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--playerz=10"));
+    assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("players=10"));
+    assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--players=0"));
+    assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--players=many"));
+    assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--answer-rate=1.5"));
+  }
+
+  @Test
+  void webSocketUrl_shouldUseRawEndpointOfSockJsMapping() {
+    assertEquals("ws://localhost:8080/ws/websocket", LoadOptions.parse().webSocketUrl());
+    assertEquals("wss://quiz.example/ws/websocket",
+        LoadOptions.parse("--base-url=https://quiz.example").webSocketUrl());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseTimeDistributionTest {
+
+  private static final int SAMPLES = 20_000;
+
+  private static long[] sample(String spec) {
+    ResponseTimeDistribution distribution = ResponseTimeDistribution.parse(spec);
+    SplittableRandom random = new SplittableRandom(42);
+    long[] samples = new long[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) {
+      samples[i] = distribution.sampleMs(random);
+    }
+    Arrays.sort(samples);
+    return samples;
+  }
+
+  private static double mean(long[] samples) {
+    return Arrays.stream(samples).average().orElseThrow();
+  }
+
+  @Test
+  void parse_shouldReadEachKind() {
+    assertEquals(new ResponseTimeDistribution.Fixed(2000), ResponseTimeDistribution.parse("fixed:2000"));
+    assertEquals(new ResponseTimeDistribution.Uniform(500, 8000), ResponseTimeDistribution.parse("uniform:500:8000"));
+    assertEquals(new ResponseTimeDistribution.Normal(4000, 1500), ResponseTimeDistribution.parse("normal:4000:1500"));
+    assertEquals(new ResponseTimeDistribution.LogNormal(4000, 0.6), ResponseTimeDistribution.parse(" lognormal:4000:0.6 "));
+    assertEquals(new ResponseTimeDistribution.Exponential(3000), ResponseTimeDistribution.parse("exponential:3000"));
+  }
+
+  @Test
+  void parse_shouldRejectUnknownOrMalformedSpecs() {
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeDistribution.parse("gamma:2:3"));
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeDistribution.parse("fixed"));
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeDistribution.parse("uniform:500"));
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeDistribution.parse("normal:fast:1"));
+    assertThrows(IllegalArgumentException.class, () -> ResponseTimeDistribution.parse("uniform:9000:500"));
+  }
+
+  @Test
+  void uniform_shouldStayWithinBounds() {
+    long[] samples = sample("uniform:500:8000");
+
+    assertTrue(samples[0] >= 500);
+    assertTrue(samples[SAMPLES - 1] <= 8000);
+    assertEquals(4250, mean(samples), 100);
+  }
+
+  @Test
+  void normal_shouldMatchMeanAndNeverGoNegative() {
+    long[] samples = sample("normal:1000:800");
+
+    assertTrue(samples[0] >= 0);
+    // Clamping the lower tail at zero lifts the mean a little above 1000
+    assertEquals(1050, mean(samples), 60);
+  }
+
+  @Test
+  void logNormal_shouldHaveItsMedian() {
+    long[] samples = sample("lognormal:4000:0.6");
+
+    assertEquals(4000, samples[SAMPLES / 2], 150);
+    assertTrue(samples[0] >= 0);
+  }
+
+  @Test
+  void exponential_shouldHaveItsMean() {
+    long[] samples = sample("exponential:3000");
+
+    assertEquals(3000, mean(samples), 100);
+    assertTrue(samples[0] >= 0);
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025. Stephen Stafford <clothcat@gmail.com>
+ *
+ * This code is licensed under the MIT license.  Please see LICENSE.md for details.
+ */
+
+package com.ssta.quiz.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StompFrameTest {
+
+  @Test
+  void encode_shouldWriteCommandHeadersBlankLineBodyAndNul() {
+    String frame = StompFrame.encode("SEND", "{}", "destination", "/app/time/pong", "seq", "3");
+
+    assertEquals("SEND\ndestination:/app/time/pong\nseq:3\n\n{}\0", frame);
+  }
+
+  @Test
+  void encode_shouldEscapeHeaderValuesExceptOnConnect() {
+    assertEquals("SUBSCRIBE\nid:a\\cb\n\n\0", StompFrame.encode("SUBSCRIBE", "", "id", "a:b"));
+    assertEquals("CONNECT\nhost:a:b\n\n\0", StompFrame.encode("CONNECT", "", "host", "a:b"));
+  }
+
+  @Test
+  void decode_shouldReadServerMessage() {
+    String text = "MESSAGE\r\ndestination:/topic/quiz/42/question\r\nsubscription:question\r\n"
+        + "message-id:b\\c1\r\ndestination:ignored\r\n\n{\"questionId\":11}\0";
+
+    StompFrame frame = StompFrame.decode(text);
+
+    assertEquals("MESSAGE", frame.command());
+    assertEquals("/topic/quiz/42/question", frame.header("destination"));
+    assertEquals("question", frame.header("subscription"));
+    assertEquals("b:1", frame.header("message-id"));
+    assertEquals("{\"questionId\":11}", frame.body());
+  }
+
+  @Test
+  void decode_shouldReturnNullForHeartbeat() {
+    assertNull(StompFrame.decode("\n"));
+    assertNull(StompFrame.decode("\r\n"));
+  }
+
+  @Test
+  void decode_shouldRejectFrameWithoutBlankLine() {
+    assertThrows(IllegalArgumentException.class, () -> StompFrame.decode("MESSAGE\ndestination:/x"));
+  }
+
+  @Test
+  void decode_shouldReverseEncode() {
+    StompFrame frame = StompFrame.decode(StompFrame.encode("SEND", "body", "seq", "7", "note", "x\\y:z\nw"));
+
+    assertEquals("SEND", frame.command());
+    assertEquals("7", frame.header("seq"));
+    assertEquals("x\\y:z\nw", frame.header("note"));
+    assertEquals("body", frame.body());
+  }
+}